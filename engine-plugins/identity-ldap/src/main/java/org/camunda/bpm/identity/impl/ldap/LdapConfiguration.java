@@ -66,6 +66,20 @@ public class LdapConfiguration {
 
   protected boolean authorizationCheckEnabled = true;
 
+  /**
+   * If true, the connections of the manager DN are pooled by the LDAP provider.
+   * Connections which authenticate users are never pooled.
+   */
+  protected boolean connectionPoolingEnabled = false;
+
+  /**
+   * If true, the results of user, group and membership searches are cached
+   * for {@link #cacheTimeToLive} milliseconds.
+   */
+  protected boolean cacheEnabled = false;
+  protected int cacheMaxSize = 1000;
+  protected long cacheTimeToLive = 60000;
+
   // getters / setters //////////////////////////////////////
 
   public String getInitialContextFactory() {
@@ -283,4 +297,37 @@ public class LdapConfiguration {
     this.authorizationCheckEnabled = authorizationCheckEnabled;
   }
 
+
+  public boolean isConnectionPoolingEnabled() {
+    return connectionPoolingEnabled;
+  }
+
+  public void setConnectionPoolingEnabled(boolean connectionPoolingEnabled) {
+    this.connectionPoolingEnabled = connectionPoolingEnabled;
+  }
+
+  public boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  public void setCacheEnabled(boolean cacheEnabled) {
+    this.cacheEnabled = cacheEnabled;
+  }
+
+  public int getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  public void setCacheMaxSize(int cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
+  public long getCacheTimeToLive() {
+    return cacheTimeToLive;
+  }
+
+  public void setCacheTimeToLive(long cacheTimeToLive) {
+    this.cacheTimeToLive = cacheTimeToLive;
+  }
+
 }
@@ -26,13 +26,14 @@ import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 public class LdapIdentityProviderFactory implements SessionFactory {
 
   protected LdapConfiguration ldapConfiguration;
-  
+  protected LdapSearchCache searchCache;
+
   public Class<?> getSessionType() {
     return ReadOnlyIdentityProvider.class;
   }
 
   public Session openSession() {
-    return new LdapIdentityProviderSession(ldapConfiguration);
+    return new LdapIdentityProviderSession(ldapConfiguration, searchCache);
   }
   
   public LdapConfiguration getLdapConfiguration() {
@@ -43,4 +44,12 @@ public class LdapIdentityProviderFactory implements SessionFactory {
     this.ldapConfiguration = ldapConfiguration;
   }
 
+  public LdapSearchCache getSearchCache() {
+    return searchCache;
+  }
+
+  public void setSearchCache(LdapSearchCache searchCache) {
+    this.searchCache = searchCache;
+  }
+
 }
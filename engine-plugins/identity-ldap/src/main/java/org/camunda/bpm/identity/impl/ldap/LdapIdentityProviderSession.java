@@ -21,6 +21,7 @@ import static org.camunda.bpm.engine.authorization.Resources.USER;
 
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,7 @@ import org.camunda.bpm.engine.impl.AbstractQuery;
 import org.camunda.bpm.engine.impl.QueryOrderingProperty;
 import org.camunda.bpm.engine.impl.UserQueryImpl;
 import org.camunda.bpm.engine.impl.UserQueryProperty;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.identity.IdentityProviderException;
 import org.camunda.bpm.engine.impl.identity.ReadOnlyIdentityProvider;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -70,10 +72,21 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
   private final static Logger LOG = Logger.getLogger(LdapIdentityProviderSession.class.getName());
 
   protected LdapConfiguration ldapConfiguration;
+  protected LdapSearchCache searchCache;
   protected LdapContext initialContext;
 
+  /**
+   * Identifies the sort controls set on the context, as they are part of the search.
+   */
+  protected String requestControlsKey = "";
+
   public LdapIdentityProviderSession(LdapConfiguration ldapConfiguration) {
+    this(ldapConfiguration, null);
+  }
+
+  public LdapIdentityProviderSession(LdapConfiguration ldapConfiguration, LdapSearchCache searchCache) {
     this.ldapConfiguration = ldapConfiguration;
+    this.searchCache = searchCache;
   }
 
   // Session Lifecycle //////////////////////////////////
@@ -84,16 +97,26 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
   public void close() {
     if (initialContext != null) {
-      try {
-        initialContext.close();
-      } catch (Exception e) {
-        // ignore
-        LOG.log(Level.FINE, "exception while closing LDAP DIR CTX", e);
-      }
+      closeContext(initialContext);
+      initialContext = null;
+      requestControlsKey = "";
+    }
+  }
+
+  protected void closeContext(LdapContext context) {
+    try {
+      context.close();
+    } catch (Exception e) {
+      // ignore
+      LOG.log(Level.FINE, "exception while closing LDAP DIR CTX", e);
     }
   }
 
   protected InitialLdapContext openContext(String userDn, String password) {
+    return openContext(userDn, password, false);
+  }
+
+  protected InitialLdapContext openContext(String userDn, String password, boolean pooled) {
     Hashtable<String, String> env = new Hashtable<String, String>();
     env.put(Context.INITIAL_CONTEXT_FACTORY, ldapConfiguration.getInitialContextFactory());
     env.put(Context.SECURITY_AUTHENTICATION, ldapConfiguration.getSecurityAuthentication());
@@ -110,6 +133,10 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
       env.put(Context.SECURITY_PROTOCOL, "ssl");
     }
 
+    if(pooled) {
+      env.put("com.sun.jndi.ldap.connect.pool", "true");
+    }
+
     // add additional properties
     Map<String, String> contextProperties = ldapConfiguration.getContextProperties();
     if(contextProperties != null) {
@@ -130,7 +157,8 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
   protected void ensureContextInitialized() {
     if(initialContext == null) {
-      initialContext = openContext(ldapConfiguration.getManagerDn(), ldapConfiguration.getManagerPassword());
+      initialContext = openContext(ldapConfiguration.getManagerDn(), ldapConfiguration.getManagerPassword(),
+          ldapConfiguration.isConnectionPoolingEnabled());
     }
   }
 
@@ -179,7 +207,7 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
     NamingEnumeration<SearchResult> enumeration = null;
     try {
-      enumeration = initialContext.search(baseDn, groupSearchFilter, ldapConfiguration.getSearchControls());
+      enumeration = search(baseDn, groupSearchFilter);
 
       List<String> groupMemberList = new ArrayList<String>();
 
@@ -239,7 +267,7 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
     try {
 
       String filter = getUserSearchFilter(query);
-      enumeration = initialContext.search(userBaseDn, filter, ldapConfiguration.getSearchControls());
+      enumeration = search(userBaseDn, filter);
 
       // perform client-side paging
       int resultCount = 0;
@@ -306,7 +334,8 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
       try {
         // bind authenticate for user + supplied password
-        openContext(user.getDn(), password);
+        LdapContext userContext = openContext(user.getDn(), password);
+        closeContext(userContext);
         return true;
 
       } catch(LdapAuthenticationException e) {
@@ -396,7 +425,7 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
     try {
 
       String filter = getGroupSearchFilter(query);
-      enumeration = initialContext.search(groupBaseDn, filter, ldapConfiguration.getSearchControls());
+      enumeration = search(groupBaseDn, filter);
 
       // perform client-side paging
       int resultCount = 0;
@@ -474,6 +503,47 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
   // Utils ////////////////////////////////////////////
 
+  /**
+   * Searches the directory or returns the cached results of the same search.
+   */
+  protected NamingEnumeration<SearchResult> search(String baseDn, String filter) throws NamingException {
+    if(searchCache == null) {
+      return initialContext.search(baseDn, filter, ldapConfiguration.getSearchControls());
+    }
+
+    String key = baseDn + "\n" + filter + "\n" + requestControlsKey;
+
+    List<SearchResult> results = searchCache.get(key);
+    if(results != null) {
+      markCacheOccurrence(LdapSearchCache.METRIC_CACHE_HITS);
+
+    } else {
+      markCacheOccurrence(LdapSearchCache.METRIC_CACHE_MISSES);
+
+      results = new ArrayList<SearchResult>();
+      NamingEnumeration<SearchResult> enumeration = initialContext.search(baseDn, filter, ldapConfiguration.getSearchControls());
+      try {
+        while (enumeration.hasMoreElements()) {
+          results.add(enumeration.nextElement());
+        }
+      } finally {
+        enumeration.close();
+      }
+
+      results = Collections.unmodifiableList(results);
+      searchCache.put(key, results);
+    }
+
+    return new LdapSearchCache.CachedSearchResults(results);
+  }
+
+  protected void markCacheOccurrence(String metric) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = org.camunda.bpm.engine.impl.context.Context.getProcessEngineConfiguration();
+    if(processEngineConfiguration != null && processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration.getMetricsRegistry().markOccurrence(metric);
+    }
+  }
+
   protected String getDnForUser(String userId) {
     LdapUserEntity user = (LdapUserEntity) createUserQuery(org.camunda.bpm.engine.impl.context.Context.getCommandContext())
       .userId(userId)
@@ -538,6 +608,7 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
     try {
       List<Control> controls = new ArrayList<Control>();
+      StringWriter controlsKey = new StringWriter();
 
       List<QueryOrderingProperty> orderBy = query.getOrderingProperties();
       if(orderBy != null) {
@@ -545,20 +616,25 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
           String propertyName = orderingProperty.getQueryProperty().getName();
           if(UserQueryProperty.USER_ID.getName().equals(propertyName)) {
             controls.add(new SortControl(ldapConfiguration.getUserIdAttribute(), Control.CRITICAL));
+            controlsKey.write(ldapConfiguration.getUserIdAttribute() + ";");
 
           } else if(UserQueryProperty.EMAIL.getName().equals(propertyName)) {
             controls.add(new SortControl(ldapConfiguration.getUserEmailAttribute(), Control.CRITICAL));
+            controlsKey.write(ldapConfiguration.getUserEmailAttribute() + ";");
 
           } else if(UserQueryProperty.FIRST_NAME.getName().equals(propertyName)) {
             controls.add(new SortControl(ldapConfiguration.getUserFirstnameAttribute(), Control.CRITICAL));
+            controlsKey.write(ldapConfiguration.getUserFirstnameAttribute() + ";");
 
           } else if(UserQueryProperty.LAST_NAME.getName().equals(propertyName)) {
             controls.add(new SortControl(ldapConfiguration.getUserLastnameAttribute(), Control.CRITICAL));
+            controlsKey.write(ldapConfiguration.getUserLastnameAttribute() + ";");
           }
         }
       }
 
       initialContext.setRequestControls(controls.toArray(new Control[0]));
+      requestControlsKey = controlsKey.toString();
 
     } catch (Exception e) {
       throw new IdentityProviderException("Exception while setting paging settings", e);
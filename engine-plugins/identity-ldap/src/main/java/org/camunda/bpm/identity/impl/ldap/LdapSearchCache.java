@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.identity.impl.ldap;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.SearchResult;
+
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Bounded cache for the results of LDAP searches, shared by all sessions of an
+ * {@link LdapIdentityProviderFactory}.</p>
+ *
+ * <p>The cache holds the search results as returned by the directory, i.e. before
+ * authorization checks and paging are applied. Entries expire after the configured
+ * time to live; if the cache is full, the least recently used entry is evicted.</p>
+ */
+public class LdapSearchCache {
+
+  /**
+   * Number of LDAP searches answered from the cache.
+   */
+  public static final String METRIC_CACHE_HITS = "ldap-cache-hits";
+
+  /**
+   * Number of LDAP searches which were not cached and sent to the directory.
+   */
+  public static final String METRIC_CACHE_MISSES = "ldap-cache-misses";
+
+  protected final int maxSize;
+  protected final long timeToLive;
+
+  protected final Map<String, CacheEntry> entries;
+
+  public LdapSearchCache(final int maxSize, long timeToLive) {
+    this.maxSize = maxSize;
+    this.timeToLive = timeToLive;
+
+    this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return the cached results of the search or null if they are not cached or expired
+   */
+  public synchronized List<SearchResult> get(String key) {
+    CacheEntry entry = entries.get(key);
+
+    if (entry == null) {
+      return null;
+    }
+    else if (entry.expirationTime <= ClockUtil.getCurrentTime().getTime()) {
+      entries.remove(key);
+      return null;
+    }
+    else {
+      return entry.results;
+    }
+  }
+
+  public synchronized void put(String key, List<SearchResult> results) {
+    long expirationTime = ClockUtil.getCurrentTime().getTime() + timeToLive;
+    entries.put(key, new CacheEntry(results, expirationTime));
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  protected static class CacheEntry {
+
+    protected final List<SearchResult> results;
+    protected final long expirationTime;
+
+    public CacheEntry(List<SearchResult> results, long expirationTime) {
+      this.results = results;
+      this.expirationTime = expirationTime;
+    }
+  }
+
+  /**
+   * Enumerates cached search results like the results of a search on the directory.
+   */
+  public static class CachedSearchResults implements NamingEnumeration<SearchResult> {
+
+    protected Iterator<SearchResult> iterator;
+
+    public CachedSearchResults(List<SearchResult> results) {
+      this.iterator = results.iterator();
+    }
+
+    public SearchResult next() {
+      return iterator.next();
+    }
+
+    public boolean hasMore() {
+      return iterator.hasNext();
+    }
+
+    public void close() {
+      // nothing to do
+    }
+
+    public boolean hasMoreElements() {
+      return iterator.hasNext();
+    }
+
+    public SearchResult nextElement() {
+      return iterator.next();
+    }
+  }
+
+}
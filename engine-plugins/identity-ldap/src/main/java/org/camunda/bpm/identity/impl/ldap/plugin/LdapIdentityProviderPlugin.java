@@ -21,8 +21,10 @@ import java.util.logging.Logger;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.ProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.identity.impl.ldap.LdapConfiguration;
 import org.camunda.bpm.identity.impl.ldap.LdapIdentityProviderFactory;
+import org.camunda.bpm.identity.impl.ldap.LdapSearchCache;
 import org.camunda.bpm.identity.impl.ldap.util.CertificateHelper;
 
 /**
@@ -52,12 +54,19 @@ public class LdapIdentityProviderPlugin extends LdapConfiguration implements Pro
     
     LdapIdentityProviderFactory ldapIdentityProviderFactory = new LdapIdentityProviderFactory();
     ldapIdentityProviderFactory.setLdapConfiguration(this);
+    if(cacheEnabled) {
+      ldapIdentityProviderFactory.setSearchCache(new LdapSearchCache(cacheMaxSize, cacheTimeToLive));
+    }
     processEngineConfiguration.setIdentityProviderSessionFactory(ldapIdentityProviderFactory);
     
   }
 
   public void postInit(ProcessEngineConfigurationImpl processEngineConfiguration) {
-    // nothing to do    
+    if(cacheEnabled && processEngineConfiguration.isMetricsEnabled()) {
+      MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+      metricsRegistry.createMeter(LdapSearchCache.METRIC_CACHE_HITS);
+      metricsRegistry.createMeter(LdapSearchCache.METRIC_CACHE_MISSES);
+    }
   }
   
   public void postProcessEngineBuild(ProcessEngine processEngine) {
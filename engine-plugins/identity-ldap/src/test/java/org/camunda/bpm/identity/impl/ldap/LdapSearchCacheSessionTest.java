@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.identity.impl.ldap;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Represents a test case where the search results of the LDAP plugin are cached.
+ */
+public class LdapSearchCacheSessionTest extends ResourceProcessEngineTestCase {
+
+  public LdapSearchCacheSessionTest() {
+    super("camunda.ldap.cache.cfg.xml");
+  }
+
+  protected static LdapTestEnvironment ldapTestEnvironment;
+
+  protected LdapSearchCache searchCache;
+
+  @Override
+  protected void setUp() throws Exception {
+    if(ldapTestEnvironment == null) {
+      ldapTestEnvironment = new LdapTestEnvironment();
+      ldapTestEnvironment.init();
+    }
+    super.setUp();
+
+    searchCache = ((LdapIdentityProviderFactory) processEngineConfiguration.getIdentityProviderSessionFactory()).getSearchCache();
+    searchCache.clear();
+    clearMeters();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    ClockUtil.reset();
+    if(ldapTestEnvironment != null) {
+      ldapTestEnvironment.shutdown();
+      ldapTestEnvironment = null;
+    }
+    super.tearDown();
+  }
+
+  public void testCacheMissSearchesDirectory() {
+    User user = identityService.createUserQuery().userId("oscar").singleResult();
+
+    assertNotNull(user);
+    assertEquals("oscar", user.getId());
+    assertEquals(1, searchCache.size());
+    assertEquals(0, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(1, getMeterValue(LdapSearchCache.METRIC_CACHE_MISSES));
+  }
+
+  public void testCacheHitReturnsCachedResults() {
+    User user = identityService.createUserQuery().userId("oscar").singleResult();
+
+    User cachedUser = identityService.createUserQuery().userId("oscar").singleResult();
+
+    assertNotNull(cachedUser);
+    assertEquals(user.getId(), cachedUser.getId());
+    assertEquals(user.getFirstName(), cachedUser.getFirstName());
+    assertEquals(user.getLastName(), cachedUser.getLastName());
+    assertEquals(user.getEmail(), cachedUser.getEmail());
+    assertEquals(1, searchCache.size());
+    assertEquals(1, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(1, getMeterValue(LdapSearchCache.METRIC_CACHE_MISSES));
+  }
+
+  public void testCacheHitForGroupQuery() {
+    List<Group> groups = identityService.createGroupQuery().list();
+
+    List<Group> cachedGroups = identityService.createGroupQuery().list();
+
+    assertFalse(groups.isEmpty());
+    assertEquals(groups.size(), cachedGroups.size());
+    assertEquals(1, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(1, getMeterValue(LdapSearchCache.METRIC_CACHE_MISSES));
+  }
+
+  public void testCacheMissForDifferentFilter() {
+    identityService.createUserQuery().userId("oscar").singleResult();
+
+    identityService.createUserQuery().userId("monster").singleResult();
+
+    assertEquals(2, searchCache.size());
+    assertEquals(0, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(2, getMeterValue(LdapSearchCache.METRIC_CACHE_MISSES));
+  }
+
+  public void testSortControlsArePartOfCacheKey() {
+    // queries which only differ in their sort controls
+    List<User> unorderedUsers = identityService.createUserQuery().list();
+    List<User> usersOrderedByLastName = identityService.createUserQuery().orderByUserLastName().asc().list();
+    List<User> usersOrderedByFirstName = identityService.createUserQuery().orderByUserFirstName().asc().list();
+
+    // are cached separately
+    assertEquals(3, searchCache.size());
+    assertEquals(0, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(3, getMeterValue(LdapSearchCache.METRIC_CACHE_MISSES));
+    assertEquals(unorderedUsers.size(), usersOrderedByLastName.size());
+    assertEquals(unorderedUsers.size(), usersOrderedByFirstName.size());
+
+    // and a query with the same sort controls hits its own entry
+    List<User> cachedUsers = identityService.createUserQuery().orderByUserLastName().asc().list();
+
+    assertEquals(1, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(usersOrderedByLastName.size(), cachedUsers.size());
+    for (int i = 0; i < cachedUsers.size(); i++) {
+      assertEquals(usersOrderedByLastName.get(i).getId(), cachedUsers.get(i).getId());
+    }
+  }
+
+  public void testExpiredEntryIsSearchedAgain() {
+    identityService.createUserQuery().userId("oscar").singleResult();
+
+    // the default time to live has elapsed
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 60001));
+    identityService.createUserQuery().userId("oscar").singleResult();
+
+    assertEquals(0, getMeterValue(LdapSearchCache.METRIC_CACHE_HITS));
+    assertEquals(2, getMeterValue(LdapSearchCache.METRIC_CACHE_MISSES));
+  }
+
+  protected long getMeterValue(String name) {
+    return processEngineConfiguration.getMetricsRegistry().getMeterByName(name).get();
+  }
+
+  protected void clearMeters() {
+    processEngineConfiguration.getMetricsRegistry().getMeterByName(LdapSearchCache.METRIC_CACHE_HITS).getAndClear();
+    processEngineConfiguration.getMetricsRegistry().getMeterByName(LdapSearchCache.METRIC_CACHE_MISSES).getAndClear();
+  }
+
+}
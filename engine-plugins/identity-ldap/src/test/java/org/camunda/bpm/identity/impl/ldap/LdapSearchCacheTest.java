@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.identity.impl.ldap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchResult;
+
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.junit.After;
+import org.junit.Test;
+
+public class LdapSearchCacheTest {
+
+  @After
+  public void resetClock() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldExpireEntries() {
+    ClockUtil.setCurrentTime(new Date(1000));
+    LdapSearchCache cache = new LdapSearchCache(10, 500);
+    List<SearchResult> results = createResults("uid=kermit");
+
+    cache.put("kermit", results);
+
+    ClockUtil.setCurrentTime(new Date(1499));
+    assertSame(results, cache.get("kermit"));
+
+    ClockUtil.setCurrentTime(new Date(1500));
+    assertNull(cache.get("kermit"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedEntry() {
+    LdapSearchCache cache = new LdapSearchCache(2, 60000);
+
+    cache.put("kermit", createResults("uid=kermit"));
+    cache.put("fozzie", createResults("uid=fozzie"));
+
+    // when kermit is used and another entry is added
+    cache.get("kermit");
+    cache.put("gonzo", createResults("uid=gonzo"));
+
+    // then fozzie is evicted
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("kermit"));
+    assertNull(cache.get("fozzie"));
+    assertNotNull(cache.get("gonzo"));
+  }
+
+  @Test
+  public void shouldEnumerateCachedResults() {
+    List<SearchResult> results = createResults("uid=kermit");
+
+    LdapSearchCache.CachedSearchResults enumeration = new LdapSearchCache.CachedSearchResults(results);
+
+    assertTrue(enumeration.hasMoreElements());
+    assertEquals("uid=kermit", enumeration.nextElement().getName());
+    assertFalse(enumeration.hasMoreElements());
+  }
+
+  protected List<SearchResult> createResults(String name) {
+    return Collections.singletonList(new SearchResult(name, null, new BasicAttributes()));
+  }
+
+}
@@ -35,6 +35,9 @@ public class FetchAndLockContextListener implements ServletContextListener {
   public void contextInitialized(ServletContextEvent sce) {
     if (fetchAndLockHandler == null) {
       fetchAndLockHandler = lookupFetchAndLockHandler();
+      if (sce != null && fetchAndLockHandler instanceof FetchAndLockHandlerImpl) {
+        ((FetchAndLockHandlerImpl) fetchAndLockHandler).contextInitialized(sce);
+      }
       fetchAndLockHandler.start();
     }
   }
@@ -16,27 +16,46 @@
 package org.camunda.bpm.engine.rest.impl;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.servlet.ServletContextEvent;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Response.Status;
 
 import org.camunda.bpm.engine.IdentityService;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.identity.Authentication;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.impl.util.SingleConsumerCondition;
+import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto.FetchExternalTaskTopicDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
+import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.spi.FetchAndLockHandler;
 import org.camunda.bpm.engine.rest.util.EngineUtil;
 
@@ -48,21 +67,49 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
 
   private final static Logger LOG = Logger.getLogger(FetchAndLockHandlerImpl.class.getName());
 
+  public static final String QUEUE_CAPACITY_PARAM_NAME = "org.camunda.bpm.engine.rest.fetchAndLock.queueCapacity";
+  public static final String HANDLER_PARALLELISM_PARAM_NAME = "org.camunda.bpm.engine.rest.fetchAndLock.handlerParallelism";
+  public static final String CHANGE_POLL_INTERVAL_PARAM_NAME = "org.camunda.bpm.engine.rest.fetchAndLock.changePollInterval";
+
+  protected static final int DEFAULT_QUEUE_CAPACITY = 200;
+  protected static final int DEFAULT_HANDLER_PARALLELISM = 1;
+  protected static final long DEFAULT_CHANGE_POLL_INTERVAL = 5 * 1000;
   protected static final long PENDING_REQUEST_FETCH_INTERVAL = 30 * 1000;
   protected static final long MAX_BACK_OFF_TIME = Long.MAX_VALUE;
   protected static final long MAX_REQUEST_TIMEOUT = 1800000; // 30 minutes
 
   protected SingleConsumerCondition condition;
 
-  protected BlockingQueue<FetchAndLockRequest> queue = new ArrayBlockingQueue<FetchAndLockRequest>(200);
+  // set whenever the condition is signaled, i.e. a task was created or unlocked on this node
+  // or a new request was queued; the pending requests are fetched again in this case
+  protected AtomicBoolean fetchSignaled = new AtomicBoolean(false);
+
+  protected int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+  protected int handlerParallelism = DEFAULT_HANDLER_PARALLELISM;
+  protected long changePollInterval = DEFAULT_CHANGE_POLL_INTERVAL;
+
+  protected BlockingQueue<FetchAndLockRequest> queue = new ArrayBlockingQueue<FetchAndLockRequest>(queueCapacity);
   protected List<FetchAndLockRequest> pendingRequests = new ArrayList<FetchAndLockRequest>();
 
+  // last observed number of fetchable external tasks per process engine
+  protected Map<String, Long> changeWatermarks = new HashMap<String, Long>();
+
+  // time of the last fetch of the pending requests
+  protected long lastFetchTime = 0;
+
   protected Thread handlerThread = new Thread(this, this.getClass().getSimpleName());
+  protected ExecutorService executorService;
 
   protected volatile boolean isRunning = false;
 
   public FetchAndLockHandlerImpl() {
-    this.condition = new SingleConsumerCondition(handlerThread);
+    this.condition = new SingleConsumerCondition(handlerThread) {
+      @Override
+      public void signal() {
+        fetchSignaled.set(true);
+        super.signal();
+      }
+    };
   }
 
   @Override
@@ -77,6 +124,10 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     }
 
     rejectPendingRequests();
+
+    if (executorService != null) {
+      executorService.shutdownNow();
+    }
   }
 
   protected void acquire() {
@@ -86,12 +137,216 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
 
     LOG.log(Level.FINEST, "Number of pending requests {0}", pendingRequests.size());
 
-    long backoffTime = MAX_BACK_OFF_TIME; //timestamp
+    if (isFetchRequired()) {
+      lastFetchTime = ClockUtil.getCurrentTime().getTime();
+      List<FetchAndLockRequest> remainingRequests = fetchAndLockPendingRequests();
+      pendingRequests.clear();
+      pendingRequests.addAll(remainingRequests);
+    }
+
+    final long waitTime = Math.max(0, getBackoffTime());
+
+    if (pendingRequests.isEmpty()) {
+      suspend(waitTime);
+    }
+    else {
+      // if there are pending requests, poll the change watermark periodically to ensure tasks
+      // created on other cluster nodes and tasks with expired locks are fetched in a timely manner
+      suspend(Math.min(changePollInterval, waitTime));
+    }
+  }
+
+  /**
+   * The pending requests are only fetched again if something has changed since the last
+   * fetch: a signal on this node, an expired request or a moved change watermark, which
+   * covers most tasks created or unlocked on other cluster nodes. As the watermark is a
+   * count, it does not move if as many tasks were created as were locked or completed
+   * in the meantime, so the pending requests are also fetched periodically.
+   */
+  protected boolean isFetchRequired() {
+    boolean signaled = fetchSignaled.getAndSet(false);
+
+    if (pendingRequests.isEmpty()) {
+      changeWatermarks.clear();
+      return false;
+    }
+
+    if (signaled || hasExpiredRequests() || isFetchIntervalElapsed()) {
+      return true;
+    }
+
+    return hasChangeWatermarkMoved();
+  }
+
+  protected boolean isFetchIntervalElapsed() {
+    long currentTime = ClockUtil.getCurrentTime().getTime();
+    return currentTime - lastFetchTime >= PENDING_REQUEST_FETCH_INTERVAL;
+  }
+
+  protected boolean hasExpiredRequests() {
+    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+      if (isExpired(pendingRequest)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  protected boolean hasChangeWatermarkMoved() {
+    boolean moved = false;
+
+    Set<String> processEngineNames = new HashSet<String>();
+    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+      String processEngineName = pendingRequest.getProcessEngineName();
+      if (processEngineNames.add(processEngineName)) {
+        Long watermark = fetchChangeWatermark(pendingRequest);
+        Long previousWatermark = changeWatermarks.put(processEngineName, watermark);
+
+        LOG.log(Level.FINEST, "Change watermark of process engine {0}: {1}", new Object[] { processEngineName, watermark });
+
+        if (watermark == null || !watermark.equals(previousWatermark)) {
+          moved = true;
+        }
+      }
+    }
+
+    return moved;
+  }
+
+  /**
+   * @return the number of external tasks which can currently be fetched from the process
+   * engine of the given request or <code>null</code> if the number cannot be determined
+   */
+  protected Long fetchChangeWatermark(FetchAndLockRequest request) {
+    try {
+      ProcessEngine processEngine = getProcessEngine(request);
+      ExternalTaskQuery query = processEngine.getExternalTaskService()
+        .createExternalTaskQuery()
+        .notLocked()
+        .active();
+      return query.count();
+    }
+    catch (Throwable e) {
+      LOG.log(Level.FINEST, "Cannot determine change watermark", e);
+      return null;
+    }
+  }
+
+  protected List<FetchAndLockRequest> fetchAndLockPendingRequests() {
+    Collection<List<FetchAndLockRequest>> requestGroups = groupPendingRequests();
+
+    LOG.log(Level.FINEST, "Number of request groups {0}", requestGroups.size());
+
+    List<FetchAndLockRequest> remainingRequests = new ArrayList<FetchAndLockRequest>();
+
+    if (executorService == null || requestGroups.size() == 1) {
+      for (List<FetchAndLockRequest> requestGroup : requestGroups) {
+        remainingRequests.addAll(fetchAndLock(requestGroup));
+      }
+    }
+    else {
+      Map<List<FetchAndLockRequest>, Future<List<FetchAndLockRequest>>> futures = new LinkedHashMap<List<FetchAndLockRequest>, Future<List<FetchAndLockRequest>>>();
+      for (final List<FetchAndLockRequest> requestGroup : requestGroups) {
+        futures.put(requestGroup, executorService.submit(new Callable<List<FetchAndLockRequest>>() {
+          public List<FetchAndLockRequest> call() {
+            return fetchAndLock(requestGroup);
+          }
+        }));
+      }
+
+      for (Map.Entry<List<FetchAndLockRequest>, Future<List<FetchAndLockRequest>>> future : futures.entrySet()) {
+        try {
+          remainingRequests.addAll(future.getValue().get());
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          // keep the requests to fetch them again or reject them on shutdown
+          remainingRequests.addAll(future.getKey());
+        }
+        catch (ExecutionException e) {
+          remainingRequests.addAll(future.getKey());
+        }
+      }
+    }
+
+    return remainingRequests;
+  }
 
-    Iterator<FetchAndLockRequest> iterator = pendingRequests.iterator();
-    while (iterator.hasNext()) {
+  /**
+   * Groups the pending requests which fetch the same external tasks, i.e. requests of the
+   * same process engine and authentication with the same topics and topic filters.
+   */
+  protected Collection<List<FetchAndLockRequest>> groupPendingRequests() {
+    Map<List<Object>, List<FetchAndLockRequest>> requestGroups = new LinkedHashMap<List<Object>, List<FetchAndLockRequest>>();
 
-      FetchAndLockRequest pendingRequest = iterator.next();
+    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+      List<Object> groupKey = getGroupKey(pendingRequest);
+
+      List<FetchAndLockRequest> requestGroup = requestGroups.get(groupKey);
+      if (requestGroup == null) {
+        requestGroup = new ArrayList<FetchAndLockRequest>();
+        requestGroups.put(groupKey, requestGroup);
+      }
+
+      requestGroup.add(pendingRequest);
+    }
+
+    return requestGroups.values();
+  }
+
+  protected List<Object> getGroupKey(FetchAndLockRequest request) {
+    Authentication authentication = request.getAuthentication();
+
+    Set<List<Object>> topicKeys = new HashSet<List<Object>>();
+    List<FetchExternalTaskTopicDto> topics = request.getDto().getTopics();
+    if (topics != null) {
+      for (FetchExternalTaskTopicDto topic : topics) {
+        topicKeys.add(Arrays.<Object>asList(
+          topic.getTopicName(),
+          topic.getBusinessKey(),
+          topic.getProcessDefinitionId(),
+          asList(topic.getProcessDefinitionIdIn()),
+          topic.getProcessDefinitionKey(),
+          asList(topic.getProcessDefinitionKeyIn()),
+          topic.getProcessVariables(),
+          topic.isWithoutTenantId(),
+          asList(topic.getTenantIdIn())));
+      }
+    }
+
+    return Arrays.<Object>asList(
+      request.getProcessEngineName(),
+      authentication != null ? authentication.getUserId() : null,
+      authentication != null ? authentication.getGroupIds() : null,
+      authentication != null ? authentication.getTenantIds() : null,
+      topicKeys);
+  }
+
+  /**
+   * Fetches the tasks for the given group of requests one request after another. As soon
+   * as a request receives less tasks than it asked for, there are no more tasks for the
+   * group and the remaining requests of the group are not fetched in this cycle.
+   *
+   * @return the requests which remain pending
+   */
+  protected List<FetchAndLockRequest> fetchAndLock(List<FetchAndLockRequest> requestGroup) {
+    List<FetchAndLockRequest> remainingRequests = new ArrayList<FetchAndLockRequest>();
+    boolean exhausted = false;
+
+    for (FetchAndLockRequest pendingRequest : requestGroup) {
+
+      if (exhausted) {
+        if (isExpired(pendingRequest)) {
+          pendingRequest.getAsyncResponse().resume(Collections.<LockedExternalTaskDto>emptyList());
+
+          LOG.log(Level.FINEST, "Resume and remove expired request {0}", pendingRequest);
+        }
+        else {
+          remainingRequests.add(pendingRequest);
+        }
+        continue;
+      }
 
       LOG.log(Level.FINEST, "Fetching tasks for request {0}", pendingRequest);
 
@@ -102,18 +357,16 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
       if (result.wasSuccessful()) {
 
         List<LockedExternalTaskDto> lockedTasks = result.getTasks();
+        exhausted = lockedTasks.size() < pendingRequest.getDto().getMaxTasks();
 
         if (!lockedTasks.isEmpty() || isExpired(pendingRequest)) {
           AsyncResponse asyncResponse = pendingRequest.getAsyncResponse();
           asyncResponse.resume(lockedTasks);
 
           LOG.log(Level.FINEST, "resume and remove request with {0}", lockedTasks);
-
-          iterator.remove();
         }
         else {
-          final long msUntilTimeout = pendingRequest.getTimeoutTimestamp() - ClockUtil.getCurrentTime().getTime();
-          backoffTime = Math.min(backoffTime, msUntilTimeout);
+          remainingRequests.add(pendingRequest);
         }
       }
       else {
@@ -122,23 +375,68 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
         asyncResponse.resume(processEngineException);
 
         LOG.log(Level.FINEST, "Resume and remove request with error {0}", processEngineException);
-
-        iterator.remove();
       }
     }
 
-    final long waitTime = Math.max(0, backoffTime);
+    return remainingRequests;
+  }
 
-    if (pendingRequests.isEmpty()) {
-      suspend(waitTime);
+  protected long getBackoffTime() {
+    long backoffTime = MAX_BACK_OFF_TIME; //timestamp
+
+    for (FetchAndLockRequest pendingRequest : pendingRequests) {
+      final long msUntilTimeout = pendingRequest.getTimeoutTimestamp() - ClockUtil.getCurrentTime().getTime();
+      backoffTime = Math.min(backoffTime, msUntilTimeout);
     }
-    else {
-      // if there are pending requests, try fetch periodically to ensure tasks created on other
-      // cluster nodes and tasks with expired timeouts can be fetched in a timely manner
-      suspend(Math.min(PENDING_REQUEST_FETCH_INTERVAL, waitTime));
+
+    return backoffTime;
+  }
+
+  protected static List<String> asList(String[] values) {
+    return values != null ? Arrays.asList(values) : null;
+  }
+
+  /**
+   * Reads the handler configuration from the context parameters of the engine rest
+   * web application; invoked before {@link #start()}.
+   */
+  public void contextInitialized(ServletContextEvent servletContextEvent) {
+    Integer queueCapacity = parseIntegerParam(servletContextEvent, QUEUE_CAPACITY_PARAM_NAME);
+    if (queueCapacity != null) {
+      setQueueCapacity(queueCapacity);
+    }
+
+    Integer handlerParallelism = parseIntegerParam(servletContextEvent, HANDLER_PARALLELISM_PARAM_NAME);
+    if (handlerParallelism != null) {
+      setHandlerParallelism(handlerParallelism);
+    }
+
+    Integer changePollInterval = parseIntegerParam(servletContextEvent, CHANGE_POLL_INTERVAL_PARAM_NAME);
+    if (changePollInterval != null) {
+      setChangePollInterval(changePollInterval);
     }
   }
 
+  protected Integer parseIntegerParam(ServletContextEvent servletContextEvent, String paramName) {
+    String value = servletContextEvent.getServletContext().getInitParameter(paramName);
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      int parsedValue = Integer.parseInt(value.trim());
+      if (parsedValue > 0) {
+        return parsedValue;
+      }
+    }
+    catch (NumberFormatException e) {
+      // fall through
+    }
+
+    throw new RestException(Status.INTERNAL_SERVER_ERROR,
+      "The context parameter " + paramName + " must be a positive integer but was '" + value + "'");
+  }
+
   @Override
   public void start() {
     if (isRunning) {
@@ -146,6 +444,11 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     }
 
     isRunning = true;
+
+    if (handlerParallelism > 1) {
+      executorService = createExecutorService();
+    }
+
     handlerThread.start();
 
     ProcessEngineImpl.EXT_TASK_CONDITIONS.addConsumer(condition);
@@ -162,6 +465,18 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
     }
   }
 
+  protected ExecutorService createExecutorService() {
+    final String threadNamePrefix = this.getClass().getSimpleName() + "-";
+    return Executors.newFixedThreadPool(handlerParallelism, new ThreadFactory() {
+      protected final AtomicInteger threadNumber = new AtomicInteger();
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
   protected void suspend(long millis) {
     if (millis <= 0) {
       return;
@@ -305,4 +620,37 @@ public class FetchAndLockHandlerImpl implements Runnable, FetchAndLockHandler {
   public List<FetchAndLockRequest> getPendingRequests() {
     return pendingRequests;
   }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /**
+   * Sets the maximum number of requests waiting to be picked up by the handler thread;
+   * must be set before the handler is started.
+   */
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+    this.queue = new ArrayBlockingQueue<FetchAndLockRequest>(queueCapacity);
+  }
+
+  public int getHandlerParallelism() {
+    return handlerParallelism;
+  }
+
+  /**
+   * Sets the number of threads fetching groups of pending requests concurrently;
+   * must be set before the handler is started.
+   */
+  public void setHandlerParallelism(int handlerParallelism) {
+    this.handlerParallelism = handlerParallelism;
+  }
+
+  public long getChangePollInterval() {
+    return changePollInterval;
+  }
+
+  public void setChangePollInterval(long changePollInterval) {
+    this.changePollInterval = changePollInterval;
+  }
 }
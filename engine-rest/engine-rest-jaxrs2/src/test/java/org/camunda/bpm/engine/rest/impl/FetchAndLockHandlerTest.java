@@ -19,11 +19,13 @@ import org.camunda.bpm.engine.ExternalTaskService;
 import org.camunda.bpm.engine.IdentityService;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksExtendedDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
+import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.hamcrest.collection.IsCollectionWithSize;
 import org.junit.After;
@@ -35,14 +37,18 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
 import javax.ws.rs.container.AsyncResponse;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyListOf;
@@ -75,6 +81,9 @@ public class FetchAndLockHandlerTest {
   @Mock
   protected ExternalTaskQueryTopicBuilder fetchTopicBuilder;
 
+  @Mock
+  protected ExternalTaskQuery externalTaskQuery;
+
   @Spy
   protected FetchAndLockHandlerImpl handler;
 
@@ -97,6 +106,11 @@ public class FetchAndLockHandlerTest {
     when(fetchTopicBuilder.enableCustomObjectDeserialization())
       .thenReturn(fetchTopicBuilder);
 
+    when(externalTaskService.createExternalTaskQuery()).thenReturn(externalTaskQuery);
+    when(externalTaskQuery.notLocked()).thenReturn(externalTaskQuery);
+    when(externalTaskQuery.active()).thenReturn(externalTaskQuery);
+    when(externalTaskQuery.count()).thenReturn(0L);
+
     doNothing().when(handler).suspend(anyLong());
     doReturn(processEngine).when(handler).getProcessEngine(any(FetchAndLockRequest.class));
 
@@ -300,7 +314,243 @@ public class FetchAndLockHandlerTest {
     handler.acquire();
 
     // then
-    verify(handler).suspend(FetchAndLockHandlerImpl.PENDING_REQUEST_FETCH_INTERVAL);
+    verify(handler).suspend(FetchAndLockHandlerImpl.DEFAULT_CHANGE_POLL_INTERVAL);
+  }
+
+  @Test
+  public void shouldNotFetchPendingRequestWhenChangeWatermarkUnchanged() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(FetchAndLockHandlerImpl.MAX_REQUEST_TIMEOUT), asyncResponse, processEngine);
+    handler.acquire();
+    handler.acquire();
+
+    // assume
+    verify(fetchTopicBuilder, times(3)).execute();
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(3)).execute();
+    verify(externalTaskQuery, times(2)).count();
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
+  @Test
+  public void shouldFetchPendingRequestWhenChangeWatermarkMoved() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(FetchAndLockHandlerImpl.MAX_REQUEST_TIMEOUT), asyncResponse, processEngine);
+    handler.acquire();
+    handler.acquire();
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).when(fetchTopicBuilder).execute();
+
+    // when a task is created on another cluster node
+    when(externalTaskQuery.count()).thenReturn(1L);
+    handler.acquire();
+
+    // then
+    verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    assertThat(handler.getPendingRequests().size(), is(0));
+  }
+
+  @Test
+  public void shouldFetchPendingRequestPeriodicallyWhenChangeWatermarkUnchanged() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse asyncResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(FetchAndLockHandlerImpl.MAX_REQUEST_TIMEOUT), asyncResponse, processEngine);
+    handler.acquire();
+    handler.acquire();
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    doReturn(tasks).when(fetchTopicBuilder).execute();
+
+    // when a task is created and another one is completed on another cluster node
+    addSecondsToClock(29);
+    handler.acquire();
+
+    // assume
+    verify(fetchTopicBuilder, times(3)).execute();
+
+    addSecondsToClock(1);
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(4)).execute();
+    verify(asyncResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    assertThat(handler.getPendingRequests().size(), is(0));
+  }
+
+  @Test
+  public void shouldFetchOnceForRequestsOfSameTopics() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    handler.addPendingRequest(createDto(5000L), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L), mock(AsyncResponse.class), processEngine);
+
+    // when
+    handler.acquire();
+
+    // then the first request exhausts the topic
+    verify(fetchTopicBuilder, times(4)).execute();
+    assertThat(handler.getPendingRequests().size(), is(3));
+  }
+
+  @Test
+  public void shouldFetchOnceForEachGroupOfTopics() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    handler.addPendingRequest(createDto(5000L, "aTopicName"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "aTopicName"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherTopicName"), mock(AsyncResponse.class), processEngine);
+    handler.addPendingRequest(createDto(5000L, "anotherTopicName", "aTopicName"), mock(AsyncResponse.class), processEngine);
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(fetchTopicBuilder, times(7)).execute();
+    assertThat(handler.getPendingRequests().size(), is(4));
+  }
+
+  @Test
+  public void shouldFetchNextRequestOfGroupWhileTopicNotExhausted() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse firstResponse = mock(AsyncResponse.class);
+    AsyncResponse secondResponse = mock(AsyncResponse.class);
+    AsyncResponse thirdResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L, 1), firstResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, 1), secondResponse, processEngine);
+    handler.addPendingRequest(createDto(5000L, 1), thirdResponse, processEngine);
+
+    List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+    tasks.add(lockedExternalTaskMock);
+    when(fetchTopicBuilder.execute())
+      .thenReturn(tasks)
+      .thenReturn(Collections.<LockedExternalTask>emptyList());
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(firstResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+    verify(secondResponse, never()).resume(any());
+    verify(thirdResponse, never()).resume(any());
+    verify(fetchTopicBuilder, times(5)).execute();
+    assertThat(handler.getPendingRequests().size(), is(2));
+  }
+
+  @Test
+  public void shouldResumeExpiredRequestOfExhaustedGroup() {
+    // given
+    doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+    AsyncResponse firstResponse = mock(AsyncResponse.class);
+    AsyncResponse secondResponse = mock(AsyncResponse.class);
+    handler.addPendingRequest(createDto(5000L), firstResponse, processEngine);
+    handler.addPendingRequest(createDto(4000L), secondResponse, processEngine);
+
+    addSecondsToClock(4);
+
+    // when
+    handler.acquire();
+
+    // then
+    verify(firstResponse, never()).resume(any());
+    verify(secondResponse).resume(Collections.emptyList());
+    verify(fetchTopicBuilder, times(3)).execute();
+    assertThat(handler.getPendingRequests().size(), is(1));
+  }
+
+  @Test
+  public void shouldFetchGroupsInParallel() {
+    // given
+    handler.executorService = Executors.newFixedThreadPool(2);
+    try {
+      List<LockedExternalTask> tasks = new ArrayList<LockedExternalTask>();
+      tasks.add(lockedExternalTaskMock);
+      doReturn(Collections.emptyList()).when(fetchTopicBuilder).execute();
+
+      AsyncResponse firstResponse = mock(AsyncResponse.class);
+      AsyncResponse secondResponse = mock(AsyncResponse.class);
+      handler.addPendingRequest(createDto(5000L, "aTopicName"), firstResponse, processEngine);
+      handler.addPendingRequest(createDto(5000L, "anotherTopicName"), secondResponse, processEngine);
+
+      doReturn(tasks).when(fetchTopicBuilder).execute();
+
+      // when
+      handler.acquire();
+
+      // then
+      verify(firstResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+      verify(secondResponse).resume(argThat(IsCollectionWithSize.hasSize(1)));
+      assertThat(handler.getPendingRequests().size(), is(0));
+    }
+    finally {
+      handler.executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldConfigureHandlerFromContextParameters() {
+    // given
+    ServletContextEvent servletContextEvent = createServletContextEvent("10", "4", "1000");
+
+    // when
+    handler.contextInitialized(servletContextEvent);
+
+    // then
+    assertThat(handler.getQueueCapacity(), is(10));
+    assertThat(handler.queue.remainingCapacity(), is(10));
+    assertThat(handler.getHandlerParallelism(), is(4));
+    assertThat(handler.getChangePollInterval(), is(1000L));
+  }
+
+  @Test
+  public void shouldKeepDefaultsWithoutContextParameters() {
+    // given
+    ServletContextEvent servletContextEvent = createServletContextEvent(null, null, null);
+
+    // when
+    handler.contextInitialized(servletContextEvent);
+
+    // then
+    assertThat(handler.getQueueCapacity(), is(FetchAndLockHandlerImpl.DEFAULT_QUEUE_CAPACITY));
+    assertThat(handler.getHandlerParallelism(), is(FetchAndLockHandlerImpl.DEFAULT_HANDLER_PARALLELISM));
+    assertThat(handler.getChangePollInterval(), is(FetchAndLockHandlerImpl.DEFAULT_CHANGE_POLL_INTERVAL));
+  }
+
+  @Test
+  public void shouldRejectInvalidContextParameter() {
+    // given
+    ServletContextEvent servletContextEvent = createServletContextEvent(null, "0", null);
+
+    // when
+    try {
+      handler.contextInitialized(servletContextEvent);
+      fail("exception expected");
+    }
+    catch (RestException e) {
+      // then
+      assertThat(e.getMessage(), is("The context parameter " + FetchAndLockHandlerImpl.HANDLER_PARALLELISM_PARAM_NAME
+        + " must be a positive integer but was '0'"));
+    }
   }
 
   @Test
@@ -365,15 +615,31 @@ public class FetchAndLockHandlerTest {
   }
 
   protected FetchExternalTasksExtendedDto createDto(Long responseTimeout) {
+    return createDto(responseTimeout, 5, "aTopicName");
+  }
+
+  protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, int maxTasks) {
+    return createDto(responseTimeout, maxTasks, "aTopicName");
+  }
+
+  protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, String... topicNames) {
+    return createDto(responseTimeout, 5, topicNames);
+  }
+
+  protected FetchExternalTasksExtendedDto createDto(Long responseTimeout, int maxTasks, String... topicNames) {
     FetchExternalTasksExtendedDto externalTask = new FetchExternalTasksExtendedDto();
 
-    FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto topic = new FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto();
-    topic.setTopicName("aTopicName");
-    topic.setLockDuration(12354L);
+    List<FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto> topics = new ArrayList<FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto>();
+    for (String topicName : topicNames) {
+      FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto topic = new FetchExternalTasksExtendedDto.FetchExternalTaskTopicDto();
+      topic.setTopicName(topicName);
+      topic.setLockDuration(12354L);
+      topics.add(topic);
+    }
 
-    externalTask.setMaxTasks(5);
+    externalTask.setMaxTasks(maxTasks);
     externalTask.setWorkerId("aWorkerId");
-    externalTask.setTopics(Collections.singletonList(topic));
+    externalTask.setTopics(topics);
 
     if (responseTimeout != null) {
       externalTask.setAsyncResponseTimeout(responseTimeout);
@@ -382,6 +648,17 @@ public class FetchAndLockHandlerTest {
     return externalTask;
   }
 
+  protected ServletContextEvent createServletContextEvent(String queueCapacity, String handlerParallelism, String changePollInterval) {
+    ServletContext servletContext = mock(ServletContext.class);
+    when(servletContext.getInitParameter(FetchAndLockHandlerImpl.QUEUE_CAPACITY_PARAM_NAME)).thenReturn(queueCapacity);
+    when(servletContext.getInitParameter(FetchAndLockHandlerImpl.HANDLER_PARALLELISM_PARAM_NAME)).thenReturn(handlerParallelism);
+    when(servletContext.getInitParameter(FetchAndLockHandlerImpl.CHANGE_POLL_INTERVAL_PARAM_NAME)).thenReturn(changePollInterval);
+
+    ServletContextEvent servletContextEvent = mock(ServletContextEvent.class);
+    when(servletContextEvent.getServletContext()).thenReturn(servletContext);
+    return servletContextEvent;
+  }
+
   protected Date addSeconds(Date date, int seconds) {
     return new Date(date.getTime() + seconds * 1000);
   }
@@ -26,6 +26,7 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 
@@ -56,6 +57,27 @@ public interface TaskRestService {
   List<TaskDto> queryTasks(TaskQueryDto query,
       @QueryParam("firstResult") Integer firstResult, @QueryParam("maxResults") Integer maxResults);
 
+  /**
+   * Same as {@link #getTasks(Request, UriInfo, Integer, Integer)} but writes the results
+   * page by page to the response, ordered by id. Sorting parameters are not supported.
+   */
+  @GET
+  @Path("/stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput getTasksStream(@Context UriInfo uriInfo,
+      @QueryParam("firstResult") Integer firstResult, @QueryParam("maxResults") Integer maxResults);
+
+  /**
+   * Same as {@link #queryTasks(TaskQueryDto, Integer, Integer)} but writes the results
+   * page by page to the response, ordered by id. Sorting parameters are not supported.
+   */
+  @POST
+  @Path("/stream")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput queryTasksStream(TaskQueryDto query,
+      @QueryParam("firstResult") Integer firstResult, @QueryParam("maxResults") Integer maxResults);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
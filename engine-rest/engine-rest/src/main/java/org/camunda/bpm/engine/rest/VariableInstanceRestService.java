@@ -25,6 +25,7 @@ import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 
@@ -72,6 +73,33 @@ public interface VariableInstanceRestService {
       @QueryParam("maxResults") Integer maxResults,
       @QueryParam(VariableResource.DESERIALIZE_VALUES_QUERY_PARAM) @DefaultValue("true") boolean deserializeObjectValues);
 
+  /**
+   * Same as {@link #getVariableInstances(UriInfo, Integer, Integer, boolean)} but writes
+   * the results page by page to the response, ordered by id. Sorting parameters are
+   * not supported.
+   */
+  @GET
+  @Path("/stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput getVariableInstancesStream(@Context UriInfo uriInfo,
+      @QueryParam("firstResult") Integer firstResult,
+      @QueryParam("maxResults") Integer maxResults,
+      @QueryParam(VariableResource.DESERIALIZE_VALUES_QUERY_PARAM) @DefaultValue("true") boolean deserializeObjectValues);
+
+  /**
+   * Same as {@link #queryVariableInstances(VariableInstanceQueryDto, Integer, Integer, boolean)} but writes
+   * the results page by page to the response, ordered by id. Sorting parameters are
+   * not supported.
+   */
+  @POST
+  @Path("/stream")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput queryVariableInstancesStream(VariableInstanceQueryDto queryDto,
+      @QueryParam("firstResult") Integer firstResult,
+      @QueryParam("maxResults") Integer maxResults,
+      @QueryParam(VariableResource.DESERIALIZE_VALUES_QUERY_PARAM) @DefaultValue("true") boolean deserializeObjectValues);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link Cache} which is able to read and write multiple resources
+ * at once, e.g. all linked resources of a single HAL relation.
+ */
+public interface BulkCache extends Cache {
+
+  /**
+   * Get all resources for the given ids.
+   *
+   * @param ids the ids of the resources
+   * @return a map from id to resource which only contains resources which are
+   *   found and whose time to live is not expired
+   */
+  Map<String, Object> getAll(Collection<String> ids);
+
+  /**
+   * Put multiple resources into the cache.
+   *
+   * @param resources a map from id to resource
+   */
+  void putAll(Map<String, Object> resources);
+
+}
@@ -92,6 +92,10 @@ public abstract class AbstractQueryDto<T extends Query<?, ?>>  extends AbstractS
     return sortings;
   }
 
+  public boolean hasSortingOptions() {
+    return sortBy != null || sortOrder != null || (sortings != null && !sortings.isEmpty());
+  }
+
   protected abstract boolean isValidSortByValue(String value);
 
   protected boolean sortOptionsValid() {
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.externaltask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.externaltask.ExternalTaskBulkResult;
+import org.camunda.bpm.engine.rest.dto.ExceptionDto;
+
+public class ExternalTaskBulkResultDto {
+
+  protected String externalTaskId;
+  protected boolean successful;
+  protected ExceptionDto exception;
+
+  public String getExternalTaskId() {
+    return externalTaskId;
+  }
+
+  public boolean isSuccessful() {
+    return successful;
+  }
+
+  public ExceptionDto getException() {
+    return exception;
+  }
+
+  public static ExternalTaskBulkResultDto fromResult(ExternalTaskBulkResult result) {
+    ExternalTaskBulkResultDto dto = new ExternalTaskBulkResultDto();
+    dto.externalTaskId = result.getExternalTaskId();
+    dto.successful = result.isSuccessful();
+
+    if (result.getException() != null) {
+      dto.exception = ExceptionDto.fromException(result.getException());
+    }
+
+    return dto;
+  }
+
+  public static List<ExternalTaskBulkResultDto> fromResults(List<ExternalTaskBulkResult> results) {
+    List<ExternalTaskBulkResultDto> dtos = new ArrayList<ExternalTaskBulkResultDto>();
+    for (ExternalTaskBulkResult result : results) {
+      dtos.add(fromResult(result));
+    }
+    return dtos;
+  }
+
+}
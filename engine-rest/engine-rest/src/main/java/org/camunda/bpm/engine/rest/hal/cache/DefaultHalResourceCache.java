@@ -16,17 +16,28 @@
 package org.camunda.bpm.engine.rest.hal.cache;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.camunda.bpm.engine.impl.util.ClockUtil;
-import org.camunda.bpm.engine.rest.cache.Cache;
+import org.camunda.bpm.engine.rest.cache.BulkCache;
 
-public class DefaultHalResourceCache implements Cache {
+/**
+ * Thread-safe cache with a limited capacity and time to live.
+ *
+ * <p>Entries are kept in insertion order, i.e. the order of their create time,
+ * so that expired and oldest entries are always found at the head of the cache
+ * and can be evicted without sorting all entries.</p>
+ */
+public class DefaultHalResourceCache implements BulkCache {
 
   public final static Comparator<HalResourceCacheEntry> COMPARATOR = HalResourceCacheEntryComparator.getInstance();
 
@@ -34,6 +45,12 @@ public class DefaultHalResourceCache implements Cache {
   protected long secondsToLive;
   protected Map<String, HalResourceCacheEntry> cache;
 
+  protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  protected final AtomicLong hitCount = new AtomicLong();
+  protected final AtomicLong missCount = new AtomicLong();
+  protected final AtomicLong evictionCount = new AtomicLong();
+
   public DefaultHalResourceCache() {
     this(100, 100);
   }
@@ -41,7 +58,7 @@ public class DefaultHalResourceCache implements Cache {
   public DefaultHalResourceCache(int capacity, long secondsToLive) {
     this.capacity = capacity;
     this.secondsToLive = secondsToLive;
-    cache = new HashMap<String, HalResourceCacheEntry>();
+    cache = new LinkedHashMap<String, HalResourceCacheEntry>();
   }
 
   public int getCapacity() {
@@ -61,68 +78,191 @@ public class DefaultHalResourceCache implements Cache {
   }
 
   public int size() {
-    return cache.size();
+    lock.readLock().lock();
+    try {
+      return cache.size();
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of lookups which returned a resource
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return the number of lookups which returned no resource, either because
+   *   it was never cached, evicted or its time to live expired
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * @return the number of entries removed because the capacity was exceeded
+   *   or their time to live expired
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
   }
 
   public void put(String id, Object resource) {
-    cache.put(id, new HalResourceCacheEntry(id, resource));
-    ensureCapacityLimit();
+    lock.writeLock().lock();
+    try {
+      putEntry(id, resource);
+      ensureCapacityLimit();
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void putAll(Map<String, Object> resources) {
+    lock.writeLock().lock();
+    try {
+      for (Map.Entry<String, Object> resource : resources.entrySet()) {
+        putEntry(resource.getKey(), resource.getValue());
+      }
+      ensureCapacityLimit();
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
   }
 
   public void remove(String id) {
-    cache.remove(id);
+    lock.writeLock().lock();
+    try {
+      cache.remove(id);
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
   }
 
   public Object get(String id) {
-    HalResourceCacheEntry cacheEntry = cache.get(id);
+    HalResourceCacheEntry cacheEntry;
+
+    lock.readLock().lock();
+    try {
+      cacheEntry = cache.get(id);
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+
     if (cacheEntry != null) {
       if (expired(cacheEntry)) {
-        remove(cacheEntry.getId());
-        return null;
+        removeExpired(cacheEntry);
       }
       else {
+        hitCount.incrementAndGet();
         return cacheEntry.getResource();
       }
     }
-    else {
-      return null;
+
+    missCount.incrementAndGet();
+    return null;
+  }
+
+  public Map<String, Object> getAll(Collection<String> ids) {
+    Map<String, Object> resources = new HashMap<String, Object>();
+    List<HalResourceCacheEntry> expiredEntries = new ArrayList<HalResourceCacheEntry>();
+
+    lock.readLock().lock();
+    try {
+      for (String id : ids) {
+        HalResourceCacheEntry cacheEntry = cache.get(id);
+        if (cacheEntry != null) {
+          if (expired(cacheEntry)) {
+            expiredEntries.add(cacheEntry);
+          }
+          else {
+            resources.put(id, cacheEntry.getResource());
+          }
+        }
+      }
+    }
+    finally {
+      lock.readLock().unlock();
     }
+
+    if (!expiredEntries.isEmpty()) {
+      lock.writeLock().lock();
+      try {
+        for (HalResourceCacheEntry expiredEntry : expiredEntries) {
+          removeEntryIfPresent(expiredEntry);
+        }
+      }
+      finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    hitCount.addAndGet(resources.size());
+    missCount.addAndGet(ids.size() - resources.size());
+
+    return resources;
   }
 
   public void destroy() {
-    cache.clear();
+    lock.writeLock().lock();
+    try {
+      cache.clear();
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
   }
 
+  /**
+   * Has to be called while holding the write lock.
+   */
+  protected void putEntry(String id, Object resource) {
+    // remove first to move a refreshed entry to the tail of the insertion order
+    cache.remove(id);
+    cache.put(id, new HalResourceCacheEntry(id, resource));
+  }
+
+  /**
+   * Has to be called while holding the write lock.
+   */
   protected void ensureCapacityLimit() {
-    if (size() > getCapacity()) {
-      List<HalResourceCacheEntry> resources = new ArrayList<HalResourceCacheEntry>(cache.values());
-      NavigableSet<HalResourceCacheEntry> remainingResources = new TreeSet<HalResourceCacheEntry>(COMPARATOR);
-
-      // remove expired resources
-      for (HalResourceCacheEntry resource : resources) {
-        if (expired(resource)) {
-          remove(resource.getId());
-        }
-        else {
-          remainingResources.add(resource);
-        }
+    if (cache.size() > getCapacity()) {
+      Iterator<HalResourceCacheEntry> entries = cache.values().iterator();
 
-        if (size() <= getCapacity()) {
-          // abort if capacity is reached
-          return;
-        }
+      // remove expired resources and if still exceeding capacity the oldest ones,
+      // both of them are located at the head of the cache
+      while (cache.size() > getCapacity() && entries.hasNext()) {
+        entries.next();
+        entries.remove();
+        evictionCount.incrementAndGet();
       }
+    }
+  }
 
-      // if still exceed capacity remove oldest
-      while (remainingResources.size() > capacity) {
-        HalResourceCacheEntry resourceToRemove = remainingResources.pollFirst();
-        if (resourceToRemove != null) {
-          remove(resourceToRemove.getId());
-        }
-        else {
-          break;
-        }
-      }
+  protected void removeExpired(HalResourceCacheEntry cacheEntry) {
+    lock.writeLock().lock();
+    try {
+      removeEntryIfPresent(cacheEntry);
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the entry only if it was not replaced concurrently by a newer one.
+   * Has to be called while holding the write lock.
+   */
+  protected void removeEntryIfPresent(HalResourceCacheEntry cacheEntry) {
+    if (cache.get(cacheEntry.getId()) == cacheEntry) {
+      cache.remove(cacheEntry.getId());
+      evictionCount.incrementAndGet();
     }
   }
 
@@ -16,11 +16,15 @@
 package org.camunda.bpm.engine.rest.hal.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.rest.cache.BulkCache;
 import org.camunda.bpm.engine.rest.cache.Cache;
 import org.camunda.bpm.engine.rest.hal.Hal;
 import org.camunda.bpm.engine.rest.hal.HalLinkResolver;
@@ -81,8 +85,19 @@ public abstract class HalCachingLinkResolver implements HalLinkResolver {
   protected List<HalResource<?>> resolveCachedLinks(String[] linkedIds, Cache cache, List<String> notCachedLinkedIds) {
     ArrayList<HalResource<?>> resolvedResources = new ArrayList<HalResource<?>>();
 
+    Map<String, Object> cachedResources = null;
+    if (cache instanceof BulkCache) {
+      cachedResources = ((BulkCache) cache).getAll(Arrays.asList(linkedIds));
+    }
+
     for (String linkedId : linkedIds) {
-      HalResource<?> resource = (HalResource<?>) cache.get(linkedId);
+      HalResource<?> resource;
+      if (cachedResources != null) {
+        resource = (HalResource<?>) cachedResources.get(linkedId);
+      }
+      else {
+        resource = (HalResource<?>) cache.get(linkedId);
+      }
       if (resource != null) {
         resolvedResources.add(resource);
       }
@@ -99,8 +114,17 @@ public abstract class HalCachingLinkResolver implements HalLinkResolver {
    */
   protected void putIntoCache(List<HalResource<?>> notCachedResources) {
     Cache cache = getCache();
-    for (HalResource<?> notCachedResource : notCachedResources) {
-      cache.put(getResourceId(notCachedResource), notCachedResource);
+    if (cache instanceof BulkCache) {
+      Map<String, Object> resources = new HashMap<String, Object>();
+      for (HalResource<?> notCachedResource : notCachedResources) {
+        resources.put(getResourceId(notCachedResource), notCachedResource);
+      }
+      ((BulkCache) cache).putAll(resources);
+    }
+    else {
+      for (HalResource<?> notCachedResource : notCachedResources) {
+        cache.put(getResourceId(notCachedResource), notCachedResource);
+      }
     }
   }
 
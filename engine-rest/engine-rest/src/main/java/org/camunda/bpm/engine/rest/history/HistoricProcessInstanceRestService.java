@@ -26,6 +26,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
@@ -71,6 +72,29 @@ public interface HistoricProcessInstanceRestService {
   List<HistoricProcessInstanceDto> queryHistoricProcessInstances(HistoricProcessInstanceQueryDto query, @QueryParam("firstResult") Integer firstResult,
       @QueryParam("maxResults") Integer maxResults);
 
+  /**
+   * Same as {@link #getHistoricProcessInstances(UriInfo, Integer, Integer)} but writes
+   * the results page by page to the response, ordered by id. Sorting parameters are
+   * not supported.
+   */
+  @GET
+  @Path("/stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput getHistoricProcessInstancesStream(@Context UriInfo uriInfo, @QueryParam("firstResult") Integer firstResult,
+      @QueryParam("maxResults") Integer maxResults);
+
+  /**
+   * Same as {@link #queryHistoricProcessInstances(HistoricProcessInstanceQueryDto, Integer, Integer)} but writes
+   * the results page by page to the response, ordered by id. Sorting parameters are
+   * not supported.
+   */
+  @POST
+  @Path("/stream")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput queryHistoricProcessInstancesStream(HistoricProcessInstanceQueryDto query, @QueryParam("firstResult") Integer firstResult,
+      @QueryParam("maxResults") Integer maxResults);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
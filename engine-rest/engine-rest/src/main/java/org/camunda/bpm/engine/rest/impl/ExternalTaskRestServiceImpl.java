@@ -30,12 +30,16 @@ import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesBuilder;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.rest.ExternalTaskRestService;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.VariableValueDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.CompleteExternalTaskBulkDto;
+import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskBulkResultDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto;
@@ -50,6 +54,7 @@ import org.camunda.bpm.engine.rest.sub.externaltask.impl.ExternalTaskResourceImp
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
+import org.camunda.bpm.engine.variable.VariableMap;
 
 /**
  * @author Thorben Lindhauer
@@ -124,6 +129,24 @@ public class ExternalTaskRestServiceImpl extends AbstractRestProcessEngineAware
     return LockedExternalTaskDto.fromLockedExternalTasks(externalTasks);
   }
 
+  @Override
+  public List<ExternalTaskBulkResultDto> complete(List<CompleteExternalTaskBulkDto> completions) {
+    if (completions == null) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Completions must be provided");
+    }
+
+    ProcessEngine engine = getProcessEngine();
+    HandleExternalTasksBuilder builder = engine.getExternalTaskService().handleExternalTasks();
+
+    for (CompleteExternalTaskBulkDto completion : completions) {
+      VariableMap variables = VariableValueDto.toMap(completion.getVariables(), engine, getObjectMapper());
+      VariableMap localVariables = VariableValueDto.toMap(completion.getLocalVariables(), engine, getObjectMapper());
+      builder.complete(completion.getId(), completion.getWorkerId(), variables, localVariables);
+    }
+
+    return ExternalTaskBulkResultDto.fromResults(builder.execute());
+  }
+
   @Override
   public ExternalTaskResource getExternalTask(String externalTaskId) {
     return new ExternalTaskResourceImpl(getProcessEngine(), externalTaskId, getObjectMapper());
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the results of a query as a JSON array directly to the response.
+ *
+ * <p>The query is executed page by page, every result is serialized as soon as its page
+ * is fetched. Pages after the first one are selected by a keyset cursor, i.e. by the id
+ * of the last result of the previous page, if the query supports it. Otherwise an offset
+ * is used. In any case, at most one page of results is kept in memory.</p>
+ *
+ * <p>The query must be ordered by id ascending. The first page should be fetched with
+ * {@link #fetchFirstPage()} before the output is returned to the JAX-RS runtime, so that
+ * a failing query is reported with an error status instead of a truncated response.</p>
+ *
+ * @param <T> the type of the query results
+ */
+public abstract class QueryResultStreamingOutput<T> implements StreamingOutput {
+
+  public static final int DEFAULT_PAGE_SIZE = 500;
+
+  protected ObjectMapper objectMapper;
+  protected int firstResult;
+  protected long maxResults;
+  protected int pageSize;
+
+  protected List<T> firstPage;
+
+  public QueryResultStreamingOutput(ObjectMapper objectMapper, Integer firstResult, Integer maxResults) {
+    this(objectMapper, firstResult, maxResults, DEFAULT_PAGE_SIZE);
+  }
+
+  public QueryResultStreamingOutput(ObjectMapper objectMapper, Integer firstResult, Integer maxResults, int pageSize) {
+    this.objectMapper = objectMapper;
+    this.firstResult = firstResult != null ? firstResult : 0;
+    this.maxResults = maxResults != null ? maxResults : Long.MAX_VALUE;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Fetches the first page of results, which is written first by {@link #write(OutputStream)}.
+   *
+   * @return this output
+   */
+  public QueryResultStreamingOutput<T> fetchFirstPage() {
+    if (maxResults > 0) {
+      firstPage = fetchPage(null, firstResult, getPageSize(0));
+    }
+    return this;
+  }
+
+  public void write(OutputStream output) throws IOException {
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    try {
+      generator.writeStartArray();
+
+      boolean keysetPagingSupported = isKeysetPagingSupported();
+      String lastId = null;
+      long written = 0;
+
+      while (written < maxResults) {
+        int size = getPageSize(written);
+
+        List<T> page;
+        if (firstPage != null) {
+          page = firstPage;
+          firstPage = null;
+        }
+        else if (keysetPagingSupported && lastId != null) {
+          page = fetchPage(lastId, 0, size);
+        }
+        else {
+          // the offset is only applied to the first page if keyset paging is supported
+          page = fetchPage(null, (int) Math.min(firstResult + written, Integer.MAX_VALUE), size);
+        }
+
+        for (T result : page) {
+          generator.writeObject(toDto(result));
+        }
+        generator.flush();
+
+        written += page.size();
+        if (page.size() < size) {
+          break;
+        }
+        lastId = getId(page.get(page.size() - 1));
+      }
+
+      generator.writeEndArray();
+    }
+    finally {
+      generator.close();
+    }
+  }
+
+  protected int getPageSize(long written) {
+    return (int) Math.min(pageSize, maxResults - written);
+  }
+
+  /**
+   * @return true if {@link #fetchPage(String, int, int)} is able to select results after a given id
+   */
+  protected abstract boolean isKeysetPagingSupported();
+
+  /**
+   * @param idAfter if not null, only results with a greater id have to be selected
+   * @param firstResult the offset of the page
+   * @param maxResults the size of the page
+   * @return the next page of results ordered by id
+   */
+  protected abstract List<T> fetchPage(String idAfter, int firstResult, int maxResults);
+
+  /**
+   * @return the id of the result which is used as keyset cursor
+   */
+  protected abstract String getId(T result);
+
+  /**
+   * @return the DTO which is serialized for the result
+   */
+  protected abstract Object toDto(T result);
+
+}
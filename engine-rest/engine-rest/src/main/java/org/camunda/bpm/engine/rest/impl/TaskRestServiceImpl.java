@@ -22,12 +22,14 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.core.Variant;
 
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.TaskService;
 import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.impl.TaskQueryImpl;
 import org.camunda.bpm.engine.rest.TaskRestService;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.task.TaskDto;
@@ -103,6 +105,50 @@ public class TaskRestServiceImpl extends AbstractRestProcessEngineAware implemen
     return tasks;
   }
 
+  @Override
+  public StreamingOutput getTasksStream(UriInfo uriInfo, Integer firstResult, Integer maxResults) {
+    TaskQueryDto queryDto = new TaskQueryDto(getObjectMapper(), uriInfo.getQueryParameters());
+    return queryTasksStream(queryDto, firstResult, maxResults);
+  }
+
+  @Override
+  public StreamingOutput queryTasksStream(TaskQueryDto queryDto, Integer firstResult, Integer maxResults) {
+    if (queryDto.hasSortingOptions()) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Sorting is not supported for streamed results, they are ordered by id");
+    }
+
+    ProcessEngine engine = getProcessEngine();
+    queryDto.setObjectMapper(getObjectMapper());
+    final TaskQuery query = queryDto.toQuery(engine);
+    query.orderByTaskId();
+    query.asc();
+
+    // enable initialization of form key:
+    query.initializeFormKeys();
+
+    return new QueryResultStreamingOutput<Task>(getObjectMapper(), firstResult, maxResults) {
+
+      protected boolean isKeysetPagingSupported() {
+        return query instanceof TaskQueryImpl;
+      }
+
+      protected List<Task> fetchPage(String idAfter, int firstResult, int maxResults) {
+        if (idAfter != null) {
+          ((TaskQueryImpl) query).setTaskIdAfter(idAfter);
+        }
+        return query.listPage(firstResult, maxResults);
+      }
+
+      protected String getId(Task task) {
+        return task.getId();
+      }
+
+      protected Object toDto(Task task) {
+        return TaskDto.fromEntity(task);
+      }
+    }.fetchFirstPage();
+  }
+
   protected List<Task> executeTaskQuery(Integer firstResult, Integer maxResults, TaskQuery query) {
 
     // enable initialization of form key:
@@ -17,15 +17,20 @@ package org.camunda.bpm.engine.rest.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.VariableInstanceQueryProperty;
 import org.camunda.bpm.engine.rest.VariableInstanceRestService;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.runtime.VariableInstanceDto;
 import org.camunda.bpm.engine.rest.dto.runtime.VariableInstanceQueryDto;
+import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.sub.runtime.VariableInstanceResource;
 import org.camunda.bpm.engine.rest.sub.runtime.impl.VariableInstanceResourceImpl;
 import org.camunda.bpm.engine.runtime.VariableInstance;
 import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
 
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.List;
@@ -49,17 +54,7 @@ public class VariableInstanceRestServiceImpl extends AbstractRestProcessEngineAw
 
   @Override
   public List<VariableInstanceDto> queryVariableInstances(VariableInstanceQueryDto queryDto, Integer firstResult, Integer maxResults, boolean deserializeObjectValues) {
-    ProcessEngine engine = getProcessEngine();
-    queryDto.setObjectMapper(getObjectMapper());
-    VariableInstanceQuery query = queryDto.toQuery(engine);
-
-    // disable binary fetching by default.
-    query.disableBinaryFetching();
-
-    // disable custom object fetching by default. Cannot be done to not break existing API
-    if (!deserializeObjectValues) {
-      query.disableCustomObjectDeserialization();
-    }
+    VariableInstanceQuery query = createVariableInstanceQuery(queryDto, deserializeObjectValues);
 
     List<VariableInstance> matchingInstances;
     if (firstResult != null || maxResults != null) {
@@ -76,6 +71,64 @@ public class VariableInstanceRestServiceImpl extends AbstractRestProcessEngineAw
     return instanceResults;
   }
 
+  @Override
+  public StreamingOutput getVariableInstancesStream(UriInfo uriInfo, Integer firstResult, Integer maxResults, boolean deserializeObjectValues) {
+    VariableInstanceQueryDto queryDto = new VariableInstanceQueryDto(getObjectMapper(), uriInfo.getQueryParameters());
+    return queryVariableInstancesStream(queryDto, firstResult, maxResults, deserializeObjectValues);
+  }
+
+  @Override
+  public StreamingOutput queryVariableInstancesStream(VariableInstanceQueryDto queryDto, Integer firstResult, Integer maxResults, boolean deserializeObjectValues) {
+    if (queryDto.hasSortingOptions()) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Sorting is not supported for streamed results, they are ordered by id");
+    }
+
+    final VariableInstanceQuery query = createVariableInstanceQuery(queryDto, deserializeObjectValues);
+    if (query instanceof VariableInstanceQueryImpl) {
+      VariableInstanceQueryImpl queryImpl = (VariableInstanceQueryImpl) query;
+      queryImpl.orderBy(VariableInstanceQueryProperty.VARIABLE_ID);
+      queryImpl.asc();
+    }
+
+    return new QueryResultStreamingOutput<VariableInstance>(getObjectMapper(), firstResult, maxResults) {
+
+      protected boolean isKeysetPagingSupported() {
+        return query instanceof VariableInstanceQueryImpl;
+      }
+
+      protected List<VariableInstance> fetchPage(String idAfter, int firstResult, int maxResults) {
+        if (idAfter != null) {
+          ((VariableInstanceQueryImpl) query).setVariableIdAfter(idAfter);
+        }
+        return query.listPage(firstResult, maxResults);
+      }
+
+      protected String getId(VariableInstance variableInstance) {
+        return variableInstance.getId();
+      }
+
+      protected Object toDto(VariableInstance variableInstance) {
+        return VariableInstanceDto.fromVariableInstance(variableInstance);
+      }
+    }.fetchFirstPage();
+  }
+
+  protected VariableInstanceQuery createVariableInstanceQuery(VariableInstanceQueryDto queryDto, boolean deserializeObjectValues) {
+    ProcessEngine engine = getProcessEngine();
+    queryDto.setObjectMapper(getObjectMapper());
+    VariableInstanceQuery query = queryDto.toQuery(engine);
+
+    // disable binary fetching by default.
+    query.disableBinaryFetching();
+
+    // disable custom object fetching by default. Cannot be done to not break existing API
+    if (!deserializeObjectValues) {
+      query.disableCustomObjectDeserialization();
+    }
+
+    return query;
+  }
+
   private List<VariableInstance> executePaginatedQuery(VariableInstanceQuery query, Integer firstResult, Integer maxResults) {
     if (firstResult == null) {
       firstResult = 0;
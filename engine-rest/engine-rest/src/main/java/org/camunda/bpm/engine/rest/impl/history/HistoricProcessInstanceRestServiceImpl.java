@@ -35,6 +35,7 @@ import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.history.ReportResult;
+import org.camunda.bpm.engine.impl.HistoricProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
 import org.camunda.bpm.engine.rest.dto.converter.ReportResultToCsvConverter;
@@ -45,6 +46,7 @@ import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceReportDto;
 import org.camunda.bpm.engine.rest.dto.history.ReportResultDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.history.HistoricProcessInstanceRestService;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.sub.history.HistoricProcessInstanceResource;
 import org.camunda.bpm.engine.rest.sub.history.impl.HistoricProcessInstanceResourceImpl;
 
@@ -53,6 +55,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.core.Variant;
 import java.util.ArrayList;
@@ -113,6 +116,46 @@ import java.util.List;
     return query.listPage(firstResult, maxResults);
   }
 
+  @Override
+  public StreamingOutput getHistoricProcessInstancesStream(UriInfo uriInfo, Integer firstResult, Integer maxResults) {
+    HistoricProcessInstanceQueryDto queryDto = new HistoricProcessInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
+    return queryHistoricProcessInstancesStream(queryDto, firstResult, maxResults);
+  }
+
+  @Override
+  public StreamingOutput queryHistoricProcessInstancesStream(HistoricProcessInstanceQueryDto queryDto, Integer firstResult, Integer maxResults) {
+    if (queryDto.hasSortingOptions()) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Sorting is not supported for streamed results, they are ordered by id");
+    }
+
+    queryDto.setObjectMapper(objectMapper);
+    final HistoricProcessInstanceQuery query = queryDto.toQuery(processEngine);
+    query.orderByProcessInstanceId();
+    query.asc();
+
+    return new QueryResultStreamingOutput<HistoricProcessInstance>(objectMapper, firstResult, maxResults) {
+
+      protected boolean isKeysetPagingSupported() {
+        return query instanceof HistoricProcessInstanceQueryImpl;
+      }
+
+      protected List<HistoricProcessInstance> fetchPage(String idAfter, int firstResult, int maxResults) {
+        if (idAfter != null) {
+          ((HistoricProcessInstanceQueryImpl) query).setProcessInstanceIdAfter(idAfter);
+        }
+        return query.listPage(firstResult, maxResults);
+      }
+
+      protected String getId(HistoricProcessInstance historicProcessInstance) {
+        return historicProcessInstance.getId();
+      }
+
+      protected Object toDto(HistoricProcessInstance historicProcessInstance) {
+        return HistoricProcessInstanceDto.fromHistoricProcessInstance(historicProcessInstance);
+      }
+    }.fetchFirstPage();
+  }
+
   @Override
   public CountResultDto getHistoricProcessInstancesCount(UriInfo uriInfo) {
     HistoricProcessInstanceQueryDto queryDto = new HistoricProcessInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
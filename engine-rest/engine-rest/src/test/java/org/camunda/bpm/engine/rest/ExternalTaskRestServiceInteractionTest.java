@@ -51,6 +51,7 @@ import org.camunda.bpm.engine.exception.NotFoundException;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesBuilder;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
@@ -59,6 +60,7 @@ import org.camunda.bpm.engine.impl.HistoricProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.HistoryServiceImpl;
 import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.RuntimeServiceImpl;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskBulkResultImpl;
 import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceQueryDto;
 import org.camunda.bpm.engine.rest.dto.runtime.ProcessInstanceQueryDto;
@@ -93,6 +95,7 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
   protected static final String FETCH_EXTERNAL_TASK_URL = EXTERNAL_TASK_URL + "/fetchAndLock";
   protected static final String SINGLE_EXTERNAL_TASK_URL = EXTERNAL_TASK_URL + "/{id}";
   protected static final String COMPLETE_EXTERNAL_TASK_URL = SINGLE_EXTERNAL_TASK_URL + "/complete";
+  protected static final String COMPLETE_EXTERNAL_TASKS_URL = EXTERNAL_TASK_URL + "/complete";
   protected static final String GET_EXTERNAL_TASK_ERROR_DETAILS_URL = SINGLE_EXTERNAL_TASK_URL + "/errorDetails";
   protected static final String HANDLE_EXTERNAL_TASK_FAILURE_URL = SINGLE_EXTERNAL_TASK_URL + "/failure";
   protected static final String HANDLE_EXTERNAL_TASK_BPMN_ERROR_URL = SINGLE_EXTERNAL_TASK_URL + "/bpmnError";
@@ -595,6 +598,52 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
       .post(COMPLETE_EXTERNAL_TASK_URL);
   }
 
+  @Test
+  public void testCompleteInBulk() {
+    HandleExternalTasksBuilder handleExternalTasksBuilder = mock(HandleExternalTasksBuilder.class);
+    when(externalTaskService.handleExternalTasks()).thenReturn(handleExternalTasksBuilder);
+    when(handleExternalTasksBuilder.complete(any(String.class), any(String.class), anyMapOf(String.class, Object.class), anyMapOf(String.class, Object.class)))
+      .thenReturn(handleExternalTasksBuilder);
+    when(handleExternalTasksBuilder.execute()).thenReturn(Arrays.asList(
+        ExternalTaskBulkResultImpl.successful("anExternalTaskId"),
+        ExternalTaskBulkResultImpl.failed("anotherExternalTaskId", new BadUserRequestException("aMessage"))));
+
+    Map<String, Object> completion = new HashMap<String, Object>();
+    completion.put("id", "anExternalTaskId");
+    completion.put("workerId", "aWorkerId");
+    completion.put("variables", VariablesBuilder.create().variable("var1", "val1").getVariables());
+
+    Map<String, Object> otherCompletion = new HashMap<String, Object>();
+    otherCompletion.put("id", "anotherExternalTaskId");
+    otherCompletion.put("workerId", "aWorkerId");
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(Arrays.asList(completion, otherCompletion))
+    .then()
+      .expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("[0].externalTaskId", equalTo("anExternalTaskId"))
+      .body("[0].successful", equalTo(true))
+      .body("[1].externalTaskId", equalTo("anotherExternalTaskId"))
+      .body("[1].successful", equalTo(false))
+      .body("[1].exception.type", equalTo(BadUserRequestException.class.getSimpleName()))
+      .body("[1].exception.message", equalTo("aMessage"))
+    .when()
+      .post(COMPLETE_EXTERNAL_TASKS_URL);
+
+    InOrder inOrder = inOrder(handleExternalTasksBuilder);
+    inOrder.verify(handleExternalTasksBuilder).complete(
+        eq("anExternalTaskId"),
+        eq("aWorkerId"),
+        argThat(EqualsVariableMap.matches()
+          .matcher("var1", EqualsUntypedValue.matcher().value("val1"))),
+        eq((Map<String, Object>) null));
+    inOrder.verify(handleExternalTasksBuilder).complete("anotherExternalTaskId", "aWorkerId", null, null);
+    inOrder.verify(handleExternalTasksBuilder).execute();
+    verifyNoMoreInteractions(handleExternalTasksBuilder);
+  }
+
   @Test
   public void testUnlock() {
     given()
@@ -45,6 +45,7 @@ import javax.ws.rs.core.Response.Status;
 import org.camunda.bpm.ProcessApplicationService;
 import org.camunda.bpm.application.ProcessApplicationInfo;
 import org.camunda.bpm.container.RuntimeContainerDelegate;
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.identity.User;
 import org.camunda.bpm.engine.identity.UserQuery;
 import org.camunda.bpm.engine.impl.TaskQueryImpl;
@@ -59,6 +60,7 @@ import org.camunda.bpm.engine.rest.helper.EqualsList;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.camunda.bpm.engine.rest.helper.ValueGenerator;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsPrimitiveValue;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.util.OrderingBuilder;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
 import org.camunda.bpm.engine.task.DelegationState;
@@ -83,6 +85,7 @@ public class TaskRestServiceQueryTest extends AbstractRestServiceTest {
 
   protected static final String TASK_QUERY_URL = TEST_RESOURCE_ROOT_PATH + "/task";
   protected static final String TASK_COUNT_QUERY_URL = TASK_QUERY_URL + "/count";
+  protected static final String TASK_STREAM_QUERY_URL = TASK_QUERY_URL + "/stream";
   private TaskQuery mockQuery;
 
   @Before
@@ -110,6 +113,87 @@ public class TaskRestServiceQueryTest extends AbstractRestServiceTest {
       .when().get(TASK_QUERY_URL);
   }
 
+  @Test
+  public void testStreamedQueryPagesByTaskId() {
+    List<Task> firstPage = new ArrayList<Task>();
+    for (int i = 0; i < QueryResultStreamingOutput.DEFAULT_PAGE_SIZE; i++) {
+      firstPage.add(MockProvider.createMockTask());
+    }
+    List<Task> secondPage = MockProvider.createMockTasks();
+    when(mockQuery.listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenReturn(firstPage, secondPage);
+
+    given()
+      .queryParam("name", "aName")
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .body("size()", equalTo(firstPage.size() + secondPage.size()))
+        .body("[0].id", equalTo(MockProvider.EXAMPLE_TASK_ID))
+      .when()
+        .get(TASK_STREAM_QUERY_URL);
+
+    InOrder inOrder = inOrder(mockQuery);
+    inOrder.verify(mockQuery).taskName("aName");
+    inOrder.verify(mockQuery).orderByTaskId();
+    inOrder.verify(mockQuery).asc();
+    inOrder.verify(mockQuery).listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    inOrder.verify((TaskQueryImpl) mockQuery).setTaskIdAfter(MockProvider.EXAMPLE_TASK_ID);
+    inOrder.verify(mockQuery).listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    verify(mockQuery, never()).list();
+  }
+
+  @Test
+  public void testStreamedQueryWithPaginationAsPost() {
+    int firstResult = 5;
+    int maxResults = 1;
+    when(mockQuery.listPage(firstResult, maxResults)).thenReturn(MockProvider.createMockTasks());
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(EMPTY_JSON_OBJECT)
+      .queryParam("firstResult", firstResult)
+      .queryParam("maxResults", maxResults)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .body("size()", equalTo(1))
+      .when()
+        .post(TASK_STREAM_QUERY_URL);
+
+    verify(mockQuery).listPage(firstResult, maxResults);
+    verify((TaskQueryImpl) mockQuery, never()).setTaskIdAfter(anyString());
+  }
+
+  @Test
+  public void testStreamedQueryFailure() {
+    when(mockQuery.listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenThrow(new ProcessEngineException("expected exception"));
+
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.INTERNAL_SERVER_ERROR.getStatusCode())
+        .contentType(ContentType.JSON)
+        .body("type", equalTo(ProcessEngineException.class.getSimpleName()))
+        .body("message", equalTo("expected exception"))
+      .when()
+        .get(TASK_STREAM_QUERY_URL);
+  }
+
+  @Test
+  public void testStreamedQueryWithSorting() {
+    given()
+      .queryParam("sortBy", "dueDate")
+      .queryParam("sortOrder", "asc")
+    .then()
+      .expect()
+        .statusCode(Status.BAD_REQUEST.getStatusCode())
+        .contentType(ContentType.JSON)
+        .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+        .body("message", equalTo("Sorting is not supported for streamed results, they are ordered by id"))
+      .when()
+        .get(TASK_STREAM_QUERY_URL);
+  }
+
   @Test
   public void testInvalidDateParameter() {
     given().queryParams("due", "anInvalidDate")
@@ -39,11 +39,15 @@ import java.util.Map;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.Status;
 
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.VariableInstanceQueryProperty;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.camunda.bpm.engine.rest.helper.MockVariableInstanceBuilder;
 import org.camunda.bpm.engine.rest.helper.VariableTypeHelper;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsPrimitiveValue;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.util.OrderingBuilder;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
 import org.camunda.bpm.engine.runtime.VariableInstance;
@@ -65,6 +69,7 @@ public class VariableInstanceRestServiceQueryTest extends AbstractRestServiceTes
 
   protected static final String VARIABLE_INSTANCE_QUERY_URL = TEST_RESOURCE_ROOT_PATH + "/variable-instance";
   protected static final String VARIABLE_INSTANCE_COUNT_QUERY_URL = VARIABLE_INSTANCE_QUERY_URL + "/count";
+  protected static final String VARIABLE_INSTANCE_STREAM_QUERY_URL = VARIABLE_INSTANCE_QUERY_URL + "/stream";
 
   protected VariableInstanceQuery mockedQuery;
   protected VariableInstance mockInstance;
@@ -95,6 +100,97 @@ public class VariableInstanceRestServiceQueryTest extends AbstractRestServiceTes
     return mocks;
   }
 
+  @Test
+  public void testStreamedQueryPagesByVariableId() {
+    VariableInstanceQueryImpl keysetQuery = mock(VariableInstanceQueryImpl.class);
+    when(processEngine.getRuntimeService().createVariableInstanceQuery()).thenReturn(keysetQuery);
+
+    List<VariableInstance> firstPage = createMockVariableInstancePage(QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    List<VariableInstance> secondPage = createMockVariableInstanceList(mockInstance);
+    when(keysetQuery.listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenReturn(firstPage, secondPage);
+
+    given()
+      .queryParam("deserializeValues", false)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .body("size()", equalTo(firstPage.size() + secondPage.size()))
+        .body("[0].id", equalTo(mockInstance.getId()))
+      .when()
+        .get(VARIABLE_INSTANCE_STREAM_QUERY_URL);
+
+    InOrder inOrder = Mockito.inOrder(keysetQuery);
+    inOrder.verify(keysetQuery).disableBinaryFetching();
+    inOrder.verify(keysetQuery).disableCustomObjectDeserialization();
+    inOrder.verify(keysetQuery).orderBy(VariableInstanceQueryProperty.VARIABLE_ID);
+    inOrder.verify(keysetQuery).asc();
+    inOrder.verify(keysetQuery).listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    inOrder.verify(keysetQuery).setVariableIdAfter(mockInstance.getId());
+    inOrder.verify(keysetQuery).listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    verify(keysetQuery, never()).list();
+  }
+
+  @Test
+  public void testStreamedQueryPagesByOffsetForOtherQueries() {
+    List<VariableInstance> firstPage = createMockVariableInstancePage(QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    List<VariableInstance> secondPage = createMockVariableInstanceList(mockInstance);
+    when(mockedQuery.listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenReturn(firstPage);
+    when(mockedQuery.listPage(QueryResultStreamingOutput.DEFAULT_PAGE_SIZE, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenReturn(secondPage);
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(EMPTY_JSON_OBJECT)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .body("size()", equalTo(firstPage.size() + secondPage.size()))
+      .when()
+        .post(VARIABLE_INSTANCE_STREAM_QUERY_URL);
+
+    InOrder inOrder = Mockito.inOrder(mockedQuery);
+    inOrder.verify(mockedQuery).listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    inOrder.verify(mockedQuery).listPage(QueryResultStreamingOutput.DEFAULT_PAGE_SIZE, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+    verify(mockedQuery, never()).list();
+  }
+
+  @Test
+  public void testStreamedQueryFailure() {
+    when(mockedQuery.listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenThrow(new ProcessEngineException("expected exception"));
+
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.INTERNAL_SERVER_ERROR.getStatusCode())
+        .contentType(ContentType.JSON)
+        .body("type", equalTo(ProcessEngineException.class.getSimpleName()))
+        .body("message", equalTo("expected exception"))
+      .when()
+        .get(VARIABLE_INSTANCE_STREAM_QUERY_URL);
+  }
+
+  @Test
+  public void testStreamedQueryWithSorting() {
+    given()
+      .queryParam("sortBy", "variableName")
+      .queryParam("sortOrder", "asc")
+    .then()
+      .expect()
+        .statusCode(Status.BAD_REQUEST.getStatusCode())
+        .contentType(ContentType.JSON)
+        .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+        .body("message", equalTo("Sorting is not supported for streamed results, they are ordered by id"))
+      .when()
+        .get(VARIABLE_INSTANCE_STREAM_QUERY_URL);
+  }
+
+  protected List<VariableInstance> createMockVariableInstancePage(int size) {
+    List<VariableInstance> mocks = new ArrayList<VariableInstance>();
+    for (int i = 0; i < size; i++) {
+      mocks.add(mockInstance);
+    }
+    return mocks;
+  }
+
   @Test
   public void testNoParametersQuery() {
     expect().statusCode(Status.OK.getStatusCode()).when().get(VARIABLE_INSTANCE_QUERY_URL);
@@ -37,6 +37,7 @@ import org.camunda.bpm.engine.rest.AbstractRestServiceTest;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsPrimitiveValue;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.util.OrderingBuilder;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
 import org.junit.Assert;
@@ -56,6 +57,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -75,6 +77,7 @@ public class HistoricProcessInstanceRestServiceQueryTest extends AbstractRestSer
 
   protected static final String HISTORIC_PROCESS_INSTANCE_RESOURCE_URL = TEST_RESOURCE_ROOT_PATH + "/history/process-instance";
   protected static final String HISTORIC_PROCESS_INSTANCE_COUNT_RESOURCE_URL = HISTORIC_PROCESS_INSTANCE_RESOURCE_URL + "/count";
+  protected static final String HISTORIC_PROCESS_INSTANCE_STREAM_RESOURCE_URL = HISTORIC_PROCESS_INSTANCE_RESOURCE_URL + "/stream";
 
   protected HistoricProcessInstanceQuery mockedQuery;
 
@@ -385,6 +388,68 @@ public class HistoricProcessInstanceRestServiceQueryTest extends AbstractRestSer
     verify(mockedQuery).count();
   }
 
+  @Test
+  public void testStreamedQuery() {
+    List<HistoricProcessInstance> historicProcessInstances = MockProvider.createMockHistoricProcessInstances();
+    when(mockedQuery.listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE)).thenReturn(historicProcessInstances);
+
+    Response response = given()
+        .queryParam("processInstanceId", MockProvider.EXAMPLE_PROCESS_INSTANCE_ID)
+      .then()
+        .expect()
+          .statusCode(Status.OK.getStatusCode())
+        .when()
+          .get(HISTORIC_PROCESS_INSTANCE_STREAM_RESOURCE_URL);
+
+    InOrder inOrder = inOrder(mockedQuery);
+    inOrder.verify(mockedQuery).processInstanceId(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID);
+    inOrder.verify(mockedQuery).orderByProcessInstanceId();
+    inOrder.verify(mockedQuery).asc();
+    inOrder.verify(mockedQuery).listPage(0, QueryResultStreamingOutput.DEFAULT_PAGE_SIZE);
+
+    String content = response.asString();
+    List<String> instances = from(content).getList("");
+    Assert.assertEquals(historicProcessInstances.size(), instances.size());
+    Assert.assertEquals(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID, from(content).getString("[0].id"));
+  }
+
+  @Test
+  public void testStreamedQueryWithPaginationAsPost() {
+    int firstResult = 5;
+    int maxResults = 1;
+    when(mockedQuery.listPage(firstResult, maxResults)).thenReturn(MockProvider.createMockHistoricProcessInstances());
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(EMPTY_JSON_OBJECT)
+      .queryParam("firstResult", firstResult)
+      .queryParam("maxResults", maxResults)
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .body("size()", equalTo(1))
+      .when()
+        .post(HISTORIC_PROCESS_INSTANCE_STREAM_RESOURCE_URL);
+
+    verify(mockedQuery).listPage(firstResult, maxResults);
+    verify(mockedQuery, never()).list();
+  }
+
+  @Test
+  public void testStreamedQueryWithSorting() {
+    given()
+      .queryParam("sortBy", "instanceId")
+      .queryParam("sortOrder", "asc")
+    .then()
+      .expect()
+        .statusCode(Status.BAD_REQUEST.getStatusCode())
+        .contentType(ContentType.JSON)
+        .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+        .body("message", equalTo("Sorting is not supported for streamed results, they are ordered by id"))
+      .when()
+        .get(HISTORIC_PROCESS_INSTANCE_STREAM_RESOURCE_URL);
+  }
+
   @Test
   public void testSimpleHistoricProcessQuery() {
     String processInstanceId = MockProvider.EXAMPLE_PROCESS_INSTANCE_ID;
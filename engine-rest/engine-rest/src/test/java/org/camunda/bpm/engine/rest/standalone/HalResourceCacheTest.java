@@ -117,6 +117,57 @@ public class HalResourceCacheTest extends AbstractRestServiceTest {
     assertEquals(0, cache.size());
   }
 
+  @Test
+  public void testRefreshedEntryIsNotEvictedFirst() {
+    cache.setCapacity(2);
+
+    cache.put("a", "a");
+    cache.put("b", "b");
+    cache.put("a", "a");
+    cache.put("c", "c");
+
+    assertEquals(2, cache.size());
+    assertEquals("a", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals("c", cache.get("c"));
+  }
+
+  @Test
+  public void testBulkRetrieval() {
+    Map<String, Object> resources = new HashMap<String, Object>();
+    resources.put("a", "a");
+    resources.put("b", "b");
+    cache.putAll(resources);
+    assertEquals(2, cache.size());
+
+    Map<String, Object> cachedResources = cache.getAll(Arrays.asList("a", "b", "unknown"));
+    assertEquals(2, cachedResources.size());
+    assertEquals("a", cachedResources.get("a"));
+    assertEquals("b", cachedResources.get("b"));
+
+    forwardTime(cache.getSecondsToLive() + 1);
+
+    assertTrue(cache.getAll(Arrays.asList("a", "b")).isEmpty());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testCacheStatistics() {
+    cache.setCapacity(1);
+
+    cache.put("a", "a");
+    cache.get("a");
+    cache.get("unknown");
+    cache.getAll(Arrays.asList("a", "unknown"));
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0, cache.getEvictionCount());
+
+    cache.put("b", "b");
+    assertEquals(1, cache.getEvictionCount());
+  }
+
   @Test
   public void testInvalidConfigurationFormat() {
     try {
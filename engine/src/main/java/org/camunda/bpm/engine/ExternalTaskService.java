@@ -25,6 +25,7 @@ import org.camunda.bpm.engine.exception.NotFoundException;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesBuilder;
 import org.camunda.bpm.engine.externaltask.UpdateExternalTaskRetriesSelectBuilder;
 
@@ -288,6 +289,15 @@ public interface ExternalTaskService {
    */
   public void handleBpmnError(String externalTaskId, String workerId, String errorCode, String errorMessage, Map<String, Object> variables);
 
+  /**
+   * Completes external tasks or reports their failures using a fluent builder. The
+   * external tasks are handled in one transaction and the result of each one is
+   * reported separately, see {@link HandleExternalTasksBuilder#execute()}.
+   *
+   * @since 7.11
+   */
+  public HandleExternalTasksBuilder handleExternalTasks();
+
   /**
    * Unlocks an external task instance.
    *
@@ -217,6 +217,13 @@ public abstract class ProcessEngineConfiguration {
    */
   protected boolean hintJobExecutor = true;
 
+  /**
+   * If true, jobs which are created by a transaction of this process engine and could be acquired
+   * immediately are locked by the job executor of this process engine and handed to it once the
+   * transaction is committed, instead of notifying the job acquisition. Requires {@link #hintJobExecutor}.
+   */
+  protected boolean jobExecutorPushLocalJobs = false;
+
   protected String mailServerHost = "localhost";
   protected String mailServerUsername; // by default no name and password are provided, which
   protected String mailServerPassword; // means no authentication for mail server
@@ -708,6 +715,15 @@ public abstract class ProcessEngineConfiguration {
     return this;
   }
 
+  public boolean isJobExecutorPushLocalJobs() {
+    return jobExecutorPushLocalJobs;
+  }
+
+  public ProcessEngineConfiguration setJobExecutorPushLocalJobs(boolean jobExecutorPushLocalJobs) {
+    this.jobExecutorPushLocalJobs = jobExecutorPushLocalJobs;
+    return this;
+  }
+
   public ClassLoader getClassLoader() {
     return classLoader;
   }
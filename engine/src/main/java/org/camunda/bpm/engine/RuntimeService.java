@@ -36,6 +36,7 @@ import org.camunda.bpm.engine.runtime.ExecutionQuery;
 import org.camunda.bpm.engine.runtime.Incident;
 import org.camunda.bpm.engine.runtime.IncidentQuery;
 import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
 import org.camunda.bpm.engine.runtime.ModificationBuilder;
 import org.camunda.bpm.engine.runtime.NativeExecutionQuery;
 import org.camunda.bpm.engine.runtime.NativeProcessInstanceQuery;
@@ -1709,6 +1710,24 @@ public interface RuntimeService {
    */
   MessageCorrelationBuilder createMessageCorrelation(String messageName);
 
+  /**
+   * Correlates several messages in one command. Each message is correlated like
+   * {@link MessageCorrelationBuilder#correlateWithResult()}; the message event
+   * subscriptions of all messages are looked up with one query. A message which may
+   * be correlated to an execution created by a previous message is correlated in a
+   * further command.
+   *
+   * <p>A message that cannot be correlated does not affect the other messages, its
+   * exception is returned as its result. If a correlation fails while continuing an
+   * execution or starting a process instance, the messages are correlated again,
+   * each one in its own command.</p>
+   *
+   * @param messageCorrelations the messages to correlate, created by {@link #createMessageCorrelation(String)}
+   *
+   * @return the results of the correlations in the order of the given messages
+   */
+  List<MessageCorrelationBulkResult> correlateMessages(List<MessageCorrelationBuilder> messageCorrelations);
+
   /**
    * Correlates a message to either an execution that is waiting for this message or a process definition
    * that can be started by this message.
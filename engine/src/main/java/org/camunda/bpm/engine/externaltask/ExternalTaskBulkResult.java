@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+/**
+ * <p>The result of handling one external task with a {@link HandleExternalTasksBuilder}.
+ * Either the external task was handled or handling it failed with an exception.</p>
+ *
+ * @since 7.11
+ */
+public interface ExternalTaskBulkResult {
+
+  /**
+   * @return the id of the handled external task
+   */
+  String getExternalTaskId();
+
+  /**
+   * @return true if the external task was handled, false if handling it failed
+   */
+  boolean isSuccessful();
+
+  /**
+   * @return the exception handling the external task failed with or null if it was handled
+   */
+  RuntimeException getException();
+
+}
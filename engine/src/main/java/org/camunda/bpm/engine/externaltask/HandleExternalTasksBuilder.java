@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.externaltask;
+
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.AuthorizationException;
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.authorization.Permissions;
+import org.camunda.bpm.engine.authorization.Resources;
+import org.camunda.bpm.engine.exception.NotFoundException;
+
+/**
+ * <p>Collects completions and failures of external tasks and handles them together,
+ * see {@link ExternalTaskService#handleExternalTasks()}.</p>
+ *
+ * @since 7.11
+ */
+public interface HandleExternalTasksBuilder {
+
+  /**
+   * Completes the external task on behalf of a worker, see
+   * {@link ExternalTaskService#complete(String, String)}.
+   */
+  HandleExternalTasksBuilder complete(String externalTaskId, String workerId);
+
+  /**
+   * Completes the external task on behalf of a worker and submits the variables, see
+   * {@link ExternalTaskService#complete(String, String, Map)}.
+   */
+  HandleExternalTasksBuilder complete(String externalTaskId, String workerId, Map<String, Object> variables);
+
+  /**
+   * Completes the external task on behalf of a worker and submits the variables, see
+   * {@link ExternalTaskService#complete(String, String, Map, Map)}.
+   */
+  HandleExternalTasksBuilder complete(String externalTaskId, String workerId, Map<String, Object> variables, Map<String, Object> localVariables);
+
+  /**
+   * Signals that the worker failed to execute the external task, see
+   * {@link ExternalTaskService#handleFailure(String, String, String, String, int, long)}.
+   */
+  HandleExternalTasksBuilder handleFailure(String externalTaskId, String workerId, String errorMessage, String errorDetails, int retries, long retryDuration);
+
+  /**
+   * Signals that a business error occurred while executing the external task, see
+   * {@link ExternalTaskService#handleBpmnError(String, String, String, String, Map)}.
+   */
+  HandleExternalTasksBuilder handleBpmnError(String externalTaskId, String workerId, String errorCode, String errorMessage, Map<String, Object> variables);
+
+  /**
+   * <p>Handles the external tasks in the order they were added. The external tasks are
+   * loaded together and handled in one transaction, so that the resulting changes
+   * are flushed together.</p>
+   *
+   * <p>An external task which does not exist, is suspended or is locked by another worker
+   * does not prevent the others from being handled, but is reported by its result, e.g. with a
+   * {@link NotFoundException} or {@link BadUserRequestException}. The same applies to the
+   * {@link AuthorizationException} thrown if the current user does not possess the
+   * {@link Permissions#UPDATE} permission on {@link Resources#PROCESS_INSTANCE} or the
+   * {@link Permissions#UPDATE_INSTANCE} permission on {@link Resources#PROCESS_DEFINITION}.
+   * If handling an external task fails while the process instance continues, the transaction
+   * is rolled back and the external tasks are handled in separate transactions instead.</p>
+   *
+   * @return the results of handling the external tasks, in the order they were added
+   */
+  List<ExternalTaskBulkResult> execute();
+
+}
@@ -27,6 +27,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 import org.camunda.bpm.engine.impl.pvm.runtime.CompensationBehavior;
 import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
@@ -45,10 +46,21 @@ public class ActivityExecutionTreeMapping {
   protected String processInstanceId;
   protected ProcessDefinitionImpl processDefinition;
 
+  protected ActivityExecutionMappingCache activityExecutionMappingCache;
+
   public ActivityExecutionTreeMapping(CommandContext commandContext, String processInstanceId) {
+    this(commandContext, processInstanceId, new ActivityExecutionMappingCache());
+  }
+
+  /**
+   * @param activityExecutionMappingCache the cache to share the activity execution mappings with
+   * other users of the (unmodified) execution tree in the current command
+   */
+  public ActivityExecutionTreeMapping(CommandContext commandContext, String processInstanceId, ActivityExecutionMappingCache activityExecutionMappingCache) {
     this.activityExecutionMapping = new HashMap<ScopeImpl, Set<ExecutionEntity>>();
     this.commandContext = commandContext;
     this.processInstanceId = processInstanceId;
+    this.activityExecutionMappingCache = activityExecutionMappingCache;
 
     initialize();
   }
@@ -128,7 +140,7 @@ public class ActivityExecutionTreeMapping {
   }
 
   protected void mergeScopeExecutions(ExecutionEntity leaf) {
-    Map<ScopeImpl, PvmExecutionImpl> mapping = leaf.createActivityExecutionMapping();
+    Map<ScopeImpl, PvmExecutionImpl> mapping = activityExecutionMappingCache.getActivityExecutionMapping(leaf);
 
     for (Map.Entry<ScopeImpl, PvmExecutionImpl> mappingEntry : mapping.entrySet()) {
       ScopeImpl scope = mappingEntry.getKey();
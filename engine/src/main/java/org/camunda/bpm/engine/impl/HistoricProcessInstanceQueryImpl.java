@@ -81,6 +81,9 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
 
   protected String caseInstanceId;
 
+  /** internal criterion to page through the historic process instances by a keyset cursor */
+  protected String processInstanceIdAfter;
+
   public HistoricProcessInstanceQueryImpl() {
   }
 
@@ -580,4 +583,17 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
     state = HistoricProcessInstance.STATE_INTERNALLY_TERMINATED;
     return this;
   }
+
+  public String getProcessInstanceIdAfter() {
+    return processInstanceIdAfter;
+  }
+
+  /**
+   * Restricts the query to process instances with an id greater than the given one.
+   * Combined with ordering by process instance id, this allows to page through
+   * large results without an offset.
+   */
+  public void setProcessInstanceIdAfter(String processInstanceIdAfter) {
+    this.processInstanceIdAfter = processInstanceIdAfter;
+  }
 }
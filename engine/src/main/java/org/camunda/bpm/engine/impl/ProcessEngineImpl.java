@@ -113,6 +113,11 @@ public class ProcessEngineImpl implements ProcessEngine {
         dbMetricsReporter.start();
       }
     }
+
+    if (processEngineConfiguration.getAsyncHistoryEventHandler() != null) {
+      processEngineConfiguration.getAsyncHistoryEventHandler()
+        .start(processEngineConfiguration.getCommandExecutorTxRequiresNew());
+    }
   }
 
   protected void executeSchemaOperations() {
@@ -140,6 +145,11 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.unregisterProcessEngine(this);
     }
 
+    if (processEngineConfiguration.getAsyncHistoryEventHandler() != null) {
+      // write the queued history events
+      processEngineConfiguration.getAsyncHistoryEventHandler().stop();
+    }
+
     commandExecutorSchemaOperations.execute(new SchemaOperationProcessEngineClose());
 
     processEngineConfiguration.close();
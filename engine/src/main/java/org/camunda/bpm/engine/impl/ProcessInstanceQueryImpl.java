@@ -63,6 +63,9 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
   protected boolean isTenantIdSet = false;
   protected String[] tenantIds;
 
+  /** internal criterion to page through the ids of the process instances by a keyset cursor */
+  protected String processInstanceIdAfter;
+
   public ProcessInstanceQueryImpl() {
   }
 
@@ -265,6 +268,17 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
       .findProcessInstancesIdsByQueryCriteria(this);
   }
 
+  /**
+   * Selects a page of the ids ordered by id, see {@link #setProcessInstanceIdAfter(String)}.
+   */
+  public List<String> executeIdsList(CommandContext commandContext, Page page) {
+    checkQueryOk();
+    ensureVariablesInitialized();
+    return commandContext
+      .getExecutionManager()
+      .findProcessInstanceIdPageByQueryCriteria(this, page);
+  }
+
   //getters /////////////////////////////////////////////////////////////////
 
   public String getProcessInstanceId() {
@@ -342,4 +356,24 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
   public boolean isRootProcessInstances() {
     return isRootProcessInstances;
   }
+
+  public String[] getActivityIds() {
+    return activityIds;
+  }
+
+  public boolean isTenantIdSet() {
+    return isTenantIdSet;
+  }
+
+  public String[] getTenantIds() {
+    return tenantIds;
+  }
+
+  public String getProcessInstanceIdAfter() {
+    return processInstanceIdAfter;
+  }
+
+  public void setProcessInstanceIdAfter(String processInstanceIdAfter) {
+    this.processInstanceIdAfter = processInstanceIdAfter;
+  }
 }
@@ -28,6 +28,8 @@ import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.form.FormData;
+import org.camunda.bpm.engine.impl.cmd.CommandLogger;
+import org.camunda.bpm.engine.impl.cmd.CorrelateMessagesCmd;
 import org.camunda.bpm.engine.impl.cmd.CreateIncidentCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteProcessInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteProcessInstancesCmd;
@@ -46,6 +48,7 @@ import org.camunda.bpm.engine.impl.cmd.SignalCmd;
 import org.camunda.bpm.engine.impl.cmd.batch.DeleteProcessInstanceBatchCmd;
 import org.camunda.bpm.engine.impl.migration.MigrationPlanBuilderImpl;
 import org.camunda.bpm.engine.impl.migration.MigrationPlanExecutionBuilderImpl;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationBulkResultImpl;
 import org.camunda.bpm.engine.impl.runtime.UpdateProcessInstanceSuspensionStateBuilderImpl;
 import org.camunda.bpm.engine.impl.util.ExceptionUtil;
 import org.camunda.bpm.engine.migration.MigrationPlan;
@@ -58,6 +61,8 @@ import org.camunda.bpm.engine.runtime.ExecutionQuery;
 import org.camunda.bpm.engine.runtime.Incident;
 import org.camunda.bpm.engine.runtime.IncidentQuery;
 import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
 import org.camunda.bpm.engine.runtime.ModificationBuilder;
 import org.camunda.bpm.engine.runtime.NativeExecutionQuery;
 import org.camunda.bpm.engine.runtime.NativeProcessInstanceQuery;
@@ -78,6 +83,8 @@ import org.camunda.bpm.engine.variable.value.TypedValue;
  */
 public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
 
+  private final static CommandLogger LOG = ProcessEngineLogger.CMD_LOGGER;
+
   @Override
   public ProcessInstance startProcessInstanceByKey(String processDefinitionKey) {
     return createProcessInstanceByKey(processDefinitionKey)
@@ -604,6 +611,48 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
     return new MessageCorrelationBuilderImpl(commandExecutor, messageName);
   }
 
+  @Override
+  public List<MessageCorrelationBulkResult> correlateMessages(List<MessageCorrelationBuilder> messageCorrelations) {
+    ensureNotNull("messageCorrelations", messageCorrelations);
+
+    List<MessageCorrelationBuilderImpl> correlations = new ArrayList<MessageCorrelationBuilderImpl>(messageCorrelations.size());
+    for (MessageCorrelationBuilder messageCorrelation : messageCorrelations) {
+      correlations.add((MessageCorrelationBuilderImpl) messageCorrelation);
+    }
+
+    List<MessageCorrelationBulkResult> results = new ArrayList<MessageCorrelationBulkResult>(correlations.size());
+    try {
+      // a command may stop before a message that depends on the messages correlated in it
+      while (results.size() < correlations.size()) {
+        List<MessageCorrelationBuilderImpl> remainingCorrelations = correlations.subList(results.size(), correlations.size());
+        results.addAll(commandExecutor.execute(new CorrelateMessagesCmd(remainingCorrelations)));
+      }
+
+    } catch (RuntimeException e) {
+      List<MessageCorrelationBuilderImpl> remainingCorrelations = correlations.subList(results.size(), correlations.size());
+      LOG.debugBulkMessageCorrelationFailed(remainingCorrelations.size(), e);
+      results.addAll(correlateMessagesSeparately(remainingCorrelations));
+    }
+
+    return results;
+  }
+
+  protected List<MessageCorrelationBulkResult> correlateMessagesSeparately(List<MessageCorrelationBuilderImpl> messageCorrelations) {
+    List<MessageCorrelationBulkResult> results = new ArrayList<MessageCorrelationBulkResult>(messageCorrelations.size());
+
+    for (MessageCorrelationBuilderImpl messageCorrelation : messageCorrelations) {
+      try {
+        MessageCorrelationResult correlationResult = messageCorrelation.correlateWithResult();
+        results.add(MessageCorrelationBulkResultImpl.correlated(correlationResult));
+
+      } catch (RuntimeException e) {
+        results.add(MessageCorrelationBulkResultImpl.failed(e));
+      }
+    }
+
+    return results;
+  }
+
   @Override
   public void correlateMessage(String messageName, Map<String, Object> correlationKeys, Map<String, Object> processVariables) {
     createMessageCorrelation(messageName)
@@ -120,6 +120,9 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
 
   protected List<String> cachedCandidateGroups;
 
+  /** internal criterion to page through the tasks by a keyset cursor */
+  protected String taskIdAfter;
+
   // or query /////////////////////////////
   protected List<TaskQueryImpl> queries = new ArrayList<TaskQueryImpl>(Arrays.asList(this));
   protected boolean isOrQueryActive = false;
@@ -2153,4 +2156,17 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
     return queries.get(0);
   }
 
+  public String getTaskIdAfter() {
+    return taskIdAfter;
+  }
+
+  /**
+   * Restricts the query to tasks with an id greater than the given one, independent of
+   * any or-queries. Combined with {@link #orderByTaskId()}, this allows to page through
+   * large results without an offset.
+   */
+  public void setTaskIdAfter(String taskIdAfter) {
+    this.taskIdAfter = taskIdAfter;
+  }
+
 }
@@ -54,6 +54,9 @@ public class VariableInstanceQueryImpl extends AbstractVariableQueryImpl<Variabl
   protected boolean isByteArrayFetchingEnabled = true;
   protected boolean isCustomObjectDeserializationEnabled = true;
 
+  /** internal criterion to page through the variable instances by a keyset cursor */
+  protected String variableIdAfter;
+
   public VariableInstanceQueryImpl() { }
 
   public VariableInstanceQueryImpl(CommandExecutor commandExecutor) {
@@ -252,4 +255,17 @@ public class VariableInstanceQueryImpl extends AbstractVariableQueryImpl<Variabl
   public String[] getActivityInstanceIds() {
     return activityInstanceIds;
   }
+
+  public String getVariableIdAfter() {
+    return variableIdAfter;
+  }
+
+  /**
+   * Restricts the query to variable instances with an id greater than the given one.
+   * Combined with ordering by {@link VariableInstanceQueryProperty#VARIABLE_ID}, this
+   * allows to page through large results without an offset.
+   */
+  public void setVariableIdAfter(String variableIdAfter) {
+    this.variableIdAfter = variableIdAfter;
+  }
 }
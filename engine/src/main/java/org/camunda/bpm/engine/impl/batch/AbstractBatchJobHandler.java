@@ -55,6 +55,8 @@ public abstract class AbstractBatchJobHandler<T extends BatchConfiguration> impl
     int invocationsPerBatchJob = batch.getInvocationsPerBatchJob();
 
     List<String> ids = configuration.getIds();
+    selectNextIds(configuration, invocationsPerBatchJob * batchJobsPerSeed);
+
     int numberOfItemsToProcess = Math.min(invocationsPerBatchJob * batchJobsPerSeed, ids.size());
     // view of process instances to process
     List<String> processIds = ids.subList(0, numberOfItemsToProcess);
@@ -82,7 +84,24 @@ public abstract class AbstractBatchJobHandler<T extends BatchConfiguration> impl
     // update batch configuration
     batch.setConfigurationBytes(writeConfiguration(configuration));
 
-    return ids.isEmpty();
+    return isAllIdsProcessed(configuration);
+  }
+
+  /**
+   * Adds the ids which are selected by the cursor of the configuration until
+   * the configuration contains the given number of ids.
+   */
+  protected void selectNextIds(T configuration, int numberOfIds) {
+    ProcessInstanceQueryCursor cursor = configuration.getProcessInstanceQueryCursor();
+    if (cursor != null) {
+      List<String> ids = configuration.getIds();
+      ids.addAll(cursor.nextIds(Context.getCommandContext(), numberOfIds - ids.size()));
+    }
+  }
+
+  protected boolean isAllIdsProcessed(T configuration) {
+    ProcessInstanceQueryCursor cursor = configuration.getProcessInstanceQueryCursor();
+    return configuration.getIds().isEmpty() && (cursor == null || cursor.isExhausted());
   }
 
   protected abstract T createJobConfiguration(T configuration, List<String> processIdsForJob);
@@ -22,6 +22,9 @@ public class BatchConfiguration {
 
   protected List<String> ids;
 
+  /** selects the ids which are not yet contained in {@link #ids}, may be <code>null</code> */
+  protected ProcessInstanceQueryCursor processInstanceQueryCursor;
+
   public BatchConfiguration(List<String> ids) {
     this.ids = ids;
   }
@@ -34,4 +37,23 @@ public class BatchConfiguration {
     this.ids = ids;
   }
 
+  public ProcessInstanceQueryCursor getProcessInstanceQueryCursor() {
+    return processInstanceQueryCursor;
+  }
+
+  public void setProcessInstanceQueryCursor(ProcessInstanceQueryCursor processInstanceQueryCursor) {
+    this.processInstanceQueryCursor = processInstanceQueryCursor;
+  }
+
+  /**
+   * @return the number of ids, including the ones still to be selected by the cursor
+   */
+  public int getNumberOfIds() {
+    int numberOfIds = ids.size();
+    if (processInstanceQueryCursor != null) {
+      numberOfIds += processInstanceQueryCursor.getRemainingIds();
+    }
+    return numberOfIds;
+  }
+
 }
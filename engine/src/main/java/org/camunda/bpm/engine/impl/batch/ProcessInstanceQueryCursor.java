@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.identity.Authentication;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.json.JsonProcessInstanceQueryConverter;
+
+/**
+ * Keyset cursor over the ids of the process instances matched by a query.
+ * A batch stores the cursor instead of all ids, and each batch seed job
+ * invocation selects the next ids ordered by id from the database.
+ *
+ * <p>The ids are selected with the authentication of the user who created the batch.
+ * At most the number of process instances matched when the batch was created are selected.</p>
+ *
+ * <p>Since the runtime process instances have no creation time, the cursor cannot exclude
+ * process instances started after the batch was created. It must therefore only be used for
+ * batches whose operation is reversible, i.e. not for deleting or migrating process instances.</p>
+ *
+ * @see ProcessInstanceQueryCursorJsonConverter
+ */
+public class ProcessInstanceQueryCursor {
+
+  protected ProcessInstanceQueryImpl query;
+  protected String lastId;
+  protected int remainingIds;
+
+  protected String authUserId;
+  protected List<String> authGroupIds;
+  protected List<String> authTenantIds;
+
+  public ProcessInstanceQueryCursor(ProcessInstanceQueryImpl query, int remainingIds) {
+    this.query = query;
+    this.remainingIds = remainingIds;
+  }
+
+  /**
+   * @return a cursor over the process instances matched by the query or
+   * <code>null</code> if the ids of the process instances have to be collected,
+   * either because the cursor is disabled, the query cannot be stored or it
+   * does not match any process instance
+   */
+  public static ProcessInstanceQueryCursor create(CommandContext commandContext, ProcessInstanceQueryImpl query) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    if (!processEngineConfiguration.isBatchQueryCursorEnabled()
+        || !JsonProcessInstanceQueryConverter.INSTANCE.isConvertible(query)) {
+      return null;
+    }
+
+    long count = query.executeCount(commandContext);
+    if (count == 0) {
+      return null;
+    }
+
+    ProcessInstanceQueryCursor cursor = new ProcessInstanceQueryCursor(query, (int) Math.min(count, Integer.MAX_VALUE));
+
+    Authentication currentAuthentication = commandContext.getAuthentication();
+    if (currentAuthentication != null) {
+      cursor.setAuthUserId(currentAuthentication.getUserId());
+      cursor.setAuthGroupIds(currentAuthentication.getGroupIds());
+      cursor.setAuthTenantIds(currentAuthentication.getTenantIds());
+    }
+
+    return cursor;
+  }
+
+  /**
+   * Selects the next ids and moves the cursor behind them.
+   */
+  public List<String> nextIds(CommandContext commandContext, int maxResults) {
+    if (isExhausted() || maxResults <= 0) {
+      return new ArrayList<String>();
+    }
+
+    int numberOfIds = Math.min(maxResults, remainingIds);
+    query.setProcessInstanceIdAfter(lastId);
+
+    List<String> ids;
+    IdentityService identityService = commandContext.getProcessEngineConfiguration().getIdentityService();
+    Authentication currentAuthentication = identityService.getCurrentAuthentication();
+    if (authUserId != null) {
+      identityService.setAuthentication(authUserId, authGroupIds, authTenantIds);
+    }
+    try {
+      ids = query.executeIdsList(commandContext, new Page(0, numberOfIds));
+    }
+    finally {
+      identityService.setAuthentication(currentAuthentication);
+    }
+
+    if (ids.size() < numberOfIds) {
+      remainingIds = 0;
+    }
+    else {
+      remainingIds -= ids.size();
+    }
+
+    if (!ids.isEmpty()) {
+      lastId = ids.get(ids.size() - 1);
+    }
+
+    return ids;
+  }
+
+  public boolean isExhausted() {
+    return remainingIds <= 0;
+  }
+
+  public ProcessInstanceQueryImpl getQuery() {
+    return query;
+  }
+
+  public String getLastId() {
+    return lastId;
+  }
+
+  public void setLastId(String lastId) {
+    this.lastId = lastId;
+  }
+
+  public int getRemainingIds() {
+    return remainingIds;
+  }
+
+  public String getAuthUserId() {
+    return authUserId;
+  }
+
+  public void setAuthUserId(String authUserId) {
+    this.authUserId = authUserId;
+  }
+
+  public List<String> getAuthGroupIds() {
+    return authGroupIds;
+  }
+
+  public void setAuthGroupIds(List<String> authGroupIds) {
+    this.authGroupIds = authGroupIds;
+  }
+
+  public List<String> getAuthTenantIds() {
+    return authTenantIds;
+  }
+
+  public void setAuthTenantIds(List<String> authTenantIds) {
+    this.authTenantIds = authTenantIds;
+  }
+
+}
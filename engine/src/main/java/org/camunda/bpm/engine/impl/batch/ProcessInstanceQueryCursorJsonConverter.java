@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
+import org.camunda.bpm.engine.impl.json.JsonProcessInstanceQueryConverter;
+import org.camunda.bpm.engine.impl.util.JsonUtil;
+import org.camunda.bpm.engine.impl.util.json.JSONArray;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+
+/**
+ * Perform serialization of {@link ProcessInstanceQueryCursor} into JSON format.
+ */
+public class ProcessInstanceQueryCursorJsonConverter extends JsonObjectConverter<ProcessInstanceQueryCursor> {
+
+  public static final ProcessInstanceQueryCursorJsonConverter INSTANCE = new ProcessInstanceQueryCursorJsonConverter();
+
+  public static final String QUERY = "query";
+  public static final String LAST_ID = "lastId";
+  public static final String REMAINING_IDS = "remainingIds";
+  public static final String AUTH_USER_ID = "authUserId";
+  public static final String AUTH_GROUP_IDS = "authGroupIds";
+  public static final String AUTH_TENANT_IDS = "authTenantIds";
+
+  public JSONObject toJsonObject(ProcessInstanceQueryCursor cursor) {
+    JSONObject json = new JSONObject();
+
+    JsonUtil.addField(json, QUERY, JsonProcessInstanceQueryConverter.INSTANCE, cursor.getQuery());
+    JsonUtil.addField(json, LAST_ID, cursor.getLastId());
+    JsonUtil.addField(json, REMAINING_IDS, cursor.getRemainingIds());
+    JsonUtil.addField(json, AUTH_USER_ID, cursor.getAuthUserId());
+    JsonUtil.addListField(json, AUTH_GROUP_IDS, cursor.getAuthGroupIds());
+    JsonUtil.addListField(json, AUTH_TENANT_IDS, cursor.getAuthTenantIds());
+
+    return json;
+  }
+
+  public ProcessInstanceQueryCursor toObject(JSONObject json) {
+    ProcessInstanceQueryImpl query = JsonUtil.jsonObject(json.getJSONObject(QUERY), JsonProcessInstanceQueryConverter.INSTANCE);
+    ProcessInstanceQueryCursor cursor = new ProcessInstanceQueryCursor(query, json.getInt(REMAINING_IDS));
+
+    if (json.has(LAST_ID)) {
+      cursor.setLastId(json.getString(LAST_ID));
+    }
+    if (json.has(AUTH_USER_ID)) {
+      cursor.setAuthUserId(json.getString(AUTH_USER_ID));
+    }
+    if (json.has(AUTH_GROUP_IDS)) {
+      cursor.setAuthGroupIds(readList(json.getJSONArray(AUTH_GROUP_IDS)));
+    }
+    if (json.has(AUTH_TENANT_IDS)) {
+      cursor.setAuthTenantIds(readList(json.getJSONArray(AUTH_TENANT_IDS)));
+    }
+
+    return cursor;
+  }
+
+  protected List<String> readList(JSONArray array) {
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < array.length(); i++) {
+      list.add(array.getString(i));
+    }
+    return list;
+  }
+
+}
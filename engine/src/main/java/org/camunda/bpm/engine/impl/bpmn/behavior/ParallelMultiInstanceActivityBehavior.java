@@ -42,10 +42,7 @@ public class ParallelMultiInstanceActivityBehavior extends MultiInstanceActivity
     // initialize the scope and create the desired number of child executions
     prepareScopeExecution(execution, nrOfInstances);
 
-    List<ActivityExecution> concurrentExecutions = new ArrayList<ActivityExecution>();
-    for (int i = 0; i < nrOfInstances; i++) {
-      concurrentExecutions.add(createConcurrentExecution(execution));
-    }
+    List<ActivityExecution> concurrentExecutions = createConcurrentExecutions(execution, nrOfInstances);
 
     // start the concurrent child executions
     // start executions in reverse order (order will be reversed again in command context with the effect that they are
@@ -73,6 +70,32 @@ public class ParallelMultiInstanceActivityBehavior extends MultiInstanceActivity
     return concurrentChild;
   }
 
+  /**
+   * Creates the given number of concurrent children at once, so that their ids are
+   * allocated together and the scope execution is updated only once.
+   */
+  protected List<ActivityExecution> createConcurrentExecutions(ActivityExecution scopeExecution, int nrOfInstances) {
+    List<ActivityExecution> concurrentExecutions = new ArrayList<ActivityExecution>(nrOfInstances);
+
+    if (scopeExecution instanceof ExecutionEntity) {
+      for (ExecutionEntity concurrentChild : ((ExecutionEntity) scopeExecution).createExecutions(nrOfInstances)) {
+        concurrentChild.setConcurrent(true);
+        concurrentChild.setScope(false);
+        concurrentExecutions.add(concurrentChild);
+      }
+      if (nrOfInstances > 0) {
+        scopeExecution.forceUpdate();
+      }
+    }
+    else {
+      for (int i = 0; i < nrOfInstances; i++) {
+        concurrentExecutions.add(createConcurrentExecution(scopeExecution));
+      }
+    }
+
+    return concurrentExecutions;
+  }
+
   @Override
   public void concurrentChildExecutionEnded(ActivityExecution scopeExecution, ActivityExecution endedExecution) {
 
@@ -129,11 +152,9 @@ public class ParallelMultiInstanceActivityBehavior extends MultiInstanceActivity
 
     prepareScopeExecution(scopeExecution, numberOfInstances);
 
-    List<ActivityExecution> executions = new ArrayList<ActivityExecution>();
+    List<ActivityExecution> executions = createConcurrentExecutions(scopeExecution, numberOfInstances);
     for (int i = 0; i < numberOfInstances; i++) {
-      ActivityExecution concurrentChild = createConcurrentExecution(scopeExecution);
-      setLoopVariable(concurrentChild, LOOP_COUNTER, i);
-      executions.add(concurrentChild);
+      setLoopVariable(executions.get(i), LOOP_COUNTER, i);
     }
 
     return executions;
@@ -15,6 +15,8 @@
  */
 package org.camunda.bpm.engine.impl.cfg;
 
+import java.sql.SQLException;
+
 import javax.naming.NamingException;
 
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -90,5 +92,16 @@ public class ConfigurationLogger extends ProcessEngineLogger {
       "Invalid value '{}' for configuration property '{}'.", propertyValue, propertyName), e);
   }
 
+  public void jdbcBatchProcessingNotSupported(String driverName, String driverVersion) {
+    logWarn(
+      "012", "JDBC driver '{}' in version '{}' does not report update counts for batched statements. " +
+        "Falling back to single statement execution, 'jdbcBatchProcessing' is disabled.", driverName, driverVersion);
+  }
+
+  public void jdbcBatchProcessingSupportCheckFailed(SQLException e) {
+    logWarn(
+      "013", "Could not check whether the JDBC driver reports update counts for batched statements, " +
+        "keeping the configured value of 'jdbcBatchProcessing': {}", e.getMessage(), e);
+  }
 
 }
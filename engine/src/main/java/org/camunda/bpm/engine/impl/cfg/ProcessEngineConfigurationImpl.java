@@ -130,6 +130,7 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformListener;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.impl.db.StripedDbIdGenerator;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
@@ -177,6 +178,7 @@ import org.camunda.bpm.engine.impl.history.DefaultHistoryRemovalTimeProvider;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.HistoryRemovalTimeProvider;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceManager;
+import org.camunda.bpm.engine.impl.history.handler.AsyncHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
@@ -223,6 +225,8 @@ import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupBatc
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHelper;
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobHandler;
+import org.camunda.bpm.engine.impl.juel.ConcurrentCache;
+import org.camunda.bpm.engine.impl.juel.TreeCache;
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.metrics.MetricsReporterIdProvider;
 import org.camunda.bpm.engine.impl.metrics.SimpleIpBasedProvider;
@@ -440,6 +444,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected int cacheCapacity = 1000;
   protected boolean enableFetchProcessDefinitionDescription = true;
 
+  /**
+   * If true, message start events are correlated using an index in the deployment cache
+   * instead of querying the event subscriptions. The index is only updated by deployments
+   * of this process engine, so it must not be enabled if other process engines deploy
+   * to the same database.
+   */
+  protected boolean isMessageStartEventIndexEnabled = false;
+
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
   protected List<JobHandler> customJobHandlers;
@@ -451,6 +463,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   // EXTERNAL TASK /////////////////////////////////////////////////////////////
   protected PriorityProvider<ExternalTaskActivityBehavior> externalTaskPriorityProvider;
 
+  /**
+   * If true, external tasks are fetched with <code>SELECT ... FOR UPDATE SKIP LOCKED</code>,
+   * so that concurrent workers skip the external tasks locked by each other instead of
+   * failing to lock them on flush. Only used on PostgreSQL, Oracle and MySQL, which
+   * must be MySQL 8.0.1 or newer. Other databases keep the default fetch.
+   */
+  protected boolean isSkipLockedExternalTaskFetchEnabled = false;
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
@@ -462,6 +482,18 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected DataSource idGeneratorDataSource;
   protected String idGeneratorDataSourceJndiName;
 
+  /**
+   * If set to a value greater than one, the default id generator holds a block of ids
+   * for each of this number of stripes, such that threads draw ids without a global monitor.
+   */
+  protected int idGeneratorStripes = 1;
+
+  /**
+   * If true, the default id generator fetches the next block of ids before the current block
+   * is exhausted.
+   */
+  protected boolean idGeneratorPrefetch = false;
+
   // INCIDENT HANDLER /////////////////////////////////////////////////////////
 
   protected Map<String, IncidentHandler> incidentHandlers;
@@ -480,6 +512,16 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    * Number of invocations executed by a single batch job
    */
   protected int invocationsPerBatchJob = 1;
+  /**
+   * If true, batches which update the suspension state of the process instances
+   * matched by a query only store the query and the last seen process instance id
+   * instead of all ids. Each batch seed job invocation then selects the next ids
+   * from the database. Process instances which match the query only after the batch
+   * was created can therefore be included, up to the number of instances matched on
+   * creation. Deletion and migration batches always collect the ids on creation,
+   * since they must not act on process instances started afterwards.
+   */
+  protected boolean batchQueryCursorEnabled = false;
   /**
    * seconds to wait between polling for batch completion
    */
@@ -509,6 +551,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected Charset defaultCharset = null;
 
   protected ExpressionManager expressionManager;
+
+  /**
+   * The cache for parsed expressions used by the default {@link ExpressionManager}, e.g. a
+   * {@link ConcurrentCache}. If <code>null</code>, the JUEL default cache is used.
+   * Not considered if a custom expression manager is set.
+   */
+  protected TreeCache expressionTreeCache;
   protected ScriptingEngines scriptingEngines;
   protected List<ResolverFactory> resolverFactories;
   protected ScriptingEnvironment scriptingEnvironment;
@@ -618,8 +667,40 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected HistoryEventHandler historyEventHandler;
 
+  /**
+   * If true, history events are written by a pool of writer threads after the
+   * transaction producing them has been committed. Default setting is false.
+   *
+   * @see AsyncHistoryEventHandler
+   */
+  protected boolean isAsyncHistoryEnabled = false;
+
+  /** The maximum number of history events waiting to be written asynchronously. */
+  protected int asyncHistoryQueueCapacity = 10000;
+
+  /** The maximum number of history events written asynchronously in one transaction. */
+  protected int asyncHistoryBatchSize = 100;
+
+  protected int asyncHistoryWriterThreads = 1;
+
+  /**
+   * The file history events are spilled to if the queue of the asynchronous history is full.
+   * If not set, committing transactions wait until the queue has capacity again.
+   */
+  protected String asyncHistoryJournalFile;
+
+  protected AsyncHistoryEventHandler asyncHistoryEventHandler;
+
   protected boolean isExecutionTreePrefetchEnabled = true;
 
+  /**
+   * If true, the variables, event subscriptions and tasks of a process instance are
+   * fetched together with its execution tree, with one query per kind of entity.
+   * Requires execution tree prefetching to be enabled. Default setting is false,
+   * enabling it saves the lazy loading queries per execution in wide process instances.
+   */
+  protected boolean isInstanceSnapshotPrefetchEnabled = false;
+
   /**
    * If true the process engine will attempt to acquire an exclusive lock before
    * creating a deployment.
@@ -637,6 +718,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean isDbEntityCacheReuseEnabled = false;
 
+  /**
+   * If true, the content of file variables read from the database is fetched when it is
+   * accessed for the first time, in a new command if accessed after the reading command
+   * has ended. The content then reflects the state at the time of access rather than
+   * the time of reading. Default setting is false.
+   */
+  protected boolean isLazyFileValueFetchingEnabled = false;
+
   protected boolean isInvokeCustomVariableListeners = true;
 
   /**
@@ -661,6 +750,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected boolean isMetricsEnabled = true;
   protected boolean isDbMetricsReporterActivate = true;
 
+  /**
+   * If true, durations of job executions, job acquisition cycles and database flushes
+   * are recorded as metrics, see {@link Metrics#JOB_EXECUTION_DURATION}. Each of them
+   * adds six metrics to every report.
+   */
+  protected boolean isDurationMetricsEnabled = false;
+
   protected MetricsReporterIdProvider metricsReporterIdProvider;
 
   /**
@@ -765,6 +861,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    * Indicates the minimal amount of data to trigger the history cleanup.
    */
   private int historyCleanupBatchThreshold = 10;
+  /**
+   * Maximum number of batches a history cleanup job deletes in one execution with the
+   * removal-time-based strategy. Each batch is deleted in a separate transaction; further
+   * batches are only deleted as long as a table has more data to clean up.
+   */
+  protected int historyCleanupRoundsPerJob = 1;
 
   private boolean historyCleanupMetricsEnabled = true;
 
@@ -894,6 +996,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
           String.format("value for batch size should be between 1 and %s", HistoryCleanupHandler.MAX_BATCH_SIZE));
     }
 
+    if (historyCleanupRoundsPerJob < 1) {
+      throw LOG.invalidPropertyValue("historyCleanupRoundsPerJob", String.valueOf(historyCleanupRoundsPerJob),
+          "History cleanup rounds per job must be at least 1.");
+    }
+
     if (historyCleanupBatchThreshold < 0) {
       throw LOG.invalidPropertyValue("historyCleanupBatchThreshold", String.valueOf(historyCleanupBatchThreshold),
           "History cleanup batch threshold cannot be negative.");
@@ -1258,6 +1365,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if (databaseType == null) {
       initDatabaseType();
     }
+
+    if (jdbcBatchProcessing) {
+      initJdbcBatchProcessing();
+    }
   }
 
   protected static Properties databaseTypeMappings = getDefaultDatabaseTypeMappings();
@@ -1321,6 +1432,46 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  /**
+   * Disables JDBC batch processing if the driver is not able to report an update count
+   * per batched statement. Without these counts, failed optimistic locking updates and
+   * deletes cannot be detected after flushing a batch.
+   */
+  protected void initJdbcBatchProcessing() {
+    Connection connection = null;
+    try {
+      connection = dataSource.getConnection();
+      DatabaseMetaData databaseMetaData = connection.getMetaData();
+      if (!isJdbcBatchUpdateCountSupported(databaseMetaData)) {
+        LOG.jdbcBatchProcessingNotSupported(databaseMetaData.getDriverName(), databaseMetaData.getDriverVersion());
+        jdbcBatchProcessing = false;
+      }
+
+    } catch (SQLException e) {
+      LOG.jdbcBatchProcessingSupportCheckFailed(e);
+    } finally {
+      try {
+        if (connection != null) {
+          connection.close();
+        }
+      } catch (SQLException ignore) {
+      }
+    }
+  }
+
+  protected boolean isJdbcBatchUpdateCountSupported(DatabaseMetaData databaseMetaData) throws SQLException {
+    if (!databaseMetaData.supportsBatchUpdates()) {
+      return false;
+    }
+
+    // Oracle drivers prior to 12c return Statement.SUCCESS_NO_INFO for every batched prepared statement
+    if (DbSqlSessionFactory.ORACLE.equals(databaseType) && databaseMetaData.getDriverMajorVersion() < 12) {
+      return false;
+    }
+
+    return true;
+  }
+
   /**
    * The product name of mariadb is still 'MySQL'. This method
    * tries if it can find some evidence for mariadb. If it is successful
@@ -1956,7 +2107,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         idGeneratorCommandExecutor = commandExecutorTxRequiresNew;
       }
 
-      DbIdGenerator dbIdGenerator = new DbIdGenerator();
+      DbIdGenerator dbIdGenerator;
+      if (idGeneratorStripes > 1 || idGeneratorPrefetch) {
+        StripedDbIdGenerator stripedDbIdGenerator = new StripedDbIdGenerator();
+        stripedDbIdGenerator.setStripes(idGeneratorStripes);
+        stripedDbIdGenerator.setPrefetch(idGeneratorPrefetch);
+        dbIdGenerator = stripedDbIdGenerator;
+      } else {
+        dbIdGenerator = new DbIdGenerator();
+      }
       dbIdGenerator.setIdBlockSize(idBlockSize);
       dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
       idGenerator = dbIdGenerator;
@@ -2024,6 +2183,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     metricsRegistry.createMeter(Metrics.JOB_LOCKED_EXCLUSIVE);
     metricsRegistry.createMeter(Metrics.JOB_EXECUTION_REJECTED);
 
+    if (isDurationMetricsEnabled) {
+      metricsRegistry.createTimer(Metrics.JOB_EXECUTION_DURATION);
+      metricsRegistry.createTimer(Metrics.JOB_ACQUISITION_CYCLE_DURATION);
+      metricsRegistry.createTimer(Metrics.DB_FLUSH_DURATION);
+    }
+
     metricsRegistry.createMeter(Metrics.EXECUTED_DECISION_ELEMENTS);
   }
 
@@ -2155,7 +2320,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initExpressionManager() {
     if (expressionManager == null) {
-      expressionManager = new ExpressionManager(beans);
+      if (expressionTreeCache != null) {
+        expressionManager = new ExpressionManager(beans, expressionTreeCache);
+      }
+      else {
+        expressionManager = new ExpressionManager(beans);
+      }
     }
 
     // add function mapper for command context (eg currentUser(), currentUserGroups())
@@ -2294,6 +2464,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if (historyEventHandler == null) {
       historyEventHandler = new DbHistoryEventHandler();
     }
+
+    if (isAsyncHistoryEnabled && asyncHistoryEventHandler == null) {
+      asyncHistoryEventHandler = new AsyncHistoryEventHandler(historyEventHandler, asyncHistoryQueueCapacity,
+          asyncHistoryBatchSize, asyncHistoryWriterThreads, asyncHistoryJournalFile);
+      historyEventHandler = asyncHistoryEventHandler;
+    }
   }
 
   // password digest //////////////////////////////////////////////////////////
@@ -2615,6 +2791,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.externalTaskPriorityProvider = externalTaskPriorityProvider;
   }
 
+  public boolean isSkipLockedExternalTaskFetchEnabled() {
+    return isSkipLockedExternalTaskFetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setSkipLockedExternalTaskFetchEnabled(boolean isSkipLockedExternalTaskFetchEnabled) {
+    this.isSkipLockedExternalTaskFetchEnabled = isSkipLockedExternalTaskFetchEnabled;
+    return this;
+  }
+
   public IdGenerator getIdGenerator() {
     return idGenerator;
   }
@@ -2686,6 +2871,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public TreeCache getExpressionTreeCache() {
+    return expressionTreeCache;
+  }
+
+  public ProcessEngineConfigurationImpl setExpressionTreeCache(TreeCache expressionTreeCache) {
+    this.expressionTreeCache = expressionTreeCache;
+    return this;
+  }
+
   public BusinessCalendarManager getBusinessCalendarManager() {
     return businessCalendarManager;
   }
@@ -2747,6 +2941,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.enableFetchProcessDefinitionDescription = enableFetchProcessDefinitionDescription;
   }
 
+  public boolean isMessageStartEventIndexEnabled() {
+    return isMessageStartEventIndexEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setMessageStartEventIndexEnabled(boolean isMessageStartEventIndexEnabled) {
+    this.isMessageStartEventIndexEnabled = isMessageStartEventIndexEnabled;
+    return this;
+  }
+
   public boolean getEnableFetchProcessDefinitionDescription() {
     return this.enableFetchProcessDefinitionDescription;
   }
@@ -3233,6 +3436,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.idGeneratorDataSourceJndiName = idGeneratorDataSourceJndiName;
   }
 
+  public int getIdGeneratorStripes() {
+    return idGeneratorStripes;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorStripes(int idGeneratorStripes) {
+    this.idGeneratorStripes = idGeneratorStripes;
+    return this;
+  }
+
+  public boolean isIdGeneratorPrefetch() {
+    return idGeneratorPrefetch;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorPrefetch(boolean idGeneratorPrefetch) {
+    this.idGeneratorPrefetch = idGeneratorPrefetch;
+    return this;
+  }
+
   public ProcessApplicationManager getProcessApplicationManager() {
     return processApplicationManager;
   }
@@ -3326,6 +3547,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.invocationsPerBatchJob = invocationsPerBatchJob;
   }
 
+  public boolean isBatchQueryCursorEnabled() {
+    return batchQueryCursorEnabled;
+  }
+
+  public void setBatchQueryCursorEnabled(boolean batchQueryCursorEnabled) {
+    this.batchQueryCursorEnabled = batchQueryCursorEnabled;
+  }
+
   public int getBatchPollTime() {
     return batchPollTime;
   }
@@ -3457,6 +3686,63 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.isExecutionTreePrefetchEnabled = isExecutionTreePrefetchingEnabled;
   }
 
+  public boolean isInstanceSnapshotPrefetchEnabled() {
+    return isInstanceSnapshotPrefetchEnabled;
+  }
+
+  public void setInstanceSnapshotPrefetchEnabled(boolean isInstanceSnapshotPrefetchEnabled) {
+    this.isInstanceSnapshotPrefetchEnabled = isInstanceSnapshotPrefetchEnabled;
+  }
+
+  public boolean isAsyncHistoryEnabled() {
+    return isAsyncHistoryEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncHistoryEnabled(boolean isAsyncHistoryEnabled) {
+    this.isAsyncHistoryEnabled = isAsyncHistoryEnabled;
+    return this;
+  }
+
+  public int getAsyncHistoryQueueCapacity() {
+    return asyncHistoryQueueCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncHistoryQueueCapacity(int asyncHistoryQueueCapacity) {
+    this.asyncHistoryQueueCapacity = asyncHistoryQueueCapacity;
+    return this;
+  }
+
+  public int getAsyncHistoryBatchSize() {
+    return asyncHistoryBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncHistoryBatchSize(int asyncHistoryBatchSize) {
+    this.asyncHistoryBatchSize = asyncHistoryBatchSize;
+    return this;
+  }
+
+  public int getAsyncHistoryWriterThreads() {
+    return asyncHistoryWriterThreads;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncHistoryWriterThreads(int asyncHistoryWriterThreads) {
+    this.asyncHistoryWriterThreads = asyncHistoryWriterThreads;
+    return this;
+  }
+
+  public String getAsyncHistoryJournalFile() {
+    return asyncHistoryJournalFile;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncHistoryJournalFile(String asyncHistoryJournalFile) {
+    this.asyncHistoryJournalFile = asyncHistoryJournalFile;
+    return this;
+  }
+
+  public AsyncHistoryEventHandler getAsyncHistoryEventHandler() {
+    return asyncHistoryEventHandler;
+  }
+
   public ProcessEngineImpl getProcessEngine() {
     return processEngine;
   }
@@ -3630,6 +3916,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isLazyFileValueFetchingEnabled() {
+    return isLazyFileValueFetchingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setLazyFileValueFetchingEnabled(boolean isLazyFileValueFetchingEnabled) {
+    this.isLazyFileValueFetchingEnabled = isLazyFileValueFetchingEnabled;
+    return this;
+  }
+
   public DbEntityCacheKeyMapping getDbEntityCacheKeyMapping() {
     return dbEntityCacheKeyMapping;
   }
@@ -3668,6 +3963,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       // ACT-233: connection pool of Ibatis is not properely initialized if this is not called!
       ((PooledDataSource) dataSource).forceCloseAll();
     }
+
+    if (idGenerator instanceof StripedDbIdGenerator) {
+      ((StripedDbIdGenerator) idGenerator).close();
+    }
   }
 
   public MetricsRegistry getMetricsRegistry() {
@@ -3688,6 +3987,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return isMetricsEnabled;
   }
 
+  public boolean isDurationMetricsEnabled() {
+    return isDurationMetricsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDurationMetricsEnabled(boolean isDurationMetricsEnabled) {
+    this.isDurationMetricsEnabled = isDurationMetricsEnabled;
+    return this;
+  }
+
   public DbMetricsReporter getDbMetricsReporter() {
     return dbMetricsReporter;
   }
@@ -4120,6 +4428,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.historyCleanupBatchThreshold = historyCleanupBatchThreshold;
   }
 
+  public int getHistoryCleanupRoundsPerJob() {
+    return historyCleanupRoundsPerJob;
+  }
+
+  public void setHistoryCleanupRoundsPerJob(int historyCleanupRoundsPerJob) {
+    this.historyCleanupRoundsPerJob = historyCleanupRoundsPerJob;
+  }
+
   public boolean isHistoryCleanupMetricsEnabled() {
     return historyCleanupMetricsEnabled;
   }
@@ -38,6 +38,7 @@ import org.camunda.bpm.engine.impl.pvm.process.ActivityStartBehavior;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
 import org.camunda.bpm.engine.impl.pvm.process.TransitionImpl;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 import org.camunda.bpm.engine.impl.tree.ActivityStackCollector;
 import org.camunda.bpm.engine.impl.tree.FlowScopeWalker;
 import org.camunda.bpm.engine.impl.tree.ReferenceWalker;
@@ -100,7 +101,8 @@ public abstract class AbstractInstantiationCmd extends AbstractProcessInstanceMo
         elementToInstantiate);
 
     // rebuild the mapping because the execution tree changes with every iteration
-    final ActivityExecutionTreeMapping mapping = new ActivityExecutionTreeMapping(commandContext, processInstanceId);
+    final ActivityExecutionMappingCache mappingCache = new ActivityExecutionMappingCache();
+    final ActivityExecutionTreeMapping mapping = new ActivityExecutionTreeMapping(commandContext, processInstanceId, mappingCache);
 
     // before instantiating an activity, two things have to be determined:
     //
@@ -147,7 +149,7 @@ public abstract class AbstractInstantiationCmd extends AbstractProcessInstanceMo
     else {
       ActivityInstance tree = commandContext.runWithoutAuthorization(new Callable<ActivityInstance>() {
         public ActivityInstance call() throws Exception {
-          return new GetActivityInstanceCmd(processInstanceId).execute(commandContext);
+          return new GetActivityInstanceCmd(processInstanceId, mappingCache).execute(commandContext);
         }
       });
 
@@ -293,4 +293,11 @@ public class CommandLogger extends ProcessEngineLogger {
       "043",
       "No subscriptions were found during evaluation of the conditional start events."));
   }
+
+  public void debugBulkMessageCorrelationFailed(int numberOfMessages, Exception cause) {
+    logDebug(
+      "044",
+      "Correlating {} messages in one command failed, correlating each message in its own command: {}",
+      numberOfMessages, cause.getMessage());
+  }
 }
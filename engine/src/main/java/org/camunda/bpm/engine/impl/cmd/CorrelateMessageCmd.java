@@ -47,6 +47,16 @@ public class CorrelateMessageCmd extends AbstractCorrelateMessageCmd implements
   }
 
   public MessageCorrelationResult execute(final CommandContext commandContext) {
+    CorrelationHandlerResult correlationResult = correlate(commandContext);
+
+    return createMessageCorrelationResult(commandContext, correlationResult);
+  }
+
+  /**
+   * Finds the execution or process definition the message is correlated to and
+   * checks the authorization. Does not change any state.
+   */
+  protected CorrelationHandlerResult correlate(final CommandContext commandContext) {
     ensureAtLeastOneNotNull(
         "At least one of the following correlation criteria has to be present: " + "messageName, businessKey, correlationKeys, processInstanceId", messageName,
         builder.getBusinessKey(), builder.getCorrelationProcessInstanceVariables(), builder.getProcessInstanceId());
@@ -66,6 +76,6 @@ public class CorrelateMessageCmd extends AbstractCorrelateMessageCmd implements
     // check authorization
     checkAuthorization(correlationResult);
 
-    return createMessageCorrelationResult(commandContext, correlationResult);
+    return correlationResult;
   }
 }
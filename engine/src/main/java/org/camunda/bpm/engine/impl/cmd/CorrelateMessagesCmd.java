@@ -0,0 +1,278 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.MessageCorrelationBuilderImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.runtime.CorrelationHandler;
+import org.camunda.bpm.engine.impl.runtime.CorrelationHandlerResult;
+import org.camunda.bpm.engine.impl.runtime.CorrelationSet;
+import org.camunda.bpm.engine.impl.runtime.DefaultCorrelationHandler;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationBulkResultImpl;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+
+/**
+ * <p>Correlates several messages in one command, each one like
+ * {@link CorrelateMessageCmd}.</p>
+ *
+ * <p>The message event subscriptions for all message names are loaded with one query
+ * up front. With the default correlation handler, a message that no execution and no
+ * process definition is subscribed to fails without further queries, and a message
+ * that only process definitions are subscribed to is not matched against executions.</p>
+ *
+ * <p>If a message cannot be correlated, the failure is returned as its result and the
+ * remaining messages are correlated. An exception thrown while continuing an execution
+ * or starting a process instance aborts the command.</p>
+ *
+ * <p>Executions and subscriptions created in the command are not flushed and cannot be
+ * found by the correlation queries. The command therefore stops before a message which
+ * may be correlated to such a subscription and returns the results of the messages
+ * correlated so far. The remaining messages have to be correlated in another command.</p>
+ *
+ * <p>Likewise, subscriptions deleted in the command are still found by the correlation
+ * queries. A message matching an execution which received a message in the command is
+ * not correlated to it. If such a message cannot be correlated, the command stops before
+ * it, so that it is correlated against the flushed state in another command.</p>
+ */
+public class CorrelateMessagesCmd implements Command<List<MessageCorrelationBulkResult>> {
+
+  private final static CommandLogger LOG = ProcessEngineLogger.CMD_LOGGER;
+
+  protected final List<MessageCorrelationBuilderImpl> messageCorrelations;
+
+  /** names of the messages which executions are subscribed to */
+  protected Set<String> executionSubscriptionNames = new HashSet<String>();
+
+  /** names of the messages which message start events are subscribed to */
+  protected Set<String> startEventSubscriptionNames = new HashSet<String>();
+
+  /** names of the messages which subscriptions have been created for in the current command */
+  protected Set<String> createdSubscriptionNames = new HashSet<String>();
+
+  /** number of subscriptions created in the current command which have been added to the names */
+  protected int knownCreatedSubscriptions = 0;
+
+  public CorrelateMessagesCmd(List<MessageCorrelationBuilderImpl> messageCorrelations) {
+    this.messageCorrelations = messageCorrelations;
+  }
+
+  public List<MessageCorrelationBulkResult> execute(CommandContext commandContext) {
+    ensureNotNull("messageCorrelations", messageCorrelations);
+
+    findSubscribedMessageNames(commandContext);
+
+    List<MessageCorrelationBulkResult> results = new ArrayList<MessageCorrelationBulkResult>(messageCorrelations.size());
+    for (MessageCorrelationBuilderImpl messageCorrelation : messageCorrelations) {
+      if (!results.isEmpty() && isSubscriptionCreatedForMessage(commandContext, messageCorrelation.getMessageName())) {
+        // the message is correlated in the next command
+        break;
+      }
+
+      BulkCorrelateMessageCmd correlateMessageCmd = new BulkCorrelateMessageCmd(messageCorrelation);
+
+      CorrelationHandlerResult correlationResult = null;
+      ProcessEngineException correlationException = null;
+      try {
+        correlationResult = correlateMessageCmd.correlate(commandContext);
+      } catch (ProcessEngineException e) {
+        correlationException = e;
+      }
+
+      if (correlationException instanceof MismatchingMessageCorrelationException
+          && !results.isEmpty()
+          && isSubscriptionDeletedForMessage(commandContext, messageCorrelation.getMessageName())) {
+        // the message is correlated in the next command
+        break;
+      }
+
+      if (correlationException == null) {
+        results.add(MessageCorrelationBulkResultImpl.correlated(correlateMessageCmd.createMessageCorrelationResult(commandContext, correlationResult)));
+      } else {
+        results.add(MessageCorrelationBulkResultImpl.failed(correlationException));
+      }
+    }
+
+    return results;
+  }
+
+  protected void findSubscribedMessageNames(CommandContext commandContext) {
+    Set<String> messageNames = new HashSet<String>();
+    for (MessageCorrelationBuilderImpl messageCorrelation : messageCorrelations) {
+      if (messageCorrelation.getMessageName() != null) {
+        messageNames.add(messageCorrelation.getMessageName());
+      }
+    }
+
+    if (!messageNames.isEmpty()) {
+      List<EventSubscriptionEntity> subscriptions = commandContext
+        .getEventSubscriptionManager()
+        .findMessageEventSubscriptionsByNames(new ArrayList<String>(messageNames));
+      addSubscribedMessageNames(subscriptions);
+    }
+  }
+
+  /**
+   * @return true if a subscription for the given message was created by the messages
+   * correlated so far, e.g. by a process instance that was started. If the message
+   * name is null, any created subscription may match.
+   */
+  protected boolean isSubscriptionCreatedForMessage(CommandContext commandContext, String messageName) {
+    List<EventSubscriptionEntity> createdSubscriptions = commandContext
+      .getEventSubscriptionManager()
+      .getCreatedMessageSubscriptions();
+
+    for (int i = knownCreatedSubscriptions; i < createdSubscriptions.size(); i++) {
+      createdSubscriptionNames.add(createdSubscriptions.get(i).getEventName());
+    }
+    knownCreatedSubscriptions = createdSubscriptions.size();
+
+    if (messageName == null) {
+      return !createdSubscriptionNames.isEmpty();
+    } else {
+      return createdSubscriptionNames.contains(messageName);
+    }
+  }
+
+  /**
+   * @return true if a subscription for the given message was deleted by the messages
+   * correlated so far, e.g. by an execution that received a message. If the message
+   * name is null, any deleted subscription may match.
+   */
+  protected boolean isSubscriptionDeletedForMessage(CommandContext commandContext, String messageName) {
+    List<EventSubscriptionEntity> deletedSubscriptions = commandContext
+      .getEventSubscriptionManager()
+      .getDeletedMessageSubscriptions();
+
+    if (messageName == null) {
+      return !deletedSubscriptions.isEmpty();
+    }
+
+    for (EventSubscriptionEntity deletedSubscription : deletedSubscriptions) {
+      if (messageName.equals(deletedSubscription.getEventName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true if a message subscription of the given execution was deleted by the
+   * messages correlated so far, i.e. the execution has moved on and must not receive
+   * the message again
+   */
+  protected boolean isSubscriptionDeletedForExecution(CommandContext commandContext, String executionId, String messageName) {
+    List<EventSubscriptionEntity> deletedSubscriptions = commandContext
+      .getEventSubscriptionManager()
+      .getDeletedMessageSubscriptions();
+
+    for (EventSubscriptionEntity deletedSubscription : deletedSubscriptions) {
+      if (executionId.equals(deletedSubscription.getExecutionId())
+          && (messageName == null || messageName.equals(deletedSubscription.getEventName()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  protected void addSubscribedMessageNames(List<EventSubscriptionEntity> subscriptions) {
+    for (EventSubscriptionEntity subscription : subscriptions) {
+      if (subscription.getExecutionId() != null) {
+        executionSubscriptionNames.add(subscription.getEventName());
+      } else {
+        startEventSubscriptionNames.add(subscription.getEventName());
+      }
+    }
+  }
+
+  protected class BulkCorrelateMessageCmd extends CorrelateMessageCmd {
+
+    public BulkCorrelateMessageCmd(MessageCorrelationBuilderImpl messageCorrelationBuilderImpl) {
+      super(messageCorrelationBuilderImpl);
+    }
+
+    @Override
+    protected CorrelationHandlerResult correlate(CommandContext commandContext) {
+      CorrelationHandlerResult correlationResult = correlateMessage(commandContext);
+
+      ExecutionEntity execution = correlationResult.getExecutionEntity();
+      if (execution != null && isSubscriptionDeletedForExecution(commandContext, execution.getId(), messageName)) {
+        throw new MismatchingMessageCorrelationException(messageName, "No process definition or execution matches the parameters");
+      }
+
+      return correlationResult;
+    }
+
+    protected CorrelationHandlerResult correlateMessage(CommandContext commandContext) {
+      if (builder.getProcessDefinitionId() != null) {
+        throw LOG.exceptionCorrelateMessageWithProcessDefinitionId();
+      }
+      if (builder.getProcessInstanceId() != null && builder.isTenantIdSet()) {
+        throw LOG.exceptionCorrelateMessageWithProcessInstanceAndTenantId();
+      }
+
+      CorrelationHandler correlationHandler = commandContext.getProcessEngineConfiguration().getCorrelationHandler();
+      if (messageName == null || !(correlationHandler instanceof DefaultCorrelationHandler)) {
+        return super.correlate(commandContext);
+      }
+
+      if (executionSubscriptionNames.contains(messageName)) {
+        return super.correlate(commandContext);
+
+      } else if (startEventSubscriptionNames.contains(messageName)) {
+        return correlateStartMessage(commandContext, correlationHandler);
+
+      } else {
+        throw new MismatchingMessageCorrelationException(messageName, "No process definition or execution matches the parameters");
+      }
+    }
+
+    protected CorrelationHandlerResult correlateStartMessage(final CommandContext commandContext, final CorrelationHandler correlationHandler) {
+      final CorrelationSet correlationSet = new CorrelationSet(builder);
+      List<CorrelationHandlerResult> correlationResults = commandContext.runWithoutAuthorization(new Callable<List<CorrelationHandlerResult>>() {
+        public List<CorrelationHandlerResult> call() throws Exception {
+          return correlationHandler.correlateStartMessages(commandContext, messageName, correlationSet);
+        }
+      });
+
+      if (correlationResults.isEmpty()) {
+        throw new MismatchingMessageCorrelationException(messageName, "No process definition or execution matches the parameters");
+
+      } else if (correlationResults.size() > 1) {
+        throw LOG.exceptionCorrelateMessageToSingleProcessDefinition(messageName, correlationResults.size(), correlationSet);
+      }
+
+      CorrelationHandlerResult correlationResult = correlationResults.get(0);
+      checkAuthorization(correlationResult);
+
+      return correlationResult;
+    }
+  }
+
+}
@@ -51,6 +51,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.DeploymentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessApplicationDeploymentImpl;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyChange;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceContentHashEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
@@ -81,6 +82,12 @@ public class DeployCmd implements Command<DeploymentWithDefinitions>, Serializab
 
   protected DeploymentBuilderImpl deploymentBuilder;
 
+  /**
+   * The latest deployed versions of the contained resources as resolved by
+   * the duplicate filter; empty if duplicate filtering is disabled.
+   */
+  protected transient Map<String, ResourceContentHashEntity> existingResources = Collections.emptyMap();
+
   public DeployCmd(DeploymentBuilderImpl deploymentBuilder) {
     this.deploymentBuilder = deploymentBuilder;
   }
@@ -441,17 +448,17 @@ public class DeployCmd implements Command<DeploymentWithDefinitions>, Serializab
         source = ProcessApplicationDeployment.PROCESS_APPLICATION_DEPLOYMENT_SOURCE;
       }
 
-      Map<String, ResourceEntity> existingResources = commandContext
+      existingResources = commandContext
           .getResourceManager()
-          .findLatestResourcesByDeploymentName(deployment.getName(), containedResources.keySet(), source, deployment.getTenantId());
+          .findLatestResourceContentHashesByDeploymentName(deployment.getName(), containedResources.keySet(), source, deployment.getTenantId());
 
       for (ResourceEntity deployedResource : containedResources.values()) {
         String resourceName = deployedResource.getName();
-        ResourceEntity existingResource = existingResources.get(resourceName);
+        ResourceContentHashEntity existingResource = existingResources.get(resourceName);
 
         if (existingResource == null
             || existingResource.isGenerated()
-            || resourcesDiffer(deployedResource, existingResource)) {
+            || resourcesDiffer(commandContext, deployedResource, existingResource)) {
           // resource should be deployed
 
           if (deploymentBuilder.isDeployChangedOnly()) {
@@ -471,6 +478,20 @@ public class DeployCmd implements Command<DeploymentWithDefinitions>, Serializab
     return resourcesToDeploy;
   }
 
+  protected boolean resourcesDiffer(CommandContext commandContext, ResourceEntity resource, ResourceContentHashEntity existing) {
+    String existingContentHash = existing.getContentHash();
+    if (existingContentHash != null) {
+      return !existingContentHash.equals(resource.getContentHash());
+    }
+    else {
+      // the resource was deployed before content hashes were persisted
+      ResourceEntity existingResource = commandContext
+          .getResourceManager()
+          .findResourceByDeploymentIdAndResourceId(existing.getDeploymentId(), existing.getId());
+      return existingResource == null || resourcesDiffer(resource, existingResource);
+    }
+  }
+
   protected boolean resourcesDiffer(ResourceEntity resource, ResourceEntity existing) {
     byte[] bytes = resource.getBytes();
     byte[] savedBytes = existing.getBytes();
@@ -591,20 +612,80 @@ public class DeployCmd implements Command<DeploymentWithDefinitions>, Serializab
   protected Set<String> retrieveProcessKeysFromResources(Map<String, ResourceEntity> resources) {
     Set<String> keys = new HashSet<String>();
 
+    // unchanged resources have already been parsed when they were deployed,
+    // so their keys are taken from the definitions of the existing deployment
+    Map<String, Set<String>> unchangedResourceNamesByDeploymentId = new HashMap<String, Set<String>>();
+
     for (ResourceEntity resource : resources.values()) {
-      if (isBpmnResource(resource)) {
+      if (isBpmnResource(resource) || isCmmnResource(resource)) {
+
+        ResourceContentHashEntity existingResource = existingResources.get(resource.getName());
+        if (existingResource != null && !existingResource.isGenerated()) {
+          String deploymentId = existingResource.getDeploymentId();
+          Set<String> resourceNames = unchangedResourceNamesByDeploymentId.get(deploymentId);
+          if (resourceNames == null) {
+            resourceNames = new HashSet<String>();
+            unchangedResourceNamesByDeploymentId.put(deploymentId, resourceNames);
+          }
+          resourceNames.add(resource.getName());
+        }
+        else {
+          keys.addAll(parseProcessKeys(resource));
+        }
+      }
+    }
+
+    if (!unchangedResourceNamesByDeploymentId.isEmpty()) {
+      keys.addAll(retrieveDeployedProcessKeys(Context.getCommandContext(), unchangedResourceNamesByDeploymentId));
+    }
+
+    return keys;
+  }
+
+  protected Set<String> parseProcessKeys(ResourceEntity resource) {
+    Set<String> keys = new HashSet<String>();
+
+    if (isBpmnResource(resource)) {
 
-        ByteArrayInputStream byteStream = new ByteArrayInputStream(resource.getBytes());
-        BpmnModelInstance model = Bpmn.readModelFromStream(byteStream);
-        for (Process process : model.getDefinitions().getChildElementsByType(Process.class)) {
-          keys.add(process.getId());
+      ByteArrayInputStream byteStream = new ByteArrayInputStream(resource.getBytes());
+      BpmnModelInstance model = Bpmn.readModelFromStream(byteStream);
+      for (Process process : model.getDefinitions().getChildElementsByType(Process.class)) {
+        keys.add(process.getId());
+      }
+    } else if (isCmmnResource(resource)) {
+
+      ByteArrayInputStream byteStream = new ByteArrayInputStream(resource.getBytes());
+      CmmnModelInstance model = Cmmn.readModelFromStream(byteStream);
+      for (Case cmmnCase : model.getDefinitions().getCases()) {
+        keys.add(cmmnCase.getId());
+      }
+    }
+
+    return keys;
+  }
+
+  protected Set<String> retrieveDeployedProcessKeys(CommandContext commandContext, Map<String, Set<String>> resourceNamesByDeploymentId) {
+    Set<String> keys = new HashSet<String>();
+
+    for (Map.Entry<String, Set<String>> entry : resourceNamesByDeploymentId.entrySet()) {
+      String deploymentId = entry.getKey();
+      Set<String> resourceNames = entry.getValue();
+
+      List<ProcessDefinition> processDefinitions = commandContext
+          .getProcessDefinitionManager()
+          .findProcessDefinitionsByDeploymentId(deploymentId);
+      for (ProcessDefinition processDefinition : processDefinitions) {
+        if (resourceNames.contains(processDefinition.getResourceName())) {
+          keys.add(processDefinition.getKey());
         }
-      } else if (isCmmnResource(resource)) {
+      }
 
-        ByteArrayInputStream byteStream = new ByteArrayInputStream(resource.getBytes());
-        CmmnModelInstance model = Cmmn.readModelFromStream(byteStream);
-        for (Case cmmnCase : model.getDefinitions().getCases()) {
-          keys.add(cmmnCase.getId());
+      List<CaseDefinition> caseDefinitions = commandContext
+          .getCaseDefinitionManager()
+          .findCaseDefinitionByDeploymentId(deploymentId);
+      for (CaseDefinition caseDefinition : caseDefinitions) {
+        if (resourceNames.contains(caseDefinition.getResourceName())) {
+          keys.add(caseDefinition.getKey());
         }
       }
     }
@@ -33,6 +33,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TransitionInstanceImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 import org.camunda.bpm.engine.impl.pvm.runtime.CompensationBehavior;
 import org.camunda.bpm.engine.impl.pvm.runtime.LegacyBehavior;
 import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
@@ -62,9 +63,19 @@ import org.camunda.bpm.engine.runtime.ActivityInstance;
 public class GetActivityInstanceCmd implements Command<ActivityInstance> {
 
   protected String processInstanceId;
+  protected ActivityExecutionMappingCache activityExecutionMappingCache;
 
   public GetActivityInstanceCmd(String processInstanceId) {
+    this(processInstanceId, null);
+  }
+
+  /**
+   * @param activityExecutionMappingCache the cache to share the activity execution mappings with
+   * other users of the (unmodified) execution tree in the current command; may be null
+   */
+  public GetActivityInstanceCmd(String processInstanceId, ActivityExecutionMappingCache activityExecutionMappingCache) {
     this.processInstanceId = processInstanceId;
+    this.activityExecutionMappingCache = activityExecutionMappingCache;
   }
 
   public ActivityInstance execute(CommandContext commandContext) {
@@ -104,6 +115,12 @@ public class GetActivityInstanceCmd implements Command<ActivityInstance> {
 
     Map<String, TransitionInstanceImpl> transitionInstances = new HashMap<String, TransitionInstanceImpl>();
 
+    // leaves with the same flow scope execution and flow scope share their mapping
+    ActivityExecutionMappingCache mappingCache = activityExecutionMappingCache;
+    if (mappingCache == null) {
+      mappingCache = new ActivityExecutionMappingCache();
+    }
+
     for (ExecutionEntity leaf : leaves) {
       // skip leafs without activity, e.g. if only the process instance exists after cancellation
       // it will not have an activity set
@@ -111,7 +128,7 @@ public class GetActivityInstanceCmd implements Command<ActivityInstance> {
         continue;
       }
 
-      Map<ScopeImpl, PvmExecutionImpl> activityExecutionMapping = leaf.createActivityExecutionMapping();
+      Map<ScopeImpl, PvmExecutionImpl> activityExecutionMapping = mappingCache.getActivityExecutionMapping(leaf);
       Map<ScopeImpl, PvmExecutionImpl> scopeInstancesToCreate = new HashMap<ScopeImpl, PvmExecutionImpl>(activityExecutionMapping);
 
       // create an activity/transition instance for each leaf that executes a non-scope activity
@@ -41,7 +41,19 @@ public abstract class HandleExternalTaskCmd extends ExternalTaskCmd {
 
   @Override
   public Void execute(CommandContext commandContext) {
-    validateInput();    
+    ExternalTaskEntity externalTask = findAndCheckExternalTask(commandContext);
+
+    execute(externalTask);
+
+    return null;
+  }
+
+  /**
+   * Validates the input and returns the external task, if the worker and
+   * the current user are allowed to handle it.
+   */
+  protected ExternalTaskEntity findAndCheckExternalTask(CommandContext commandContext) {
+    validateInput();
 
     ExternalTaskEntity externalTask = commandContext.getExternalTaskManager().findExternalTaskById(externalTaskId);
     EnsureUtil.ensureNotNull(NotFoundException.class,
@@ -54,10 +66,8 @@ public abstract class HandleExternalTaskCmd extends ExternalTaskCmd {
     for(CommandChecker checker : commandContext.getProcessEngineConfiguration().getCommandCheckers()) {
       checker.checkUpdateProcessInstanceById(externalTask.getProcessInstanceId());
     }
-    
-    execute(externalTask);
-    
-    return null;
+
+    return externalTask;
   }
   
   /**
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.externaltask.ExternalTaskBulkResult;
+import org.camunda.bpm.engine.externaltask.HandleExternalTasksBuilder;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskBulkResultImpl;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskLogger;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+public class HandleExternalTasksBuilderImpl implements HandleExternalTasksBuilder {
+
+  private final static ExternalTaskLogger LOG = ProcessEngineLogger.EXTERNAL_TASK_LOGGER;
+
+  protected CommandExecutor commandExecutor;
+
+  protected List<HandleExternalTaskCmd> commands = new ArrayList<HandleExternalTaskCmd>();
+
+  public HandleExternalTasksBuilderImpl(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public HandleExternalTasksBuilder complete(String externalTaskId, String workerId) {
+    return complete(externalTaskId, workerId, null, null);
+  }
+
+  public HandleExternalTasksBuilder complete(String externalTaskId, String workerId, Map<String, Object> variables) {
+    return complete(externalTaskId, workerId, variables, null);
+  }
+
+  public HandleExternalTasksBuilder complete(String externalTaskId, String workerId, Map<String, Object> variables, Map<String, Object> localVariables) {
+    commands.add(new CompleteExternalTaskCmd(externalTaskId, workerId, variables, localVariables));
+    return this;
+  }
+
+  public HandleExternalTasksBuilder handleFailure(String externalTaskId, String workerId, String errorMessage, String errorDetails, int retries, long retryDuration) {
+    commands.add(new HandleExternalTaskFailureCmd(externalTaskId, workerId, errorMessage, errorDetails, retries, retryDuration));
+    return this;
+  }
+
+  public HandleExternalTasksBuilder handleBpmnError(String externalTaskId, String workerId, String errorCode, String errorMessage, Map<String, Object> variables) {
+    commands.add(new HandleExternalTaskBpmnErrorCmd(externalTaskId, workerId, errorCode, errorMessage, variables));
+    return this;
+  }
+
+  public List<ExternalTaskBulkResult> execute() {
+    try {
+      return commandExecutor.execute(new HandleExternalTasksCmd(commands));
+
+    } catch (RuntimeException e) {
+      LOG.debugBulkHandlingFailed(commands.size(), e);
+      return handleExternalTasksSeparately();
+    }
+  }
+
+  protected List<ExternalTaskBulkResult> handleExternalTasksSeparately() {
+    List<ExternalTaskBulkResult> results = new ArrayList<ExternalTaskBulkResult>(commands.size());
+
+    for (HandleExternalTaskCmd command : commands) {
+      try {
+        commandExecutor.execute(command);
+        results.add(ExternalTaskBulkResultImpl.successful(command.externalTaskId));
+
+      } catch (RuntimeException e) {
+        results.add(ExternalTaskBulkResultImpl.failed(command.externalTaskId, e));
+      }
+    }
+
+    return results;
+  }
+
+}
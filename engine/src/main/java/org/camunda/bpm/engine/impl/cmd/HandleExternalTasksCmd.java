@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.EntityTypes;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.externaltask.ExternalTaskBulkResult;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskBulkResultImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+
+/**
+ * <p>Handles several external tasks in one command. The external tasks are loaded with
+ * a single query up front.</p>
+ *
+ * <p>An external task which cannot be handled (e.g. because it does not exist or is
+ * locked by another worker) is reported by its result and skipped, since nothing has been
+ * changed for it at this point. Exceptions thrown while handling an external task, i.e.
+ * while the process instance continues, are not caught, so that the command is rolled back.</p>
+ */
+public class HandleExternalTasksCmd implements Command<List<ExternalTaskBulkResult>> {
+
+  protected List<HandleExternalTaskCmd> commands;
+
+  public HandleExternalTasksCmd(List<HandleExternalTaskCmd> commands) {
+    this.commands = commands;
+  }
+
+  @Override
+  public List<ExternalTaskBulkResult> execute(CommandContext commandContext) {
+    prefetchExternalTasks(commandContext);
+
+    List<ExternalTaskBulkResult> results = new ArrayList<ExternalTaskBulkResult>(commands.size());
+
+    for (HandleExternalTaskCmd command : commands) {
+      ExternalTaskEntity externalTask = null;
+      try {
+        externalTask = findAndCheckExternalTask(commandContext, command);
+
+      } catch (ProcessEngineException e) {
+        results.add(ExternalTaskBulkResultImpl.failed(command.externalTaskId, e));
+      }
+
+      if (externalTask != null) {
+        command.execute(externalTask);
+        results.add(ExternalTaskBulkResultImpl.successful(command.externalTaskId));
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Puts the external tasks into the entity cache, where the commands find them.
+   */
+  protected void prefetchExternalTasks(CommandContext commandContext) {
+    Set<String> externalTaskIds = new LinkedHashSet<String>();
+    for (HandleExternalTaskCmd command : commands) {
+      if (command.externalTaskId != null) {
+        externalTaskIds.add(command.externalTaskId);
+      }
+    }
+
+    if (!externalTaskIds.isEmpty()) {
+      commandContext.getExternalTaskManager().findExternalTasksByIds(new ArrayList<String>(externalTaskIds));
+    }
+  }
+
+  protected ExternalTaskEntity findAndCheckExternalTask(CommandContext commandContext, HandleExternalTaskCmd command) {
+    // the external task may have been completed by a previous command
+    DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+    ExternalTaskEntity cachedExternalTask = dbEntityManager.getCachedEntity(ExternalTaskEntity.class, command.externalTaskId);
+    if (cachedExternalTask != null && dbEntityManager.isDeleted(cachedExternalTask)) {
+      throw new NotFoundException("Cannot find external task with id " + command.externalTaskId);
+    }
+
+    ExternalTaskEntity externalTask = command.findAndCheckExternalTask(commandContext);
+
+    if (externalTask.isSuspended()) {
+      throw ProcessEngineLogger.PERSISTENCE_LOGGER.suspendedEntityException(EntityTypes.EXTERNAL_TASK, externalTask.getId());
+    }
+
+    return externalTask;
+  }
+
+}
@@ -17,7 +17,9 @@ package org.camunda.bpm.engine.impl.cmd;
 
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.camunda.bpm.engine.history.UserOperationLogEntry;
@@ -105,15 +107,25 @@ public class ModifyProcessInstanceCmd implements Command<Void> {
   }
 
   private void checkCancellation(final CommandContext commandContext) {
+    // no instruction has been executed yet, so the instructions can share the activity instance trees
+    Map<String, ActivityInstance> activityInstanceTrees = new HashMap<String, ActivityInstance>();
+
     for (final AbstractProcessInstanceModificationCommand instruction : builder.getModificationOperations()) {
       if (instruction instanceof ActivityCancellationCmd
           && ((ActivityCancellationCmd) instruction).cancelCurrentActiveActivityInstances) {
-        ActivityInstance activityInstanceTree = commandContext.runWithoutAuthorization(new Callable<ActivityInstance>() {
-          @Override
-          public ActivityInstance call() throws Exception {
-            return new GetActivityInstanceCmd(((ActivityCancellationCmd) instruction).processInstanceId).execute(commandContext);
-          }
-        });
+        final String processInstanceId = ((ActivityCancellationCmd) instruction).processInstanceId;
+
+        ActivityInstance activityInstanceTree = activityInstanceTrees.get(processInstanceId);
+        if (activityInstanceTree == null) {
+          activityInstanceTree = commandContext.runWithoutAuthorization(new Callable<ActivityInstance>() {
+            @Override
+            public ActivityInstance call() throws Exception {
+              return new GetActivityInstanceCmd(processInstanceId).execute(commandContext);
+            }
+          });
+          activityInstanceTrees.put(processInstanceId, activityInstanceTree);
+        }
+
         ((ActivityCancellationCmd) instruction).setActivityInstanceTreeToCancel(activityInstanceTree);
       }
     }
@@ -23,10 +23,12 @@ import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.authorization.Permissions;
 import org.camunda.bpm.engine.authorization.Resources;
 import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.UpdateProcessInstancesSuspensionStateBuilderImpl;
 import org.camunda.bpm.engine.impl.batch.BatchConfiguration;
 import org.camunda.bpm.engine.impl.batch.BatchEntity;
 import org.camunda.bpm.engine.impl.batch.BatchJobHandler;
+import org.camunda.bpm.engine.impl.batch.ProcessInstanceQueryCursor;
 import org.camunda.bpm.engine.impl.batch.update.UpdateProcessInstancesSuspendStateBatchConfiguration;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -40,13 +42,24 @@ public class UpdateProcessInstancesSuspendStateBatchCmd extends AbstractUpdatePr
   }
 
   public Batch execute(CommandContext commandContext) {
-    Collection<String> processInstanceIds = collectProcessInstanceIds();
+    Collection<String> processInstanceIds;
+    int numberOfInstances;
+
+    ProcessInstanceQueryCursor cursor = createProcessInstanceQueryCursor(commandContext);
+    if (cursor != null) {
+      processInstanceIds = new ArrayList<String>();
+      numberOfInstances = cursor.getRemainingIds();
+    }
+    else {
+      processInstanceIds = collectProcessInstanceIds();
+      EnsureUtil.ensureNotEmpty(BadUserRequestException.class, "No process instance ids given", "process Instance Ids", processInstanceIds);
+      EnsureUtil.ensureNotContainsNull(BadUserRequestException.class, "Cannot be null.", "Process Instance ids", processInstanceIds);
+      numberOfInstances = processInstanceIds.size();
+    }
 
-    EnsureUtil.ensureNotEmpty(BadUserRequestException.class, "No process instance ids given", "process Instance Ids", processInstanceIds);
-    EnsureUtil.ensureNotContainsNull(BadUserRequestException.class, "Cannot be null.", "Process Instance ids", processInstanceIds);
     checkAuthorizations(commandContext);
-    writeUserOperationLog(commandContext, processInstanceIds.size(), true);
-    BatchEntity batch = createBatch(commandContext, processInstanceIds);
+    writeUserOperationLog(commandContext, numberOfInstances, true);
+    BatchEntity batch = createBatch(commandContext, processInstanceIds, cursor);
 
     batch.createSeedJobDefinition();
     batch.createMonitorJobDefinition();
@@ -58,12 +71,30 @@ public class UpdateProcessInstancesSuspendStateBatchCmd extends AbstractUpdatePr
     return batch;
   }
 
-  protected BatchEntity createBatch(CommandContext commandContext, Collection<String> processInstanceIds) {
+  /**
+   * The process instances are selected by a cursor if only a process instance query is given.
+   */
+  protected ProcessInstanceQueryCursor createProcessInstanceQueryCursor(CommandContext commandContext) {
+    List<String> processInstanceIds = builder.getProcessInstanceIds();
+    ProcessInstanceQueryImpl processInstanceQuery = (ProcessInstanceQueryImpl) builder.getProcessInstanceQuery();
+
+    if (processInstanceQuery != null
+        && builder.getHistoricProcessInstanceQuery() == null
+        && (processInstanceIds == null || processInstanceIds.isEmpty())) {
+      return ProcessInstanceQueryCursor.create(commandContext, processInstanceQuery);
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected BatchEntity createBatch(CommandContext commandContext, Collection<String> processInstanceIds, ProcessInstanceQueryCursor cursor) {
 
     ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
     BatchJobHandler batchJobHandler = getBatchJobHandler(processEngineConfiguration);
 
     BatchConfiguration configuration = getAbstractIdsBatchConfiguration(new ArrayList<String>(processInstanceIds));
+    configuration.setProcessInstanceQueryCursor(cursor);
 
     BatchEntity batch = new BatchEntity();
 
@@ -79,7 +110,7 @@ public class UpdateProcessInstancesSuspendStateBatchCmd extends AbstractUpdatePr
 
   protected int calculateSize(ProcessEngineConfigurationImpl engineConfiguration, UpdateProcessInstancesSuspendStateBatchConfiguration batchConfiguration) {
     int invocationsPerBatchJob = engineConfiguration.getInvocationsPerBatchJob();
-    int processInstanceCount = batchConfiguration.getIds().size();
+    int processInstanceCount = batchConfiguration.getNumberOfIds();
 
     return (int) Math.ceil(processInstanceCount / invocationsPerBatchJob);
   }
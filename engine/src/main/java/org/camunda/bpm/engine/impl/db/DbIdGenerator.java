@@ -15,6 +15,9 @@
  */
 package org.camunda.bpm.engine.impl.db;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
@@ -43,6 +46,32 @@ public class DbIdGenerator implements IdGenerator {
     return Long.toString(_nextId);
   }
 
+  /**
+   * Hands out the given number of ids. Ids missing in the current block are
+   * fetched with a single block, which is at least as large as the configured
+   * {@link #getIdBlockSize() id block size}.
+   */
+  public synchronized List<String> getNextIds(int count) {
+    List<String> nextIds = new ArrayList<String>(count);
+
+    while (nextIds.size() < count && nextId <= lastId) {
+      nextIds.add(Long.toString(nextId++));
+    }
+
+    int missingIds = count - nextIds.size();
+    if (missingIds > 0) {
+      IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(Math.max(missingIds, idBlockSize)));
+      this.nextId = idBlock.getNextId();
+      this.lastId = idBlock.getLastId();
+
+      for (int i = 0; i < missingIds; i++) {
+        nextIds.add(Long.toString(nextId++));
+      }
+    }
+
+    return nextIds;
+  }
+
   protected synchronized void getNewBlock() {
     // TODO http://jira.codehaus.org/browse/ACT-45 use a separate 'requiresNew' command executor
     IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(idBlockSize));
@@ -36,6 +36,7 @@ import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
@@ -708,4 +709,44 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
         ));
   }
 
+  public void idBlockPrefetchFailed(Throwable cause) {
+    logDebug(
+        "086",
+        "Could not prefetch the next block of ids, the block will be fetched once it is needed",
+        cause);
+  }
+
+  public void historyEventWriteFailed(HistoryEvent historyEvent, Throwable cause) {
+    logError(
+        "087",
+        "Could not write history event '{}' asynchronously, the event is discarded and subsequent events are written synchronously",
+        historyEvent,
+        cause);
+  }
+
+  public void historyEventJournalFailed(String journalFile, Throwable cause) {
+    logWarn(
+        "088",
+        "Could not spill history events to journal '{}', waiting for the queue instead",
+        journalFile,
+        cause);
+  }
+
+  public void historyEventJournalReplayed(int numberOfEvents, String journalFile) {
+    logDebug(
+        "089",
+        "Replayed {} history events from journal '{}'",
+        numberOfEvents,
+        journalFile);
+  }
+
+  public void historyEventReplayFailed(HistoryEvent historyEvent, String journalFile, Throwable cause) {
+    logError(
+        "090",
+        "Could not write history event '{}' from journal '{}', the event is kept in the journal and replayed once the handler is restarted",
+        historyEvent,
+        journalFile,
+        cause);
+  }
+
 }
@@ -34,6 +34,12 @@ public interface PersistenceSession extends Session {
 
   List<?> selectList(String statement, Object parameter);
 
+  /**
+   * Reads at most <code>maxRows</code> rows of the result set, for statements
+   * which cannot limit the number of rows in SQL.
+   */
+  List<?> selectList(String statement, Object parameter, int maxRows);
+
   <T extends DbEntity> T selectById(Class<T> type, String id);
 
   Object selectOne(String statement, Object parameter);
@@ -0,0 +1,306 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+
+/**
+ * {@link DbIdGenerator} which hands out ids without a global monitor.
+ *
+ * <p>Threads are spread over a number of stripes, each holding its own block of ids.
+ * Ids are drawn from the block of a stripe by incrementing a counter; only replacing
+ * an exhausted block synchronizes on the stripe.</p>
+ *
+ * <p>If prefetching is enabled, drawing the id in the middle of a block hands the fetch
+ * of the next block of the stripe to the prefetch executor, so that neither the drawing
+ * thread nor the other threads wait for it. Once the current block is exhausted, the
+ * prefetched block is used without accessing the database. If the prefetch has not
+ * completed by then, the block is fetched synchronously and the prefetched block is
+ * kept for later.</p>
+ *
+ * <p>Blocks are fetched by one thread at a time, since concurrent fetches would conflict
+ * on the optimistic lock of the <code>next.dbid</code> property. A fetch conflicting
+ * with another process engine is retried.</p>
+ *
+ * <p>By default, blocks are prefetched by a single daemon thread which terminates when
+ * it is idle, and which is shut down once the generator is {@link #close() closed}.</p>
+ *
+ * <p>Note that ids handed out by different stripes are not ordered.</p>
+ */
+public class StripedDbIdGenerator extends DbIdGenerator {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected static final IdBlock EXHAUSTED_BLOCK = new IdBlock(0, -1);
+  protected static final int MAX_FETCH_ATTEMPTS = 3;
+  protected static final long PREFETCH_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+  protected int stripes = 1;
+  protected boolean prefetch = true;
+  protected Executor prefetchExecutor;
+  /** the prefetch executor created by the generator, which it shuts down on close */
+  protected ExecutorService defaultPrefetchExecutor;
+
+  protected IdStripe[] idStripes;
+  protected final Object fetchLock = new Object();
+
+  public StripedDbIdGenerator() {
+    initStripes();
+  }
+
+  public String getNextId() {
+    IdStripe stripe = idStripes[(int) (Thread.currentThread().getId() % idStripes.length)];
+    return Long.toString(stripe.nextId());
+  }
+
+  /**
+   * Draws up to one block of ids from the stripe of the current thread. Larger
+   * numbers of ids are taken from a block of their own, so that the stripe's
+   * block is not exhausted at once.
+   */
+  public List<String> getNextIds(int count) {
+    List<String> nextIds = new ArrayList<String>(count);
+
+    if (count <= idBlockSize) {
+      for (int i = 0; i < count; i++) {
+        nextIds.add(getNextId());
+      }
+    }
+    else {
+      IdBlock idBlock = fetchIdBlock(count);
+      for (long id = idBlock.getNextId(); id <= idBlock.getLastId(); id++) {
+        nextIds.add(Long.toString(id));
+      }
+    }
+
+    return nextIds;
+  }
+
+  protected IdRange fetchIdRange() {
+    return new IdRange(fetchIdBlock(idBlockSize));
+  }
+
+  protected IdBlock fetchIdBlock(int size) {
+    synchronized (fetchLock) {
+      for (int attempt = 1; ; attempt++) {
+        try {
+          return commandExecutor.execute(new GetNextIdBlockCmd(size));
+        }
+        catch (OptimisticLockingException e) {
+          if (attempt >= MAX_FETCH_ATTEMPTS) {
+            throw e;
+          }
+        }
+      }
+    }
+  }
+
+  protected void initStripes() {
+    IdStripe[] idStripes = new IdStripe[stripes];
+    for (int i = 0; i < stripes; i++) {
+      idStripes[i] = new IdStripe();
+    }
+    this.idStripes = idStripes;
+  }
+
+  public int getStripes() {
+    return stripes;
+  }
+
+  public void setStripes(int stripes) {
+    if (stripes < 1) {
+      throw new IllegalArgumentException("The number of stripes must be at least 1");
+    }
+    this.stripes = stripes;
+    initStripes();
+  }
+
+  public boolean isPrefetch() {
+    return prefetch;
+  }
+
+  public void setPrefetch(boolean prefetch) {
+    this.prefetch = prefetch;
+  }
+
+  public Executor getPrefetchExecutor() {
+    return prefetchExecutor;
+  }
+
+  public void setPrefetchExecutor(Executor prefetchExecutor) {
+    this.prefetchExecutor = prefetchExecutor;
+  }
+
+  protected synchronized Executor ensurePrefetchExecutor() {
+    if (prefetchExecutor == null) {
+      defaultPrefetchExecutor = new ThreadPoolExecutor(0, 1, PREFETCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), new PrefetchThreadFactory());
+      prefetchExecutor = defaultPrefetchExecutor;
+    }
+    return prefetchExecutor;
+  }
+
+  /**
+   * Shuts down the prefetch executor unless it was set from outside.
+   */
+  public synchronized void close() {
+    if (defaultPrefetchExecutor != null) {
+      defaultPrefetchExecutor.shutdownNow();
+      if (prefetchExecutor == defaultPrefetchExecutor) {
+        prefetchExecutor = null;
+      }
+      defaultPrefetchExecutor = null;
+    }
+  }
+
+  public void reset() {
+    // invoked by the super constructor before the stripes are initialized
+    if (idStripes != null) {
+      for (IdStripe stripe : idStripes) {
+        stripe.reset();
+      }
+    }
+  }
+
+  protected class IdStripe {
+
+    // each stripe has its own exhausted range, since drawing from it increments its counter
+    protected volatile IdRange current = new IdRange(EXHAUSTED_BLOCK);
+    protected volatile IdRange prefetched;
+    protected final AtomicBoolean prefetching = new AtomicBoolean(false);
+    // incremented on reset, so that a block prefetched before is discarded
+    protected int generation;
+
+    protected long nextId() {
+      while (true) {
+        IdRange range = current;
+        long id = range.nextId.getAndIncrement();
+
+        if (id <= range.lastId) {
+          if (prefetch && id == range.prefetchId) {
+            prefetchIdRange();
+          }
+          return id;
+        }
+
+        replaceExhausted(range);
+      }
+    }
+
+    protected synchronized void replaceExhausted(IdRange range) {
+      if (current != range) {
+        // already replaced by another thread
+        return;
+      }
+
+      IdRange next = prefetched;
+      if (next != null) {
+        prefetched = null;
+        current = next;
+      }
+      else {
+        current = fetchIdRange();
+      }
+    }
+
+    protected void prefetchIdRange() {
+      if (prefetched != null || !prefetching.compareAndSet(false, true)) {
+        return;
+      }
+
+      final int prefetchGeneration;
+      synchronized (this) {
+        prefetchGeneration = generation;
+      }
+
+      try {
+        ensurePrefetchExecutor().execute(new Runnable() {
+          public void run() {
+            completePrefetch(prefetchGeneration);
+          }
+        });
+      }
+      catch (RejectedExecutionException e) {
+        prefetching.set(false);
+        LOG.idBlockPrefetchFailed(e);
+      }
+    }
+
+    protected void completePrefetch(int prefetchGeneration) {
+      try {
+        IdRange next = fetchIdRange();
+        synchronized (this) {
+          if (prefetched == null && generation == prefetchGeneration) {
+            prefetched = next;
+          }
+        }
+      }
+      catch (RuntimeException e) {
+        // the block is fetched synchronously once it is needed
+        LOG.idBlockPrefetchFailed(e);
+      }
+      finally {
+        prefetching.set(false);
+      }
+    }
+
+    protected synchronized void reset() {
+      current = new IdRange(EXHAUSTED_BLOCK);
+      prefetched = null;
+      generation++;
+    }
+  }
+
+  protected static class PrefetchThreadFactory implements ThreadFactory {
+
+    protected static final AtomicInteger threadNumber = new AtomicInteger();
+
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "camunda-id-prefetch-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  protected static class IdRange {
+
+    protected final AtomicLong nextId;
+    protected final long lastId;
+    protected final long prefetchId;
+
+    protected IdRange(IdBlock idBlock) {
+      this.nextId = new AtomicLong(idBlock.getNextId());
+      this.lastId = idBlock.getLastId();
+      this.prefetchId = idBlock.getNextId() + (idBlock.getLastId() - idBlock.getNextId()) / 2;
+    }
+  }
+
+}
@@ -27,6 +27,7 @@ import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.UPDATE;
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.UPDATE_BULK;
 
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -57,6 +58,7 @@ import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImp
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
+import org.camunda.bpm.engine.impl.db.DbIdGenerator;
 import org.camunda.bpm.engine.impl.db.EntityLoadListener;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
@@ -96,6 +98,8 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   protected List<OptimisticLockingListener> optimisticLockingListeners;
 
+  protected List<FlushListener> flushListeners;
+
   protected IdGenerator idGenerator;
 
   protected DbEntityCache dbEntityCache;
@@ -184,6 +188,16 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return filterLoadedObjects(loadedObjects);
   }
 
+  /**
+   * Selects at most <code>maxRows</code> rows by reading only these from the result set,
+   * for statements which cannot limit the number of rows in SQL.
+   */
+  @SuppressWarnings("unchecked")
+  public List selectListWithRowLimit(String statement, Object parameter, int maxRows) {
+    List loadedObjects = persistenceSession.selectList(statement, parameter, maxRows);
+    return filterLoadedObjects(loadedObjects);
+  }
+
   public Object selectOne(String statement, Object parameter) {
     Object result = persistenceSession.selectOne(statement, parameter);
     if (result instanceof DbEntity) {
@@ -289,6 +303,13 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   public void flush() {
 
+    if (flushListeners != null) {
+      // listeners may register further listeners
+      for (int i = 0; i < flushListeners.size(); i++) {
+        flushListeners.get(i).beforeFlush(this);
+      }
+    }
+
     // flush the entity cache which inserts operations to the db operation manager
     flushEntityCache();
 
@@ -381,7 +402,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     if (batchExecutorException != null) {
 
-      int failedOperationIndex = batchExecutorException.getSuccessfulBatchResults().size();
+      int failedOperationIndex = getFailedOperationIndex(batchExecutorException);
       if (failedOperationIndex < operationsToFlush.size()) {
         DbOperation failedOperation = operationsToFlush.get(failedOperationIndex);
         if (isOptimisticLockingException(failedOperation, cause)) {
@@ -393,6 +414,30 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return null;
   }
 
+  /**
+   * Each successful batch result holds one update count per operation that shares the
+   * same statement. The failing operation is the first one of the failing batch which
+   * the driver did not report a successful update count for.
+   */
+  protected int getFailedOperationIndex(BatchExecutorException batchExecutorException) {
+    int failedOperationIndex = 0;
+    for (BatchResult successfulBatchResult : batchExecutorException.getSuccessfulBatchResults()) {
+      failedOperationIndex += successfulBatchResult.getUpdateCounts().length;
+    }
+
+    int[] updateCounts = batchExecutorException.getBatchUpdateException().getUpdateCounts();
+    if (updateCounts != null) {
+      for (int updateCount : updateCounts) {
+        if (updateCount == Statement.EXECUTE_FAILED) {
+          break;
+        }
+        failedOperationIndex++;
+      }
+    }
+
+    return failedOperationIndex;
+  }
+
   /**
    * Checks if the reason for a persistence exception was the foreign-key referencing of a (currently)
    * non-existing entity. This might happen with concurrent transactions, leading to an
@@ -575,6 +620,19 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   }
 
+  /**
+   * Inserts the given entities like repeated invocations of {@link #insert(DbEntity)},
+   * but generates the missing ids at once.
+   */
+  public void insertAll(List<? extends DbEntity> dbEntities) {
+    ensureHaveIds(dbEntities);
+
+    for (DbEntity dbEntity : dbEntities) {
+      validateId(dbEntity);
+      dbEntityCache.putTransient(dbEntity);
+    }
+  }
+
   public void merge(DbEntity dbEntity) {
 
     if(dbEntity.getId() == null) {
@@ -689,6 +747,36 @@ public class DbEntityManager implements Session, EntityLoadListener {
     }
   }
 
+  protected void ensureHaveIds(List<? extends DbEntity> dbEntities) {
+    int missingIds = 0;
+    for (DbEntity dbEntity : dbEntities) {
+      if (dbEntity.getId() == null) {
+        missingIds++;
+      }
+    }
+
+    if (missingIds > 0) {
+      Iterator<String> nextIds = getNextIds(missingIds).iterator();
+      for (DbEntity dbEntity : dbEntities) {
+        if (dbEntity.getId() == null) {
+          dbEntity.setId(nextIds.next());
+        }
+      }
+    }
+  }
+
+  protected List<String> getNextIds(int count) {
+    if (idGenerator instanceof DbIdGenerator) {
+      return ((DbIdGenerator) idGenerator).getNextIds(count);
+    }
+
+    List<String> nextIds = new ArrayList<String>(count);
+    for (int i = 0; i < count; i++) {
+      nextIds.add(idGenerator.getNextId());
+    }
+    return nextIds;
+  }
+
   protected void validateId(DbEntity dbEntity) {
     EnsureUtil.ensureValidIndividualResourceId("Entity " + dbEntity + " has an invalid id", dbEntity.getId());
   }
@@ -794,6 +882,22 @@ public class DbEntityManager implements Session, EntityLoadListener {
     optimisticLockingListeners.add(optimisticLockingListener);
   }
 
+  public void registerFlushListener(FlushListener flushListener) {
+    if(flushListeners == null) {
+      flushListeners = new ArrayList<FlushListener>();
+    }
+    if(!flushListeners.contains(flushListener)) {
+      flushListeners.add(flushListener);
+    }
+  }
+
+  public List<FlushListener> getFlushListeners() {
+    if(flushListeners == null) {
+      return Collections.emptyList();
+    }
+    return flushListeners;
+  }
+
   public List<String> getTableNamesPresentInDatabase() {
     return persistenceSession.getTableNamesPresent();
   }
@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager;
+
+/**
+ * Allows registering a listener which is notified before the
+ * {@link DbEntityManager} flushes its entity cache.
+ */
+public interface FlushListener {
+
+  /**
+   * Invoked before the cached entities are flushed. The listener may still
+   * query the database and change cached entities.
+   *
+   * @param dbEntityManager the entity manager which is about to flush
+   */
+  void beforeFlush(DbEntityManager dbEntityManager);
+
+}
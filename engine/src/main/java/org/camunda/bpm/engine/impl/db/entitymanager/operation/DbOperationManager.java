@@ -18,10 +18,16 @@ package org.camunda.bpm.engine.impl.db.entitymanager.operation;
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.DELETE;
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
@@ -195,51 +201,107 @@ public class DbOperationManager {
    * a) all operations in the set work on entities such that the entities implement {@link HasDbReferences}.
    * b) all operations in the set work on the same type (ie. all operations are INSERTs or DELETEs).
    *
+   * The operations are ordered by a depth-first traversal of the reference graph which keeps
+   * the pre-sorted order wherever no reference constraint applies. An INSERT is placed after the
+   * operations on the entities it references, an UPDATE or DELETE is placed after the operations
+   * on the entities that reference it. The runtime is linear in the number of operations and references.
    */
   protected List<DbEntityOperation> sortByReferences(SortedSet<DbEntityOperation> preSorted) {
-    // copy the pre-sorted set and apply final sorting to list
-    List<DbEntityOperation> opList = new ArrayList<DbEntityOperation>(preSorted);
-
-    for (int i = 0; i < opList.size(); i++) {
-
-      DbEntityOperation currentOperation = opList.get(i);
-      DbEntity currentEntity = currentOperation.getEntity();
-      Set<String> currentReferences = currentOperation.getFlushRelevantEntityReferences();
-
-      // check whether this operation must be placed after another operation
-      int moveTo = i;
-      for(int k = i+1; k < opList.size(); k++) {
-        DbEntityOperation otherOperation = opList.get(k);
-        DbEntity otherEntity = otherOperation.getEntity();
-        Set<String> otherReferences = otherOperation.getFlushRelevantEntityReferences();
+    Map<String, List<DbEntityOperation>> dependenciesById = indexDependencies(preSorted);
+
+    List<DbEntityOperation> opList = new ArrayList<DbEntityOperation>(preSorted.size());
+    Set<DbEntityOperation> visited = new HashSet<DbEntityOperation>();
+    Set<DbEntityOperation> sorted = new HashSet<DbEntityOperation>();
+    Deque<DbEntityOperation> stack = new ArrayDeque<DbEntityOperation>();
+
+    for (DbEntityOperation operation : preSorted) {
+      stack.push(operation);
+
+      while (!stack.isEmpty()) {
+        DbEntityOperation currentOperation = stack.peek();
+
+        if (sorted.contains(currentOperation)) {
+          stack.pop();
+
+        } else if (visited.add(currentOperation)) {
+          // first visit: all dependencies must be sorted before this operation
+          List<DbEntityOperation> dependencies = getDependencies(currentOperation, dependenciesById);
+          for (int i = dependencies.size() - 1; i >= 0; i--) {
+            DbEntityOperation dependency = dependencies.get(i);
+            if (!visited.contains(dependency)) {
+              stack.push(dependency);
+            }
+          }
 
-        if(currentOperation.getOperationType() == INSERT) {
+        } else {
+          // second visit: all dependencies are sorted
+          stack.pop();
+          sorted.add(currentOperation);
+          opList.add(currentOperation);
+        }
+      }
+    }
 
+    return opList;
+  }
 
-          // if we reference the other entity, we need to be inserted after that entity
-          if(currentReferences != null && currentReferences.contains(otherEntity.getId())) {
-            moveTo = k;
-            break; // we can only reference a single entity
+  /**
+   * For INSERTs, maps the id of each entity to its own operation so that operations
+   * referencing that id can look up the operation which must be executed first.
+   * For UPDATEs and DELETEs, maps the id of each entity to the operations on entities
+   * referencing it, since these must be executed first.
+   */
+  protected Map<String, List<DbEntityOperation>> indexDependencies(SortedSet<DbEntityOperation> preSorted) {
+    Map<String, List<DbEntityOperation>> dependenciesById = new HashMap<String, List<DbEntityOperation>>();
+
+    for (DbEntityOperation operation : preSorted) {
+      if (operation.getOperationType() == INSERT) {
+        addDependency(dependenciesById, operation.getEntity().getId(), operation);
+
+      } else { // UPDATE or DELETE
+        Set<String> references = operation.getFlushRelevantEntityReferences();
+        if (references != null) {
+          for (String referencedId : references) {
+            addDependency(dependenciesById, referencedId, operation);
           }
+        }
+      }
+    }
 
-        } else { // UPDATE or DELETE
+    return dependenciesById;
+  }
 
-          // if the other entity has a reference to us, we must be placed after the other entity
-          if(otherReferences != null && otherReferences.contains(currentEntity.getId())) {
-            moveTo = k;
-            // cannot break, there may be another entity further to the right which also references us
-          }
+  protected void addDependency(Map<String, List<DbEntityOperation>> dependenciesById, String id, DbEntityOperation operation) {
+    List<DbEntityOperation> dependencies = dependenciesById.get(id);
+    if (dependencies == null) {
+      dependencies = new ArrayList<DbEntityOperation>(1);
+      dependenciesById.put(id, dependencies);
+    }
+    dependencies.add(operation);
+  }
+
+  protected List<DbEntityOperation> getDependencies(DbEntityOperation operation, Map<String, List<DbEntityOperation>> dependenciesById) {
+    if (operation.getOperationType() == INSERT) {
+      Set<String> references = operation.getFlushRelevantEntityReferences();
+      if (references == null || references.isEmpty()) {
+        return Collections.emptyList();
+      }
 
+      List<DbEntityOperation> dependencies = new ArrayList<DbEntityOperation>(references.size());
+      for (String referencedId : references) {
+        List<DbEntityOperation> referencedOperations = dependenciesById.get(referencedId);
+        if (referencedOperations != null) {
+          dependencies.addAll(referencedOperations);
         }
       }
+      return dependencies;
 
-      if(moveTo > i) {
-        opList.remove(i);
-        opList.add(moveTo, currentOperation);
-        i--;
+    } else { // UPDATE or DELETE
+      List<DbEntityOperation> referencingOperations = dependenciesById.get(operation.getEntity().getId());
+      if (referencingOperations == null) {
+        return Collections.emptyList();
       }
+      return referencingOperations;
     }
-
-    return opList;
   }
 }
@@ -36,6 +36,7 @@ import java.util.List;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
@@ -101,6 +102,15 @@ public class DbSqlSession extends AbstractPersistenceSession {
     return resultList;
   }
 
+  public List<?> selectList(String statement, Object parameter, int maxRows) {
+    statement = dbSqlSessionFactory.mapStatement(statement);
+    List<Object> resultList = sqlSession.selectList(statement, parameter, new RowBounds(0, maxRows));
+    for (Object object : resultList) {
+      fireEntityLoaded(object);
+    }
+    return resultList;
+  }
+
   @SuppressWarnings("unchecked")
   public <T extends DbEntity> T selectById(Class<T> type, String id) {
     String selectStatement = dbSqlSessionFactory.getSelectStatement(type);
@@ -30,7 +30,9 @@ import org.camunda.bpm.engine.impl.javax.el.FunctionMapper;
 import org.camunda.bpm.engine.impl.javax.el.ListELResolver;
 import org.camunda.bpm.engine.impl.javax.el.MapELResolver;
 import org.camunda.bpm.engine.impl.javax.el.ValueExpression;
+import org.camunda.bpm.engine.impl.juel.ConcurrentCache;
 import org.camunda.bpm.engine.impl.juel.ExpressionFactoryImpl;
+import org.camunda.bpm.engine.impl.juel.TreeCache;
 import org.camunda.bpm.engine.test.mock.MockElResolver;
 import org.camunda.bpm.engine.variable.context.VariableContext;
 
@@ -72,6 +74,16 @@ public class ExpressionManager {
     this.beans = beans;
   }
 
+  /**
+   * @param treeCache the cache for parsed expressions, e.g. a
+   *   {@link ConcurrentCache} if many threads evaluate expressions concurrently
+   */
+  public ExpressionManager(Map<Object, Object> beans, TreeCache treeCache) {
+    // Use the ExpressionFactoryImpl built-in version of juel with the given cache
+    expressionFactory = new ExpressionFactoryImpl(treeCache);
+    this.beans = beans;
+  }
+
   public Expression createExpression(String expression) {
     ValueExpression valueExpression = createValueExpression(expression);
     return new JuelExpression(valueExpression, this, expression);
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import org.camunda.bpm.engine.externaltask.ExternalTaskBulkResult;
+
+public class ExternalTaskBulkResultImpl implements ExternalTaskBulkResult {
+
+  protected final String externalTaskId;
+  protected final RuntimeException exception;
+
+  protected ExternalTaskBulkResultImpl(String externalTaskId, RuntimeException exception) {
+    this.externalTaskId = externalTaskId;
+    this.exception = exception;
+  }
+
+  public static ExternalTaskBulkResult successful(String externalTaskId) {
+    return new ExternalTaskBulkResultImpl(externalTaskId, null);
+  }
+
+  public static ExternalTaskBulkResult failed(String externalTaskId, RuntimeException exception) {
+    return new ExternalTaskBulkResultImpl(externalTaskId, exception);
+  }
+
+  @Override
+  public String getExternalTaskId() {
+    return externalTaskId;
+  }
+
+  @Override
+  public boolean isSuccessful() {
+    return exception == null;
+  }
+
+  @Override
+  public RuntimeException getException() {
+    return exception;
+  }
+
+}
@@ -39,4 +39,11 @@ public class ExternalTaskLogger extends ProcessEngineLogger {
         "Could not determine priority for external task created in context of execution {}. Using default priority {}",
         execution, value, e);
   }
+
+  public void debugBulkHandlingFailed(int numberOfExternalTasks, Exception cause) {
+    logDebug(
+        "002",
+        "Handling {} external tasks in one command failed, handling each external task in its own command: {}",
+        numberOfExternalTasks, cause.getMessage());
+  }
 }
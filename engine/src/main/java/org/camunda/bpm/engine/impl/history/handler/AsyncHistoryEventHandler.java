@@ -0,0 +1,694 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricTaskInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * <p>History event handler which writes history events after the transaction
+ * producing them has been committed.</p>
+ *
+ * <p>Events are handed to bounded queues once the transaction is committed and
+ * written by a dedicated pool of writer threads, each in transactions of up to
+ * <code>batchSize</code> events using the given delegate handler (usually the
+ * {@link DbHistoryEventHandler}). The events of a process instance are always
+ * written by the same thread in the order they were produced.</p>
+ *
+ * <p>Since the producer cannot find events of previous transactions in the entity
+ * cache, an entity may be started and updated by several events of a batch. Such
+ * chains of process instance, activity instance and task instance events are merged
+ * into a single event in memory, so that the entity is inserted or updated once
+ * without reading its start time first. Chains of other entities are split into
+ * subsequent transactions.</p>
+ *
+ * <p>If the queue is full, committing transactions block until the writers have
+ * caught up. If a journal file is configured, the events are spilled to the journal
+ * instead, and written once the queues have been drained. Events which cannot be
+ * serialized to the journal, i.e. decision evaluation events, are written by the
+ * committing thread in a new transaction instead.</p>
+ *
+ * <p>If an event cannot be written by a writer thread, it is logged as an error and
+ * the handler falls back to writing the events of subsequent transactions synchronously
+ * with the delegate handler, so that further failures are raised to the producing
+ * transaction instead of discarding history. Events replayed from the journal which
+ * cannot be written are appended to the journal again, and the journal is not replayed
+ * any further until the handler is restarted.</p>
+ *
+ * <p>Note that history is eventually consistent with this handler: queries and the
+ * runtime transaction itself (e.g. when propagating removal times) do not see events
+ * which are not yet written. Events of transactions committed before an engine crash
+ * are lost, unless they have been spilled to the journal.</p>
+ */
+public class AsyncHistoryEventHandler implements HistoryEventHandler {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected static final long POLL_INTERVAL_MILLIS = 100;
+  protected static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+  protected HistoryEventHandler delegate;
+  protected int queueCapacity;
+  protected int batchSize;
+  protected int writerThreads;
+  protected HistoryEventJournal journal;
+
+  protected CommandExecutor commandExecutor;
+  protected List<BlockingQueue<HistoryEvent>> queues;
+  protected ExecutorService writers;
+  protected volatile boolean running = false;
+
+  /** number of events which are queued or being written */
+  protected final AtomicLong pendingEvents = new AtomicLong();
+
+  protected final Object journalLock = new Object();
+  /** if true, events are appended to the journal until it is replayed; guarded by journalLock */
+  protected volatile boolean spilling = false;
+
+  /** the first failure to write an event asynchronously; if set, events are written synchronously */
+  protected volatile RuntimeException writeFailure;
+
+  public AsyncHistoryEventHandler(HistoryEventHandler delegate, int queueCapacity, int batchSize, int writerThreads, String journalFile) {
+    if (queueCapacity < 1 || batchSize < 1 || writerThreads < 1) {
+      throw new IllegalArgumentException("Queue capacity, batch size and number of writer threads must be at least 1");
+    }
+    this.delegate = delegate;
+    this.queueCapacity = queueCapacity;
+    this.batchSize = batchSize;
+    this.writerThreads = writerThreads;
+
+    if (journalFile != null) {
+      this.journal = new HistoryEventJournal(journalFile);
+    }
+  }
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    handleEvents(Collections.singletonList(historyEvent));
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    CommandContext commandContext = Context.getCommandContext();
+
+    if (!running || writeFailure != null || commandContext == null) {
+      delegate.handleEvents(historyEvents);
+
+    } else {
+      commandContext.getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new EnqueueHistoryEventsListener(historyEvents));
+    }
+  }
+
+  // lifecycle ////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts the writer threads.
+   *
+   * @param commandExecutor the command executor used to write the events,
+   *   which must open a new transaction for each command
+   */
+  public synchronized void start(CommandExecutor commandExecutor) {
+    if (running) {
+      return;
+    }
+
+    this.commandExecutor = commandExecutor;
+    this.writeFailure = null;
+
+    int partitionCapacity = Math.max(1, queueCapacity / writerThreads);
+    queues = new ArrayList<BlockingQueue<HistoryEvent>>(writerThreads);
+    for (int i = 0; i < writerThreads; i++) {
+      queues.add(new ArrayBlockingQueue<HistoryEvent>(partitionCapacity));
+    }
+
+    // events spilled by a previous run are written first
+    spilling = journal != null && journal.hasEvents();
+
+    running = true;
+
+    writers = Executors.newFixedThreadPool(writerThreads, new WriterThreadFactory());
+    for (int i = 0; i < writerThreads; i++) {
+      final int partition = i;
+      writers.execute(new Runnable() {
+        public void run() {
+          writeEvents(partition);
+        }
+      });
+    }
+  }
+
+  /**
+   * Stops accepting events and waits until the queued events are written.
+   * Events handled afterwards are written synchronously.
+   */
+  public void stop() {
+    synchronized (this) {
+      if (!running) {
+        return;
+      }
+      running = false;
+    }
+
+    writers.shutdown();
+    try {
+      writers.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * @return true if all handed over events have been written, or are kept
+   *   in the journal after a write failure
+   */
+  public boolean isIdle() {
+    return pendingEvents.get() == 0 && (!spilling || writeFailure != null);
+  }
+
+  /**
+   * @return the first failure to write an event asynchronously since the handler
+   *   was started or <code>null</code>; events are written synchronously once set
+   */
+  public RuntimeException getWriteFailure() {
+    return writeFailure;
+  }
+
+  // enqueuing ////////////////////////////////////////////////////////////////
+
+  protected void enqueue(List<HistoryEvent> historyEvents) {
+    if (!running || writeFailure != null) {
+      // the writers are stopped or failed, write in a new transaction
+      writeSynchronously(historyEvents);
+      return;
+    }
+
+    for (HistoryEvent historyEvent : historyEvents) {
+      enqueue(historyEvent);
+    }
+  }
+
+  protected void enqueue(HistoryEvent historyEvent) {
+    BlockingQueue<HistoryEvent> queue = getQueue(historyEvent);
+
+    if (journal != null) {
+      synchronized (journalLock) {
+        if (!spilling) {
+          pendingEvents.incrementAndGet();
+          if (queue.offer(historyEvent)) {
+            return;
+          }
+          pendingEvents.decrementAndGet();
+        }
+
+        try {
+          // keep the order of events: once spilled, events go to the journal until it is replayed
+          journal.append(historyEvent);
+          spilling = true;
+          return;
+        }
+        catch (NotSerializableException e) {
+          // decision evaluation events only insert new entities, so they cannot
+          // overtake an event of the same entity in the journal
+          writeSynchronously(Collections.singletonList(historyEvent));
+          return;
+        }
+        catch (IOException e) {
+          LOG.historyEventJournalFailed(journal.getFileName(), e);
+        }
+      }
+    }
+
+    pendingEvents.incrementAndGet();
+    putUninterruptibly(queue, historyEvent);
+  }
+
+  protected BlockingQueue<HistoryEvent> getQueue(HistoryEvent historyEvent) {
+    String partitionKey = getPartitionKey(historyEvent);
+    int partition = partitionKey != null ? (partitionKey.hashCode() & Integer.MAX_VALUE) % queues.size() : 0;
+    return queues.get(partition);
+  }
+
+  /**
+   * @return the key which determines the writer thread, so that the events
+   *   of an entity are written in the order they were produced
+   */
+  protected String getPartitionKey(HistoryEvent historyEvent) {
+    if (historyEvent.getProcessInstanceId() != null) {
+      return historyEvent.getProcessInstanceId();
+    }
+    else if (historyEvent instanceof HistoricVariableUpdateEventEntity) {
+      return ((HistoricVariableUpdateEventEntity) historyEvent).getVariableInstanceId();
+    }
+    else {
+      return historyEvent.getId();
+    }
+  }
+
+  protected void putUninterruptibly(BlockingQueue<HistoryEvent> queue, HistoryEvent historyEvent) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        queue.put(historyEvent);
+        break;
+      }
+      catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // writing //////////////////////////////////////////////////////////////////
+
+  protected void writeEvents(int partition) {
+    BlockingQueue<HistoryEvent> queue = queues.get(partition);
+    List<HistoryEvent> batch = new ArrayList<HistoryEvent>(batchSize);
+
+    while (running || !queue.isEmpty()) {
+      HistoryEvent historyEvent = null;
+      try {
+        historyEvent = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      }
+      catch (InterruptedException e) {
+        // check whether the handler is stopped
+      }
+
+      if (historyEvent == null) {
+        if (partition == 0) {
+          replayJournal();
+        }
+        continue;
+      }
+
+      batch.add(historyEvent);
+      queue.drainTo(batch, batchSize - 1);
+      try {
+        write(batch, null);
+      }
+      finally {
+        pendingEvents.addAndGet(-batch.size());
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Writes the spilled events once all queued events are written, so that they
+   * cannot overtake events which were queued before. The replayed position is
+   * committed after each batch; events which cannot be written are appended to
+   * the journal again before.
+   */
+  protected void replayJournal() {
+    if (!spilling || pendingEvents.get() > 0 || writeFailure != null) {
+      return;
+    }
+
+    HistoryEventJournal.Reader reader = null;
+    try {
+      reader = journal.startReplay();
+
+      int replayedEvents = 0;
+      List<HistoryEvent> batch = new ArrayList<HistoryEvent>(batchSize);
+      HistoryEvent historyEvent = reader.next();
+      while (historyEvent != null) {
+        batch.add(historyEvent);
+        historyEvent = reader.next();
+
+        if (batch.size() == batchSize || historyEvent == null) {
+          List<HistoryEvent> failedEvents = new ArrayList<HistoryEvent>();
+          write(batch, failedEvents);
+          for (HistoryEvent failedEvent : failedEvents) {
+            journal.append(failedEvent);
+          }
+          journal.commitReplay(reader);
+          replayedEvents += batch.size();
+          batch.clear();
+        }
+      }
+
+      reader.close();
+      journal.finishReplay();
+      LOG.historyEventJournalReplayed(replayedEvents, journal.getFileName());
+    }
+    catch (IOException e) {
+      LOG.historyEventJournalFailed(journal.getFileName(), e);
+      return;
+    }
+    finally {
+      if (reader != null) {
+        reader.close();
+      }
+    }
+
+    synchronized (journalLock) {
+      if (!journal.hasEvents()) {
+        spilling = false;
+      }
+    }
+  }
+
+  /**
+   * @param failedEvents collects the events which cannot be written;
+   *   if <code>null</code>, these events are discarded
+   */
+  protected void write(List<HistoryEvent> historyEvents, List<HistoryEvent> failedEvents) {
+    for (List<HistoryEvent> transactionEvents : mergeEvents(historyEvents)) {
+      try {
+        commandExecutor.execute(new WriteHistoryEventsCmd(transactionEvents));
+      }
+      catch (RuntimeException e) {
+        // write the events one by one to single out the failing ones
+        for (HistoryEvent historyEvent : transactionEvents) {
+          try {
+            commandExecutor.execute(new WriteHistoryEventsCmd(Collections.singletonList(historyEvent)));
+          }
+          catch (RuntimeException writeException) {
+            if (failedEvents != null) {
+              LOG.historyEventReplayFailed(historyEvent, journal.getFileName(), writeException);
+              failedEvents.add(historyEvent);
+            }
+            else {
+              LOG.historyEventWriteFailed(historyEvent, writeException);
+            }
+            if (writeFailure == null) {
+              writeFailure = writeException;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes events in a new transaction of the calling thread, raising any failure.
+   */
+  protected void writeSynchronously(List<HistoryEvent> historyEvents) {
+    for (List<HistoryEvent> transactionEvents : mergeEvents(historyEvents)) {
+      commandExecutor.execute(new WriteHistoryEventsCmd(transactionEvents));
+    }
+  }
+
+  // merging //////////////////////////////////////////////////////////////////
+
+  /**
+   * Merges chains of events for the same entity and splits the events into
+   * transactions, so that an entity is written at most once per transaction.
+   *
+   * @return the events of each transaction in the order they are to be written
+   */
+  public List<List<HistoryEvent>> mergeEvents(List<HistoryEvent> historyEvents) {
+    List<List<HistoryEvent>> transactions = new ArrayList<List<HistoryEvent>>();
+    List<HistoryEvent> transactionEvents = new ArrayList<HistoryEvent>();
+    Map<String, HistoryEvent> writtenEntities = new HashMap<String, HistoryEvent>();
+
+    for (HistoryEvent historyEvent : historyEvents) {
+      String entityKey = getEntityKey(historyEvent);
+      HistoryEvent writtenEvent = entityKey != null ? writtenEntities.get(entityKey) : null;
+
+      if (writtenEvent != null) {
+        if (writtenEvent == historyEvent || merge(writtenEvent, historyEvent)) {
+          continue;
+        }
+
+        // the entity cannot be written twice in a transaction
+        transactions.add(transactionEvents);
+        transactionEvents = new ArrayList<HistoryEvent>();
+        writtenEntities.clear();
+      }
+
+      transactionEvents.add(historyEvent);
+      if (entityKey != null) {
+        writtenEntities.put(entityKey, historyEvent);
+      }
+    }
+
+    if (!transactionEvents.isEmpty()) {
+      transactions.add(transactionEvents);
+    }
+
+    return transactions;
+  }
+
+  /**
+   * @return the key of the entity written by the event or null if the event is
+   *   written as new entities
+   */
+  protected String getEntityKey(HistoryEvent historyEvent) {
+    if (historyEvent.getId() == null
+        || historyEvent instanceof HistoricVariableUpdateEventEntity
+        || historyEvent instanceof HistoricDecisionEvaluationEvent) {
+      return null;
+    }
+
+    Class<?> entityType = historyEvent.getClass();
+    if (historyEvent instanceof HistoricProcessInstanceEventEntity) {
+      entityType = HistoricProcessInstanceEventEntity.class;
+    }
+    else if (historyEvent instanceof HistoricActivityInstanceEventEntity) {
+      entityType = HistoricActivityInstanceEventEntity.class;
+    }
+    else if (historyEvent instanceof HistoricTaskInstanceEventEntity) {
+      entityType = HistoricTaskInstanceEventEntity.class;
+    }
+
+    return entityType.getName() + "#" + historyEvent.getId();
+  }
+
+  /**
+   * Applies an update of an entity to an event of the same entity which is not
+   * yet written, as the producer does for events found in the entity cache.
+   *
+   * @return true if the update could be merged
+   */
+  protected boolean merge(HistoryEvent writtenEvent, HistoryEvent update) {
+    if (update.isEventOfType(HistoryEventTypes.PROCESS_INSTANCE_START)
+        || update.isEventOfType(HistoryEventTypes.ACTIVITY_INSTANCE_START)
+        || update.isEventOfType(HistoryEventTypes.TASK_INSTANCE_CREATE)) {
+      return false;
+    }
+
+    if (writtenEvent instanceof HistoricProcessInstanceEventEntity) {
+      mergeProcessInstanceEvent((HistoricProcessInstanceEventEntity) writtenEvent, (HistoricProcessInstanceEventEntity) update);
+    }
+    else if (writtenEvent instanceof HistoricActivityInstanceEventEntity) {
+      mergeActivityInstanceEvent((HistoricActivityInstanceEventEntity) writtenEvent, (HistoricActivityInstanceEventEntity) update);
+    }
+    else if (writtenEvent instanceof HistoricTaskInstanceEventEntity) {
+      mergeTaskInstanceEvent((HistoricTaskInstanceEventEntity) writtenEvent, (HistoricTaskInstanceEventEntity) update);
+    }
+    else {
+      return false;
+    }
+
+    return true;
+  }
+
+  protected void mergeProcessInstanceEvent(HistoricProcessInstanceEventEntity target, HistoricProcessInstanceEventEntity update) {
+    mergeScopeInstanceEvent(target, update);
+
+    target.setBusinessKey(update.getBusinessKey());
+    target.setCaseInstanceId(update.getCaseInstanceId());
+    target.setTenantId(update.getTenantId());
+    if (update.getSuperProcessInstanceId() != null) {
+      target.setSuperProcessInstanceId(update.getSuperProcessInstanceId());
+    }
+    if (update.getSuperCaseInstanceId() != null) {
+      target.setSuperCaseInstanceId(update.getSuperCaseInstanceId());
+    }
+    if (update.getState() != null) {
+      target.setState(update.getState());
+    }
+    if (update.getEndActivityId() != null) {
+      target.setEndActivityId(update.getEndActivityId());
+    }
+    if (update.getDeleteReason() != null) {
+      target.setDeleteReason(update.getDeleteReason());
+    }
+  }
+
+  protected void mergeActivityInstanceEvent(HistoricActivityInstanceEventEntity target, HistoricActivityInstanceEventEntity update) {
+    mergeScopeInstanceEvent(target, update);
+
+    target.setParentActivityInstanceId(update.getParentActivityInstanceId());
+    target.setActivityId(update.getActivityId());
+    target.setActivityName(update.getActivityName());
+    target.setActivityType(update.getActivityType());
+    target.setTenantId(update.getTenantId());
+    if (update.getCalledProcessInstanceId() != null) {
+      target.setCalledProcessInstanceId(update.getCalledProcessInstanceId());
+    }
+    if (update.getCalledCaseInstanceId() != null) {
+      target.setCalledCaseInstanceId(update.getCalledCaseInstanceId());
+    }
+    if (update.getTaskId() != null) {
+      target.setTaskId(update.getTaskId());
+      target.setTaskAssignee(update.getTaskAssignee());
+      if (!target.isEventOfType(HistoryEventTypes.ACTIVITY_INSTANCE_START)) {
+        // task assignments are only updated by update events
+        target.setEventType(update.getEventType());
+      }
+    }
+    if (update.getEndTime() != null) {
+      target.setActivityInstanceState(update.getActivityInstanceState());
+    }
+  }
+
+  protected void mergeTaskInstanceEvent(HistoricTaskInstanceEventEntity target, HistoricTaskInstanceEventEntity update) {
+    mergeScopeInstanceEvent(target, update);
+
+    target.setCaseDefinitionKey(update.getCaseDefinitionKey());
+    target.setCaseDefinitionId(update.getCaseDefinitionId());
+    target.setCaseExecutionId(update.getCaseExecutionId());
+    target.setCaseInstanceId(update.getCaseInstanceId());
+    target.setAssignee(update.getAssignee());
+    target.setDescription(update.getDescription());
+    target.setDueDate(update.getDueDate());
+    target.setFollowUpDate(update.getFollowUpDate());
+    target.setName(update.getName());
+    target.setOwner(update.getOwner());
+    target.setParentTaskId(update.getParentTaskId());
+    target.setPriority(update.getPriority());
+    target.setTaskDefinitionKey(update.getTaskDefinitionKey());
+    target.setTenantId(update.getTenantId());
+    if (update.getActivityInstanceId() != null) {
+      target.setActivityInstanceId(update.getActivityInstanceId());
+    }
+    if (update.getEndTime() != null) {
+      target.setDeleteReason(update.getDeleteReason());
+    }
+  }
+
+  protected void mergeScopeInstanceEvent(HistoricScopeInstanceEvent target, HistoricScopeInstanceEvent update) {
+    target.setProcessDefinitionKey(update.getProcessDefinitionKey());
+    target.setProcessDefinitionId(update.getProcessDefinitionId());
+    target.setExecutionId(update.getExecutionId());
+    if (update.getRootProcessInstanceId() != null) {
+      target.setRootProcessInstanceId(update.getRootProcessInstanceId());
+    }
+    if (update.getRemovalTime() != null) {
+      target.setRemovalTime(update.getRemovalTime());
+    }
+    if (update.getEndTime() != null) {
+      target.setEndTime(update.getEndTime());
+      // computed from the start time of the target unless the update knew it
+      target.setDurationInMillis(update.getDurationRaw());
+    }
+  }
+
+  // getters //////////////////////////////////////////////////////////////////
+
+  public HistoryEventHandler getDelegate() {
+    return delegate;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public int getWriterThreads() {
+    return writerThreads;
+  }
+
+  public HistoryEventJournal getJournal() {
+    return journal;
+  }
+
+  // helper classes ///////////////////////////////////////////////////////////
+
+  protected class EnqueueHistoryEventsListener implements TransactionListener {
+
+    protected List<HistoryEvent> historyEvents;
+
+    public EnqueueHistoryEventsListener(List<HistoryEvent> historyEvents) {
+      this.historyEvents = historyEvents;
+    }
+
+    public void execute(CommandContext commandContext) {
+      enqueue(historyEvents);
+    }
+  }
+
+  protected class WriteHistoryEventsCmd implements Command<Void> {
+
+    protected List<HistoryEvent> historyEvents;
+
+    public WriteHistoryEventsCmd(List<HistoryEvent> historyEvents) {
+      this.historyEvents = historyEvents;
+    }
+
+    public Void execute(CommandContext commandContext) {
+      delegate.handleEvents(historyEvents);
+      return null;
+    }
+  }
+
+  protected static class WriterThreadFactory implements ThreadFactory {
+
+    protected final AtomicInteger threadNumber = new AtomicInteger();
+
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "camunda-history-writer-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
@@ -20,6 +20,7 @@ import java.util.List;
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.FlushListener;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
@@ -66,12 +67,7 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
     } else {
       if(dbEntityManager.getCachedEntity(historyEvent.getClass(), historyEvent.getId()) == null) {
         if (historyEvent instanceof HistoricScopeInstanceEvent) {
-          // if this is a scope, get start time from existing event in DB
-          HistoricScopeInstanceEvent existingEvent = (HistoricScopeInstanceEvent) dbEntityManager.selectById(historyEvent.getClass(), historyEvent.getId());
-          if(existingEvent != null) {
-            HistoricScopeInstanceEvent historicScopeInstanceEvent = (HistoricScopeInstanceEvent) historyEvent;
-            historicScopeInstanceEvent.setStartTime(existingEvent.getStartTime());
-          }
+          initStartTime(dbEntityManager, (HistoricScopeInstanceEvent) historyEvent);
         }
         if(historyEvent.getId() == null) {
 //          dbSqlSession.insert(historyEvent);
@@ -83,6 +79,41 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
   }
 
 
+  /**
+   * Provides the start time of an updated scope instance, which is required to calculate
+   * its duration. The start times of the process, activity and task instances updated in
+   * a command are fetched at once before the flush, and only if they end in the command.
+   * Further updates of the instance in the same command are applied to the cached event.
+   */
+  protected void initStartTime(DbEntityManager dbEntityManager, HistoricScopeInstanceEvent historyEvent) {
+    if (historyEvent.getStartTime() != null || historyEvent.getId() == null) {
+      return;
+    }
+
+    if (HistoricScopeStartTimeFetcher.isSupported(historyEvent)) {
+      getStartTimeFetcher(dbEntityManager).addUpdatedScope(historyEvent);
+
+    } else {
+      // get start time from existing event in DB
+      HistoricScopeInstanceEvent existingEvent = (HistoricScopeInstanceEvent) dbEntityManager.selectById(historyEvent.getClass(), historyEvent.getId());
+      if(existingEvent != null) {
+        historyEvent.setStartTime(existingEvent.getStartTime());
+      }
+    }
+  }
+
+  protected HistoricScopeStartTimeFetcher getStartTimeFetcher(DbEntityManager dbEntityManager) {
+    for (FlushListener flushListener : dbEntityManager.getFlushListeners()) {
+      if (flushListener instanceof HistoricScopeStartTimeFetcher) {
+        return (HistoricScopeStartTimeFetcher) flushListener;
+      }
+    }
+
+    HistoricScopeStartTimeFetcher startTimeFetcher = new HistoricScopeStartTimeFetcher();
+    dbEntityManager.registerFlushListener(startTimeFetcher);
+    return startTimeFetcher;
+  }
+
   /** customized insert behavior for HistoricVariableUpdateEventEntity */
   protected void insertHistoricVariableUpdateEntity(HistoricVariableUpdateEventEntity historyEvent) {
     DbEntityManager dbEntityManager = getDbEntityManager();
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.FlushListener;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricTaskInstanceEventEntity;
+
+/**
+ * <p>Collects the updates of historic scope instances which were not started in the
+ * current command and fetches their start times with one query per type right before
+ * the flush.</p>
+ *
+ * <p>The start time is only required to calculate the duration of a scope instance
+ * which ends in the current command. Updates of scope instances which do not end
+ * do not require a query at all.</p>
+ */
+public class HistoricScopeStartTimeFetcher implements FlushListener {
+
+  protected static final Map<Class<?>, String> START_TIME_STATEMENTS = new HashMap<Class<?>, String>();
+
+  static {
+    START_TIME_STATEMENTS.put(HistoricActivityInstanceEventEntity.class, "selectHistoricActivityInstanceStartTimes");
+    START_TIME_STATEMENTS.put(HistoricProcessInstanceEventEntity.class, "selectHistoricProcessInstanceStartTimes");
+    START_TIME_STATEMENTS.put(HistoricTaskInstanceEventEntity.class, "selectHistoricTaskInstanceStartTimes");
+  }
+
+  protected Map<Class<?>, Map<String, HistoricScopeInstanceEvent>> updatedScopes = new HashMap<Class<?>, Map<String, HistoricScopeInstanceEvent>>();
+
+  /**
+   * @return true if the start times of scope instance events of the given type can be fetched
+   */
+  public static boolean isSupported(HistoricScopeInstanceEvent historyEvent) {
+    return START_TIME_STATEMENTS.containsKey(historyEvent.getClass());
+  }
+
+  public void addUpdatedScope(HistoricScopeInstanceEvent historyEvent) {
+    Map<String, HistoricScopeInstanceEvent> scopes = updatedScopes.get(historyEvent.getClass());
+    if (scopes == null) {
+      scopes = new LinkedHashMap<String, HistoricScopeInstanceEvent>();
+      updatedScopes.put(historyEvent.getClass(), scopes);
+    }
+    scopes.put(historyEvent.getId(), historyEvent);
+  }
+
+  public void beforeFlush(DbEntityManager dbEntityManager) {
+    for (Map.Entry<Class<?>, Map<String, HistoricScopeInstanceEvent>> entry : updatedScopes.entrySet()) {
+      Map<String, HistoricScopeInstanceEvent> scopes = entry.getValue();
+
+      List<String> endedScopeIds = new ArrayList<String>();
+      for (HistoricScopeInstanceEvent scope : scopes.values()) {
+        if (scope.getEndTime() != null && scope.getStartTime() == null && scope.getDurationRaw() == null) {
+          endedScopeIds.add(scope.getId());
+        }
+      }
+
+      if (!endedScopeIds.isEmpty()) {
+        fetchStartTimes(dbEntityManager, START_TIME_STATEMENTS.get(entry.getKey()), endedScopeIds, scopes);
+      }
+    }
+
+    updatedScopes.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void fetchStartTimes(DbEntityManager dbEntityManager, String statement, List<String> ids, Map<String, HistoricScopeInstanceEvent> scopes) {
+    List<Map<String, Object>> startTimes = dbEntityManager.selectList(statement, ids);
+
+    for (Map<String, Object> startTime : startTimes) {
+      HistoricScopeInstanceEvent scope = scopes.get(startTime.get("id"));
+      if (scope != null) {
+        scope.setStartTime((Date) startTime.get("startTime"));
+      }
+    }
+  }
+
+}
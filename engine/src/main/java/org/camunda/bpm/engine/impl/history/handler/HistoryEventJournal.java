@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+
+/**
+ * Append-only file of serialized {@link HistoryEvent history events}, used by the
+ * {@link AsyncHistoryEventHandler} to spill events once its queue is full.
+ *
+ * <p>Each event is written as a length-prefixed record. For replaying, the journal
+ * file is renamed to <code>&lt;file&gt;.replay</code>, so that events can be appended
+ * to a new journal file meanwhile. The replay file is only deleted once its events
+ * have been written; a replay file left over by a previous run is replayed first.
+ * The replay file is read one event after another.</p>
+ *
+ * <p>The position up to which the events of the replay file have been written is
+ * stored in <code>&lt;file&gt;.replay.offset</code>, so that a replay interrupted by
+ * a crash resumes after the last written batch instead of writing all events again.</p>
+ */
+public class HistoryEventJournal {
+
+  protected File file;
+  protected File replayFile;
+  protected File replayOffsetFile;
+
+  protected DataOutputStream out;
+
+  public HistoryEventJournal(String fileName) {
+    this.file = new File(fileName);
+    this.replayFile = new File(fileName + ".replay");
+    this.replayOffsetFile = new File(fileName + ".replay.offset");
+  }
+
+  /**
+   * @throws NotSerializableException if the event cannot be serialized, e.g. a
+   *   decision evaluation event, which holds its values in byte array fields
+   * @throws IOException if the event cannot be written
+   */
+  public synchronized void append(HistoryEvent historyEvent) throws IOException {
+    byte[] record = serialize(historyEvent);
+
+    if (out == null) {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+    out.writeInt(record.length);
+    out.write(record);
+    out.flush();
+  }
+
+  /**
+   * @return true if events have been appended which are not yet replayed
+   */
+  public synchronized boolean hasEvents() {
+    return replayFile.exists() || file.length() > 0;
+  }
+
+  /**
+   * Moves the appended events to the replay file, unless a previous
+   * replay has not finished yet.
+   *
+   * @return a reader of the events of the replay file which have not been
+   *   written yet, which must be closed
+   */
+  public synchronized Reader startReplay() throws IOException {
+    if (!replayFile.exists()) {
+      close();
+      // an offset left over by a finished replay must not apply to the new replay file
+      if (replayOffsetFile.exists() && !replayOffsetFile.delete()) {
+        throw new IOException("Cannot delete replay offset file " + replayOffsetFile);
+      }
+      if (file.exists() && !file.renameTo(replayFile)) {
+        throw new IOException("Cannot rename journal file " + file + " to " + replayFile);
+      }
+    }
+
+    if (replayFile.exists()) {
+      return new Reader(replayFile, readReplayOffset());
+    }
+    else {
+      return new Reader(null);
+    }
+  }
+
+  /**
+   * Marks the events read by the reader so far as written, so that they
+   * are not replayed again.
+   */
+  public synchronized void commitReplay(Reader reader) throws IOException {
+    FileOutputStream offsetOut = new FileOutputStream(replayOffsetFile);
+    try {
+      DataOutputStream dataOut = new DataOutputStream(offsetOut);
+      dataOut.writeLong(reader.getPosition());
+      dataOut.flush();
+      offsetOut.getFD().sync();
+    }
+    finally {
+      IoUtil.closeSilently(offsetOut);
+    }
+  }
+
+  /**
+   * Discards the events of the replay file once they are written.
+   */
+  public synchronized void finishReplay() {
+    replayFile.delete();
+    replayOffsetFile.delete();
+  }
+
+  public synchronized void close() {
+    if (out != null) {
+      IoUtil.closeSilently(out);
+      out = null;
+    }
+  }
+
+  public String getFileName() {
+    return file.getPath();
+  }
+
+  protected long readReplayOffset() {
+    if (!replayOffsetFile.exists()) {
+      return 0;
+    }
+
+    DataInputStream offsetIn = null;
+    try {
+      offsetIn = new DataInputStream(new FileInputStream(replayOffsetFile));
+      return offsetIn.readLong();
+    }
+    catch (IOException e) {
+      // the offset was not written completely, replay all events
+      return 0;
+    }
+    finally {
+      IoUtil.closeSilently(offsetIn);
+    }
+  }
+
+  protected byte[] serialize(HistoryEvent historyEvent) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream objectOut = new ObjectOutputStream(bytes);
+    objectOut.writeObject(historyEvent);
+    objectOut.close();
+    return bytes.toByteArray();
+  }
+
+  protected static HistoryEvent deserialize(byte[] record) throws IOException {
+    ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(record));
+    try {
+      return (HistoryEvent) objectIn.readObject();
+    }
+    catch (ClassNotFoundException e) {
+      throw new IOException("Cannot deserialize history event", e);
+    }
+    finally {
+      IoUtil.closeSilently(objectIn);
+    }
+  }
+
+  /**
+   * Reads the events of a journal file one after another, so that the
+   * file does not have to fit into memory.
+   */
+  public static class Reader implements Closeable {
+
+    protected DataInputStream in;
+    protected long position = 0;
+
+    public Reader(File journalFile) throws IOException {
+      this(journalFile, 0);
+    }
+
+    /**
+     * @param offset the position of the first event to read
+     */
+    public Reader(File journalFile, long offset) throws IOException {
+      if (journalFile != null) {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+        while (position < offset) {
+          long skipped = in.skip(offset - position);
+          if (skipped <= 0) {
+            break;
+          }
+          position += skipped;
+        }
+      }
+    }
+
+    /**
+     * @return the next event or <code>null</code> if all events have been read
+     */
+    public HistoryEvent next() throws IOException {
+      if (in == null) {
+        return null;
+      }
+
+      int length;
+      try {
+        length = in.readInt();
+      }
+      catch (EOFException e) {
+        return null;
+      }
+
+      byte[] record = new byte[length];
+      try {
+        in.readFully(record);
+      }
+      catch (EOFException e) {
+        // the last record was not written completely
+        return null;
+      }
+
+      position += 4 + length;
+      return deserialize(record);
+    }
+
+    /**
+     * @return the position after the last event read
+     */
+    public long getPosition() {
+      return position;
+    }
+
+    public void close() {
+      if (in != null) {
+        IoUtil.closeSilently(in);
+        in = null;
+      }
+    }
+  }
+
+}
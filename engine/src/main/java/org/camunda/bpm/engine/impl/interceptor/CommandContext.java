@@ -40,9 +40,11 @@ import org.camunda.bpm.engine.impl.identity.WritableIdentityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobCommandFactory;
 import org.camunda.bpm.engine.impl.optimize.OptimizeManager;
 import org.camunda.bpm.engine.impl.persistence.entity.*;
+import org.camunda.bpm.engine.management.Metrics;
 
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
@@ -203,9 +205,19 @@ public class CommandContext {
   }
 
   protected void flushSessions() {
+    long startTime = System.nanoTime();
+
     for (int i = 0; i< sessionList.size(); i++) {
       sessionList.get(i).flush();
     }
+
+    logFlushDuration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
+  protected void logFlushDuration(long durationInMillis) {
+    if (processEngineConfiguration.isMetricsEnabled() && processEngineConfiguration.isDurationMetricsEnabled()) {
+      processEngineConfiguration.getMetricsRegistry().recordDuration(Metrics.DB_FLUSH_DURATION, durationInMillis);
+    }
   }
 
   protected void closeSessions(CommandInvocationContext commandInvocationContext) {
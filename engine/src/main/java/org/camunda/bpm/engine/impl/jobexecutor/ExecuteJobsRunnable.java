@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -56,12 +57,14 @@ public class ExecuteJobsRunnable implements Runnable {
 
         String nextJobId = currentProcessorJobQueue.remove(0);
         if(jobExecutor.isActive()) {
+          long startTime = System.nanoTime();
           try {
              executeJob(nextJobId, commandExecutor);
           }
           catch(Throwable t) {
             LOG.exceptionWhileExecutingJob(nextJobId, t);
           }
+          jobExecutor.logJobExecutionDuration(processEngine, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
         } else {
             try {
               unlockJob(nextJobId, commandExecutor);
@@ -21,6 +21,7 @@ import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.management.Metrics;
@@ -175,6 +176,30 @@ public abstract class JobExecutor {
     }
   }
 
+  public void logAcquisitionCycleDuration(ProcessEngineImpl engine, long durationInMillis) {
+    if (isDurationMetricsEnabled(engine)) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .recordDuration(Metrics.JOB_ACQUISITION_CYCLE_DURATION, durationInMillis);
+    }
+  }
+
+  public void logJobExecutionDuration(ProcessEngineImpl engine, long durationInMillis) {
+    if (isDurationMetricsEnabled(engine)) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .recordDuration(Metrics.JOB_EXECUTION_DURATION, durationInMillis);
+    }
+  }
+
+  protected boolean isDurationMetricsEnabled(ProcessEngineImpl engine) {
+    if (engine == null) {
+      return false;
+    }
+    ProcessEngineConfigurationImpl configuration = engine.getProcessEngineConfiguration();
+    return configuration.isMetricsEnabled() && configuration.isDurationMetricsEnabled();
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public List<ProcessEngineImpl> getProcessEngines() {
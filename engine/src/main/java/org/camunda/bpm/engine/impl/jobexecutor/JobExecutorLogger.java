@@ -183,4 +183,22 @@ public class JobExecutorLogger extends ProcessEngineLogger {
       "Batch window for history cleanup was not calculated. History cleanup job(s) will be suspended.");
   }
 
+  public void debugPushingLocalJobToJobExecutor(String jobId) {
+    logDebug(
+        "029",
+        "Handing new job to the job executor without acquisition. Job Id='{}'", jobId);
+  }
+
+  public void debugNotPushingLocalJobToInactiveJobExecutor(String jobId) {
+    logDebug(
+        "030",
+        "Job executor is not active, job '{}' is acquired once its lock expired", jobId);
+  }
+
+  public void warnHistoryCleanupRoundFailure(String jobId, int round, Exception exception) {
+    logWarn(
+        "031",
+        "History cleanup job '{}' failed in round {}, the job is rescheduled without further rounds: {}", jobId, round, exception.getMessage(), exception);
+  }
+
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Collections;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Hands a job which was created and locked by this process engine to the job executor
+ * once the transaction is committed, such that the job is not acquired from the database.
+ * If the job executor rejects the job, it is handled by the {@link RejectedJobsHandler}.
+ */
+public class LocalJobAddedNotification implements TransactionListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected final String jobId;
+  protected final JobExecutor jobExecutor;
+
+  public LocalJobAddedNotification(String jobId, JobExecutor jobExecutor) {
+    this.jobId = jobId;
+    this.jobExecutor = jobExecutor;
+  }
+
+  public void execute(CommandContext commandContext) {
+    if (!jobExecutor.isActive()) {
+      LOG.debugNotPushingLocalJobToInactiveJobExecutor(jobId);
+      return;
+    }
+
+    LOG.debugPushingLocalJobToJobExecutor(jobId);
+    ProcessEngineImpl processEngine = commandContext.getProcessEngineConfiguration().getProcessEngine();
+    jobExecutor.executeJobs(Collections.singletonList(jobId), processEngine);
+  }
+
+}
@@ -17,6 +17,7 @@ package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
@@ -72,8 +73,12 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
             continue;
           }
 
+          long cycleStartTime = System.nanoTime();
+
           AcquiredJobs acquiredJobs = acquireJobs(acquisitionContext, acquisitionStrategy, currentProcessEngine);
           executeJobs(acquisitionContext, currentProcessEngine, acquiredJobs);
+
+          jobExecutor.logAcquisitionCycleDuration(currentProcessEngine, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cycleStartTime));
         }
       } catch (Exception e) {
         LOG.exceptionDuringJobAcquisition(e);
@@ -15,15 +15,22 @@
  */
 package org.camunda.bpm.engine.impl.jobexecutor.historycleanup;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.batch.history.HistoricBatchEntity;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceEntity;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorLogger;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TableDataManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.management.Metrics;
 
@@ -32,9 +39,18 @@ import org.camunda.bpm.engine.management.Metrics;
  */
 public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
 
+  protected static final JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
   protected Map<Class<? extends DbEntity>, DbOperation> deleteOperations = new HashMap<>();
 
+  /**
+   * Delete operations of all rounds performed by the job.
+   */
+  protected List<DbOperation> performedDeleteOperations = new ArrayList<>();
+
   public void performCleanup() {
+    deleteOperations = new HashMap<>();
+
     deleteOperations.putAll(performProcessCleanup());
 
     if (isDmnEnabled()) {
@@ -44,6 +60,44 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
     DbOperation batchCleanup = performBatchCleanup();
 
     deleteOperations.put(batchCleanup.getEntityType(), batchCleanup);
+
+    performedDeleteOperations.addAll(deleteOperations.values());
+  }
+
+  @Override
+  public void execute(CommandContext commandContext) {
+    int roundsPerJob = commandContext.getProcessEngineConfiguration().getHistoryCleanupRoundsPerJob();
+
+    for (int round = 1; round < roundsPerJob; round++) {
+      boolean isPerformed;
+      try {
+        isPerformed = commandExecutor.execute(new Command<Boolean>() {
+          public Boolean execute(CommandContext commandContext) {
+            if (shouldRescheduleNow() && isCleanupAllowed(commandContext)) {
+              performCleanup();
+              return true;
+            }
+            return false;
+          }
+        });
+      }
+      catch (RuntimeException e) {
+        // the job must be rescheduled and the metrics of the previous rounds reported anyway
+        LOG.warnHistoryCleanupRoundFailure(jobId, round + 1, e);
+        isPerformed = false;
+      }
+
+      if (!isPerformed) {
+        break;
+      }
+    }
+
+    super.execute(commandContext);
+  }
+
+  protected boolean isCleanupAllowed(CommandContext commandContext) {
+    return configuration.isImmediatelyDue()
+        || HistoryCleanupHelper.isWithinBatchWindow(ClockUtil.getCurrentTime(), commandContext.getProcessEngineConfiguration());
   }
 
   protected Map<Class<? extends DbEntity>, DbOperation> performDmnCleanup() {
@@ -71,26 +125,52 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
   }
 
   protected Map<String, Long> reportMetrics() {
+    Map<Class<? extends DbEntity>, Long> removedRows = new HashMap<>();
+    for (DbOperation deleteOperation : performedDeleteOperations) {
+      Long rows = removedRows.get(deleteOperation.getEntityType());
+      removedRows.put(deleteOperation.getEntityType(), (rows != null ? rows : 0L) + deleteOperation.getRowsAffected());
+    }
+
     Map<String, Long> reports = new HashMap<>();
 
-    DbOperation deleteOperationProcessInstance = deleteOperations.get(HistoricProcessInstanceEntity.class);
-    if (deleteOperationProcessInstance != null) {
-      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES, (long) deleteOperationProcessInstance.getRowsAffected());
+    Long removedProcessInstances = removedRows.get(HistoricProcessInstanceEntity.class);
+    if (removedProcessInstances != null) {
+      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES, removedProcessInstances);
     }
 
-    DbOperation deleteOperationDecisionInstance = deleteOperations.get(HistoricDecisionInstanceEntity.class);
-    if (deleteOperationDecisionInstance != null) {
-      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES, (long) deleteOperationDecisionInstance.getRowsAffected());
+    Long removedDecisionInstances = removedRows.get(HistoricDecisionInstanceEntity.class);
+    if (removedDecisionInstances != null) {
+      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES, removedDecisionInstances);
     }
 
-    DbOperation deleteOperationBatch = deleteOperations.get(HistoricBatchEntity.class);
-    if (deleteOperationBatch != null) {
-      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS, (long) deleteOperationBatch.getRowsAffected());
+    Long removedBatches = removedRows.get(HistoricBatchEntity.class);
+    if (removedBatches != null) {
+      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS, removedBatches);
+    }
+
+    for (Map.Entry<Class<? extends DbEntity>, Long> removedRowsOfType : removedRows.entrySet()) {
+      String tableName = getTableName(removedRowsOfType.getKey());
+      if (tableName != null) {
+        String metric = Metrics.HISTORY_CLEANUP_REMOVED_ROWS_PREFIX + tableName.toLowerCase();
+        Long rows = reports.get(metric);
+        reports.put(metric, (rows != null ? rows : 0L) + removedRowsOfType.getValue());
+      }
     }
 
     return reports;
   }
 
+  protected String getTableName(Class<?> entityType) {
+    // entities can inherit their table from a super class, e.g. historic incidents
+    for (Class<?> type = entityType; type != null; type = type.getSuperclass()) {
+      String tableName = TableDataManager.persistentObjectToTableNameMap.get(type);
+      if (tableName != null) {
+        return tableName;
+      }
+    }
+    return null;
+  }
+
   protected boolean isDmnEnabled() {
     return Context
         .getProcessEngineConfiguration()
@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.json;
+
+import static org.camunda.bpm.engine.impl.util.JsonUtil.addArrayField;
+import static org.camunda.bpm.engine.impl.util.JsonUtil.addDefaultField;
+import static org.camunda.bpm.engine.impl.util.JsonUtil.addField;
+import static org.camunda.bpm.engine.impl.util.JsonUtil.addListField;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.QueryOperator;
+import org.camunda.bpm.engine.impl.QueryVariableValue;
+import org.camunda.bpm.engine.impl.persistence.entity.SuspensionState;
+import org.camunda.bpm.engine.impl.util.JsonUtil;
+import org.camunda.bpm.engine.impl.util.json.JSONArray;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+
+/**
+ * Converts the criteria of a process instance query into JSON and back, such that
+ * the query can be stored with a batch. Ordering properties are not converted.
+ *
+ * <p>Only variable values of type string, boolean, short, integer, long and double
+ * can be converted, see {@link #isConvertible(ProcessInstanceQueryImpl)}.</p>
+ */
+public class JsonProcessInstanceQueryConverter extends JsonObjectConverter<ProcessInstanceQueryImpl> {
+
+  public static final JsonProcessInstanceQueryConverter INSTANCE = new JsonProcessInstanceQueryConverter();
+
+  public static final String PROCESS_INSTANCE_ID = "processInstanceId";
+  public static final String PROCESS_INSTANCE_IDS = "processInstanceIds";
+  public static final String BUSINESS_KEY = "businessKey";
+  public static final String BUSINESS_KEY_LIKE = "businessKeyLike";
+  public static final String PROCESS_DEFINITION_ID = "processDefinitionId";
+  public static final String PROCESS_DEFINITION_KEY = "processDefinitionKey";
+  public static final String DEPLOYMENT_ID = "deploymentId";
+  public static final String SUPER_PROCESS_INSTANCE_ID = "superProcessInstanceId";
+  public static final String SUB_PROCESS_INSTANCE_ID = "subProcessInstanceId";
+  public static final String ACTIVE = "active";
+  public static final String SUSPENDED = "suspended";
+  public static final String INCIDENT_TYPE = "incidentType";
+  public static final String INCIDENT_ID = "incidentId";
+  public static final String INCIDENT_MESSAGE = "incidentMessage";
+  public static final String INCIDENT_MESSAGE_LIKE = "incidentMessageLike";
+  public static final String CASE_INSTANCE_ID = "caseInstanceId";
+  public static final String SUPER_CASE_INSTANCE_ID = "superCaseInstanceId";
+  public static final String SUB_CASE_INSTANCE_ID = "subCaseInstanceId";
+  public static final String ACTIVITY_ID_IN = "activityIdIn";
+  public static final String ROOT_PROCESS_INSTANCES = "rootProcessInstances";
+  public static final String TENANT_IDS = "tenantIds";
+  public static final String WITHOUT_TENANT_ID = "withoutTenantId";
+  public static final String VARIABLES = "variables";
+  public static final String NAME = "name";
+  public static final String VALUE = "value";
+  public static final String TYPE = "type";
+  public static final String OPERATOR = "operator";
+
+  public JSONObject toJsonObject(ProcessInstanceQueryImpl query) {
+    JSONObject json = new JSONObject();
+
+    addField(json, PROCESS_INSTANCE_ID, query.getProcessInstanceId());
+    addListField(json, PROCESS_INSTANCE_IDS, query.getProcessInstanceIds());
+    addField(json, BUSINESS_KEY, query.getBusinessKey());
+    addField(json, BUSINESS_KEY_LIKE, query.getBusinessKeyLike());
+    addField(json, PROCESS_DEFINITION_ID, query.getProcessDefinitionId());
+    addField(json, PROCESS_DEFINITION_KEY, query.getProcessDefinitionKey());
+    addField(json, DEPLOYMENT_ID, query.getDeploymentId());
+    addField(json, SUPER_PROCESS_INSTANCE_ID, query.getSuperProcessInstanceId());
+    addField(json, SUB_PROCESS_INSTANCE_ID, query.getSubProcessInstanceId());
+    addSuspensionStateField(json, query.getSuspensionState());
+    addField(json, INCIDENT_TYPE, query.getIncidentType());
+    addField(json, INCIDENT_ID, query.getIncidentId());
+    addField(json, INCIDENT_MESSAGE, query.getIncidentMessage());
+    addField(json, INCIDENT_MESSAGE_LIKE, query.getIncidentMessageLike());
+    addField(json, CASE_INSTANCE_ID, query.getCaseInstanceId());
+    addField(json, SUPER_CASE_INSTANCE_ID, query.getSuperCaseInstanceId());
+    addField(json, SUB_CASE_INSTANCE_ID, query.getSubCaseInstanceId());
+    addArrayField(json, ACTIVITY_ID_IN, query.getActivityIds());
+    addDefaultField(json, ROOT_PROCESS_INSTANCES, false, query.isRootProcessInstances());
+    addTenantIdFields(json, query);
+    addVariablesField(json, query.getQueryVariableValues());
+
+    return json;
+  }
+
+  protected void addSuspensionStateField(JSONObject json, SuspensionState suspensionState) {
+    if (suspensionState != null) {
+      if (suspensionState.equals(SuspensionState.ACTIVE)) {
+        json.put(ACTIVE, true);
+      }
+      else if (suspensionState.equals(SuspensionState.SUSPENDED)) {
+        json.put(SUSPENDED, true);
+      }
+    }
+  }
+
+  protected void addTenantIdFields(JSONObject json, ProcessInstanceQueryImpl query) {
+    if (query.isTenantIdSet()) {
+      if (query.getTenantIds() != null) {
+        addArrayField(json, TENANT_IDS, query.getTenantIds());
+      } else {
+        addField(json, WITHOUT_TENANT_ID, true);
+      }
+    }
+  }
+
+  protected void addVariablesField(JSONObject json, List<QueryVariableValue> variables) {
+    if (!variables.isEmpty()) {
+      JSONArray array = new JSONArray();
+      for (QueryVariableValue variable : variables) {
+        JSONObject variableJson = new JSONObject();
+        variableJson.put(NAME, variable.getName());
+        Object value = variable.getValue();
+        if (value != null) {
+          variableJson.put(VALUE, value);
+          variableJson.put(TYPE, value.getClass().getSimpleName());
+        }
+        else {
+          variableJson.put(VALUE, JSONObject.NULL);
+        }
+        variableJson.put(OPERATOR, variable.getOperator());
+        array.put(variableJson);
+      }
+      json.put(VARIABLES, array);
+    }
+  }
+
+  public ProcessInstanceQueryImpl toObject(JSONObject json) {
+    ProcessInstanceQueryImpl query = new ProcessInstanceQueryImpl();
+
+    if (json.has(PROCESS_INSTANCE_ID)) {
+      query.processInstanceId(json.getString(PROCESS_INSTANCE_ID));
+    }
+    if (json.has(PROCESS_INSTANCE_IDS)) {
+      query.processInstanceIds(new HashSet<String>(getList(json.getJSONArray(PROCESS_INSTANCE_IDS))));
+    }
+    if (json.has(BUSINESS_KEY)) {
+      query.processInstanceBusinessKey(json.getString(BUSINESS_KEY));
+    }
+    if (json.has(BUSINESS_KEY_LIKE)) {
+      query.processInstanceBusinessKeyLike(json.getString(BUSINESS_KEY_LIKE));
+    }
+    if (json.has(PROCESS_DEFINITION_ID)) {
+      query.processDefinitionId(json.getString(PROCESS_DEFINITION_ID));
+    }
+    if (json.has(PROCESS_DEFINITION_KEY)) {
+      query.processDefinitionKey(json.getString(PROCESS_DEFINITION_KEY));
+    }
+    if (json.has(DEPLOYMENT_ID)) {
+      query.deploymentId(json.getString(DEPLOYMENT_ID));
+    }
+    if (json.has(SUPER_PROCESS_INSTANCE_ID)) {
+      query.superProcessInstanceId(json.getString(SUPER_PROCESS_INSTANCE_ID));
+    }
+    if (json.has(SUB_PROCESS_INSTANCE_ID)) {
+      query.subProcessInstanceId(json.getString(SUB_PROCESS_INSTANCE_ID));
+    }
+    if (json.has(ACTIVE) && json.getBoolean(ACTIVE)) {
+      query.active();
+    }
+    if (json.has(SUSPENDED) && json.getBoolean(SUSPENDED)) {
+      query.suspended();
+    }
+    if (json.has(INCIDENT_TYPE)) {
+      query.incidentType(json.getString(INCIDENT_TYPE));
+    }
+    if (json.has(INCIDENT_ID)) {
+      query.incidentId(json.getString(INCIDENT_ID));
+    }
+    if (json.has(INCIDENT_MESSAGE)) {
+      query.incidentMessage(json.getString(INCIDENT_MESSAGE));
+    }
+    if (json.has(INCIDENT_MESSAGE_LIKE)) {
+      query.incidentMessageLike(json.getString(INCIDENT_MESSAGE_LIKE));
+    }
+    if (json.has(CASE_INSTANCE_ID)) {
+      query.caseInstanceId(json.getString(CASE_INSTANCE_ID));
+    }
+    if (json.has(SUPER_CASE_INSTANCE_ID)) {
+      query.superCaseInstanceId(json.getString(SUPER_CASE_INSTANCE_ID));
+    }
+    if (json.has(SUB_CASE_INSTANCE_ID)) {
+      query.subCaseInstanceId(json.getString(SUB_CASE_INSTANCE_ID));
+    }
+    if (json.has(ACTIVITY_ID_IN)) {
+      query.activityIdIn(getArray(json.getJSONArray(ACTIVITY_ID_IN)));
+    }
+    if (json.has(ROOT_PROCESS_INSTANCES) && json.getBoolean(ROOT_PROCESS_INSTANCES)) {
+      query.rootProcessInstances();
+    }
+    if (json.has(TENANT_IDS)) {
+      query.tenantIdIn(getArray(json.getJSONArray(TENANT_IDS)));
+    }
+    if (json.has(WITHOUT_TENANT_ID)) {
+      query.withoutTenantId();
+    }
+    if (json.has(VARIABLES)) {
+      addVariables(query, json.getJSONArray(VARIABLES));
+    }
+
+    return query;
+  }
+
+  protected void addVariables(ProcessInstanceQueryImpl query, JSONArray variables) {
+    for (int i = 0; i < variables.length(); i++) {
+      JSONObject variable = variables.getJSONObject(i);
+      String name = variable.getString(NAME);
+      Object value = readVariableValue(variable);
+
+      switch (QueryOperator.valueOf(variable.getString(OPERATOR))) {
+      case EQUALS:
+        query.variableValueEquals(name, value);
+        break;
+      case NOT_EQUALS:
+        query.variableValueNotEquals(name, value);
+        break;
+      case GREATER_THAN:
+        query.variableValueGreaterThan(name, value);
+        break;
+      case GREATER_THAN_OR_EQUAL:
+        query.variableValueGreaterThanOrEqual(name, value);
+        break;
+      case LESS_THAN:
+        query.variableValueLessThan(name, value);
+        break;
+      case LESS_THAN_OR_EQUAL:
+        query.variableValueLessThanOrEqual(name, value);
+        break;
+      case LIKE:
+        query.variableValueLike(name, (String) value);
+        break;
+      }
+    }
+  }
+
+  protected Object readVariableValue(JSONObject variable) {
+    Object value = JsonUtil.optJavaNull(variable.get(VALUE));
+    if (value == null) {
+      return null;
+    }
+
+    String type = variable.getString(TYPE);
+    if (Short.class.getSimpleName().equals(type)) {
+      return (short) variable.getInt(VALUE);
+    }
+    else if (Integer.class.getSimpleName().equals(type)) {
+      return variable.getInt(VALUE);
+    }
+    else if (Long.class.getSimpleName().equals(type)) {
+      return variable.getLong(VALUE);
+    }
+    else if (Double.class.getSimpleName().equals(type)) {
+      return variable.getDouble(VALUE);
+    }
+    else {
+      return value;
+    }
+  }
+
+  /**
+   * @return true if all criteria of the query can be converted
+   */
+  public boolean isConvertible(ProcessInstanceQueryImpl query) {
+    for (QueryVariableValue variable : query.getQueryVariableValues()) {
+      Object value = variable.getValue();
+      if (!variable.isLocal() || !(value == null
+          || value instanceof String
+          || value instanceof Boolean
+          || value instanceof Short
+          || value instanceof Integer
+          || value instanceof Long
+          || value instanceof Double)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected String[] getArray(JSONArray array) {
+    return getList(array).toArray(new String[array.length()]);
+  }
+
+  protected List<String> getList(JSONArray array) {
+    List<String> list = new ArrayList<String>();
+    for (int i = 0; i < array.length(); i++) {
+      list.add(array.getString(i));
+    }
+    return list;
+  }
+
+}
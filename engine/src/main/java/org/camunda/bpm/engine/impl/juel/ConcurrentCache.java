@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.juel;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded {@link TreeCache} which serves lookups without locking.
+ *
+ * <p>Trees are held in a {@link ConcurrentHashMap}. Instead of reordering entries on every
+ * read like the {@link Cache}, a lookup only marks the entry as referenced. Once the cache
+ * exceeds its capacity, the thread adding an entry evicts other entries following the clock
+ * algorithm: a referenced entry is unmarked and skipped, an unmarked entry is removed.
+ * The least recently used entry is thus only approximated.</p>
+ *
+ * <p>Only one thread evicts at a time. Threads adding entries meanwhile do not wait for
+ * it, so the cache may temporarily exceed its capacity by the number of concurrent writers.
+ * Evicted trees are not kept in a secondary map.</p>
+ */
+public final class ConcurrentCache implements TreeCache {
+
+  private final int capacity;
+  private final ConcurrentMap<String, Entry> entries;
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  // guarded by evictionLock
+  private Iterator<Entry> clockHand;
+
+  /**
+   * Constructor.
+   * @param capacity maximum cache size
+   */
+  public ConcurrentCache(int capacity) {
+    this(capacity, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor.
+   * @param capacity maximum cache size
+   * @param concurrencyLevel the estimated number of concurrently updating threads
+   */
+  public ConcurrentCache(int capacity, int concurrencyLevel) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity of the cache must be at least 1");
+    }
+    this.capacity = capacity;
+    this.entries = new ConcurrentHashMap<String, Entry>(16, 0.75f, concurrencyLevel);
+  }
+
+  public Tree get(String expression) {
+    Entry entry = entries.get(expression);
+    if (entry == null) {
+      return null;
+    }
+    // avoid writing the shared entry on every lookup of a frequently used expression
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+    return entry.tree;
+  }
+
+  public void put(String expression, Tree tree) {
+    Entry entry = new Entry(expression, tree);
+    Entry previous = entries.put(expression, entry);
+    if (previous == null && size.incrementAndGet() > capacity) {
+      evict(entry);
+    }
+  }
+
+  public int size() {
+    return size.get();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  private void evict(Entry addedEntry) {
+    if (!evictionLock.tryLock()) {
+      // another thread is already evicting
+      return;
+    }
+    try {
+      // referenced entries get a second chance during the first sweep only
+      int secondChances = size.get();
+      while (size.get() > capacity) {
+        if (clockHand == null || !clockHand.hasNext()) {
+          clockHand = entries.values().iterator();
+          if (!clockHand.hasNext()) {
+            return;
+          }
+        }
+
+        Entry entry = clockHand.next();
+        if (entry == addedEntry) {
+          // the entry was not yet looked up
+          continue;
+        }
+        else if (entry.referenced && secondChances > 0) {
+          entry.referenced = false;
+          secondChances--;
+        }
+        else if (entries.remove(entry.expression, entry)) {
+          size.decrementAndGet();
+        }
+      }
+    }
+    finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static final class Entry {
+
+    final String expression;
+    final Tree tree;
+    volatile boolean referenced;
+
+    Entry(String expression, Tree tree) {
+      this.expression = expression;
+      this.tree = tree;
+    }
+  }
+
+}
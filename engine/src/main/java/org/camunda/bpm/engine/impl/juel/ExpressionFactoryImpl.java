@@ -218,6 +218,21 @@ public class ExpressionFactoryImpl extends org.camunda.bpm.engine.impl.javax.el.
 		this.converter = converter;
 	}
 
+	/**
+	 * Create a new expression factory using the default builder and the specified cache. The
+	 * builder is configured from <code>el.properties</code> (see above), the cache size property
+	 * is not considered. The builder profile is {@link Profile#JEE6} (features may be overridden
+	 * in <code>el.properties</code>).
+	 * 
+	 * @param cache
+	 *            the tree cache (may be <code>null</code>)
+	 */
+	public ExpressionFactoryImpl(TreeCache cache) {
+		Properties properties = loadProperties("el.properties");
+		this.store = new TreeStore(createTreeBuilder(Profile.JEE6, properties), cache);
+		this.converter = createTypeConverter(properties);
+	}
+
 	/**
 	 * Create a new expression factory.
 	 * 
@@ -308,6 +323,23 @@ public class ExpressionFactoryImpl extends org.camunda.bpm.engine.impl.javax.el.
 	 */
 	protected TreeStore createTreeStore(int defaultCacheSize, Profile profile, Properties properties) {
 		// create builder
+		TreeBuilder builder = createTreeBuilder(profile, properties);
+
+		// create cache
+		int cacheSize = defaultCacheSize;
+		if (properties != null && properties.containsKey(PROP_CACHE_SIZE)) {
+			try {
+				cacheSize = Integer.parseInt(properties.getProperty(PROP_CACHE_SIZE));
+			} catch (NumberFormatException e) {
+				throw new ELException("Cannot parse EL property " + PROP_CACHE_SIZE, e);
+			}
+		}
+		Cache cache = cacheSize > 0 ? new Cache(cacheSize) : null;
+
+		return new TreeStore(builder, cache);
+	}
+
+	private TreeBuilder createTreeBuilder(Profile profile, Properties properties) {
 		TreeBuilder builder = null;
 		if (properties == null) {
 			builder = createTreeBuilder(null, profile.features());
@@ -324,19 +356,7 @@ public class ExpressionFactoryImpl extends org.camunda.bpm.engine.impl.javax.el.
 			}
 			builder = createTreeBuilder(properties, features.toArray(new Builder.Feature[0]));
 		}
-
-		// create cache
-		int cacheSize = defaultCacheSize;
-		if (properties != null && properties.containsKey(PROP_CACHE_SIZE)) {
-			try {
-				cacheSize = Integer.parseInt(properties.getProperty(PROP_CACHE_SIZE));
-			} catch (NumberFormatException e) {
-				throw new ELException("Cannot parse EL property " + PROP_CACHE_SIZE, e);
-			}
-		}
-		Cache cache = cacheSize > 0 ? new Cache(cacheSize) : null;
-
-		return new TreeStore(builder, cache);
+		return builder;
 	}
 
 	/**
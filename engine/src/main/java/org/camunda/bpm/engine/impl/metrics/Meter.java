@@ -15,17 +15,29 @@
  */
 package org.camunda.bpm.engine.impl.metrics;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
- * A Meter implementation based on AtomicLong
+ * A Meter implementation based on striped counters.
+ *
+ * <p>Threads mark occurrences on one of several cells, chosen by the thread id,
+ * so that threads marking concurrently rarely update the same cache line.
+ * Reading the meter sums up all cells.</p>
+ *
+ * <p>This is what {@code java.util.concurrent.atomic.LongAdder} does, which is not
+ * used since the engine does not require Java 8.</p>
  *
  * @author Daniel Meyer
  *
  */
 public class Meter {
 
-  protected AtomicLong counter = new AtomicLong(0);
+  /** number of longs between two cells, keeps each cell on its own cache line */
+  protected static final int CELL_PADDING = 8;
+  protected static final int MAX_CELLS = 64;
+  protected static final int CELLS = numberOfCells(Runtime.getRuntime().availableProcessors());
+
+  protected AtomicLongArray cells = new AtomicLongArray(CELLS * CELL_PADDING);
 
   protected String name;
 
@@ -34,11 +46,11 @@ public class Meter {
   }
 
   public void mark() {
-    counter.incrementAndGet();
+    markTimes(1);
   }
 
   public void markTimes(long times) {
-    counter.addAndGet(times);
+    cells.addAndGet(cellIndex(), times);
   }
 
   public String getName() {
@@ -50,11 +62,34 @@ public class Meter {
   }
 
   public long getAndClear() {
-    return counter.getAndSet(0);
+    long value = 0;
+    for (int i = 0; i < CELLS; i++) {
+      value += cells.getAndSet(i * CELL_PADDING, 0);
+    }
+    return value;
   }
 
   public long get() {
-    return counter.get();
+    long value = 0;
+    for (int i = 0; i < CELLS; i++) {
+      value += cells.get(i * CELL_PADDING);
+    }
+    return value;
+  }
+
+  protected int cellIndex() {
+    return (int) (Thread.currentThread().getId() & (CELLS - 1)) * CELL_PADDING;
+  }
+
+  /**
+   * @return the smallest power of two which is not less than the number of processors
+   */
+  protected static int numberOfCells(int processors) {
+    int cells = 1;
+    while (cells < processors && cells < MAX_CELLS) {
+      cells <<= 1;
+    }
+    return cells;
   }
 
 }
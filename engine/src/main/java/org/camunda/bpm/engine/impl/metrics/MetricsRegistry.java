@@ -25,6 +25,7 @@ import java.util.Map;
 public class MetricsRegistry {
 
   protected Map<String, Meter> meters = new HashMap<String, Meter>();
+  protected Map<String, TimerMeter> timers = new HashMap<String, TimerMeter>();
 
   public Meter getMeterByName(String name) {
     return meters.get(name);
@@ -34,6 +35,14 @@ public class MetricsRegistry {
     return meters;
   }
 
+  public TimerMeter getTimerByName(String name) {
+    return timers.get(name);
+  }
+
+  public Map<String, TimerMeter> getTimers() {
+    return timers;
+  }
+
   public void markOccurrence(String name) {
     markOccurrence(name, 1);
   }
@@ -46,6 +55,25 @@ public class MetricsRegistry {
     }
   }
 
+  public void recordDuration(String name, long durationInMillis) {
+    TimerMeter timer = timers.get(name);
+    if (timer != null) {
+      timer.record(durationInMillis);
+    }
+  }
+
+  /**
+   * Creates a timer and registers its meters, see {@link TimerMeter}.
+   */
+  public TimerMeter createTimer(String name) {
+    TimerMeter timer = new TimerMeter(name);
+    timers.put(name, timer);
+    for (Meter meter : timer.getMeters()) {
+      meters.put(meter.getName(), meter);
+    }
+    return timer;
+  }
+
   public Meter createMeter(String name) {
     Meter meter = new Meter(name);
     meters.put(name, meter);
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records durations in milliseconds and exposes them as {@link Meter meters},
+ * so that they are reported and queried like counters:
+ *
+ * <ul>
+ *   <li><code>&lt;name&gt;-count</code>: number of recorded durations</li>
+ *   <li><code>&lt;name&gt;-sum</code>: sum of the recorded durations</li>
+ *   <li><code>&lt;name&gt;-max</code>, <code>&lt;name&gt;-p50</code>, <code>&lt;name&gt;-p95</code>,
+ *   <code>&lt;name&gt;-p99</code>: maximum and percentiles of the durations recorded in a reporting interval</li>
+ * </ul>
+ *
+ * <p>The maximum and percentiles are taken from a {@link Histogram} which is replaced by
+ * {@link #closeInterval()} at the beginning of each report. Unlike counters, their values
+ * cannot be summed up over several intervals.</p>
+ */
+public class TimerMeter {
+
+  public static final String COUNT_SUFFIX = "-count";
+  public static final String SUM_SUFFIX = "-sum";
+  public static final String MAX_SUFFIX = "-max";
+  public static final String P50_SUFFIX = "-p50";
+  public static final String P95_SUFFIX = "-p95";
+  public static final String P99_SUFFIX = "-p99";
+
+  protected String name;
+
+  protected Meter count;
+  protected Meter sum;
+  protected List<Meter> meters = new ArrayList<Meter>();
+
+  protected volatile Histogram currentInterval = new Histogram();
+  protected volatile Histogram closedInterval = new Histogram();
+
+  public TimerMeter(String name) {
+    this.name = name;
+
+    count = new Meter(name + COUNT_SUFFIX);
+    sum = new Meter(name + SUM_SUFFIX);
+    meters.add(count);
+    meters.add(sum);
+    meters.add(new StatisticMeter(name + MAX_SUFFIX, 100));
+    meters.add(new StatisticMeter(name + P50_SUFFIX, 50));
+    meters.add(new StatisticMeter(name + P95_SUFFIX, 95));
+    meters.add(new StatisticMeter(name + P99_SUFFIX, 99));
+  }
+
+  public void record(long durationInMillis) {
+    count.mark();
+    sum.markTimes(durationInMillis);
+    currentInterval.record(durationInMillis);
+  }
+
+  /**
+   * Starts a new interval for the maximum and percentiles. Until the next
+   * invocation, their meters report the values of the interval closed now.
+   */
+  public void closeInterval() {
+    closedInterval = currentInterval;
+    currentInterval = new Histogram();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<Meter> getMeters() {
+    return meters;
+  }
+
+  public Meter getCount() {
+    return count;
+  }
+
+  public Meter getSum() {
+    return sum;
+  }
+
+  /**
+   * Meter of a statistic over the durations of an interval. Its value is
+   * computed from the histogram and cannot be marked.
+   */
+  public class StatisticMeter extends Meter {
+
+    protected double percentile;
+
+    public StatisticMeter(String name, double percentile) {
+      super(name);
+      this.percentile = percentile;
+    }
+
+    public void markTimes(long times) {
+      // derived from the recorded durations
+    }
+
+    /**
+     * @return the value of the current, not yet reported interval
+     */
+    public long get() {
+      return currentInterval.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return the value of the interval closed by the last {@link TimerMeter#closeInterval()}
+     */
+    public long getAndClear() {
+      return closedInterval.getValueAtPercentile(percentile);
+    }
+  }
+
+}
@@ -26,6 +26,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.metrics.Meter;
 import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.TimerMeter;
 import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 
@@ -63,6 +64,10 @@ public class MetricsCollectionTask extends TimerTask {
 
   protected void collectMetrics() {
 
+    for (TimerMeter timer : metricsRegistry.getTimers().values()) {
+      timer.closeInterval();
+    }
+
     final List<MeterLogEntity> logs = new ArrayList<MeterLogEntity>();
     for (Meter meter : metricsRegistry.getMeters().values()) {
       logs.add(new MeterLogEntity(meter.getName(),
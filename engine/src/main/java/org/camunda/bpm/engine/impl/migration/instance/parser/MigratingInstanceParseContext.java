@@ -44,6 +44,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 import org.camunda.bpm.engine.impl.util.CollectionUtil;
 import org.camunda.bpm.engine.impl.util.StringUtil;
 import org.camunda.bpm.engine.migration.MigrationInstruction;
@@ -83,11 +84,20 @@ public class MigratingInstanceParseContext {
       MigrationPlan migrationPlan,
       ExecutionEntity processInstance,
       ProcessDefinitionEntity targetProcessDefinition) {
+    this(parser, migrationPlan, processInstance, targetProcessDefinition, new ActivityExecutionMappingCache());
+  }
+
+  public MigratingInstanceParseContext(
+      MigratingInstanceParser parser,
+      MigrationPlan migrationPlan,
+      ExecutionEntity processInstance,
+      ProcessDefinitionEntity targetProcessDefinition,
+      ActivityExecutionMappingCache activityExecutionMappingCache) {
     this.parser = parser;
     this.sourceProcessDefinition = processInstance.getProcessDefinition();
     this.targetProcessDefinition = targetProcessDefinition;
     this.migratingProcessInstance = new MigratingProcessInstance(processInstance.getId(), sourceProcessDefinition, targetProcessDefinition);
-    this.mapping = new ActivityExecutionTreeMapping(Context.getCommandContext(), processInstance.getId());
+    this.mapping = new ActivityExecutionTreeMapping(Context.getCommandContext(), processInstance.getId(), activityExecutionMappingCache);
     this.instructionsBySourceScope = organizeInstructionsBySourceScope(migrationPlan);
   }
 
@@ -17,7 +17,7 @@ package org.camunda.bpm.engine.impl.migration.instance.parser;
 
 import java.util.List;
 
-import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cmd.GetActivityInstanceCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.migration.instance.MigratingActivityInstance;
@@ -34,6 +34,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 import org.camunda.bpm.engine.impl.tree.TreeVisitor;
 import org.camunda.bpm.engine.migration.MigrationPlan;
 import org.camunda.bpm.engine.runtime.ActivityInstance;
@@ -47,8 +48,6 @@ import org.camunda.bpm.engine.runtime.TransitionInstance;
  */
 public class MigratingInstanceParser {
 
-  protected ProcessEngine engine;
-
   protected MigratingInstanceParseHandler<ActivityInstance> activityInstanceHandler =
       new ActivityInstanceHandler();
   protected MigratingInstanceParseHandler<TransitionInstance> transitionInstanceHandler =
@@ -67,10 +66,6 @@ public class MigratingInstanceParser {
   protected MigratingInstanceParseHandler<IncidentEntity> incidentHandler =
       new IncidentInstanceHandler();
 
-  public MigratingInstanceParser(ProcessEngine engine) {
-    this.engine = engine;
-  }
-
   public MigratingProcessInstance parse(String processInstanceId, MigrationPlan migrationPlan, MigratingProcessInstanceValidationReportImpl processInstanceReport) {
 
     CommandContext commandContext = Context.getCommandContext();
@@ -91,7 +86,10 @@ public class MigratingInstanceParser {
       .findDeployedProcessDefinitionById(migrationPlan.getTargetProcessDefinitionId());
     List<JobDefinitionEntity> targetJobDefinitions = fetchJobDefinitions(commandContext, targetProcessDefinition.getId());
 
-    final MigratingInstanceParseContext parseContext = new MigratingInstanceParseContext(this, migrationPlan, processInstance, targetProcessDefinition)
+    // the execution tree is not modified while parsing, so the activity execution mappings can be shared
+    ActivityExecutionMappingCache mappingCache = new ActivityExecutionMappingCache();
+
+    final MigratingInstanceParseContext parseContext = new MigratingInstanceParseContext(this, migrationPlan, processInstance, targetProcessDefinition, mappingCache)
       .eventSubscriptions(eventSubscriptions)
       .externalTasks(externalTasks)
       .incidents(incidents)
@@ -100,7 +98,7 @@ public class MigratingInstanceParser {
       .targetJobDefinitions(targetJobDefinitions)
       .variables(variables);
 
-    ActivityInstance activityInstance = engine.getRuntimeService().getActivityInstance(processInstanceId);
+    ActivityInstance activityInstance = new GetActivityInstanceCmd(processInstanceId, mappingCache).execute(commandContext);
 
     ActivityInstanceWalker activityInstanceWalker = new ActivityInstanceWalker(activityInstance);
 
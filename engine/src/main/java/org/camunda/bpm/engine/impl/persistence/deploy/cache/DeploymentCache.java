@@ -50,6 +50,7 @@ public class DeploymentCache {
   protected CmmnModelInstanceCache cmmnModelInstanceCache;
   protected DmnModelInstanceCache dmnModelInstanceCache;
   protected CacheDeployer cacheDeployer = new CacheDeployer();
+  protected MessageStartEventSubscriptionIndex messageStartEventSubscriptionIndex = new MessageStartEventSubscriptionIndex();
 
   public DeploymentCache(CacheFactory factory, int cacheCapacity) {
     processDefinitionEntityCache = new ProcessDefinitionCache(factory, cacheCapacity, cacheDeployer);
@@ -128,6 +129,11 @@ public class DeploymentCache {
   public void discardProcessDefinitionCache() {
     processDefinitionEntityCache.clear();
     bpmnModelInstanceCache.clear();
+    messageStartEventSubscriptionIndex.invalidate();
+  }
+
+  public MessageStartEventSubscriptionIndex getMessageStartEventSubscriptionIndex() {
+    return messageStartEventSubscriptionIndex;
   }
 
   // CASE DEFINITION ////////////////////////////////////////////////////////////////////////////////
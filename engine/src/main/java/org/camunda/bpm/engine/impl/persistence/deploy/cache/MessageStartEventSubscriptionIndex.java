@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TenantManager;
+
+/**
+ * <p>Index of the message start event subscriptions by message name, so that messages
+ * can be correlated to start events without querying the event subscriptions.</p>
+ *
+ * <p>The index is loaded with a single query on first access. It is invalidated when a
+ * message start event subscription is added or removed, i.e. on deployment and undeployment,
+ * once the transaction is committed. Deployments of other process engines which share the
+ * database are not noticed.</p>
+ */
+public class MessageStartEventSubscriptionIndex {
+
+  protected volatile Map<String, List<EventSubscriptionEntity>> subscriptionsByMessageName;
+
+  /**
+   * Incremented on invalidation, so that subscriptions which were loaded before
+   * the invalidation are not put into the index afterwards.
+   */
+  protected AtomicLong version = new AtomicLong();
+
+  /**
+   * @return the message start event subscriptions for the given message name which
+   * pass the tenant check of the current authentication
+   */
+  public List<EventSubscriptionEntity> findSubscriptionsByMessageName(CommandContext commandContext, String messageName) {
+    TenantManager tenantManager = commandContext.getTenantManager();
+
+    List<EventSubscriptionEntity> result = new ArrayList<EventSubscriptionEntity>();
+    for (EventSubscriptionEntity subscription : getSubscriptions(commandContext, messageName)) {
+      if (subscription.getTenantId() == null || tenantManager.isAuthenticatedTenant(subscription.getTenantId())) {
+        result.add(copy(subscription));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the message start event subscription for the given message name and tenant id
+   * or null if no such subscription exists
+   */
+  public EventSubscriptionEntity findSubscriptionByMessageNameAndTenantId(CommandContext commandContext, String messageName, String tenantId) {
+    for (EventSubscriptionEntity subscription : getSubscriptions(commandContext, messageName)) {
+      if (tenantId == null ? subscription.getTenantId() == null : tenantId.equals(subscription.getTenantId())) {
+        return copy(subscription);
+      }
+    }
+    return null;
+  }
+
+  public synchronized void invalidate() {
+    version.incrementAndGet();
+    subscriptionsByMessageName = null;
+  }
+
+  protected List<EventSubscriptionEntity> getSubscriptions(CommandContext commandContext, String messageName) {
+    Map<String, List<EventSubscriptionEntity>> subscriptions = subscriptionsByMessageName;
+
+    if (subscriptions == null) {
+      subscriptions = load(commandContext);
+    }
+
+    List<EventSubscriptionEntity> subscriptionsForMessage = subscriptions.get(messageName);
+    if (subscriptionsForMessage != null) {
+      return subscriptionsForMessage;
+    }
+    else {
+      return Collections.emptyList();
+    }
+  }
+
+  protected Map<String, List<EventSubscriptionEntity>> load(CommandContext commandContext) {
+    long loadedVersion = version.get();
+
+    List<EventSubscriptionEntity> messageStartEventSubscriptions = commandContext
+      .getEventSubscriptionManager()
+      .findMessageStartEventSubscriptions();
+
+    Map<String, List<EventSubscriptionEntity>> subscriptions = new HashMap<String, List<EventSubscriptionEntity>>();
+    for (EventSubscriptionEntity subscription : messageStartEventSubscriptions) {
+      List<EventSubscriptionEntity> subscriptionsForMessage = subscriptions.get(subscription.getEventName());
+      if (subscriptionsForMessage == null) {
+        subscriptionsForMessage = new ArrayList<EventSubscriptionEntity>();
+        subscriptions.put(subscription.getEventName(), subscriptionsForMessage);
+      }
+      subscriptionsForMessage.add(copy(subscription));
+    }
+
+    synchronized (this) {
+      if (version.get() == loadedVersion) {
+        subscriptionsByMessageName = subscriptions;
+      }
+    }
+
+    return subscriptions;
+  }
+
+  /**
+   * The indexed subscriptions are shared between commands and must not be handed out.
+   */
+  protected EventSubscriptionEntity copy(EventSubscriptionEntity subscription) {
+    EventSubscriptionEntity copy = new EventSubscriptionEntity();
+    copy.setId(subscription.getId());
+    copy.setRevision(subscription.getRevision());
+    copy.setEventType(subscription.getEventType());
+    copy.setEventName(subscription.getEventName());
+    copy.setConfiguration(subscription.getConfiguration());
+    copy.setActivityId(subscription.getActivityId());
+    copy.setTenantId(subscription.getTenantId());
+    copy.setCreated(subscription.getCreated());
+    return copy;
+  }
+
+}
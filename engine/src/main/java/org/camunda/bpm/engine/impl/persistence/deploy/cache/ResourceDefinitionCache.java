@@ -24,6 +24,10 @@ import org.camunda.bpm.engine.impl.repository.ResourceDefinitionEntity;
 import org.camunda.commons.utils.cache.Cache;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 
 /**
@@ -33,6 +37,12 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
 
   protected Cache<String, T> cache;
   protected CacheDeployer cacheDeployer;
+  protected ConcurrentMap<String, FutureTask<T>> loadingTasks = new ConcurrentHashMap<String, FutureTask<T>>();
+
+  /**
+   * Set while the current thread loads a definition into any of the caches.
+   */
+  protected static final ThreadLocal<Boolean> loadingDefinitionThreadLocal = new ThreadLocal<Boolean>();
 
   public ResourceDefinitionCache(CacheFactory factory, int cacheCapacity, CacheDeployer cacheDeployer) {
     this.cache = factory.createCache(cacheCapacity);
@@ -112,18 +122,7 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
     String deploymentId = definition.getDeploymentId();
     T cachedDefinition = cache.get(definitionId);
     if (cachedDefinition == null) {
-      synchronized (this) {
-        cachedDefinition = cache.get(definitionId);
-        if (cachedDefinition == null) {
-          DeploymentEntity deployment = Context
-              .getCommandContext()
-              .getDeploymentManager()
-              .findDeploymentById(deploymentId);
-          deployment.setNew(false);
-          cacheDeployer.deployOnlyGivenResourcesOfDeployment(deployment, definition.getResourceName(), definition.getDiagramResourceName());
-          cachedDefinition = cache.get(definitionId);
-        }
-      }
+      cachedDefinition = loadDefinition(definition);
       checkInvalidDefinitionWasCached(deploymentId, definitionId, cachedDefinition);
     }
     if (cachedDefinition != null) {
@@ -132,6 +131,83 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
     return cachedDefinition;
   }
 
+  /**
+   * Deploys the resource of the given definition and returns the cached definition. Concurrent
+   * calls for the same definition id wait for a single deployment, calls for other definition ids
+   * are not blocked. A nested call made while the thread is already loading a definition, e.g. while
+   * parsing a call activity which calls its own process, deploys the definition directly: waiting
+   * for another thread could deadlock if that thread waits for a definition loaded by this one.
+   */
+  protected T loadDefinition(final T definition) {
+    final String definitionId = definition.getId();
+
+    if (Boolean.TRUE.equals(loadingDefinitionThreadLocal.get())) {
+      return deployAndGetDefinition(definition);
+    }
+
+    FutureTask<T> loadingTask = new FutureTask<T>(new Callable<T>() {
+      public T call() throws Exception {
+        loadingDefinitionThreadLocal.set(Boolean.TRUE);
+        try {
+          return deployAndGetDefinition(definition);
+        } finally {
+          loadingDefinitionThreadLocal.remove();
+        }
+      }
+    });
+
+    FutureTask<T> runningTask = loadingTasks.putIfAbsent(definitionId, loadingTask);
+    if (runningTask == null) {
+      runningTask = loadingTask;
+      try {
+        loadingTask.run();
+      } finally {
+        loadingTasks.remove(definitionId, loadingTask);
+      }
+    }
+
+    return getLoadedDefinition(definitionId, runningTask);
+  }
+
+  protected T deployAndGetDefinition(T definition) {
+    String definitionId = definition.getId();
+    T cachedDefinition = cache.get(definitionId);
+    if (cachedDefinition == null) {
+      deployDefinition(definition);
+      cachedDefinition = cache.get(definitionId);
+    }
+    return cachedDefinition;
+  }
+
+  protected T getLoadedDefinition(String definitionId, FutureTask<T> loadingTask) {
+    try {
+      return loadingTask.get();
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new ProcessEngineException("Could not load definition with id '" + definitionId + "' into the deployment cache", cause);
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException("Interrupted while waiting for definition with id '" + definitionId + "' to be loaded into the deployment cache", e);
+    }
+  }
+
+  protected void deployDefinition(T definition) {
+    DeploymentEntity deployment = Context
+        .getCommandContext()
+        .getDeploymentManager()
+        .findDeploymentById(definition.getDeploymentId());
+    deployment.setNew(false);
+    cacheDeployer.deployOnlyGivenResourcesOfDeployment(deployment, definition.getResourceName(), definition.getDiagramResourceName());
+  }
+
   public void addDefinition(T definition) {
     cache.put(definition.getId(), definition);
   }
@@ -169,5 +245,4 @@ public abstract class ResourceDefinitionCache<T extends ResourceDefinitionEntity
   protected abstract void checkInvalidDefinitionByDeploymentAndKey(String deploymentId, String definitionKey, T definition);
 
   protected abstract void checkInvalidDefinitionWasCached(String deploymentId, String definitionId, T definition);
-
-}
\ No newline at end of file
+}
@@ -25,9 +25,14 @@ import java.util.Set;
 import org.camunda.bpm.engine.impl.EventSubscriptionQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.event.EventType;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.ProcessEventJobHandler;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.runtime.EventSubscription;
@@ -44,11 +49,26 @@ public class EventSubscriptionManager extends AbstractManager {
   /** keep track of subscriptions created in the current command */
   protected List<EventSubscriptionEntity> createdSignalSubscriptions = new ArrayList<EventSubscriptionEntity>();
 
+  /** keep track of message subscriptions created in the current command, including the ones deleted again */
+  protected List<EventSubscriptionEntity> createdMessageSubscriptions = new ArrayList<EventSubscriptionEntity>();
+
+  /** keep track of message subscriptions deleted in the current command */
+  protected List<EventSubscriptionEntity> deletedMessageSubscriptions = new ArrayList<EventSubscriptionEntity>();
+
+  /** true if message start event subscriptions have been added or removed in the current command */
+  protected boolean isMessageStartEventSubscriptionChanged = false;
+
   public void insert(EventSubscriptionEntity persistentObject) {
     super.insert(persistentObject);
     if (persistentObject.isSubscriptionForEventType(EventType.SIGNAL)) {
       createdSignalSubscriptions.add(persistentObject);
     }
+    if (persistentObject.isSubscriptionForEventType(EventType.MESSAGE)) {
+      createdMessageSubscriptions.add(persistentObject);
+    }
+    if (isMessageStartEventSubscription(persistentObject)) {
+      messageStartEventSubscriptionChanged();
+    }
   }
 
   public void deleteEventSubscription(EventSubscriptionEntity persistentObject) {
@@ -56,6 +76,12 @@ public class EventSubscriptionManager extends AbstractManager {
     if (persistentObject.isSubscriptionForEventType(EventType.SIGNAL)) {
       createdSignalSubscriptions.remove(persistentObject);
     }
+    if (persistentObject.isSubscriptionForEventType(EventType.MESSAGE)) {
+      deletedMessageSubscriptions.add(persistentObject);
+    }
+    if (isMessageStartEventSubscription(persistentObject)) {
+      messageStartEventSubscriptionChanged();
+    }
 
     // if the event subscription has been triggered asynchronously but not yet executed
     List<JobEntity> asyncJobs = getJobManager().findJobsByConfiguration(ProcessEventJobHandler.TYPE, persistentObject.getId(), persistentObject.getTenantId());
@@ -64,6 +90,44 @@ public class EventSubscriptionManager extends AbstractManager {
     }
   }
 
+  protected boolean isMessageStartEventSubscription(EventSubscriptionEntity eventSubscription) {
+    return eventSubscription.isSubscriptionForEventType(EventType.MESSAGE) && eventSubscription.getExecutionId() == null;
+  }
+
+  /**
+   * Invalidates the message start event index once the changed subscriptions are committed.
+   */
+  protected void messageStartEventSubscriptionChanged() {
+    if (!isMessageStartEventSubscriptionChanged) {
+      isMessageStartEventSubscriptionChanged = true;
+
+      final ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+      if (processEngineConfiguration.isMessageStartEventIndexEnabled()) {
+        Context.getCommandContext()
+          .getTransactionContext()
+          .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+            public void execute(CommandContext commandContext) {
+              processEngineConfiguration.getDeploymentCache()
+                .getMessageStartEventSubscriptionIndex()
+                .invalidate();
+            }
+          });
+      }
+    }
+  }
+
+  public boolean isMessageStartEventSubscriptionChanged() {
+    return isMessageStartEventSubscriptionChanged;
+  }
+
+  public List<EventSubscriptionEntity> getCreatedMessageSubscriptions() {
+    return createdMessageSubscriptions;
+  }
+
+  public List<EventSubscriptionEntity> getDeletedMessageSubscriptions() {
+    return deletedMessageSubscriptions;
+  }
+
   public void deleteAndFlushEventSubscription(EventSubscriptionEntity persistentObject) {
     deleteEventSubscription(persistentObject);
     getDbEntityManager().flushEntity(persistentObject);
@@ -260,6 +324,23 @@ public class EventSubscriptionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectEventSubscriptionsByProcessInstanceId", processInstanceId);
   }
 
+  /**
+   * @return all message start event subscriptions, without tenant check
+   */
+  @SuppressWarnings("unchecked")
+  public List<EventSubscriptionEntity> findMessageStartEventSubscriptions() {
+    return getDbEntityManager().selectList("selectMessageStartEventSubscriptions");
+  }
+
+  /**
+   * @return the message event subscriptions of executions and process definitions with one of
+   * the given message names, without tenant check
+   */
+  @SuppressWarnings("unchecked")
+  public List<EventSubscriptionEntity> findMessageEventSubscriptionsByNames(List<String> messageNames) {
+    return getDbEntityManager().selectList("selectMessageEventSubscriptionsByNames", messageNames);
+  }
+
   /**
    * @return the message start event subscriptions with the given message name (from any tenant)
    *
@@ -56,6 +56,7 @@ import org.camunda.bpm.engine.impl.history.event.HistoryEventProcessor;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
 import org.camunda.bpm.engine.impl.history.producer.HistoryEventProducer;
 import org.camunda.bpm.engine.impl.interceptor.AtomicOperationInvocation;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.MessageJobDeclaration;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerDeclarationImpl;
 import org.camunda.bpm.engine.impl.persistence.entity.util.FormPropertyStartContext;
@@ -257,6 +258,32 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     // create the new child execution
     ExecutionEntity createdExecution = createNewExecution();
 
+    initializeChildExecution(createdExecution, initializeExecutionStartContext);
+
+    return createdExecution;
+  }
+
+  /**
+   * Creates the given number of child executions like repeated invocations of
+   * {@link #createExecution()} would do, but allocates the ids of all executions
+   * at once and sizes the list of child executions up front.
+   */
+  public List<ExecutionEntity> createExecutions(int numberOfExecutions) {
+    List<ExecutionEntity> createdExecutions = createNewExecutions(numberOfExecutions);
+
+    ensureExecutionsInitialized();
+    if (executions instanceof ArrayList) {
+      ((ArrayList<ExecutionEntity>) executions).ensureCapacity(executions.size() + numberOfExecutions);
+    }
+
+    for (ExecutionEntity createdExecution : createdExecutions) {
+      initializeChildExecution(createdExecution, false);
+    }
+
+    return createdExecutions;
+  }
+
+  protected void initializeChildExecution(ExecutionEntity createdExecution, boolean initializeExecutionStartContext) {
     // initialize sequence counter
     createdExecution.setSequenceCounter(getSequenceCounter());
 
@@ -288,8 +315,6 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     createdExecution.skipIoMapping = this.skipIoMapping;
 
     LOG.createChildExecution(createdExecution, this);
-
-    return createdExecution;
   }
 
   // sub process instance
@@ -324,6 +349,18 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     return newExecution;
   }
 
+  protected static List<ExecutionEntity> createNewExecutions(int numberOfExecutions) {
+    List<ExecutionEntity> newExecutions = new ArrayList<ExecutionEntity>(numberOfExecutions);
+    for (int i = 0; i < numberOfExecutions; i++) {
+      ExecutionEntity newExecution = new ExecutionEntity();
+      initializeAssociations(newExecution);
+      newExecutions.add(newExecution);
+    }
+    Context.getCommandContext().getExecutionManager().insertExecutions(newExecutions);
+
+    return newExecutions;
+  }
+
   @Override
   protected PvmExecutionImpl newExecution() {
     return createNewExecution();
@@ -742,6 +779,13 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     return Context.getProcessEngineConfiguration().isExecutionTreePrefetchEnabled();
   }
 
+  /**
+   * @return true if the variables, event subscriptions and tasks are fetched together with the execution tree
+   */
+  protected boolean isInstanceSnapshotPrefetchEnabled() {
+    return Context.getProcessEngineConfiguration().isInstanceSnapshotPrefetchEnabled();
+  }
+
   public void setExecutions(List<ExecutionEntity> executions) {
     this.executions = executions;
   }
@@ -1317,7 +1361,8 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
    *
    */
   protected void ensureExecutionTreeInitialized() {
-    List<ExecutionEntity> executions = Context.getCommandContext()
+    CommandContext commandContext = Context.getCommandContext();
+    List<ExecutionEntity> executions = commandContext
       .getExecutionManager()
       .findExecutionsByProcessInstanceId(processInstanceId);
 
@@ -1331,7 +1376,22 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       }
     }
 
-    processInstance.restoreProcessInstance(executions, null, null, null, null, null, null);
+    if (isInstanceSnapshotPrefetchEnabled()) {
+      List<EventSubscriptionEntity> eventSubscriptions = commandContext
+        .getEventSubscriptionManager()
+        .findEventSubscriptionsByProcessInstanceId(processInstanceId);
+      List<VariableInstanceEntity> variables = commandContext
+        .getVariableInstanceManager()
+        .findVariableInstancesByProcessInstanceId(processInstanceId);
+      List<TaskEntity> tasks = commandContext
+        .getTaskManager()
+        .findTasksByProcessInstanceId(processInstanceId);
+
+      processInstance.restoreProcessInstance(executions, eventSubscriptions, variables, tasks, null, null, null);
+
+    } else {
+      processInstance.restoreProcessInstance(executions, null, null, null, null, null, null);
+    }
   }
 
   /**
@@ -1348,7 +1408,12 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
    *   If null, variables are not initialized and are lazy loaded on demand
    * @param jobs
    * @param tasks
+   *   the list of all tasks that are part of this process instance.
+   *   If null, tasks are not initialized and are lazy loaded on demand
    * @param incidents
+   *
+   * Event subscriptions, variables and tasks are only restored for executions which have not
+   * loaded them yet, since the loaded ones may already reflect changes of the current command.
    */
   public void restoreProcessInstance(Collection<ExecutionEntity> executions,
       Collection<EventSubscriptionEntity> eventSubscriptions,
@@ -1375,6 +1440,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       }
     }
 
+    Set<ExecutionEntity> restoredEventSubscriptions = new HashSet<ExecutionEntity>();
+    Set<ExecutionEntity> restoredTasks = new HashSet<ExecutionEntity>();
+
     // restore execution tree
     for (ExecutionEntity execution : executions) {
       if (execution.executions == null) {
@@ -1382,6 +1450,11 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       }
       if(execution.eventSubscriptions == null && eventSubscriptions != null) {
         execution.eventSubscriptions = new ArrayList<EventSubscriptionEntity>();
+        restoredEventSubscriptions.add(execution);
+      }
+      if(execution.tasks == null && tasks != null) {
+        execution.tasks = new ArrayList<TaskEntity>();
+        restoredTasks.add(execution);
       }
       if(variables != null) {
         execution.variableStore.setVariablesProvider(
@@ -1409,7 +1482,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       for (EventSubscriptionEntity eventSubscription : eventSubscriptions) {
         ExecutionEntity executionEntity = executionsMap.get(eventSubscription.getExecutionId());
         if (executionEntity != null) {
-          executionEntity.addEventSubscription(eventSubscription);
+          if (restoredEventSubscriptions.contains(executionEntity)) {
+            executionEntity.addEventSubscription(eventSubscription);
+          }
         }
         else {
           throw LOG.executionNotFoundException(eventSubscription.getExecutionId());
@@ -1428,7 +1503,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       for (TaskEntity task : tasks) {
         ExecutionEntity execution = executionsMap.get(task.getExecutionId());
         task.setExecution(execution);
-        execution.addTask(task);
+        if (restoredTasks.contains(execution)) {
+          execution.addTask(task);
+        }
 
         if(variables != null) {
           task.variableStore.setVariablesProvider(new VariableCollectionProvider<VariableInstanceEntity>(variablesByScope.get(task.id)));
@@ -46,6 +46,13 @@ public class ExecutionManager extends AbstractManager {
     createDefaultAuthorizations(execution);
   }
 
+  public void insertExecutions(List<ExecutionEntity> executions) {
+    getDbEntityManager().insertAll(executions);
+    for (ExecutionEntity execution : executions) {
+      createDefaultAuthorizations(execution);
+    }
+  }
+
   public void deleteExecution(ExecutionEntity execution) {
     getDbEntityManager().delete(execution);
     if (execution.isProcessInstanceExecution()) {
@@ -143,6 +150,12 @@ public class ExecutionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectProcessInstanceIdsByQueryCriteria", processInstanceQuery);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessInstanceIdPageByQueryCriteria(ProcessInstanceQueryImpl processInstanceQuery, Page page) {
+    configureQuery(processInstanceQuery);
+    return getDbEntityManager().selectList("selectProcessInstanceIdPageByQueryCriteria", processInstanceQuery, page);
+  }
+
   @SuppressWarnings("unchecked")
   public List<ExecutionEntity> findEventScopeExecutionsByActivityId(String activityRef, String parentExecutionId) {
     Map<String, String> parameters = new HashMap<String, String>();
@@ -16,6 +16,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +33,7 @@ import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
@@ -45,6 +47,13 @@ public class ExternalTaskManager extends AbstractManager {
 
   public static QueryOrderingProperty EXT_TASK_PRIORITY_ORDERING_PROPERTY = new QueryOrderingProperty(ExternalTaskQueryProperty.PRIORITY, Direction.DESCENDING);
 
+  /**
+   * Database types which support <code>select ... for update skip locked</code>.
+   * For MySQL, version 8.0.1 or later is required.
+   */
+  protected static final List<String> SKIP_LOCKED_DATABASE_TYPES = Arrays.asList(
+      DbSqlSessionFactory.POSTGRES, DbSqlSessionFactory.ORACLE, DbSqlSessionFactory.MYSQL);
+
   public ExternalTaskEntity findExternalTaskById(String id) {
     return getDbEntityManager().selectById(ExternalTaskEntity.class, id);
   }
@@ -68,6 +77,10 @@ public class ExternalTaskManager extends AbstractManager {
     return getDbEntityManager().selectList("selectExternalTasksByProcessInstanceId", processInstanceId);
   }
 
+  public List<ExternalTaskEntity> findExternalTasksByIds(List<String> ids) {
+    return getDbEntityManager().selectList("selectExternalTasksByIds", ids);
+  }
+
   public List<ExternalTaskEntity> selectExternalTasksForTopics(Collection<TopicFetchInstruction> queryFilters, int maxResults, boolean usePriority) {
     if (queryFilters.isEmpty()) {
       return new ArrayList<ExternalTaskEntity>();
@@ -85,7 +98,19 @@ public class ExternalTaskManager extends AbstractManager {
     configureQuery(parameter);
 
     DbEntityManager manager = getDbEntityManager();
-    return manager.selectList("selectExternalTasksForTopics", parameter);
+    if (isSkipLockedFetchUsed()) {
+      // the row limit is applied by the statement except on Oracle which does not allow
+      // to combine a row limit with 'for update'
+      return manager.selectListWithRowLimit("selectExternalTasksForTopicsSkipLocked", parameter, maxResults);
+    }
+    else {
+      return manager.selectList("selectExternalTasksForTopics", parameter);
+    }
+  }
+
+  protected boolean isSkipLockedFetchUsed() {
+    return Context.getProcessEngineConfiguration().isSkipLockedExternalTaskFetchEnabled()
+        && SKIP_LOCKED_DATABASE_TYPES.contains(getDbSqlSession().getDbSqlSessionFactory().getDatabaseType());
   }
 
   public List<ExternalTask> findExternalTasksByQueryCriteria(ExternalTaskQueryImpl externalTaskQuery) {
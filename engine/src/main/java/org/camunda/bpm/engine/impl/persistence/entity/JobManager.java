@@ -16,6 +16,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import org.camunda.bpm.engine.impl.*;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
@@ -129,6 +130,12 @@ public class JobManager extends AbstractManager {
       job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
       job.setLockOwner(jobExecutor.getLockOwner());
       transactionListener = new ExclusiveJobAddedNotification(job.getId(), jobExecutorContext);
+    } else if (isExecutableLocally(job, jobExecutor)) {
+      // lock job & hand it to the job executor after commit, skipping the acquisition
+      Date currentTime = ClockUtil.getCurrentTime();
+      job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
+      job.setLockOwner(jobExecutor.getLockOwner());
+      transactionListener = new LocalJobAddedNotification(job.getId(), jobExecutor);
     } else {
       // notify job executor:
       transactionListener = new MessageAddedNotification(jobExecutor);
@@ -138,6 +145,69 @@ public class JobManager extends AbstractManager {
       .addTransactionListener(TransactionState.COMMITTED, transactionListener);
   }
 
+  /**
+   * A new job can be executed by the job executor of this process engine without being
+   * acquired if the acquisition would select it as well: it is due, not locked yet and,
+   * if it is exclusive, no other exclusive job of the process instance is in progress.
+   * Always false if pushing local jobs is disabled, so that no query is performed then.
+   */
+  protected boolean isExecutableLocally(JobEntity job, JobExecutor jobExecutor) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+
+    if (!processEngineConfiguration.isJobExecutorPushLocalJobs()) {
+      return false;
+    }
+
+    if (job.isSuspended()
+        || job.getRetries() <= 0
+        || job.getLockOwner() != null
+        || (job.getDuedate() != null && job.getDuedate().after(ClockUtil.getCurrentTime()))
+        || !getDbEntityManager().getDbEntityCache().isTransient(job)
+        || !jobExecutor.hasRegisteredEngine(processEngineConfiguration.getProcessEngine())) {
+      return false;
+    }
+
+    if (processEngineConfiguration.isJobExecutorDeploymentAware()
+        && job.getDeploymentId() != null
+        && !processEngineConfiguration.getRegisteredDeployments().contains(job.getDeploymentId())) {
+      return false;
+    }
+
+    if (job.isExclusive() && job.getProcessInstanceId() != null) {
+      return !hasLockedExclusiveJob(job.getProcessInstanceId());
+    }
+
+    return true;
+  }
+
+  /**
+   * @return true if an exclusive job of the process instance is locked, either by this
+   * transaction or in the database
+   */
+  protected boolean hasLockedExclusiveJob(String processInstanceId) {
+    Date now = ClockUtil.getCurrentTime();
+
+    for (JobEntity cachedJob : getDbEntityManager().getCachedEntitiesByType(JobEntity.class)) {
+      if (cachedJob.isExclusive()
+          && processInstanceId.equals(cachedJob.getProcessInstanceId())
+          && cachedJob.getLockOwner() != null
+          && cachedJob.getLockExpirationTime() != null
+          && !cachedJob.getLockExpirationTime().before(now)) {
+        return true;
+      }
+    }
+
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceId", processInstanceId);
+    parameters.put("now", now);
+
+    ListQueryParameterObject queryParameter = new ListQueryParameterObject();
+    queryParameter.setParameter(parameters);
+
+    Long lockedJobs = (Long) getDbEntityManager().selectOne("selectLockedExclusiveJobCountByProcessInstanceId", queryParameter);
+    return lockedJobs > 0;
+  }
+
   protected boolean areInSameProcessInstance(JobEntity job1, JobEntity job2) {
     if (job1 == null || job2 == null) {
       return false;
@@ -25,6 +25,7 @@ import java.util.Set;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.metrics.Meter;
 import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
+import org.camunda.bpm.engine.impl.metrics.TimerMeter;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.management.MetricIntervalValue;
@@ -55,7 +56,7 @@ public class MeterLogManager extends AbstractManager {
         .getMetricsRegistry()
         .getMeterByName(query.getName());
       if(meter != null) {
-        result += meter.get();
+        result += getUnloggedValue(meter);
       }
     }
 
@@ -75,7 +76,7 @@ public class MeterLogManager extends AbstractManager {
         MetricIntervalEntity intervalEntity = (MetricIntervalEntity) intervalResult.get(0);
         long entityValue = intervalEntity.getValue();
         if (metrics.get(queryName) != null) {
-          entityValue += metrics.get(queryName).get();
+          entityValue += getUnloggedValue(metrics.get(queryName));
         }
         intervalEntity.setValue(entityValue);
       } else {
@@ -86,7 +87,7 @@ public class MeterLogManager extends AbstractManager {
           int idx = intervalResult.indexOf(entity);
           if (idx >= 0) {
             MetricIntervalEntity intervalValue = (MetricIntervalEntity) intervalResult.get(idx);
-            intervalValue.setValue(intervalValue.getValue() + metrics.get(metricName).get());
+            intervalValue.setValue(intervalValue.getValue() + getUnloggedValue(metrics.get(metricName)));
           }
         }
       }
@@ -94,6 +95,14 @@ public class MeterLogManager extends AbstractManager {
     return intervalResult;
   }
 
+  protected long getUnloggedValue(Meter meter) {
+    if (meter instanceof TimerMeter.StatisticMeter) {
+      // maximum and percentiles of different intervals cannot be added up
+      return 0;
+    }
+    return meter.get();
+  }
+
   protected boolean isEndTimeAfterLastReportInterval(MetricsQueryImpl query) {
     long reportingIntervalInSeconds = Context.getProcessEngineConfiguration()
       .getDbMetricsReporter()
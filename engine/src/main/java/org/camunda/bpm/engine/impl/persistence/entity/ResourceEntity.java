@@ -16,9 +16,13 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
 import org.camunda.bpm.engine.repository.Resource;
 
 
@@ -29,6 +33,8 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
 
   private static final long serialVersionUID = 1L;
 
+  public static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+
   protected String id;
   protected String name;
   protected byte[] bytes;
@@ -37,6 +43,7 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
   protected String tenantId;
   protected Integer type;
   protected Date createTime;
+  protected String contentHash;
 
   public String getId() {
     return id;
@@ -60,6 +67,7 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
 
   public void setBytes(byte[] bytes) {
     this.bytes = bytes;
+    this.contentHash = null;
   }
 
   public String getDeploymentId() {
@@ -110,6 +118,31 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
     this.createTime = createTime;
   }
 
+  /**
+   * @return the Base64 encoded {@value #CONTENT_HASH_ALGORITHM} digest of the bytes, calculated
+   * on first access if it was not persisted together with the resource
+   */
+  public String getContentHash() {
+    if (contentHash == null && bytes != null) {
+      contentHash = calculateContentHash(bytes);
+    }
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  protected String calculateContentHash(byte[] bytes) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+      return new String(Base64.encodeBase64(digest.digest(bytes)));
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup " + CONTENT_HASH_ALGORITHM + " algorithm", e);
+    }
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -120,6 +153,7 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
            + ", tenantId=" + tenantId
            + ", type=" + type
            + ", createTime=" + createTime
+           + ", contentHash=" + contentHash
            + "]";
   }
 }
@@ -89,4 +89,26 @@ public class ResourceManager extends AbstractManager {
     return existingResourcesByName;
   }
 
+  /**
+   * Same as {@link #findLatestResourcesByDeploymentName(String, Set, String, String)} but
+   * only selects the content hashes instead of the bytes of the resources.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, ResourceContentHashEntity> findLatestResourceContentHashesByDeploymentName(String deploymentName, Set<String> resourcesToFind, String source, String tenantId) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("deploymentName", deploymentName);
+    params.put("resourcesToFind", resourcesToFind);
+    params.put("source", source);
+    params.put("tenantId", tenantId);
+
+    List<ResourceContentHashEntity> resources = getDbEntityManager().selectList("selectLatestResourceContentHashesByDeploymentName", params);
+
+    Map<String, ResourceContentHashEntity> existingResourcesByName = new HashMap<String, ResourceContentHashEntity>();
+    for (ResourceContentHashEntity existingResource : resources) {
+      existingResourcesByName.put(existingResource.getName(), existingResource);
+    }
+
+    return existingResourcesByName;
+  }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.pvm.runtime;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.EnsureUtil;
+
+/**
+ * <p>Creates the activity execution mappings of the executions of one execution tree
+ * (see {@link PvmExecutionImpl#createActivityExecutionMapping()}) and reuses them for
+ * executions with the same flow scope execution and flow scope.</p>
+ *
+ * <p>Without the cache, the mapping is created for every execution, which walks up the
+ * execution and the flow scope hierarchy and inspects the children of every scope execution
+ * on the way. For a scope execution with many concurrent children, this is quadratic in the
+ * number of children.</p>
+ *
+ * <p>The cache must only be used as long as the execution tree is not modified. The returned
+ * mappings are shared and must not be modified.</p>
+ */
+public class ActivityExecutionMappingCache {
+
+  protected Map<PvmExecutionImpl, Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>>> mappings =
+      new HashMap<PvmExecutionImpl, Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>>>();
+
+  public Map<ScopeImpl, PvmExecutionImpl> getActivityExecutionMapping(PvmExecutionImpl execution) {
+    ScopeImpl currentActivity = execution.getActivity();
+    EnsureUtil.ensureNotNull("activity of current execution", currentActivity);
+
+    ScopeImpl flowScope = execution.getFlowScope();
+    PvmExecutionImpl flowScopeExecution = execution.getFlowScopeExecution();
+
+    Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>> mappingsByFlowScope = mappings.get(flowScopeExecution);
+    if (mappingsByFlowScope == null) {
+      mappingsByFlowScope = new HashMap<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>>();
+      mappings.put(flowScopeExecution, mappingsByFlowScope);
+    }
+
+    Map<ScopeImpl, PvmExecutionImpl> mapping = mappingsByFlowScope.get(flowScope);
+    if (mapping == null) {
+      mapping = flowScopeExecution.createActivityExecutionMapping(flowScope);
+      mappingsByFlowScope.put(flowScope, mapping);
+    }
+
+    return mapping;
+  }
+
+}
@@ -27,6 +27,7 @@ import org.camunda.bpm.engine.impl.cmd.CommandLogger;
 import org.camunda.bpm.engine.impl.event.EventType;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.MessageStartEventSubscriptionIndex;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
@@ -185,7 +186,10 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
   protected List<EventSubscriptionEntity> findMessageStartEventSubscriptions(CommandContext commandContext, String messageName, CorrelationSet correlationSet) {
     EventSubscriptionManager eventSubscriptionManager = commandContext.getEventSubscriptionManager();
 
-    if (correlationSet.isTenantIdSet) {
+    if (isMessageStartEventIndexUsed(commandContext)) {
+      return findMessageStartEventSubscriptionsInIndex(commandContext, messageName, correlationSet);
+
+    } else if (correlationSet.isTenantIdSet) {
       EventSubscriptionEntity eventSubscription = eventSubscriptionManager.findMessageStartEventSubscriptionByNameAndTenantId(messageName, correlationSet.getTenantId());
       if (eventSubscription != null) {
         return Collections.singletonList(eventSubscription);
@@ -198,6 +202,32 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
     }
   }
 
+  /**
+   * The index does not contain the subscriptions added or removed in the current command.
+   */
+  protected boolean isMessageStartEventIndexUsed(CommandContext commandContext) {
+    return commandContext.getProcessEngineConfiguration().isMessageStartEventIndexEnabled()
+        && !commandContext.getEventSubscriptionManager().isMessageStartEventSubscriptionChanged();
+  }
+
+  protected List<EventSubscriptionEntity> findMessageStartEventSubscriptionsInIndex(CommandContext commandContext, String messageName, CorrelationSet correlationSet) {
+    MessageStartEventSubscriptionIndex index = commandContext.getProcessEngineConfiguration()
+        .getDeploymentCache()
+        .getMessageStartEventSubscriptionIndex();
+
+    if (correlationSet.isTenantIdSet) {
+      EventSubscriptionEntity eventSubscription = index.findSubscriptionByMessageNameAndTenantId(commandContext, messageName, correlationSet.getTenantId());
+      if (eventSubscription != null) {
+        return Collections.singletonList(eventSubscription);
+      } else {
+        return Collections.emptyList();
+      }
+
+    } else {
+      return index.findSubscriptionsByMessageName(commandContext, messageName);
+    }
+  }
+
   protected CorrelationHandlerResult correlateStartMessageByProcessDefinitionId(CommandContext commandContext, String messageName, String processDefinitionId) {
     DeploymentCache deploymentCache = commandContext.getProcessEngineConfiguration().getDeploymentCache();
     ProcessDefinitionEntity processDefinition = deploymentCache.findDeployedProcessDefinitionById(processDefinitionId);
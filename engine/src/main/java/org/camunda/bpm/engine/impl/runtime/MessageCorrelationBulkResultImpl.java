@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.runtime;
+
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+
+public class MessageCorrelationBulkResultImpl implements MessageCorrelationBulkResult {
+
+  protected final MessageCorrelationResult correlationResult;
+  protected final RuntimeException exception;
+
+  protected MessageCorrelationBulkResultImpl(MessageCorrelationResult correlationResult, RuntimeException exception) {
+    this.correlationResult = correlationResult;
+    this.exception = exception;
+  }
+
+  public static MessageCorrelationBulkResult correlated(MessageCorrelationResult correlationResult) {
+    return new MessageCorrelationBulkResultImpl(correlationResult, null);
+  }
+
+  public static MessageCorrelationBulkResult failed(RuntimeException exception) {
+    return new MessageCorrelationBulkResultImpl(null, exception);
+  }
+
+  @Override
+  public boolean isCorrelated() {
+    return exception == null;
+  }
+
+  @Override
+  public MessageCorrelationResult getCorrelationResult() {
+    return correlationResult;
+  }
+
+  @Override
+  public RuntimeException getException() {
+    return exception;
+  }
+
+}
@@ -105,8 +105,9 @@ public abstract class AbstractProcessEngineTestCase extends PvmTestCase {
     try {
 
       boolean hasRequiredHistoryLevel = TestHelper.annotationRequiredHistoryLevelCheck(processEngine, getClass(), getName());
-      // ignore test case when current history level is too low
-      if (hasRequiredHistoryLevel) {
+      boolean runsWithRequiredDatabase = TestHelper.annotationRequiredDatabaseCheck(processEngine, getClass(), getName());
+      // ignore test case when current history level is too low or the database is not supported
+      if (hasRequiredHistoryLevel && runsWithRequiredDatabase) {
 
         deploymentId = TestHelper.annotationDeploymentSetUp(processEngine, getClass(), getName());
 
@@ -45,6 +45,7 @@ import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
 import org.camunda.bpm.engine.repository.DeploymentBuilder;
 import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.RequiredDatabase;
 import org.camunda.bpm.engine.test.RequiredHistoryLevel;
 import org.junit.Assert;
 import org.junit.runner.Description;
@@ -224,6 +225,38 @@ public abstract class TestHelper {
     }
   }
 
+  public static boolean annotationRequiredDatabaseCheck(ProcessEngine processEngine, Description description) {
+    RequiredDatabase annotation = description.getAnnotation(RequiredDatabase.class);
+
+    if (annotation != null) {
+      return databaseCheck(processEngine, annotation);
+
+    } else {
+      return annotationRequiredDatabaseCheck(processEngine, description.getTestClass(), description.getMethodName());
+    }
+  }
+
+  public static boolean annotationRequiredDatabaseCheck(ProcessEngine processEngine, Class<?> testClass, String methodName) {
+    RequiredDatabase annotation = getAnnotation(processEngine, testClass, methodName, RequiredDatabase.class);
+
+    if (annotation != null) {
+      return databaseCheck(processEngine, annotation);
+    } else {
+      return true;
+    }
+  }
+
+  private static boolean databaseCheck(ProcessEngine processEngine, RequiredDatabase annotation) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    String databaseType = processEngineConfiguration.getDatabaseType();
+
+    if (annotation.excludes().length > 0 && Arrays.asList(annotation.excludes()).contains(databaseType)) {
+      return false;
+    }
+
+    return annotation.includes().length == 0 || Arrays.asList(annotation.includes()).contains(databaseType);
+  }
+
   private static <T extends Annotation> T getAnnotation(ProcessEngine processEngine, Class<?> testClass, String methodName, Class<T> annotationClass) {
     Method method = null;
     T annotation = null;
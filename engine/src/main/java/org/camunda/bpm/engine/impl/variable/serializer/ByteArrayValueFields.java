@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable.serializer;
+
+/**
+ * {@link ValueFields} which store the byte array value in a separate byte array entity,
+ * so that serializers can defer fetching the bytes until they are accessed.
+ */
+public interface ByteArrayValueFields extends ValueFields {
+
+  /**
+   * @return the id of the byte array entity holding the byte array value or null
+   */
+  String getByteArrayValueId();
+
+}
@@ -17,6 +17,9 @@ package org.camunda.bpm.engine.impl.variable.serializer;
 
 import java.util.Arrays;
 
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.impl.value.FileValueImpl;
 import org.camunda.bpm.engine.variable.impl.value.UntypedValueImpl;
@@ -68,10 +71,7 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
 
   @Override
   public FileValue readValue(ValueFields valueFields, boolean deserializeValue) {
-    FileValueBuilder builder = Variables.fileValue(valueFields.getTextValue());
-    if (valueFields.getByteArrayValue() != null) {
-      builder.file(valueFields.getByteArrayValue());
-    }
+    FileValueImpl fileValue = createFileValue(valueFields);
     // to ensure the same array size all the time
     if (valueFields.getTextValue2() != null) {
       String[] split = Arrays.copyOf(valueFields.getTextValue2().split(MIMETYPE_ENCODING_SEPARATOR, NR_OF_VALUES_IN_TEXTFIELD2), NR_OF_VALUES_IN_TEXTFIELD2);
@@ -79,10 +79,31 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
       String mimeType = returnNullIfEmptyString(split[0]);
       String encoding = returnNullIfEmptyString(split[1]);
 
-      builder.mimeType(mimeType);
-      builder.encoding(encoding);
+      fileValue.setMimeType(mimeType);
+      fileValue.setEncoding(encoding);
+    }
+    return fileValue;
+  }
+
+  protected FileValueImpl createFileValue(ValueFields valueFields) {
+    String byteArrayId = null;
+    if (valueFields instanceof ByteArrayValueFields) {
+      byteArrayId = ((ByteArrayValueFields) valueFields).getByteArrayValueId();
+    }
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (byteArrayId != null && processEngineConfiguration != null
+        && processEngineConfiguration.isLazyFileValueFetchingEnabled()) {
+      // the content is fetched once it is accessed
+      return new LazyFileValueImpl(valueFields.getTextValue(), byteArrayId, processEngineConfiguration.getCommandExecutorTxRequired());
+    }
+    else {
+      FileValueBuilder builder = Variables.fileValue(valueFields.getTextValue());
+      if (valueFields.getByteArrayValue() != null) {
+        builder.file(valueFields.getByteArrayValue());
+      }
+      return (FileValueImpl) builder.create();
     }
-    return builder.create();
   }
 
   protected String returnNullIfEmptyString(String s) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable.serializer;
+
+import java.io.InputStream;
+import java.io.ObjectStreamException;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.variable.impl.value.FileValueImpl;
+import org.camunda.bpm.engine.variable.type.ValueType;
+
+/**
+ * <p>File value which fetches its content from the byte array entity when it is
+ * accessed for the first time, so that reading the name, mime type and encoding of
+ * a file does not require loading the file into memory.</p>
+ *
+ * <p>Outside of a command, the content is fetched in a new command, so that it is not
+ * a snapshot taken when the variable was read. If the variable has been removed in the
+ * meantime, the file has no content. Used only if
+ * {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#isLazyFileValueFetchingEnabled()}
+ * is set.</p>
+ */
+public class LazyFileValueImpl extends FileValueImpl {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String byteArrayId;
+  protected transient CommandExecutor commandExecutor;
+  protected boolean isFetched = false;
+
+  public LazyFileValueImpl(String filename, String byteArrayId, CommandExecutor commandExecutor) {
+    super(ValueType.FILE, filename);
+    this.byteArrayId = byteArrayId;
+    this.commandExecutor = commandExecutor;
+  }
+
+  @Override
+  public InputStream getValue() {
+    ensureFetched();
+    return super.getValue();
+  }
+
+  @Override
+  public byte[] getByteArray() {
+    ensureFetched();
+    return super.getByteArray();
+  }
+
+  @Override
+  public void setValue(byte[] bytes) {
+    super.setValue(bytes);
+    isFetched = true;
+  }
+
+  public boolean isFetched() {
+    return isFetched;
+  }
+
+  protected synchronized void ensureFetched() {
+    if (isFetched) {
+      return;
+    }
+
+    FetchByteArrayCmd fetchByteArrayCmd = new FetchByteArrayCmd(byteArrayId);
+
+    byte[] bytes;
+    if (Context.getCommandContext() != null) {
+      bytes = fetchByteArrayCmd.execute(Context.getCommandContext());
+    }
+    else {
+      bytes = commandExecutor.execute(fetchByteArrayCmd);
+    }
+
+    setValue(bytes);
+  }
+
+  /**
+   * Serializes the value as a plain file value with content.
+   */
+  protected Object writeReplace() throws ObjectStreamException {
+    FileValueImpl fileValue = new FileValueImpl(getByteArray(), ValueType.FILE, filename, mimeType, encoding);
+    fileValue.setTransient(isTransient);
+    return fileValue;
+  }
+
+  protected static class FetchByteArrayCmd implements Command<byte[]> {
+
+    protected String byteArrayId;
+
+    public FetchByteArrayCmd(String byteArrayId) {
+      this.byteArrayId = byteArrayId;
+    }
+
+    public byte[] execute(CommandContext commandContext) {
+      ByteArrayEntity byteArray = commandContext
+        .getDbEntityManager()
+        .selectById(ByteArrayEntity.class, byteArrayId);
+
+      return byteArray != null ? byteArray.getBytes() : null;
+    }
+  }
+
+}
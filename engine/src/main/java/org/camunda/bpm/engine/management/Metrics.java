@@ -54,6 +54,30 @@ public class Metrics {
    */
   public final static String JOB_LOCKED_EXCLUSIVE = "job-locked-exclusive";
 
+  /**
+   * Duration of job executions in milliseconds, measured by the job executor.
+   * Only recorded if duration metrics are enabled in the process engine configuration.
+   *
+   * <p>Durations are reported as several metrics, named by the following suffixes:
+   * <code>-count</code> and <code>-sum</code> hold the number and total duration of the
+   * executions; <code>-max</code>, <code>-p50</code>, <code>-p95</code> and <code>-p99</code>
+   * hold the maximum and percentiles of a reporting interval. The latter cannot be added
+   * up, so query them per interval with the reporting interval of the engine.</p>
+   */
+  public final static String JOB_EXECUTION_DURATION = "job-execution-duration";
+
+  /**
+   * Duration of job acquisition cycles in milliseconds, i.e. acquiring jobs for
+   * a process engine and submitting them for execution. Reported like {@link #JOB_EXECUTION_DURATION}.
+   */
+  public final static String JOB_ACQUISITION_CYCLE_DURATION = "job-acquisition-cycle-duration";
+
+  /**
+   * Duration of flushing the changes of a command to the database in milliseconds.
+   * Reported like {@link #JOB_EXECUTION_DURATION}.
+   */
+  public final static String DB_FLUSH_DURATION = "db-flush-duration";
+
   /**
    * Number of executed decision elements in the DMN engine.
    */
@@ -66,4 +90,11 @@ public class Metrics {
   public final static String HISTORY_CLEANUP_REMOVED_CASE_INSTANCES = "history-cleanup-removed-case-instances";
   public final static String HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES = "history-cleanup-removed-decision-instances";
   public final static String HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS = "history-cleanup-removed-batch-operations";
+
+  /**
+   * Number of rows removed from a table by the removal-time-based history cleanup. The
+   * name of the metric consists of this prefix and the lower case name of the table,
+   * e.g. <code>history-cleanup-removed-rows-act_hi_actinst</code>.
+   */
+  public final static String HISTORY_CLEANUP_REMOVED_ROWS_PREFIX = "history-cleanup-removed-rows-";
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.runtime;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.RuntimeService;
+
+/**
+ * <p>The result of correlating one message of a bulk correlation, see
+ * {@link RuntimeService#correlateMessages(List)}. Either the message was correlated
+ * or its correlation failed with an exception.</p>
+ *
+ * @since 7.11
+ */
+public interface MessageCorrelationBulkResult {
+
+  /**
+   * @return true if the message was correlated, false if the correlation failed
+   */
+  boolean isCorrelated();
+
+  /**
+   * @return the result of the correlation or null if the correlation failed
+   */
+  MessageCorrelationResult getCorrelationResult();
+
+  /**
+   * @return the exception the correlation failed with or null if the message was correlated
+   */
+  RuntimeException getException();
+
+}
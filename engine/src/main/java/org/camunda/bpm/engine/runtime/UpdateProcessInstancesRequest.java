@@ -41,6 +41,11 @@ public interface UpdateProcessInstancesRequest {
   /**
    * Selects a list of process instances with the given a process instance query.
    *
+   * <p>If the batch query cursor is enabled in the engine configuration, an asynchronous
+   * update evaluates the query while the batch is seeded. It may then also update process
+   * instances started after the batch was created, at most as many as the query matched
+   * when the batch was created.</p>
+   *
    * @param processInstanceQuery
    *          process instance query that discribes a list of the process instances
    * @return the builder
@@ -161,11 +161,13 @@ public class ProcessEngineRule extends TestWatcher implements ProcessEngineServi
     initializeServices();
 
     final boolean hasRequiredHistoryLevel = TestHelper.annotationRequiredHistoryLevelCheck(processEngine, description);
+    final boolean runsWithRequiredDatabase = TestHelper.annotationRequiredDatabaseCheck(processEngine, description);
     return new Statement() {
 
       @Override
       public void evaluate() throws Throwable {
         Assume.assumeTrue("ignored because the current history level is too low", hasRequiredHistoryLevel);
+        Assume.assumeTrue("ignored because the database doesn't match the required ones", runsWithRequiredDatabase);
         ProcessEngineRule.super.apply(base, description).evaluate();
       }
     };
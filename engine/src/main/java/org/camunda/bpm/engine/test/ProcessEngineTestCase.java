@@ -104,8 +104,9 @@ public class ProcessEngineTestCase extends TestCase {
     }
 
     boolean hasRequiredHistoryLevel = TestHelper.annotationRequiredHistoryLevelCheck(processEngine, getClass(), getName());
-    // ignore test case when current history level is too low
-    skipTest = !hasRequiredHistoryLevel;
+    boolean runsWithRequiredDatabase = TestHelper.annotationRequiredDatabaseCheck(processEngine, getClass(), getName());
+    // ignore test case when current history level is too low or the database is not supported
+    skipTest = !hasRequiredHistoryLevel || !runsWithRequiredDatabase;
 
     if (!skipTest) {
       deploymentId = TestHelper.annotationDeploymentSetUp(processEngine, getClass(), getName());
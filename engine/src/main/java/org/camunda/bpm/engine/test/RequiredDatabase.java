@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Annotation for a test method or class to specify the database types
+ * the test runs on. If the database type of the process engine is not
+ * included or is excluded then the test method is skipped.
+ *
+ * <p>Usage:</p>
+ *
+ * <pre>
+ * package org.example;
+ *
+ * ...
+ *
+ * public class ExampleTest {
+ *
+ *   &#64;RequiredDatabase(includes = {DbSqlSessionFactory.POSTGRES, DbSqlSessionFactory.ORACLE})
+ *   public void testWithDatabaseSpecificStatement() {
+ *
+ *     // test something which only works on these databases
+ *   }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface RequiredDatabase {
+
+  /**
+   * The database types the test runs on. If empty, the test runs on
+   * all database types which are not excluded.
+   */
+  public String[] includes() default {};
+
+  /**
+   * The database types the test does not run on.
+   */
+  public String[] excludes() default {};
+
+}
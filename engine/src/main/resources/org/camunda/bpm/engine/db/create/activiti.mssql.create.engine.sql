@@ -51,6 +51,7 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ datetime2,
     ROOT_PROC_INST_ID_ nvarchar(64),
     REMOVAL_TIME_ datetime2,
+    CONTENT_HASH_ nvarchar(64),
     primary key (ID_)
 );
 
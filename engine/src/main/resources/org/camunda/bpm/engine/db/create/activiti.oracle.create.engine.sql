@@ -51,6 +51,7 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ TIMESTAMP(6),
     ROOT_PROC_INST_ID_ varchar(64),
     REMOVAL_TIME_ TIMESTAMP(6),
+    CONTENT_HASH_ NVARCHAR2(64),
     primary key (ID_)
 );
 
@@ -51,6 +51,7 @@ create table ACT_GE_BYTEARRAY (
     CREATE_TIME_ timestamp,
     ROOT_PROC_INST_ID_ varchar(64),
     REMOVAL_TIME_ timestamp,
+    CONTENT_HASH_ varchar(64),
     primary key (ID_)
 );
 
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cfg;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JdbcBatchProcessingConfigurationTest {
+
+  protected ProcessEngineConfigurationImpl configuration;
+  protected DataSource dataSource;
+  protected Connection connection;
+  protected DatabaseMetaData databaseMetaData;
+
+  @Before
+  public void setUp() throws Exception {
+    databaseMetaData = mock(DatabaseMetaData.class);
+    connection = mock(Connection.class);
+    when(connection.getMetaData()).thenReturn(databaseMetaData);
+    dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setDataSource(dataSource);
+  }
+
+  @Test
+  public void shouldKeepBatchProcessingIfUpdateCountsAreReported() throws Exception {
+    when(databaseMetaData.supportsBatchUpdates()).thenReturn(true);
+    when(databaseMetaData.getDriverMajorVersion()).thenReturn(12);
+    configuration.setDatabaseType(DbSqlSessionFactory.ORACLE);
+
+    configuration.initDataSource();
+
+    assertTrue(configuration.isJdbcBatchProcessing());
+    verify(connection).close();
+  }
+
+  @Test
+  public void shouldDisableBatchProcessingIfBatchUpdatesAreNotSupported() throws Exception {
+    when(databaseMetaData.supportsBatchUpdates()).thenReturn(false);
+    configuration.setDatabaseType(DbSqlSessionFactory.H2);
+
+    configuration.initDataSource();
+
+    assertFalse(configuration.isJdbcBatchProcessing());
+  }
+
+  @Test
+  public void shouldDisableBatchProcessingForOracleDriverBefore12c() throws Exception {
+    when(databaseMetaData.supportsBatchUpdates()).thenReturn(true);
+    when(databaseMetaData.getDriverMajorVersion()).thenReturn(11);
+    configuration.setDatabaseType(DbSqlSessionFactory.ORACLE);
+
+    configuration.initDataSource();
+
+    assertFalse(configuration.isJdbcBatchProcessing());
+  }
+
+  @Test
+  public void shouldKeepBatchProcessingIfDriverCannotBeChecked() throws Exception {
+    when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+    configuration.setDatabaseType(DbSqlSessionFactory.H2);
+
+    configuration.initDataSource();
+
+    assertTrue(configuration.isJdbcBatchProcessing());
+  }
+
+  @Test
+  public void shouldNotCheckDriverIfBatchProcessingIsDisabled() throws Exception {
+    configuration.setJdbcBatchProcessing(false);
+    configuration.setDatabaseType(DbSqlSessionFactory.H2);
+
+    configuration.initDataSource();
+
+    assertFalse(configuration.isJdbcBatchProcessing());
+    verify(dataSource, never()).getConnection();
+  }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DbEntityManagerFailedOperationIndexTest {
+
+  protected DbEntityManager entityManager;
+
+  @Before
+  public void setUp() {
+    entityManager = new DbEntityManager(null, null);
+  }
+
+  @Test
+  public void shouldCountOperationsOfSuccessfulBatches() {
+    // given two successful batches with three operations
+    BatchExecutorException exception = batchExecutorException(new BatchUpdateException(new int[0]),
+        batchResult(1, 1), batchResult(1));
+
+    // when the first operation of the failing batch fails
+    int failedOperationIndex = entityManager.getFailedOperationIndex(exception);
+
+    // then
+    assertEquals(3, failedOperationIndex);
+  }
+
+  @Test
+  public void shouldSkipSuccessfulOperationsOfFailingBatch() {
+    // given a failing batch whose driver continued after the failure
+    BatchUpdateException batchUpdateException = new BatchUpdateException(new int[] { 1, Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED, 1 });
+    BatchExecutorException exception = batchExecutorException(batchUpdateException, batchResult(1));
+
+    // when
+    int failedOperationIndex = entityManager.getFailedOperationIndex(exception);
+
+    // then the failed operation is the third one of the failing batch
+    assertEquals(3, failedOperationIndex);
+  }
+
+  @Test
+  public void shouldCountOperationsOfFailingBatchBeforeFailure() {
+    // given a failing batch whose driver stopped at the failure
+    BatchUpdateException batchUpdateException = new BatchUpdateException(new int[] { 1, 1 });
+    BatchExecutorException exception = batchExecutorException(batchUpdateException);
+
+    // when
+    int failedOperationIndex = entityManager.getFailedOperationIndex(exception);
+
+    // then the failed operation is the one after the reported update counts
+    assertEquals(2, failedOperationIndex);
+  }
+
+  @Test
+  public void shouldHandleMissingUpdateCounts() {
+    // given a driver which does not report update counts for the failing batch
+    BatchExecutorException exception = batchExecutorException(new BatchUpdateException(), batchResult(1, 1));
+
+    // when
+    int failedOperationIndex = entityManager.getFailedOperationIndex(exception);
+
+    // then the failed operation is the first one of the failing batch
+    assertEquals(2, failedOperationIndex);
+  }
+
+  protected BatchExecutorException batchExecutorException(BatchUpdateException batchUpdateException, BatchResult... successfulBatchResults) {
+    List<BatchResult> batchResults = new ArrayList<BatchResult>();
+    for (BatchResult batchResult : successfulBatchResults) {
+      batchResults.add(batchResult);
+    }
+
+    BatchExecutorException exception = mock(BatchExecutorException.class);
+    when(exception.getBatchUpdateException()).thenReturn(batchUpdateException);
+    when(exception.getSuccessfulBatchResults()).thenReturn(batchResults);
+    return exception;
+  }
+
+  protected BatchResult batchResult(int... updateCounts) {
+    BatchResult batchResult = mock(BatchResult.class);
+    when(batchResult.getUpdateCounts()).thenReturn(updateCounts);
+    return batchResult;
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.QueryOperator;
+import org.camunda.bpm.engine.impl.QueryVariableValue;
+import org.camunda.bpm.engine.impl.persistence.entity.SuspensionState;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.junit.Test;
+
+public class JsonProcessInstanceQueryConverterTest {
+
+  protected JsonProcessInstanceQueryConverter converter = JsonProcessInstanceQueryConverter.INSTANCE;
+
+  @Test
+  public void shouldConvertQueryCriteria() {
+    ProcessInstanceQueryImpl query = new ProcessInstanceQueryImpl();
+    query
+      .processDefinitionKey("aProcessDefinitionKey")
+      .processInstanceBusinessKeyLike("aBusinessKey%")
+      .activityIdIn("anActivityId", "anotherActivityId")
+      .tenantIdIn("aTenantId", "anotherTenantId")
+      .suspended()
+      .rootProcessInstances();
+
+    ProcessInstanceQueryImpl convertedQuery = roundTrip(query);
+
+    assertEquals("aProcessDefinitionKey", convertedQuery.getProcessDefinitionKey());
+    assertEquals("aBusinessKey%", convertedQuery.getBusinessKeyLike());
+    assertArrayEquals(new String[] {"anActivityId", "anotherActivityId"}, convertedQuery.getActivityIds());
+    assertTrue(convertedQuery.isTenantIdSet());
+    assertArrayEquals(new String[] {"aTenantId", "anotherTenantId"}, convertedQuery.getTenantIds());
+    assertEquals(SuspensionState.SUSPENDED, convertedQuery.getSuspensionState());
+    assertTrue(convertedQuery.isRootProcessInstances());
+  }
+
+  @Test
+  public void shouldConvertActiveSuspensionState() {
+    ProcessInstanceQueryImpl query = new ProcessInstanceQueryImpl();
+    query.active();
+
+    assertEquals(SuspensionState.ACTIVE, roundTrip(query).getSuspensionState());
+  }
+
+  @Test
+  public void shouldConvertWithoutTenantId() {
+    ProcessInstanceQueryImpl query = new ProcessInstanceQueryImpl();
+    query.withoutTenantId();
+
+    ProcessInstanceQueryImpl convertedQuery = roundTrip(query);
+
+    assertTrue(convertedQuery.isTenantIdSet());
+    assertNull(convertedQuery.getTenantIds());
+  }
+
+  @Test
+  public void shouldNotSetTenantIdsIfAbsent() {
+    ProcessInstanceQueryImpl convertedQuery = roundTrip(new ProcessInstanceQueryImpl());
+
+    assertFalse(convertedQuery.isTenantIdSet());
+    assertNull(convertedQuery.getSuspensionState());
+    assertNull(convertedQuery.getActivityIds());
+  }
+
+  @Test
+  public void shouldConvertVariableValuesWithTheirTypes() {
+    ProcessInstanceQueryImpl query = new ProcessInstanceQueryImpl();
+    query
+      .variableValueEquals("shortVar", (short) 5)
+      .variableValueGreaterThan("intVar", 10)
+      .variableValueLessThanOrEqual("longVar", 10000000000L)
+      .variableValueNotEquals("doubleVar", 1.5d)
+      .variableValueLike("stringVar", "aValue%")
+      .variableValueEquals("booleanVar", true)
+      .variableValueEquals("nullVar", null);
+
+    assertTrue(converter.isConvertible(query));
+
+    List<QueryVariableValue> variables = roundTrip(query).getQueryVariableValues();
+
+    assertEquals(7, variables.size());
+    assertVariable(variables.get(0), "shortVar", (short) 5, QueryOperator.EQUALS);
+    assertVariable(variables.get(1), "intVar", 10, QueryOperator.GREATER_THAN);
+    assertVariable(variables.get(2), "longVar", 10000000000L, QueryOperator.LESS_THAN_OR_EQUAL);
+    assertVariable(variables.get(3), "doubleVar", 1.5d, QueryOperator.NOT_EQUALS);
+    assertVariable(variables.get(4), "stringVar", "aValue%", QueryOperator.LIKE);
+    assertVariable(variables.get(5), "booleanVar", true, QueryOperator.EQUALS);
+    assertVariable(variables.get(6), "nullVar", null, QueryOperator.EQUALS);
+  }
+
+  @Test
+  public void shouldNotConvertDateVariableValue() {
+    ProcessInstanceQueryImpl query = new ProcessInstanceQueryImpl();
+    query.variableValueEquals("dateVar", new Date());
+
+    assertFalse(converter.isConvertible(query));
+  }
+
+  protected ProcessInstanceQueryImpl roundTrip(ProcessInstanceQueryImpl query) {
+    String json = converter.toJson(query);
+    return converter.toObject(new JSONObject(json));
+  }
+
+  protected void assertVariable(QueryVariableValue variable, String name, Object value, QueryOperator operator) {
+    assertEquals(name, variable.getName());
+    assertEquals(value, variable.getValue());
+    if (value != null) {
+      assertEquals(value.getClass(), variable.getValue().getClass());
+    }
+    assertEquals(operator, variable.getOperator());
+    assertTrue(variable.isLocal());
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.juel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.javax.el.ValueExpression;
+import org.junit.Test;
+
+public class ConcurrentCacheTest {
+
+  protected Builder builder = new Builder();
+
+  @Test
+  public void shouldCacheTree() {
+    // given
+    ConcurrentCache cache = new ConcurrentCache(10);
+    Tree tree = builder.build("${a}");
+
+    // when
+    cache.put("${a}", tree);
+
+    // then
+    assertSame(tree, cache.get("${a}"));
+    assertNull(cache.get("${b}"));
+  }
+
+  @Test
+  public void shouldNotCountReplacedTree() {
+    // given
+    ConcurrentCache cache = new ConcurrentCache(10);
+    cache.put("${a}", builder.build("${a}"));
+
+    // when
+    Tree tree = builder.build("${a}");
+    cache.put("${a}", tree);
+
+    // then
+    assertEquals(1, cache.size());
+    assertSame(tree, cache.get("${a}"));
+  }
+
+  @Test
+  public void shouldEvictUnreferencedTree() {
+    // given a full cache
+    ConcurrentCache cache = new ConcurrentCache(2);
+    cache.put("${a}", builder.build("${a}"));
+    cache.put("${b}", builder.build("${b}"));
+
+    // and a recently used tree
+    cache.get("${a}");
+
+    // when
+    cache.put("${c}", builder.build("${c}"));
+
+    // then
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("${a}"));
+    assertNull(cache.get("${b}"));
+    assertNotNull(cache.get("${c}"));
+  }
+
+  @Test
+  public void shouldEvictIfAllTreesAreReferenced() {
+    // given
+    ConcurrentCache cache = new ConcurrentCache(2);
+    cache.put("${a}", builder.build("${a}"));
+    cache.put("${b}", builder.build("${b}"));
+    cache.get("${a}");
+    cache.get("${b}");
+
+    // when
+    cache.put("${c}", builder.build("${c}"));
+
+    // then
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("${c}"));
+  }
+
+  @Test
+  public void shouldStayBoundedUnderConcurrentAccess() throws Exception {
+    // given
+    final ConcurrentCache cache = new ConcurrentCache(100);
+    final int expressionsPerThread = 1000;
+    int numberOfThreads = 8;
+
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < numberOfThreads; i++) {
+        final int thread = i;
+        futures.add(executorService.submit(new Callable<Void>() {
+          public Void call() {
+            TreeStore store = new TreeStore(builder, cache);
+            for (int j = 0; j < expressionsPerThread; j++) {
+              // half of the expressions are shared between the threads
+              String expression = j % 2 == 0 ? "${shared" + (j % 50) + "}" : "${thread" + thread + "_" + j + "}";
+              assertNotNull(store.get(expression));
+            }
+            return null;
+          }
+        }));
+      }
+
+      // when
+      for (Future<Void> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+
+      // then
+      assertTrue(cache.size() <= cache.getCapacity() + numberOfThreads);
+    }
+    finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldParseExpressionsWithCacheOfExpressionManager() {
+    // given
+    ConcurrentCache cache = new ConcurrentCache(10);
+    ExpressionManager expressionManager = new ExpressionManager(null, cache);
+
+    // when
+    ValueExpression expression = expressionManager.createValueExpression("${1 + 1}");
+
+    // then
+    assertNotNull(expression);
+    assertNotNull(cache.get("${1 + 1}"));
+  }
+
+}
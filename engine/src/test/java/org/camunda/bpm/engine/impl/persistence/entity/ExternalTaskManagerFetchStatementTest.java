@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests which statement is used to select the external tasks to fetch and lock.
+ */
+public class ExternalTaskManagerFetchStatementTest {
+
+  protected ProcessEngineConfigurationImpl configuration;
+  protected DbSqlSessionFactory dbSqlSessionFactory;
+  protected DbEntityManager dbEntityManager;
+  protected ExternalTaskManager externalTaskManager;
+
+  @Before
+  public void setUp() {
+    configuration = new StandaloneInMemProcessEngineConfiguration();
+    Context.setProcessEngineConfiguration(configuration);
+
+    dbSqlSessionFactory = new DbSqlSessionFactory();
+    final DbSqlSession dbSqlSession = mock(DbSqlSession.class);
+    when(dbSqlSession.getDbSqlSessionFactory()).thenReturn(dbSqlSessionFactory);
+    dbEntityManager = mock(DbEntityManager.class);
+
+    externalTaskManager = new ExternalTaskManager() {
+      protected DbEntityManager getDbEntityManager() {
+        return dbEntityManager;
+      }
+
+      protected DbSqlSession getDbSqlSession() {
+        return dbSqlSession;
+      }
+
+      protected void configureQuery(ListQueryParameterObject parameter) {
+        // no authorization and tenant checks
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    Context.removeProcessEngineConfiguration();
+  }
+
+  @Test
+  public void shouldSelectWithSkipLockedOnPostgres() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(true);
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.POSTGRES);
+
+    selectExternalTasks(10);
+
+    verify(dbEntityManager).selectListWithRowLimit(eq("selectExternalTasksForTopicsSkipLocked"), any(ListQueryParameterObject.class), eq(10));
+    verify(dbEntityManager, never()).selectList(anyString(), any(ListQueryParameterObject.class));
+  }
+
+  @Test
+  public void shouldSelectWithSkipLockedOnMySql() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(true);
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.MYSQL);
+
+    selectExternalTasks(10);
+
+    verify(dbEntityManager).selectListWithRowLimit(eq("selectExternalTasksForTopicsSkipLocked"), any(ListQueryParameterObject.class), eq(10));
+  }
+
+  @Test
+  public void shouldSelectWithSkipLockedOnOracle() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(true);
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.ORACLE);
+
+    selectExternalTasks(10);
+
+    verify(dbEntityManager).selectListWithRowLimit(eq("selectExternalTasksForTopicsSkipLocked"), any(ListQueryParameterObject.class), eq(10));
+  }
+
+  @Test
+  public void shouldNotSelectWithSkipLockedOnH2() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(true);
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.H2);
+
+    selectExternalTasks(10);
+
+    verify(dbEntityManager).selectList(eq("selectExternalTasksForTopics"), any(ListQueryParameterObject.class));
+    verify(dbEntityManager, never()).selectListWithRowLimit(anyString(), any(), anyInt());
+  }
+
+  @Test
+  public void shouldNotSelectWithSkipLockedIfDisabled() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(false);
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.POSTGRES);
+
+    selectExternalTasks(10);
+
+    verify(dbEntityManager).selectList(eq("selectExternalTasksForTopics"), any(ListQueryParameterObject.class));
+    verify(dbEntityManager, never()).selectListWithRowLimit(anyString(), any(), anyInt());
+  }
+
+  @Test
+  public void shouldMapSkipLockedStatementOnOracle() {
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.ORACLE);
+
+    assertEquals("selectExternalTasksForTopicsSkipLocked_oracle",
+        dbSqlSessionFactory.mapStatement("selectExternalTasksForTopicsSkipLocked"));
+  }
+
+  @Test
+  public void shouldNotMapSkipLockedStatementOnPostgres() {
+    dbSqlSessionFactory.setDatabaseType(DbSqlSessionFactory.POSTGRES);
+
+    assertEquals("selectExternalTasksForTopicsSkipLocked",
+        dbSqlSessionFactory.mapStatement("selectExternalTasksForTopicsSkipLocked"));
+  }
+
+  protected void selectExternalTasks(int maxResults) {
+    externalTaskManager.selectExternalTasksForTopics(
+        Collections.singletonList(new TopicFetchInstruction("topic", 1000L)), maxResults, false);
+  }
+
+}
@@ -27,12 +27,14 @@ import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.exception.NotFoundException;
 import org.camunda.bpm.engine.exception.NullValueException;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
+import org.camunda.bpm.engine.externaltask.ExternalTaskBulkResult;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.history.HistoricIncident;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -43,6 +45,7 @@ import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
 import org.camunda.bpm.engine.runtime.VariableInstance;
 import org.camunda.bpm.engine.task.Task;
 import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.RequiredDatabase;
 import org.camunda.bpm.engine.test.RequiredHistoryLevel;
 import org.camunda.bpm.engine.test.util.AssertUtil;
 import org.camunda.bpm.engine.variable.VariableMap;
@@ -371,6 +374,40 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertEquals(5, externalTasks.size());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  @RequiredDatabase(includes = {DbSqlSessionFactory.POSTGRES, DbSqlSessionFactory.ORACLE, DbSqlSessionFactory.MYSQL})
+  public void testFetchLessTasksThanExistWithSkipLocked() {
+    // given
+    processEngineConfiguration.setSkipLockedExternalTaskFetchEnabled(true);
+
+    for (int i = 0; i < 10; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess", "businessKey" + i);
+    }
+
+    try {
+      // when
+      List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(5, WORKER_ID, true)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+
+      // then
+      assertEquals(5, externalTasks.size());
+      for (LockedExternalTask externalTask : externalTasks) {
+        assertTrue(externalTask.getBusinessKey().startsWith("businessKey"));
+      }
+
+      // and the locked tasks are not fetched again
+      externalTasks = externalTaskService.fetchAndLock(10, WORKER_ID, true)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .execute();
+
+      assertEquals(5, externalTasks.size());
+    }
+    finally {
+      processEngineConfiguration.setSkipLockedExternalTaskFetchEnabled(false);
+    }
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
   public void testFetchNegativeLockTime() {
     // given
@@ -1686,6 +1723,119 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertEquals(5, (int) updatedTask.getRetries());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testHandleExternalTasks() {
+    // given
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    }
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(3, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    // when
+    List<ExternalTaskBulkResult> results = externalTaskService.handleExternalTasks()
+      .complete(externalTasks.get(0).getId(), WORKER_ID, Variables.createVariables().putValue("var", 42))
+      .handleFailure(externalTasks.get(1).getId(), WORKER_ID, "error", "details", 5, 3000L)
+      .complete(externalTasks.get(2).getId(), "someOtherWorkerId")
+      .execute();
+
+    // then
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isSuccessful());
+    assertEquals(externalTasks.get(0).getId(), results.get(0).getExternalTaskId());
+    assertTrue(results.get(1).isSuccessful());
+    assertFalse(results.get(2).isSuccessful());
+    assertEquals(externalTasks.get(2).getId(), results.get(2).getExternalTaskId());
+    assertTrue(results.get(2).getException() instanceof BadUserRequestException);
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery()
+        .processInstanceId(externalTasks.get(0).getProcessInstanceId()).count());
+
+    ExternalTask failedTask = externalTaskService.createExternalTaskQuery()
+        .externalTaskId(externalTasks.get(1).getId()).singleResult();
+    assertEquals(5, (int) failedTask.getRetries());
+    assertEquals("error", failedTask.getErrorMessage());
+
+    ExternalTask lockedTask = externalTaskService.createExternalTaskQuery()
+        .externalTaskId(externalTasks.get(2).getId()).singleResult();
+    assertEquals(WORKER_ID, lockedTask.getWorkerId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testHandleExternalTasksReportsTasksWhichCannotBeHandled() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    ProcessInstance suspendedInstance = runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+    String externalTaskId = externalTasks.get(0).getId();
+    String suspendedExternalTaskId = externalTasks.get(1).getId();
+    if (externalTasks.get(0).getProcessInstanceId().equals(suspendedInstance.getId())) {
+      externalTaskId = externalTasks.get(1).getId();
+      suspendedExternalTaskId = externalTasks.get(0).getId();
+    }
+
+    runtimeService.suspendProcessInstanceById(suspendedInstance.getId());
+
+    // when
+    List<ExternalTaskBulkResult> results = externalTaskService.handleExternalTasks()
+      .complete("nonExistingTaskId", WORKER_ID)
+      .complete(externalTaskId, WORKER_ID)
+      .complete(externalTaskId, WORKER_ID)
+      .complete(suspendedExternalTaskId, WORKER_ID)
+      .complete(suspendedExternalTaskId, null)
+      .execute();
+
+    // then
+    assertEquals(5, results.size());
+    assertTrue(results.get(0).getException() instanceof NotFoundException);
+    assertTrue(results.get(1).isSuccessful());
+    assertTrue(results.get(2).getException() instanceof NotFoundException);
+    assertTrue(results.get(3).getException().getMessage().contains("is suspended"));
+    assertTrue(results.get(4).getException() instanceof NullValueException);
+
+    assertEquals(1, externalTaskService.createExternalTaskQuery().count());
+  }
+
+  public void testHandleExternalTasksSeparatelyIfProcessInstanceFails() {
+    // given
+    BpmnModelInstance instance = Bpmn.createExecutableProcess("Process").startEvent().serviceTask("externalTask")
+        .camundaType("external").camundaTopic(TOPIC_NAME)
+        .serviceTask("failingTask").camundaExpression("${fail ? unknownVariable : null}")
+        .endEvent().done();
+
+    deployment(instance);
+    String failingInstanceId = runtimeService.startProcessInstanceByKey("Process").getId();
+    String succeedingInstanceId = runtimeService.startProcessInstanceByKey("Process").getId();
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+    String failingTaskId = externalTasks.get(0).getId();
+    String succeedingTaskId = externalTasks.get(1).getId();
+    if (externalTasks.get(0).getProcessInstanceId().equals(succeedingInstanceId)) {
+      failingTaskId = externalTasks.get(1).getId();
+      succeedingTaskId = externalTasks.get(0).getId();
+    }
+
+    // when
+    List<ExternalTaskBulkResult> results = externalTaskService.handleExternalTasks()
+      .complete(succeedingTaskId, WORKER_ID, Variables.createVariables().putValue("fail", false))
+      .complete(failingTaskId, WORKER_ID, Variables.createVariables().putValue("fail", true))
+      .execute();
+
+    // then
+    assertTrue(results.get(0).isSuccessful());
+    assertFalse(results.get(1).isSuccessful());
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(succeedingInstanceId).count());
+    assertEquals(1, externalTaskService.createExternalTaskQuery().processInstanceId(failingInstanceId).count());
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
   public void testSetRetries() {
     // given
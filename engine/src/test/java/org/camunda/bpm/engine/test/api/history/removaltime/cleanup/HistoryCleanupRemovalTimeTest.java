@@ -139,6 +139,7 @@ public class HistoryCleanupRemovalTimeTest {
     engineConfiguration.setHistoryCleanupStrategy(HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED);
 
     engineConfiguration.setHistoryCleanupBatchSize(MAX_BATCH_SIZE);
+    engineConfiguration.setHistoryCleanupRoundsPerJob(1);
     engineConfiguration.setHistoryCleanupBatchWindowStartTime(null);
     engineConfiguration.setHistoryCleanupDegreeOfParallelism(1);
 
@@ -171,6 +172,7 @@ public class HistoryCleanupRemovalTimeTest {
       engineConfiguration.setHistoryCleanupStrategy(HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED);
 
       engineConfiguration.setHistoryCleanupBatchSize(MAX_BATCH_SIZE);
+      engineConfiguration.setHistoryCleanupRoundsPerJob(1);
       engineConfiguration.setHistoryCleanupBatchWindowStartTime(null);
       engineConfiguration.setHistoryCleanupDegreeOfParallelism(1);
 
@@ -470,6 +472,73 @@ public class HistoryCleanupRemovalTimeTest {
     assertThat(removedProcessInstancesSum, is(2L));
   }
 
+  @Test
+  public void shouldReportMetricsPerTable() {
+    // given
+    testRule.deploy(CALLING_PROCESS);
+
+    testRule.deploy(PROCESS);
+
+    runtimeService.startProcessInstanceByKey(CALLING_PROCESS_KEY);
+
+    String taskId = historyService.createHistoricTaskInstanceQuery().singleResult().getId();
+
+    ClockUtil.setCurrentTime(END_DATE);
+
+    taskService.complete(taskId);
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 5));
+
+    // when
+    runHistoryCleanup();
+
+    long removedProcessInstancesSum = managementService.createMetricsQuery()
+      .name(Metrics.HISTORY_CLEANUP_REMOVED_ROWS_PREFIX + "act_hi_procinst")
+      .sum();
+
+    long removedTaskInstancesSum = managementService.createMetricsQuery()
+      .name(Metrics.HISTORY_CLEANUP_REMOVED_ROWS_PREFIX + "act_hi_taskinst")
+      .sum();
+
+    // then
+    assertThat(removedProcessInstancesSum, is(2L));
+    assertThat(removedTaskInstancesSum, is(1L));
+  }
+
+  @Test
+  public void shouldCleanupInSeveralRoundsPerJob() {
+    // given
+    engineConfiguration.setHistoryCleanupBatchSize(1);
+    engineConfiguration.setHistoryCleanupRoundsPerJob(10);
+    engineConfiguration.initHistoryCleanup();
+
+    testRule.deploy(CALLING_PROCESS);
+
+    testRule.deploy(PROCESS);
+
+    runtimeService.startProcessInstanceByKey(CALLING_PROCESS_KEY);
+
+    String taskId = historyService.createHistoricTaskInstanceQuery().singleResult().getId();
+
+    ClockUtil.setCurrentTime(END_DATE);
+
+    taskService.complete(taskId);
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 5));
+
+    // when
+    runHistoryCleanup();
+
+    long removedProcessInstancesSum = managementService.createMetricsQuery()
+      .name(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES)
+      .sum();
+
+    // then
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricActivityInstanceQuery().count(), is(0L));
+    assertThat(removedProcessInstancesSum, is(2L));
+  }
+
   @Test
   public void shouldCleanupActivityInstance() {
     // given
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.history.removaltime.cleanup;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupRemovalTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HistoryCleanupRoundsUnitTest {
+
+  protected CommandContext commandContext;
+  protected CommandExecutor commandExecutor;
+  protected HistoryCleanupRemovalTime cleanupHandler;
+
+  @Before
+  public void initHandler() {
+    ProcessEngineConfigurationImpl engineConfiguration = mock(ProcessEngineConfigurationImpl.class);
+    when(engineConfiguration.getHistoryCleanupRoundsPerJob()).thenReturn(3);
+
+    commandContext = mock(CommandContext.class);
+    when(commandContext.getProcessEngineConfiguration()).thenReturn(engineConfiguration);
+
+    commandExecutor = mock(CommandExecutor.class);
+
+    cleanupHandler = new HistoryCleanupRemovalTime();
+    cleanupHandler
+      .setJobId("jobId")
+      .setCommandExecutor(commandExecutor);
+  }
+
+  @Test
+  public void shouldRescheduleJobWhenRoundFails() {
+    // given the second round fails
+    when(commandExecutor.execute(any(Command.class)))
+      .thenThrow(new ProcessEngineException("round failed"))
+      .thenReturn(null);
+
+    // when
+    cleanupHandler.execute(commandContext);
+
+    // then no further round is performed but the job is rescheduled and the metrics are reported
+    verify(commandExecutor, times(2)).execute(any(Command.class));
+  }
+
+  @Test
+  public void shouldPerformAllRoundsAndReschedule() {
+    // given
+    when(commandExecutor.execute(any(Command.class)))
+      .thenReturn(true)
+      .thenReturn(true)
+      .thenReturn(null);
+
+    // when
+    cleanupHandler.execute(commandContext);
+
+    // then two further rounds are performed and the job is rescheduled
+    verify(commandExecutor, times(3)).execute(any(Command.class));
+  }
+
+}
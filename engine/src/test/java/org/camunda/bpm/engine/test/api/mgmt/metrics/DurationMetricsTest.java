@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.TimerMeter;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DurationMetricsTest {
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setDurationMetricsEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ManagementService managementService;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    managementService = engineRule.getManagementService();
+    clearMetrics();
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setDurationMetricsEnabled(true);
+    clearMetrics();
+  }
+
+  @Test
+  public void shouldReportJobExecutionDuration() {
+    // given
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    for (int i = 0; i < 3; i++) {
+      engineRule.getRuntimeService().startProcessInstanceByKey("process");
+    }
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(5000);
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    // then
+    assertEquals(3, sum(Metrics.JOB_EXECUTION_DURATION + TimerMeter.COUNT_SUFFIX));
+    assertTrue(sum(Metrics.JOB_EXECUTION_DURATION + TimerMeter.P50_SUFFIX)
+        <= sum(Metrics.JOB_EXECUTION_DURATION + TimerMeter.MAX_SUFFIX));
+
+    assertTrue(sum(Metrics.JOB_ACQUISITION_CYCLE_DURATION + TimerMeter.COUNT_SUFFIX) >= 1);
+  }
+
+  @Test
+  public void shouldNotRecordJobExecutionDurationIfDisabled() {
+    // given
+    processEngineConfiguration.setDurationMetricsEnabled(false);
+
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    engineRule.getRuntimeService().startProcessInstanceByKey("process");
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(5000);
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    // then
+    assertEquals(0, sum(Metrics.JOB_EXECUTION_DURATION + TimerMeter.COUNT_SUFFIX));
+    assertEquals(0, sum(Metrics.JOB_ACQUISITION_CYCLE_DURATION + TimerMeter.COUNT_SUFFIX));
+  }
+
+  @Test
+  public void shouldReportFlushDuration() {
+    // when
+    engineRule.getRepositoryService().createDeploymentQuery().list();
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    // then
+    assertTrue(sum(Metrics.DB_FLUSH_DURATION + TimerMeter.COUNT_SUFFIX) >= 1);
+  }
+
+  protected long sum(String name) {
+    return managementService.createMetricsQuery().name(name).sum();
+  }
+
+  protected void clearMetrics() {
+    for (Meter meter : processEngineConfiguration.getMetricsRegistry().getMeters().values()) {
+      meter.getAndClear();
+    }
+    managementService.deleteMetrics(null);
+  }
+
+}
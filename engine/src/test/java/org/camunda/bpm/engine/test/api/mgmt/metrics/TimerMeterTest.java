@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.TimerMeter;
+import org.junit.Test;
+
+public class TimerMeterTest {
+
+  @Test
+  public void shouldCountConcurrentOccurrences() throws Exception {
+    // given
+    final Meter meter = new Meter("aMeter");
+    final int occurrencesPerThread = 10000;
+    int numberOfThreads = 8;
+
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < numberOfThreads; i++) {
+        futures.add(executorService.submit(new Callable<Void>() {
+          public Void call() {
+            for (int j = 0; j < occurrencesPerThread; j++) {
+              meter.mark();
+            }
+            return null;
+          }
+        }));
+      }
+
+      // when
+      for (Future<Void> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+
+      // then
+      assertEquals(numberOfThreads * occurrencesPerThread, meter.getAndClear());
+      assertEquals(0, meter.get());
+    }
+    finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldReportPercentilesWithinBucketPrecision() {
+    // given
+    Histogram histogram = new Histogram();
+
+    // when
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    // then
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000, histogram.getMax());
+    assertEquals(1000, histogram.getValueAtPercentile(100));
+    assertWithinPrecision(500, histogram.getValueAtPercentile(50));
+    assertWithinPrecision(950, histogram.getValueAtPercentile(95));
+    assertWithinPrecision(990, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void shouldReportSmallValuesExactly() {
+    // given
+    Histogram histogram = new Histogram();
+
+    // when
+    histogram.record(0);
+    histogram.record(1);
+    histogram.record(2);
+    histogram.record(3);
+
+    // then
+    assertEquals(1, histogram.getValueAtPercentile(50));
+    assertEquals(3, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void shouldReportZeroForEmptyHistogram() {
+    assertEquals(0, new Histogram().getValueAtPercentile(99));
+  }
+
+  @Test
+  public void shouldRegisterTimerMeters() {
+    // given
+    MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    // when
+    metricsRegistry.createTimer("aTimer");
+
+    // then
+    assertEquals(6, metricsRegistry.getMeters().size());
+    assertTrue(metricsRegistry.getMeters().containsKey("aTimer" + TimerMeter.COUNT_SUFFIX));
+    assertTrue(metricsRegistry.getMeters().containsKey("aTimer" + TimerMeter.SUM_SUFFIX));
+    assertTrue(metricsRegistry.getMeters().containsKey("aTimer" + TimerMeter.MAX_SUFFIX));
+    assertTrue(metricsRegistry.getMeters().containsKey("aTimer" + TimerMeter.P50_SUFFIX));
+    assertTrue(metricsRegistry.getMeters().containsKey("aTimer" + TimerMeter.P95_SUFFIX));
+    assertTrue(metricsRegistry.getMeters().containsKey("aTimer" + TimerMeter.P99_SUFFIX));
+  }
+
+  @Test
+  public void shouldReportStatisticsOfClosedInterval() {
+    // given
+    MetricsRegistry metricsRegistry = new MetricsRegistry();
+    TimerMeter timer = metricsRegistry.createTimer("aTimer");
+    metricsRegistry.recordDuration("aTimer", 10);
+    metricsRegistry.recordDuration("aTimer", 30);
+
+    // when
+    timer.closeInterval();
+    metricsRegistry.recordDuration("aTimer", 100);
+
+    // then the counters include all durations
+    assertEquals(3, metricsRegistry.getMeterByName("aTimer" + TimerMeter.COUNT_SUFFIX).getAndClear());
+    assertEquals(140, metricsRegistry.getMeterByName("aTimer" + TimerMeter.SUM_SUFFIX).getAndClear());
+
+    // and the statistics are reported for the closed interval
+    Meter max = metricsRegistry.getMeterByName("aTimer" + TimerMeter.MAX_SUFFIX);
+    assertEquals(30, max.getAndClear());
+    // while the current interval is still open
+    assertEquals(100, max.get());
+  }
+
+  protected void assertWithinPrecision(long expected, long actual) {
+    assertTrue("expected " + expected + " but was " + actual, actual >= expected && actual <= expected * 1.25);
+  }
+
+}
@@ -50,4 +50,30 @@ public class BpmnModelInstanceCmdTest extends PluggableProcessEngineTestCase {
     assertNotNull(startEvent);
   }
 
+  public void testModelInstanceIsNotSharedBetweenDeploymentsOfSameResource() {
+    String resource = "org/camunda/bpm/engine/test/repository/one.bpmn20.xml";
+    String deploymentId1 = repositoryService.createDeployment().addClasspathResource(resource).deploy().getId();
+    String deploymentId2 = repositoryService.createDeployment().addClasspathResource(resource).deploy().getId();
+
+    try {
+      String processDefinitionId1 = repositoryService.createProcessDefinitionQuery().deploymentId(deploymentId1).singleResult().getId();
+      String processDefinitionId2 = repositoryService.createProcessDefinitionQuery().deploymentId(deploymentId2).singleResult().getId();
+
+      // when the model instance of one definition is modified
+      BpmnModelInstance modelInstance1 = repositoryService.getBpmnModelInstance(processDefinitionId1);
+      StartEvent startEvent1 = modelInstance1.getModelElementById("start");
+      startEvent1.setName("modified");
+
+      // then the model instance of the other definition is unchanged
+      BpmnModelInstance modelInstance2 = repositoryService.getBpmnModelInstance(processDefinitionId2);
+      assertNotSame(modelInstance1, modelInstance2);
+      StartEvent startEvent2 = modelInstance2.getModelElementById("start");
+      assertFalse("modified".equals(startEvent2.getName()));
+    }
+    finally {
+      repositoryService.deleteDeployment(deploymentId1, true);
+      repositoryService.deleteDeployment(deploymentId2, true);
+    }
+  }
+
 }
@@ -19,16 +19,21 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.camunda.bpm.application.ProcessApplicationRegistration;
 import org.camunda.bpm.application.impl.EmbeddedProcessApplication;
 import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.impl.cmd.DeployCmd;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
+import org.camunda.bpm.engine.impl.repository.DeploymentBuilderImpl;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.repository.Deployment;
 import org.camunda.bpm.engine.repository.DeploymentQuery;
 import org.camunda.bpm.engine.repository.ProcessApplicationDeployment;
+import org.camunda.bpm.engine.repository.ProcessApplicationDeploymentBuilder;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.repository.ProcessDefinitionQuery;
 import org.camunda.bpm.engine.repository.ResumePreviousBy;
@@ -111,6 +116,115 @@ public class ProcessApplicationDeploymentTest extends PluggableProcessEngineTest
     deleteDeployments(deployment);
   }
 
+  public void testProcessApplicationDeploymentNoChangesResumePreviousVersions() {
+    BpmnModelInstance model = Bpmn.createExecutableProcess("process1").done();
+
+    // create a previous version of the process in another deployment
+    ProcessApplicationDeployment deployment1 = repositoryService.createDeployment(processApplication.getReference())
+      .name("otherDeployment")
+      .addModelInstance("process1.bpmn20.xml", model)
+      .deploy();
+
+    ProcessApplicationDeployment deployment2 = repositoryService.createDeployment(processApplication.getReference())
+      .name("deployment")
+      .addModelInstance("process1.bpmn20.xml", model)
+      .deploy();
+
+    // deploy update with no changes:
+    Set<String> parsedResources = new HashSet<String>();
+    ProcessApplicationDeployment deployment3 = deployTrackingParsedResources(repositoryService.createDeployment(processApplication.getReference())
+      .name("deployment")
+      .enableDuplicateFiltering(true)
+      .resumePreviousVersions()
+      .addModelInstance("process1.bpmn20.xml", model), parsedResources);
+
+    // no new deployment
+    assertEquals(deployment2.getId(), deployment3.getId());
+    assertEquals(2, repositoryService.createProcessDefinitionQuery().processDefinitionKey("process1").count());
+
+    // the key of the unchanged process is taken from the existing deployment without parsing the resource
+    assertTrue(parsedResources.isEmpty());
+
+    // and the previous versions are resumed
+    ProcessApplicationRegistration registration = deployment3.getProcessApplicationRegistration();
+    Set<String> deploymentIds = registration.getDeploymentIds();
+    assertEquals(2, deploymentIds.size());
+    assertTrue(deploymentIds.contains(deployment1.getId()));
+    assertTrue(deploymentIds.contains(deployment2.getId()));
+
+    deleteDeployments(deployment1, deployment2);
+  }
+
+  public void testProcessApplicationDeploymentNoChangesIgnoresNonExecutableProcesses() {
+    BpmnModelInstance nonExecutableModel = Bpmn.createProcess("process1").done();
+    BpmnModelInstance executableModel = Bpmn.createExecutableProcess("process1").done();
+
+    // an executable process with the key of the non-executable process in another deployment
+    ProcessApplicationDeployment deployment1 = repositoryService.createDeployment(processApplication.getReference())
+      .name("otherDeployment")
+      .addModelInstance("executableProcess.bpmn20.xml", executableModel)
+      .deploy();
+
+    ProcessApplicationDeployment deployment2 = repositoryService.createDeployment(processApplication.getReference())
+      .name("deployment")
+      .addModelInstance("process1.bpmn20.xml", nonExecutableModel)
+      .deploy();
+
+    // deploy update with no changes:
+    Set<String> parsedResources = new HashSet<String>();
+    ProcessApplicationDeployment deployment3 = deployTrackingParsedResources(repositoryService.createDeployment(processApplication.getReference())
+      .name("deployment")
+      .enableDuplicateFiltering(true)
+      .resumePreviousVersions()
+      .addModelInstance("process1.bpmn20.xml", nonExecutableModel), parsedResources);
+
+    assertEquals(deployment2.getId(), deployment3.getId());
+    assertTrue(parsedResources.isEmpty());
+
+    // the non-executable process has no definition, so its key does not resume the other deployment
+    Set<String> deploymentIds = deployment3.getProcessApplicationRegistration().getDeploymentIds();
+    assertEquals(1, deploymentIds.size());
+    assertTrue(deploymentIds.contains(deployment2.getId()));
+
+    deleteDeployments(deployment1, deployment2);
+  }
+
+  public void testProcessApplicationDeploymentNoChangesResolvesCaseKeysFromDefinitions() {
+    String caseResource = "org/camunda/bpm/engine/test/api/cmmn/oneTaskCase.cmmn";
+    BpmnModelInstance processWithCaseKey = Bpmn.createExecutableProcess("oneTaskCase").done();
+
+    // a process with the key of the case in another deployment
+    ProcessApplicationDeployment deployment1 = repositoryService.createDeployment(processApplication.getReference())
+      .name("otherDeployment")
+      .addModelInstance("process.bpmn20.xml", processWithCaseKey)
+      .deploy();
+
+    ProcessApplicationDeployment deployment2 = repositoryService.createDeployment(processApplication.getReference())
+      .name("deployment")
+      .addClasspathResource(caseResource)
+      .deploy();
+
+    // deploy update with no changes:
+    Set<String> parsedResources = new HashSet<String>();
+    ProcessApplicationDeployment deployment3 = deployTrackingParsedResources(repositoryService.createDeployment(processApplication.getReference())
+      .name("deployment")
+      .enableDuplicateFiltering(true)
+      .resumePreviousVersions()
+      .addClasspathResource(caseResource), parsedResources);
+
+    assertEquals(deployment2.getId(), deployment3.getId());
+
+    // the case key is taken from the deployed case definition
+    assertTrue(parsedResources.isEmpty());
+
+    Set<String> deploymentIds = deployment3.getProcessApplicationRegistration().getDeploymentIds();
+    assertEquals(2, deploymentIds.size());
+    assertTrue(deploymentIds.contains(deployment1.getId()));
+    assertTrue(deploymentIds.contains(deployment2.getId()));
+
+    deleteDeployments(deployment1, deployment2);
+  }
+
   public void testPartialChangesDeployAll() {
     BpmnModelInstance model1 = Bpmn.createExecutableProcess("process1").done();
     BpmnModelInstance model2 = Bpmn.createExecutableProcess("process2").done();
@@ -951,6 +1065,24 @@ public class ProcessApplicationDeploymentTest extends PluggableProcessEngineTest
   /**
    * Deletes the deployments cascading.
    */
+  /**
+   * Deploys with a deploy command that records the resources it parses
+   * to find the keys of previous versions to resume.
+   */
+  protected ProcessApplicationDeployment deployTrackingParsedResources(ProcessApplicationDeploymentBuilder deploymentBuilder,
+      final Set<String> parsedResources) {
+    return (ProcessApplicationDeployment) processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new DeployCmd((DeploymentBuilderImpl) deploymentBuilder) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected Set<String> parseProcessKeys(ResourceEntity resource) {
+          parsedResources.add(resource.getName());
+          return super.parseProcessKeys(resource);
+        }
+      });
+  }
+
   private void deleteDeployments(Deployment... deployments){
     for (Deployment deployment : deployments) {
       repositoryService.deleteDeployment(deployment.getId(), true);
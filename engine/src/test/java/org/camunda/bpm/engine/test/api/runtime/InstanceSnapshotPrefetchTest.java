@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.bpmn.tasklistener.util.RecorderTaskListener;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class InstanceSnapshotPrefetchTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .userTask("task")
+        .endEvent()
+      .moveToNode("fork")
+        .intermediateCatchEvent("catch")
+          .message("message")
+        .userTask("afterCatch")
+        .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setInstanceSnapshotPrefetchEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+  }
+
+  @Test
+  public void shouldFetchSnapshotWithExecutionTree() {
+    // given
+    testRule.deploy(PROCESS);
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("foo", "bar"));
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.setVariableLocal(task.getId(), "taskVar", "baz");
+
+    final String taskExecutionId = task.getExecutionId();
+
+    // when
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(taskExecutionId);
+        execution.getProcessInstance();
+
+        // then the related entities are in the cache
+        DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+        assertEquals(2, dbEntityManager.getCachedEntitiesByType(VariableInstanceEntity.class).size());
+        assertEquals(1, dbEntityManager.getCachedEntitiesByType(TaskEntity.class).size());
+        assertEquals(1, dbEntityManager.getCachedEntitiesByType(EventSubscriptionEntity.class).size());
+
+        // and associated with the execution tree
+        assertEquals(1, execution.getTasks().size());
+        assertEquals("baz", execution.getTasks().get(0).getVariableLocal("taskVar"));
+        assertEquals("bar", execution.getProcessInstance().getVariableLocal("foo"));
+        assertEquals(processInstance.getId(), execution.getProcessInstance().getId());
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldContinueProcessInstance() {
+    // given
+    testRule.deploy(PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("foo", "bar"));
+
+    // when
+    runtimeService.correlateMessage("message");
+    taskService.complete(taskService.createTaskQuery().taskDefinitionKey("task").singleResult().getId());
+
+    // then
+    Task afterCatch = taskService.createTaskQuery().taskDefinitionKey("afterCatch").singleResult();
+    assertNotNull(afterCatch);
+    assertEquals("bar", runtimeService.getVariable(processInstance.getId(), "foo"));
+
+    taskService.complete(afterCatch.getId());
+    testRule.assertProcessEnded(processInstance.getId());
+  }
+
+  @Test
+  public void shouldNotRestoreTaskDeletedInSameCommand() {
+    // given
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask()
+        .camundaTaskListenerClass(TaskListener.EVENTNAME_DELETE, RecorderTaskListener.class.getName())
+      .endEvent()
+      .done());
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    RecorderTaskListener.clear();
+
+    // when
+    runtimeService.deleteProcessInstance(processInstance.getId(), null);
+
+    // then the task is deleted once
+    assertEquals(1, RecorderTaskListener.getRecordedEvents().size());
+    testRule.assertProcessEnded(processInstance.getId());
+  }
+
+}
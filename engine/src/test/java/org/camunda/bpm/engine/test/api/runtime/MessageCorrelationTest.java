@@ -20,6 +20,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,8 @@ import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.util.StringUtil;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.runtime.Execution;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
 import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
 import org.camunda.bpm.engine.runtime.MessageCorrelationResultType;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
@@ -1734,4 +1737,145 @@ public class MessageCorrelationTest {
     Assert.assertNull(waitingProcess);
   }
 
+  @Test
+  public void testCorrelateMessagesInBulk() {
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+        .startEvent()
+          .message("startMessage")
+        .intermediateCatchEvent()
+          .message("continueMessage")
+        .userTask("task")
+        .endEvent()
+        .done());
+
+    runtimeService.createMessageCorrelation("startMessage").processInstanceBusinessKey("first").correlate();
+    runtimeService.createMessageCorrelation("startMessage").processInstanceBusinessKey("second").correlate();
+
+    // when
+    List<MessageCorrelationBulkResult> results = runtimeService.correlateMessages(Arrays.asList(
+        runtimeService.createMessageCorrelation("startMessage").processInstanceBusinessKey("third"),
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("first"),
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("second"),
+        runtimeService.createMessageCorrelation("unknownMessage")));
+
+    // then
+    assertEquals(4, results.size());
+
+    assertTrue(results.get(0).isCorrelated());
+    assertEquals(MessageCorrelationResultType.ProcessDefinition, results.get(0).getCorrelationResult().getResultType());
+    assertEquals("third", results.get(0).getCorrelationResult().getProcessInstance().getBusinessKey());
+
+    assertTrue(results.get(1).isCorrelated());
+    assertEquals(MessageCorrelationResultType.Execution, results.get(1).getCorrelationResult().getResultType());
+    assertTrue(results.get(2).isCorrelated());
+
+    assertFalse(results.get(3).isCorrelated());
+    assertNull(results.get(3).getCorrelationResult());
+    assertTrue(results.get(3).getException() instanceof MismatchingMessageCorrelationException);
+
+    assertEquals(2, taskService.createTaskQuery().taskDefinitionKey("task").count());
+    assertEquals(3, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Test
+  public void testCorrelateMessagesInBulkToSubscriptionOfPreviousMessage() {
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+        .startEvent()
+          .message("startMessage")
+        .intermediateCatchEvent()
+          .message("continueMessage")
+        .userTask("task")
+        .endEvent()
+        .done());
+
+    // when the second message is correlated to the process instance started by the first one
+    List<MessageCorrelationBulkResult> results = runtimeService.correlateMessages(Arrays.<MessageCorrelationBuilder>asList(
+        runtimeService.createMessageCorrelation("startMessage").processInstanceBusinessKey("first"),
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("first")));
+
+    // then
+    assertTrue(results.get(0).isCorrelated());
+    assertTrue(results.get(1).isCorrelated());
+    assertEquals(MessageCorrelationResultType.Execution, results.get(1).getCorrelationResult().getResultType());
+
+    assertEquals(1, taskService.createTaskQuery().taskDefinitionKey("task").count());
+  }
+
+  @Test
+  public void testCorrelateMessagesInBulkTwiceToSameExecution() {
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .intermediateCatchEvent("catch")
+          .message("continueMessage")
+        .userTask("task")
+        .endEvent()
+        .done());
+
+    runtimeService.startProcessInstanceByKey("process", "first");
+
+    // when both messages match the same waiting execution
+    List<MessageCorrelationBulkResult> results = runtimeService.correlateMessages(Arrays.<MessageCorrelationBuilder>asList(
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("first"),
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("first")));
+
+    // then only the first one is correlated, like when correlating them one by one
+    assertEquals(2, results.size());
+    assertTrue(results.get(0).isCorrelated());
+    assertEquals(MessageCorrelationResultType.Execution, results.get(0).getCorrelationResult().getResultType());
+
+    assertFalse(results.get(1).isCorrelated());
+    assertTrue(results.get(1).getException() instanceof MismatchingMessageCorrelationException);
+
+    assertEquals(1, taskService.createTaskQuery().taskDefinitionKey("task").count());
+    assertEquals(0, runtimeService.createEventSubscriptionQuery().count());
+  }
+
+  @Test
+  public void testCorrelateMessagesInBulkFailingExecution() {
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .intermediateCatchEvent("catch")
+          .message("continueMessage")
+        .serviceTask()
+          .camundaClass(FailingDelegate.class.getName())
+        .userTask("task")
+        .endEvent()
+        .done());
+
+    runtimeService.startProcessInstanceByKey("process", "first");
+    runtimeService.startProcessInstanceByKey("process", "second");
+
+    // when the correlation of the second message fails in the service task
+    List<MessageCorrelationBulkResult> results = runtimeService.correlateMessages(Arrays.asList(
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("first").setVariable("fail", false),
+        runtimeService.createMessageCorrelation("continueMessage").processInstanceBusinessKey("second").setVariable("fail", true)));
+
+    // then the first message is correlated anyway
+    assertTrue(results.get(0).isCorrelated());
+    assertFalse(results.get(1).isCorrelated());
+    assertEquals(FailingDelegate.EXCEPTION_MESSAGE, results.get(1).getException().getMessage());
+
+    assertEquals(1, taskService.createTaskQuery().processInstanceBusinessKey("first").taskDefinitionKey("task").count());
+    assertEquals(1, runtimeService.createExecutionQuery().processInstanceBusinessKey("second").activityId("catch").count());
+  }
+
+  @Test
+  public void testCorrelateMessagesInBulkWithProcessDefinitionId() {
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(Bpmn.createExecutableProcess("process")
+        .startEvent()
+          .message("startMessage")
+        .userTask()
+        .endEvent()
+        .done());
+
+    // when
+    List<MessageCorrelationBulkResult> results = runtimeService.correlateMessages(Arrays.<MessageCorrelationBuilder>asList(
+        runtimeService.createMessageCorrelation("startMessage").processDefinitionId(processDefinition.getId())));
+
+    // then
+    assertFalse(results.get(0).isCorrelated());
+    assertTrue(results.get(0).getException() instanceof BadUserRequestException);
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
 }
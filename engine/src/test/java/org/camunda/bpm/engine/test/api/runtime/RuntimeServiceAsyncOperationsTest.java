@@ -60,6 +60,7 @@ public class RuntimeServiceAsyncOperationsTest extends AbstractAsyncOperationsTe
 
   private int defaultBatchJobsPerSeed;
   private int defaultInvocationsPerBatchJob;
+  private boolean defaultBatchQueryCursorEnabled;
 
   @Rule
   public ExpectedException thrown = ExpectedException.none();
@@ -96,6 +97,7 @@ public class RuntimeServiceAsyncOperationsTest extends AbstractAsyncOperationsTe
     ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
     defaultBatchJobsPerSeed = configuration.getBatchJobsPerSeed();
     defaultInvocationsPerBatchJob = configuration.getInvocationsPerBatchJob();
+    defaultBatchQueryCursorEnabled = configuration.isBatchQueryCursorEnabled();
   }
 
   @After
@@ -103,6 +105,7 @@ public class RuntimeServiceAsyncOperationsTest extends AbstractAsyncOperationsTe
     ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
     configuration.setBatchJobsPerSeed(defaultBatchJobsPerSeed);
     configuration.setInvocationsPerBatchJob(defaultInvocationsPerBatchJob);
+    configuration.setBatchQueryCursorEnabled(defaultBatchQueryCursorEnabled);
   }
 
   @Deployment(resources = {
@@ -262,6 +265,33 @@ public class RuntimeServiceAsyncOperationsTest extends AbstractAsyncOperationsTe
     assertProcessInstancesAreDeleted();
   }
 
+  @Deployment(resources = {
+      "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  @Test
+  public void testDeleteProcessInstancesAsyncWithQueryIgnoresQueryCursor() throws Exception {
+    // given
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setBatchQueryCursorEnabled(true);
+    configuration.setBatchJobsPerSeed(2);
+
+    List<String> processIds = startTestProcesses(5);
+    ProcessInstanceQuery processInstanceQuery = runtimeService
+        .createProcessInstanceQuery().processDefinitionKey(ONE_TASK_PROCESS);
+
+    Batch batch = runtimeService.deleteProcessInstancesAsync(processInstanceQuery, TESTING_INSTANCE_DELETE);
+
+    // when a further process instance is started before the batch is seeded
+    String laterProcessId = runtimeService.startProcessInstanceByKey(ONE_TASK_PROCESS).getId();
+
+    createAndExecuteSeedJobs(batch.getSeedJobDefinitionId(), 3);
+    executeBatchJobs(batch);
+
+    // then only the process instances matched on batch creation are deleted
+    assertHistoricTaskDeletionPresent(processIds, TESTING_INSTANCE_DELETE, testRule);
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(laterProcessId, runtimeService.createProcessInstanceQuery().singleResult().getId());
+  }
+
   @Deployment(resources = {
       "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml"})
   @Test
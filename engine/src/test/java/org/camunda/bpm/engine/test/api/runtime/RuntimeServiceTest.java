@@ -1753,6 +1753,47 @@ public class RuntimeServiceTest {
     assertEquals(0, instances.length);
   }
 
+  @Test
+  public void testGetActivityInstanceForManyConcurrentExecutions() {
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .parallelGateway("fork")
+          .userTask("innerTask")
+            .multiInstance().cardinality("50").multiInstanceDone()
+          .endEvent()
+        .moveToNode("fork")
+          .userTask("otherTask")
+          .endEvent()
+        .done());
+
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    ActivityInstance tree = runtimeService.getActivityInstance(instance.getId());
+
+    // then
+    assertActivityInstances(tree.getActivityInstances("innerTask#multiInstanceBody"), 1, "innerTask#multiInstanceBody");
+    assertActivityInstances(tree.getActivityInstances("otherTask"), 1, "otherTask");
+    ActivityInstance[] innerTaskInstances = tree.getActivityInstances("innerTask");
+    assertActivityInstances(innerTaskInstances, 50, "innerTask");
+
+    Set<String> innerTaskExecutionIds = new HashSet<String>();
+    for (ActivityInstance innerTaskInstance : innerTaskInstances) {
+      innerTaskExecutionIds.addAll(Arrays.asList(innerTaskInstance.getExecutionIds()));
+    }
+    assertEquals(50, innerTaskExecutionIds.size());
+    for (Task task : taskService.createTaskQuery().taskDefinitionKey("innerTask").list()) {
+      assertTrue(innerTaskExecutionIds.contains(task.getExecutionId()));
+    }
+
+    // and the tree can be used to cancel a single instance
+    runtimeService.createProcessInstanceModification(instance.getId())
+      .cancelActivityInstance(innerTaskInstances[0].getId())
+      .execute();
+
+    assertEquals(49, taskService.createTaskQuery().taskDefinitionKey("innerTask").count());
+  }
+
   @Deployment
   @Test
   public void testGetTransitionInstancesForActivity() {
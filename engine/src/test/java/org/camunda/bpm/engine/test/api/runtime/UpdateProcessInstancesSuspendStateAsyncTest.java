@@ -21,6 +21,7 @@ import org.camunda.bpm.engine.HistoryService;
 import org.camunda.bpm.engine.ProcessEngineConfiguration;
 import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.test.Deployment;
 import org.camunda.bpm.engine.test.ProcessEngineRule;
@@ -59,17 +60,34 @@ public class UpdateProcessInstancesSuspendStateAsyncTest {
   protected RuntimeService runtimeService;
   protected HistoryService historyService;
 
+  protected int defaultBatchJobsPerSeed;
+  protected boolean defaultBatchQueryCursorEnabled;
+
   @Before
   public void init() {
     runtimeService = engineRule.getRuntimeService();
     historyService = engineRule.getHistoryService();
   }
 
+  @Before
+  public void storeEngineSettings() {
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    defaultBatchJobsPerSeed = configuration.getBatchJobsPerSeed();
+    defaultBatchQueryCursorEnabled = configuration.isBatchQueryCursorEnabled();
+  }
+
   @After
   public void removeBatches() {
     helper.removeAllRunningAndHistoricBatches();
   }
 
+  @After
+  public void restoreEngineSettings() {
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setBatchJobsPerSeed(defaultBatchJobsPerSeed);
+    configuration.setBatchQueryCursorEnabled(defaultBatchQueryCursorEnabled);
+  }
+
 
 
   @Test
@@ -119,6 +137,29 @@ public class UpdateProcessInstancesSuspendStateAsyncTest {
     assertFalse(p2c.isSuspended());
   }
 
+  @Test
+  @Deployment(resources = {"org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml"})
+  public void testBatchSuspensionByProcessInstanceQueryWithCursor() {
+    // given
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setBatchQueryCursorEnabled(true);
+    configuration.setBatchJobsPerSeed(1);
+
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    }
+
+    // when
+    Batch suspendprocess = runtimeService.updateProcessInstanceSuspensionState().byProcessInstanceQuery(runtimeService.createProcessInstanceQuery().active()).suspendAsync();
+    helper.completeSeedJobs(suspendprocess);
+    Assert.assertEquals(3, helper.getExecutionJobs(suspendprocess).size());
+    helper.executeJobs(suspendprocess);
+
+    // then
+    Assert.assertEquals(0, runtimeService.createProcessInstanceQuery().active().count());
+    Assert.assertEquals(3, runtimeService.createProcessInstanceQuery().suspended().count());
+  }
+
   @Test
   @Deployment(resources = {"org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml",
     "org/camunda/bpm/engine/test/api/externaltask/twoExternalTaskProcess.bpmn20.xml"})
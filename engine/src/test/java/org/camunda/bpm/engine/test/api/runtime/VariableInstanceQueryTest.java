@@ -24,6 +24,8 @@ import java.util.Map;
 import java.util.Set;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.VariableInstanceQueryProperty;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.runtime.ActivityInstance;
 import org.camunda.bpm.engine.runtime.CaseInstance;
@@ -2733,5 +2735,42 @@ public class VariableInstanceQueryTest extends PluggableProcessEngineTestCase {
     }
   }
 
+  @Test
+  @Deployment(resources={"org/camunda/bpm/engine/test/api/runtime/oneTaskProcess.bpmn20.xml"})
+  public void testQueryByVariableIdAfterPagesThroughAllVariables() {
+    // given
+    Map<String, Object> variables = new HashMap<String, Object>();
+    for (int i = 0; i < 7; i++) {
+      variables.put("var" + i, i);
+    }
+    runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+    runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+
+    VariableInstanceQueryImpl query = (VariableInstanceQueryImpl) runtimeService.createVariableInstanceQuery();
+    query.orderBy(VariableInstanceQueryProperty.VARIABLE_ID).asc();
+
+    // when
+    List<String> pagedVariableIds = new ArrayList<String>();
+    List<VariableInstance> page = query.listPage(0, 5);
+    while (!page.isEmpty()) {
+      for (VariableInstance variable : page) {
+        pagedVariableIds.add(variable.getId());
+      }
+      query.setVariableIdAfter(page.get(page.size() - 1).getId());
+      page = query.listPage(0, 5);
+    }
+
+    // then all 14 variables are returned in 3 pages, ordered by id
+    VariableInstanceQueryImpl orderedQuery = (VariableInstanceQueryImpl) runtimeService.createVariableInstanceQuery();
+    orderedQuery.orderBy(VariableInstanceQueryProperty.VARIABLE_ID).asc();
+
+    List<String> expectedVariableIds = new ArrayList<String>();
+    for (VariableInstance variable : orderedQuery.list()) {
+      expectedVariableIds.add(variable.getId());
+    }
+
+    assertEquals(14, pagedVariableIds.size());
+    assertEquals(expectedVariableIds, pagedVariableIds);
+  }
 
 }
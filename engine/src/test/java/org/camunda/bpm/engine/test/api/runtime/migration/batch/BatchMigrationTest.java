@@ -85,6 +85,7 @@ public class BatchMigrationTest {
 
   protected int defaultBatchJobsPerSeed;
   protected int defaultInvocationsPerBatchJob;
+  protected boolean defaultBatchQueryCursorEnabled;
 
   @Before
   public void initServices() {
@@ -108,6 +109,7 @@ public class BatchMigrationTest {
     ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
     defaultBatchJobsPerSeed = configuration.getBatchJobsPerSeed();
     defaultInvocationsPerBatchJob = configuration.getInvocationsPerBatchJob();
+    defaultBatchQueryCursorEnabled = configuration.isBatchQueryCursorEnabled();
   }
 
   @After
@@ -115,6 +117,7 @@ public class BatchMigrationTest {
     ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
     configuration.setBatchJobsPerSeed(defaultBatchJobsPerSeed);
     configuration.setInvocationsPerBatchJob(defaultInvocationsPerBatchJob);
+    configuration.setBatchQueryCursorEnabled(defaultBatchQueryCursorEnabled);
   }
 
 
@@ -628,6 +631,39 @@ public class BatchMigrationTest {
     assertBatchCreated(batch, processInstanceCount);
   }
 
+  @Test
+  public void testMigrateWithProcessInstanceQueryIgnoresQueryCursor() {
+    // given
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setBatchQueryCursorEnabled(true);
+
+    ProcessDefinition sourceProcessDefinition = migrationRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = migrationRule.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceById(sourceProcessDefinition.getId());
+    }
+
+    MigrationPlan migrationPlan = runtimeService
+      .createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    Batch batch = runtimeService.newMigration(migrationPlan)
+      .processInstanceQuery(runtimeService.createProcessInstanceQuery().processDefinitionId(sourceProcessDefinition.getId()))
+      .executeAsync();
+
+    // when a further process instance is started before the batch is seeded
+    runtimeService.startProcessInstanceById(sourceProcessDefinition.getId());
+
+    helper.completeSeedJobs(batch);
+    helper.executeJobs(batch);
+
+    // then only the process instances matched on batch creation are migrated
+    assertEquals(3, runtimeService.createProcessInstanceQuery().processDefinitionId(targetProcessDefinition.getId()).count());
+    assertEquals(1, runtimeService.createProcessInstanceQuery().processDefinitionId(sourceProcessDefinition.getId()).count());
+  }
+
   @Test
   public void testBatchCreationWithOverlappingProcessInstanceIdsAndQuery() {
     RuntimeService runtimeService = engineRule.getRuntimeService();
@@ -4523,6 +4523,71 @@ public class TaskQueryTest extends PluggableProcessEngineTestCase {
    * - 2 tasks assigned to accountancy group
    * - 1 task assigned to fozzie and to both the management and accountancy group
    */
+  public void testQueryByTaskIdAfterPagesThroughAllTasks() {
+    TaskQueryImpl query = (TaskQueryImpl) taskService.createTaskQuery().orderByTaskId().asc();
+
+    List<String> pagedTaskIds = pageByTaskIdAfter(query, 5);
+
+    // 12 tasks in 3 pages
+    assertEquals(collectTaskIds(taskService.createTaskQuery().orderByTaskId().asc().list()), pagedTaskIds);
+    assertEquals(12, pagedTaskIds.size());
+  }
+
+  public void testQueryByTaskIdAfterPagesThroughOrQuery() {
+    TaskQueryImpl query = (TaskQueryImpl) taskService.createTaskQuery()
+      .or()
+        .taskName("testTask")
+        .taskPriority(10)
+      .endOr()
+      .orderByTaskId()
+      .asc();
+
+    List<String> pagedTaskIds = pageByTaskIdAfter(query, 3);
+
+    // 6 tasks named 'testTask' and 2 with priority 10 in 3 pages
+    List<Task> expectedTasks = taskService.createTaskQuery()
+      .or()
+        .taskName("testTask")
+        .taskPriority(10)
+      .endOr()
+      .orderByTaskId()
+      .asc()
+      .list();
+    assertEquals(collectTaskIds(expectedTasks), pagedTaskIds);
+    assertEquals(8, pagedTaskIds.size());
+  }
+
+  public void testQueryByTaskIdAfterLastTask() {
+    List<Task> tasks = taskService.createTaskQuery().orderByTaskId().asc().list();
+    String lastTaskId = tasks.get(tasks.size() - 1).getId();
+
+    TaskQueryImpl query = (TaskQueryImpl) taskService.createTaskQuery();
+    query.setTaskIdAfter(lastTaskId);
+
+    assertEquals(0, query.count());
+  }
+
+  protected List<String> pageByTaskIdAfter(TaskQueryImpl query, int pageSize) {
+    List<String> taskIds = new ArrayList<String>();
+
+    List<Task> page = query.listPage(0, pageSize);
+    while (!page.isEmpty()) {
+      taskIds.addAll(collectTaskIds(page));
+      query.setTaskIdAfter(page.get(page.size() - 1).getId());
+      page = query.listPage(0, pageSize);
+    }
+
+    return taskIds;
+  }
+
+  protected List<String> collectTaskIds(List<Task> tasks) {
+    List<String> taskIds = new ArrayList<String>();
+    for (Task task : tasks) {
+      taskIds.add(task.getId());
+    }
+    return taskIds;
+  }
+
   private List<String> generateTestTasks() throws Exception {
     List<String> ids = new ArrayList<String>();
 
@@ -22,6 +22,7 @@ import java.nio.charset.Charset;
 import java.util.Scanner;
 
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.variable.serializer.LazyFileValueImpl;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.runtime.VariableInstance;
 import org.camunda.bpm.engine.task.Task;
@@ -107,4 +108,63 @@ public class FileValueProcessSerializationTest extends PluggableProcessEngineTes
     assertNull(fileVar.getMimeType());
   }
 
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testFetchFileContentOnAccess() {
+    processEngineConfiguration.setLazyFileValueFetchingEnabled(true);
+    try {
+      ProcessInstance pi = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+          Variables.createVariables().putValue("fileVar", Variables.fileValue("test.txt").file("ABC".getBytes()).mimeType("text/plain").create()));
+
+      FileValue fileVar = runtimeService.getVariableTyped(pi.getId(), "fileVar");
+      assertTrue(fileVar instanceof LazyFileValueImpl);
+      assertFalse(((LazyFileValueImpl) fileVar).isFetched());
+      assertThat(fileVar.getFilename(), is("test.txt"));
+      assertThat(fileVar.getMimeType(), is("text/plain"));
+
+      // the content is fetched outside of the command
+      Scanner scanner = new Scanner(fileVar.getValue());
+      assertThat(scanner.nextLine(), is("ABC"));
+      assertTrue(((LazyFileValueImpl) fileVar).isFetched());
+    }
+    finally {
+      processEngineConfiguration.setLazyFileValueFetchingEnabled(false);
+    }
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testFileContentIsReadWithVariable() {
+    ProcessInstance pi = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("fileVar", Variables.fileValue("test.txt").file("ABC".getBytes()).create()));
+
+    FileValue fileVar = runtimeService.getVariableTyped(pi.getId(), "fileVar");
+
+    // when the variable is changed after it has been read
+    runtimeService.setVariable(pi.getId(), "fileVar", Variables.fileValue("test.txt").file("DEF".getBytes()).create());
+
+    // then the value read before still has the previous content
+    assertFalse(fileVar instanceof LazyFileValueImpl);
+    Scanner scanner = new Scanner(fileVar.getValue());
+    assertThat(scanner.nextLine(), is("ABC"));
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testReplaceFileContent() {
+    ProcessInstance pi = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("fileVar", Variables.fileValue("test.txt").file("ABC".getBytes()).create()));
+
+    // when the file is replaced
+    runtimeService.setVariable(pi.getId(), "fileVar", Variables.fileValue("test.txt").file("DEF".getBytes()).create());
+
+    // then
+    FileValue fileVar = runtimeService.getVariableTyped(pi.getId(), "fileVar");
+    Scanner scanner = new Scanner(fileVar.getValue());
+    assertThat(scanner.nextLine(), is("DEF"));
+
+    runtimeService.removeVariable(pi.getId(), "fileVar");
+    assertNull(runtimeService.getVariableTyped(pi.getId(), "fileVar"));
+  }
+
 }
@@ -16,6 +16,10 @@
 package org.camunda.bpm.engine.test.bpmn.deployment;
 
 import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -25,12 +29,15 @@ import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceContentHashEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.pvm.ReadOnlyProcessDefinition;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
 import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.DeploymentWithDefinitions;
+import org.camunda.bpm.engine.repository.ProcessApplicationDeployment;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.repository.Resource;
 import org.camunda.bpm.engine.test.Deployment;
@@ -111,6 +118,100 @@ public class BpmnDeploymentTest extends PluggableProcessEngineTestCase {
     repositoryService.deleteDeployment(deploymentId);
   }
 
+  public void testDeploySameFileTwicePersistsContentHash() {
+    final String bpmnResourceName = "org/camunda/bpm/engine/test/bpmn/deployment/BpmnDeploymentTest.testGetBpmnXmlFileThroughService.bpmn20.xml";
+    String deploymentId = repositoryService.createDeployment().enableDuplicateFiltering().addClasspathResource(bpmnResourceName).name("twice").deploy().getId();
+
+    ResourceContentHashEntity existingResource = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<ResourceContentHashEntity>() {
+      public ResourceContentHashEntity execute(CommandContext commandContext) {
+        return commandContext
+          .getResourceManager()
+          .findLatestResourceContentHashesByDeploymentName("twice", Collections.singleton(bpmnResourceName), ProcessApplicationDeployment.PROCESS_APPLICATION_DEPLOYMENT_SOURCE, null)
+          .get(bpmnResourceName);
+      }
+    });
+
+    // the content hash is persisted and selected without the bytes
+    assertNotNull(existingResource);
+    assertEquals(deploymentId, existingResource.getDeploymentId());
+
+    ResourceEntity resource = new ResourceEntity();
+    resource.setBytes(IoUtil.readInputStream(ReflectUtil.getResourceAsStream(bpmnResourceName), bpmnResourceName));
+    assertEquals(resource.getContentHash(), existingResource.getContentHash());
+
+    repositoryService.createDeployment().enableDuplicateFiltering().addClasspathResource(bpmnResourceName).name("twice").deploy();
+    assertEquals(1, repositoryService.createDeploymentQuery().count());
+
+    repositoryService.deleteDeployment(deploymentId);
+  }
+
+  public void testDeploySameFileTwiceWithoutPersistedContentHash() {
+    final String bpmnResourceName = "org/camunda/bpm/engine/test/bpmn/deployment/BpmnDeploymentTest.testGetBpmnXmlFileThroughService.bpmn20.xml";
+    String deploymentId = repositoryService.createDeployment().enableDuplicateFiltering().addClasspathResource(bpmnResourceName).name("twice").deploy().getId();
+
+    // given a resource deployed before content hashes were persisted
+    clearContentHashes(deploymentId);
+
+    // when the same resource is deployed again
+    repositoryService.createDeployment().enableDuplicateFiltering().addClasspathResource(bpmnResourceName).name("twice").deploy();
+
+    // then the resources are compared byte by byte and the duplicate is filtered
+    assertEquals(1, repositoryService.createDeploymentQuery().count());
+
+    repositoryService.deleteDeployment(deploymentId);
+  }
+
+  public void testDeployChangedFileWithoutPersistedContentHash() {
+    BpmnModelInstance model = Bpmn.createExecutableProcess("process").done();
+    String deploymentId1 = repositoryService.createDeployment()
+      .enableDuplicateFiltering()
+      .addModelInstance("process.bpmn20.xml", model)
+      .name("twice")
+      .deploy()
+      .getId();
+
+    // given a resource deployed before content hashes were persisted
+    clearContentHashes(deploymentId1);
+
+    // when a changed resource is deployed
+    BpmnModelInstance changedModel = Bpmn.createExecutableProcess("process").startEvent().done();
+    String deploymentId2 = repositoryService.createDeployment()
+      .enableDuplicateFiltering()
+      .addModelInstance("process.bpmn20.xml", changedModel)
+      .name("twice")
+      .deploy()
+      .getId();
+
+    // then it is deployed
+    assertEquals(2, repositoryService.createDeploymentQuery().count());
+    assertEquals(2, repositoryService.createProcessDefinitionQuery().processDefinitionKey("process").count());
+
+    repositoryService.deleteDeployment(deploymentId1);
+    repositoryService.deleteDeployment(deploymentId2);
+  }
+
+  protected void clearContentHashes(final String deploymentId) {
+    final String tablePrefix = processEngineConfiguration.getDatabaseTablePrefix();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        Connection connection = commandContext.getDbSqlSession().getSqlSession().getConnection();
+        try {
+          PreparedStatement statement = connection.prepareStatement("update " + tablePrefix + "ACT_GE_BYTEARRAY set CONTENT_HASH_ = null where DEPLOYMENT_ID_ = ?");
+          try {
+            statement.setString(1, deploymentId);
+            assertTrue(statement.executeUpdate() > 0);
+          } finally {
+            statement.close();
+          }
+        } catch (SQLException e) {
+          throw new ProcessEngineException("Could not clear the content hashes of deployment " + deploymentId, e);
+        }
+        return null;
+      }
+    });
+  }
+
   public void testPartialChangesDeployAll() {
     BpmnModelInstance model1 = Bpmn.createExecutableProcess("process1").done();
     BpmnModelInstance model2 = Bpmn.createExecutableProcess("process2").done();
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.event.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class MessageStartEventIndexTest {
+
+  protected static final String PROCESS_KEY = "process";
+  protected static final String MESSAGE_NAME = "startMessage";
+
+  protected static final BpmnModelInstance MODEL = Bpmn.createExecutableProcess(PROCESS_KEY)
+      .startEvent()
+      .message(MESSAGE_NAME)
+      .userTask()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance MODEL_WITHOUT_MESSAGE = Bpmn.createExecutableProcess(PROCESS_KEY)
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+
+    processEngineConfiguration.setMessageStartEventIndexEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setMessageStartEventIndexEnabled(false);
+    processEngineConfiguration.getDeploymentCache().getMessageStartEventSubscriptionIndex().invalidate();
+  }
+
+  @Test
+  public void shouldCorrelateMessageStartEvent() {
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(MODEL);
+
+    // when
+    ProcessInstance firstInstance = runtimeService.createMessageCorrelation(MESSAGE_NAME).correlateStartMessage();
+    ProcessInstance secondInstance = runtimeService.createMessageCorrelation(MESSAGE_NAME).correlateStartMessage();
+
+    // then
+    assertEquals(processDefinition.getId(), firstInstance.getProcessDefinitionId());
+    assertEquals(processDefinition.getId(), secondInstance.getProcessDefinitionId());
+    assertEquals(2, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Test
+  public void shouldCorrelateToNewVersionAfterRedeployment() {
+    testRule.deploy(MODEL);
+    runtimeService.correlateMessage(MESSAGE_NAME);
+
+    // when
+    ProcessDefinition newVersion = testRule.deployAndGetDefinition(MODEL);
+    ProcessInstance processInstance = runtimeService.createMessageCorrelation(MESSAGE_NAME).correlateStartMessage();
+
+    // then
+    assertEquals(2, newVersion.getVersion());
+    assertEquals(newVersion.getId(), processInstance.getProcessDefinitionId());
+  }
+
+  @Test
+  public void shouldNotCorrelateAfterMessageIsRemovedFromNewVersion() {
+    testRule.deploy(MODEL);
+    runtimeService.correlateMessage(MESSAGE_NAME);
+
+    // when
+    testRule.deploy(MODEL_WITHOUT_MESSAGE);
+
+    // then
+    try {
+      runtimeService.correlateMessage(MESSAGE_NAME);
+      fail("expected exception");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shouldNotCorrelateAfterUndeployment() {
+    Deployment deployment = repositoryService.createDeployment()
+        .addModelInstance("process.bpmn", MODEL)
+        .deploy();
+    runtimeService.correlateMessage(MESSAGE_NAME);
+
+    // when
+    repositoryService.deleteDeployment(deployment.getId(), true);
+
+    // then
+    try {
+      runtimeService.correlateMessage(MESSAGE_NAME);
+      fail("expected exception");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shouldCorrelateMessageStartEventOfTenant() {
+    testRule.deployForTenant("tenant1", MODEL);
+    ProcessDefinition processDefinition = testRule.deployForTenantAndGetDefinition("tenant2", MODEL);
+
+    // when
+    ProcessInstance processInstance = runtimeService.createMessageCorrelation(MESSAGE_NAME)
+        .tenantId("tenant2")
+        .correlateStartMessage();
+
+    // then
+    assertEquals(processDefinition.getId(), processInstance.getProcessDefinitionId());
+  }
+
+}
@@ -26,8 +26,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.history.HistoricActivityInstance;
@@ -377,6 +379,86 @@ public class MultiInstanceTest extends PluggableProcessEngineTestCase {
     assertProcessEnded(procId);
   }
 
+  @Deployment(resources="org/camunda/bpm/engine/test/bpmn/multiinstance/MultiInstanceTest.testParallelUserTasksBasedOnCollection.bpmn20.xml")
+  public void testParallelUserTasksWithManyInstances() {
+    // more instances than ids in a block
+    int nrOfInstances = 2 * processEngineConfiguration.getIdBlockSize() + 50;
+    List<String> assigneeList = new ArrayList<String>();
+    for (int i = 0; i < nrOfInstances; i++) {
+      assigneeList.add("assignee" + i);
+    }
+
+    String procId = runtimeService.startProcessInstanceByKey("miParallelUserTasksBasedOnCollection",
+        CollectionUtil.singletonMap("assigneeList", assigneeList)).getId();
+
+    // each instance has its own concurrent execution
+    List<Execution> executions = runtimeService.createExecutionQuery().processInstanceId(procId).activityId("miTasks").list();
+    assertEquals(nrOfInstances, executions.size());
+    Set<String> executionIds = new HashSet<String>();
+    for (Execution execution : executions) {
+      executionIds.add(execution.getId());
+    }
+    assertEquals(nrOfInstances, executionIds.size());
+
+    // with its own loop counter and input element
+    Set<Integer> loopCounters = new HashSet<Integer>();
+    for (Execution execution : executions) {
+      Integer loopCounter = (Integer) runtimeService.getVariableLocal(execution.getId(), "loopCounter");
+      assertEquals("assignee" + loopCounter, runtimeService.getVariableLocal(execution.getId(), "assignee"));
+      loopCounters.add(loopCounter);
+    }
+    assertEquals(nrOfInstances, loopCounters.size());
+    assertTrue(loopCounters.contains(0));
+    assertTrue(loopCounters.contains(nrOfInstances - 1));
+
+    // and its own task
+    List<Task> tasks = taskService.createTaskQuery().processInstanceId(procId).list();
+    assertEquals(nrOfInstances, tasks.size());
+    Set<String> assignees = new HashSet<String>();
+    for (Task task : tasks) {
+      assertTrue(executionIds.contains(task.getExecutionId()));
+      assignees.add(task.getAssignee());
+    }
+    assertEquals(new HashSet<String>(assigneeList), assignees);
+
+    Execution miBody = runtimeService.createExecutionQuery().processInstanceId(procId).activityId("miTasks#multiInstanceBody").singleResult();
+    assertEquals(nrOfInstances, runtimeService.getVariableLocal(miBody.getId(), "nrOfInstances"));
+    assertEquals(nrOfInstances, runtimeService.getVariableLocal(miBody.getId(), "nrOfActiveInstances"));
+
+    if (processEngineConfiguration.getHistoryLevel().getId() > ProcessEngineConfigurationImpl.HISTORYLEVEL_NONE) {
+      HistoricActivityInstance multiInstanceBodyInstance = historyService.createHistoricActivityInstanceQuery()
+          .activityId("miTasks#multiInstanceBody").singleResult();
+      assertNotNull(multiInstanceBodyInstance);
+
+      List<HistoricActivityInstance> historicActivityInstances = historyService.createHistoricActivityInstanceQuery()
+          .processInstanceId(procId)
+          .activityId("miTasks")
+          .list();
+      assertEquals(nrOfInstances, historicActivityInstances.size());
+      for (HistoricActivityInstance historicActivityInstance : historicActivityInstances) {
+        assertEquals(multiInstanceBodyInstance.getId(), historicActivityInstance.getParentActivityInstanceId());
+        assertTrue(executionIds.contains(historicActivityInstance.getExecutionId()));
+        assertNotNull(historicActivityInstance.getTaskId());
+      }
+
+      assertEquals(nrOfInstances, historyService.createHistoricTaskInstanceQuery().processInstanceId(procId).count());
+    }
+
+    if (processEngineConfiguration.getHistoryLevel().getId() >= ProcessEngineConfigurationImpl.HISTORYLEVEL_AUDIT) {
+      assertEquals(nrOfInstances, historyService.createHistoricVariableInstanceQuery()
+          .processInstanceId(procId)
+          .variableName("loopCounter")
+          .count());
+    }
+
+    // completing 60% of the tasks triggers the completion condition
+    int nrOfTasksToComplete = (nrOfInstances * 6 + 9) / 10;
+    for (int i = 0; i < nrOfTasksToComplete; i++) {
+      taskService.complete(tasks.get(i).getId());
+    }
+    assertProcessEnded(procId);
+  }
+
   @Deployment(resources="org/camunda/bpm/engine/test/bpmn/multiinstance/MultiInstanceTest.testParallelUserTasksBasedOnCollection.bpmn20.xml")
   public void testEmptyCollectionInMI() {
     List<String> assigneeList = new ArrayList<String>();
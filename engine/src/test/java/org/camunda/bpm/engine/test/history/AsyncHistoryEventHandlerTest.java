@@ -0,0 +1,496 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.NotSerializableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.camunda.bpm.engine.DecisionService;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricDecisionInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInputInstanceEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.AsyncHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventJournal;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventJournal.Reader;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class AsyncHistoryEventHandlerTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent("start")
+      .userTask("task")
+        .camundaAssignee("kermit")
+      .endEvent("end")
+      .done();
+
+  protected static final String DECISION = "org/camunda/bpm/engine/test/history/HistoricDecisionInstanceTest.decisionSingleOutput.dmn11.xml";
+
+  protected static final File JOURNAL_FILE = new File(System.getProperty("java.io.tmpdir"),
+      "camunda-history-journal-" + UUID.randomUUID());
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setAsyncHistoryEnabled(true);
+      // a small queue to spill events to the journal
+      configuration.setAsyncHistoryQueueCapacity(4);
+      configuration.setAsyncHistoryBatchSize(3);
+      configuration.setAsyncHistoryJournalFile(JOURNAL_FILE.getPath());
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected AsyncHistoryEventHandler handler;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected DecisionService decisionService;
+
+  @Before
+  public void setUp() {
+    handler = engineRule.getProcessEngineConfiguration().getAsyncHistoryEventHandler();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    historyService = engineRule.getHistoryService();
+    decisionService = engineRule.getDecisionService();
+  }
+
+  @After
+  public void tearDown() {
+    // history must be complete before the deployment is removed
+    waitForHistory();
+  }
+
+  @Test
+  public void shouldWriteHistoryAfterCommit() {
+    // given
+    testRule.deploy(PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    Task task = taskService.createTaskQuery().singleResult();
+
+    // when
+    taskService.complete(task.getId());
+    waitForHistory();
+
+    // then
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertEquals(processInstance.getId(), historicProcessInstance.getId());
+    assertEquals(HistoricProcessInstance.STATE_COMPLETED, historicProcessInstance.getState());
+    assertEquals("end", historicProcessInstance.getEndActivityId());
+    assertNotNull(historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+    assertNotNull(historicProcessInstance.getDurationInMillis());
+
+    List<HistoricActivityInstance> activityInstances = historyService.createHistoricActivityInstanceQuery().list();
+    assertEquals(3, activityInstances.size());
+    for (HistoricActivityInstance activityInstance : activityInstances) {
+      assertNotNull(activityInstance.getStartTime());
+      assertNotNull(activityInstance.getEndTime());
+      assertNotNull(activityInstance.getDurationInMillis());
+    }
+
+    HistoricActivityInstance taskActivityInstance = historyService.createHistoricActivityInstanceQuery().activityId("task").singleResult();
+    assertEquals(task.getId(), taskActivityInstance.getTaskId());
+    assertEquals("kermit", taskActivityInstance.getAssignee());
+
+    HistoricTaskInstance historicTask = historyService.createHistoricTaskInstanceQuery().singleResult();
+    assertEquals("kermit", historicTask.getAssignee());
+    assertEquals("completed", historicTask.getDeleteReason());
+    assertNotNull(historicTask.getEndTime());
+    assertNotNull(historicTask.getDurationInMillis());
+  }
+
+  @Test
+  public void shouldReplaySpilledEvents() {
+    // given
+    testRule.deploy(PROCESS);
+    int numberOfInstances = 10;
+
+    // when more events are produced than fit into the queue
+    for (int i = 0; i < numberOfInstances; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+    waitForHistory();
+
+    // then all events are written
+    assertEquals(numberOfInstances, historyService.createHistoricProcessInstanceQuery().completed().count());
+    assertEquals(numberOfInstances, historyService.createHistoricTaskInstanceQuery().finished().count());
+    assertEquals(3 * numberOfInstances, historyService.createHistoricActivityInstanceQuery().finished().count());
+    assertFalse(handler.getJournal().hasEvents());
+  }
+
+  @Test
+  public void shouldWriteDecisionEvaluationEventsWhileSpilling() {
+    // given
+    testRule.deploy(DECISION);
+    int numberOfEvaluations = 20;
+
+    // when more decision evaluation events are produced than fit into the queue
+    for (int i = 0; i < numberOfEvaluations; i++) {
+      decisionService.evaluateDecisionTableByKey("testDecision", Variables.createVariables().putValue("input1", "value" + i));
+    }
+    waitForHistory();
+
+    // then all events are written including their values
+    List<HistoricDecisionInstance> decisionInstances = historyService.createHistoricDecisionInstanceQuery()
+        .includeInputs()
+        .list();
+    assertEquals(numberOfEvaluations, decisionInstances.size());
+    for (HistoricDecisionInstance decisionInstance : decisionInstances) {
+      assertEquals(1, decisionInstance.getInputs().size());
+      assertNotNull(decisionInstance.getInputs().get(0).getValue());
+    }
+  }
+
+  @Test
+  public void shouldWriteSynchronouslyAfterFailedWrite() {
+    // given
+    final List<HistoryEvent> writtenEvents = Collections.synchronizedList(new ArrayList<HistoryEvent>());
+    HistoryEventHandler failingHandler = new HistoryEventHandler() {
+      public void handleEvent(HistoryEvent historyEvent) {
+        if ("failing".equals(historyEvent.getId())) {
+          throw new ProcessEngineException("cannot write event");
+        }
+        writtenEvents.add(historyEvent);
+      }
+
+      public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+          handleEvent(historyEvent);
+        }
+      }
+    };
+
+    CommandExecutor commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
+    AsyncHistoryEventHandler asyncHandler = new AsyncHistoryEventHandler(failingHandler, 10, 10, 1, null);
+    asyncHandler.start(commandExecutor);
+
+    try {
+      handleInTransaction(commandExecutor, asyncHandler, createActivityInstanceStartEvent("failing"));
+      waitForHistory(asyncHandler);
+
+      // assume
+      assertNotNull(asyncHandler.getWriteFailure());
+
+      // when
+      handleInTransaction(commandExecutor, asyncHandler, createActivityInstanceStartEvent("next"));
+
+      // then the event is written within the transaction
+      assertEquals(1, writtenEvents.size());
+      assertEquals("next", writtenEvents.get(0).getId());
+
+      // and failures are raised to the transaction
+      try {
+        handleInTransaction(commandExecutor, asyncHandler, createActivityInstanceStartEvent("failing"));
+        fail("exception expected");
+      }
+      catch (ProcessEngineException e) {
+        // expected
+      }
+    }
+    finally {
+      asyncHandler.stop();
+    }
+  }
+
+  @Test
+  public void shouldReadJournalEventByEvent() throws Exception {
+    // given
+    File journalFile = new File(System.getProperty("java.io.tmpdir"), "camunda-history-journal-" + UUID.randomUUID());
+    HistoryEventJournal journal = new HistoryEventJournal(journalFile.getPath());
+
+    journal.append(createActivityInstanceStartEvent("first"));
+    journal.append(createActivityInstanceStartEvent("second"));
+
+    // when
+    Reader reader = journal.startReplay();
+
+    // events appended meanwhile go to the next replay
+    journal.append(createActivityInstanceStartEvent("third"));
+
+    // then
+    try {
+      assertEquals("first", reader.next().getId());
+      assertEquals("second", reader.next().getId());
+      assertNull(reader.next());
+    }
+    finally {
+      reader.close();
+    }
+
+    journal.finishReplay();
+    assertTrue(journal.hasEvents());
+
+    reader = journal.startReplay();
+    try {
+      assertEquals("third", reader.next().getId());
+      assertNull(reader.next());
+    }
+    finally {
+      reader.close();
+    }
+
+    journal.finishReplay();
+    journal.close();
+    assertFalse(journal.hasEvents());
+    journalFile.delete();
+  }
+
+  @Test
+  public void shouldResumeInterruptedReplay() throws Exception {
+    // given
+    File journalFile = new File(System.getProperty("java.io.tmpdir"), "camunda-history-journal-" + UUID.randomUUID());
+    HistoryEventJournal journal = new HistoryEventJournal(journalFile.getPath());
+
+    journal.append(createActivityInstanceStartEvent("first"));
+    journal.append(createActivityInstanceStartEvent("second"));
+
+    Reader reader = journal.startReplay();
+    try {
+      assertEquals("first", reader.next().getId());
+      journal.commitReplay(reader);
+      assertEquals("second", reader.next().getId());
+    }
+    finally {
+      // the replay is interrupted before the second event is committed
+      reader.close();
+      journal.close();
+    }
+
+    // when
+    journal = new HistoryEventJournal(journalFile.getPath());
+    reader = journal.startReplay();
+
+    // then the replay continues after the committed event
+    try {
+      assertEquals("second", reader.next().getId());
+      assertNull(reader.next());
+    }
+    finally {
+      reader.close();
+    }
+
+    journal.finishReplay();
+    journal.close();
+    assertFalse(journal.hasEvents());
+    journalFile.delete();
+  }
+
+  @Test
+  public void shouldKeepFailedEventsInJournal() throws Exception {
+    // given
+    final List<HistoryEvent> writtenEvents = Collections.synchronizedList(new ArrayList<HistoryEvent>());
+    HistoryEventHandler failingHandler = new HistoryEventHandler() {
+      public void handleEvent(HistoryEvent historyEvent) {
+        if ("failing".equals(historyEvent.getId())) {
+          throw new ProcessEngineException("cannot write event");
+        }
+        writtenEvents.add(historyEvent);
+      }
+
+      public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+          handleEvent(historyEvent);
+        }
+      }
+    };
+
+    File journalFile = new File(System.getProperty("java.io.tmpdir"), "camunda-history-journal-" + UUID.randomUUID());
+    HistoryEventJournal journal = new HistoryEventJournal(journalFile.getPath());
+    journal.append(createActivityInstanceStartEvent("failing"));
+    journal.append(createActivityInstanceStartEvent("next"));
+    journal.close();
+
+    CommandExecutor commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
+    AsyncHistoryEventHandler asyncHandler = new AsyncHistoryEventHandler(failingHandler, 10, 10, 1, journalFile.getPath());
+
+    // when the journal is replayed
+    asyncHandler.start(commandExecutor);
+    try {
+      waitForHistory(asyncHandler);
+    }
+    finally {
+      asyncHandler.stop();
+    }
+
+    // then the failed event is kept in the journal
+    assertNotNull(asyncHandler.getWriteFailure());
+    assertEquals(1, writtenEvents.size());
+    assertEquals("next", writtenEvents.get(0).getId());
+
+    journal = new HistoryEventJournal(journalFile.getPath());
+    Reader reader = journal.startReplay();
+    try {
+      assertEquals("failing", reader.next().getId());
+      assertNull(reader.next());
+    }
+    finally {
+      reader.close();
+    }
+
+    journal.finishReplay();
+    journal.close();
+    journalFile.delete();
+  }
+
+  @Test
+  public void shouldNotAppendDecisionEvaluationEventToJournal() throws Exception {
+    // given
+    File journalFile = new File(System.getProperty("java.io.tmpdir"), "camunda-history-journal-" + UUID.randomUUID());
+    HistoryEventJournal journal = new HistoryEventJournal(journalFile.getPath());
+
+    HistoricDecisionInstanceEntity decisionInstance = new HistoricDecisionInstanceEntity();
+    decisionInstance.addInput(new HistoricDecisionInputInstanceEntity());
+    HistoricDecisionEvaluationEvent evaluationEvent = new HistoricDecisionEvaluationEvent();
+    evaluationEvent.setRootHistoricDecisionInstance(decisionInstance);
+
+    // when
+    try {
+      journal.append(evaluationEvent);
+      fail("exception expected");
+    }
+    catch (NotSerializableException e) {
+      // then
+      assertFalse(journal.hasEvents());
+    }
+    finally {
+      journal.close();
+      journalFile.delete();
+    }
+  }
+
+  @Test
+  public void shouldMergeActivityInstanceEvents() {
+    // given
+    AsyncHistoryEventHandler asyncHandler = new AsyncHistoryEventHandler(new DbHistoryEventHandler(), 10, 10, 1, null);
+
+    HistoricActivityInstanceEventEntity start = new HistoricActivityInstanceEventEntity();
+    start.setId("activityInstance");
+    start.setEventType(HistoryEventTypes.ACTIVITY_INSTANCE_START.getEventName());
+    start.setStartTime(new Date(1000));
+
+    HistoricActivityInstanceEventEntity end = new HistoricActivityInstanceEventEntity();
+    end.setId("activityInstance");
+    end.setEventType(HistoryEventTypes.ACTIVITY_INSTANCE_END.getEventName());
+    end.setEndTime(new Date(3000));
+
+    HistoricActivityInstanceEventEntity restart = new HistoricActivityInstanceEventEntity();
+    restart.setId("activityInstance");
+    restart.setEventType(HistoryEventTypes.ACTIVITY_INSTANCE_START.getEventName());
+
+    // when
+    List<List<HistoryEvent>> transactions = asyncHandler.mergeEvents(Arrays.<HistoryEvent>asList(start, end, restart));
+
+    // then the end is merged into the start event
+    assertEquals(2, transactions.size());
+    assertEquals(Arrays.<HistoryEvent>asList(start), transactions.get(0));
+    assertEquals(Arrays.<HistoryEvent>asList(restart), transactions.get(1));
+    assertEquals(new Date(3000), start.getEndTime());
+    assertEquals(Long.valueOf(2000), start.getDurationInMillis());
+    assertTrue(start.isEventOfType(HistoryEventTypes.ACTIVITY_INSTANCE_START));
+  }
+
+  protected HistoricActivityInstanceEventEntity createActivityInstanceStartEvent(String id) {
+    HistoricActivityInstanceEventEntity event = new HistoricActivityInstanceEventEntity();
+    event.setId(id);
+    event.setEventType(HistoryEventTypes.ACTIVITY_INSTANCE_START.getEventName());
+    return event;
+  }
+
+  protected void handleInTransaction(CommandExecutor commandExecutor, final HistoryEventHandler historyEventHandler, final HistoryEvent historyEvent) {
+    commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        historyEventHandler.handleEvent(historyEvent);
+        return null;
+      }
+    });
+  }
+
+  protected void waitForHistory() {
+    waitForHistory(handler);
+  }
+
+  protected void waitForHistory(AsyncHistoryEventHandler handler) {
+    long timeout = System.currentTimeMillis() + 30000;
+    while (!handler.isIdle()) {
+      if (System.currentTimeMillis() > timeout) {
+        throw new AssertionError("history events not written within 30 seconds");
+      }
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+}
@@ -32,6 +32,7 @@ import org.camunda.bpm.engine.exception.NullValueException;
 import org.camunda.bpm.engine.history.HistoricActivityInstance;
 import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
+import org.camunda.bpm.engine.impl.HistoricProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
@@ -1538,4 +1539,42 @@ public class HistoricProcessInstanceTest extends PluggableProcessEngineTestCase
     assertEquals(1, historicProcInstances.size());
     assertEquals(calledProcessInstance.getId(), historicProcInstances.get(0).getId());
   }
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/oneTaskProcess.bpmn20.xml"})
+  public void testQueryByProcessInstanceIdAfterPagesThroughAllInstances() {
+    // given
+    for (int i = 0; i < 7; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+
+    HistoricProcessInstanceQueryImpl query = (HistoricProcessInstanceQueryImpl) historyService.createHistoricProcessInstanceQuery()
+        .processDefinitionKey("oneTaskProcess")
+        .orderByProcessInstanceId()
+        .asc();
+
+    // when
+    List<String> pagedProcessInstanceIds = new ArrayList<String>();
+    List<HistoricProcessInstance> page = query.listPage(0, 3);
+    while (!page.isEmpty()) {
+      for (HistoricProcessInstance historicProcessInstance : page) {
+        pagedProcessInstanceIds.add(historicProcessInstance.getId());
+      }
+      query.setProcessInstanceIdAfter(page.get(page.size() - 1).getId());
+      page = query.listPage(0, 3);
+    }
+
+    // then all 7 instances are returned in 3 pages, ordered by id
+    List<String> expectedProcessInstanceIds = new ArrayList<String>();
+    List<HistoricProcessInstance> historicProcessInstances = historyService.createHistoricProcessInstanceQuery()
+        .processDefinitionKey("oneTaskProcess")
+        .orderByProcessInstanceId()
+        .asc()
+        .list();
+    for (HistoricProcessInstance historicProcessInstance : historicProcessInstances) {
+      expectedProcessInstanceIds.add(historicProcessInstance.getId());
+    }
+
+    assertEquals(7, pagedProcessInstanceIds.size());
+    assertEquals(expectedProcessInstanceIds, pagedProcessInstanceIds);
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class HistoricScopeStartTimeTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    historyService = engineRule.getHistoryService();
+  }
+
+  @After
+  public void tearDown() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldCalculateDurationsOfScopesEndedTogether() {
+    // given
+    testRule.deploy(PROCESS);
+    ClockUtil.setCurrentTime(new Date(1000));
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    // when the tasks are completed in one command
+    ClockUtil.setCurrentTime(new Date(6000));
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        for (Task task : taskService.createTaskQuery().list()) {
+          taskService.complete(task.getId());
+        }
+        return null;
+      }
+    });
+
+    // then
+    List<HistoricProcessInstance> processInstances = historyService.createHistoricProcessInstanceQuery().list();
+    assertEquals(3, processInstances.size());
+    for (HistoricProcessInstance processInstance : processInstances) {
+      assertEquals(Long.valueOf(5000), processInstance.getDurationInMillis());
+    }
+
+    List<HistoricActivityInstance> taskActivityInstances = historyService.createHistoricActivityInstanceQuery().activityId("task").list();
+    assertEquals(3, taskActivityInstances.size());
+    for (HistoricActivityInstance activityInstance : taskActivityInstances) {
+      assertEquals(new Date(1000), activityInstance.getStartTime());
+      assertEquals(Long.valueOf(5000), activityInstance.getDurationInMillis());
+    }
+
+    List<HistoricTaskInstance> taskInstances = historyService.createHistoricTaskInstanceQuery().list();
+    assertEquals(3, taskInstances.size());
+    for (HistoricTaskInstance taskInstance : taskInstances) {
+      assertEquals(new Date(1000), taskInstance.getStartTime());
+      assertEquals(Long.valueOf(5000), taskInstance.getDurationInMillis());
+    }
+  }
+
+  @Test
+  public void shouldUpdateScopeWithoutEnding() {
+    // given
+    testRule.deploy(PROCESS);
+    ClockUtil.setCurrentTime(new Date(1000));
+    runtimeService.startProcessInstanceByKey("process");
+    Task task = taskService.createTaskQuery().singleResult();
+
+    // when the task is updated without ending
+    ClockUtil.setCurrentTime(new Date(3000));
+    taskService.setAssignee(task.getId(), "kermit");
+
+    // then the start time is kept
+    HistoricTaskInstance taskInstance = historyService.createHistoricTaskInstanceQuery().singleResult();
+    assertEquals("kermit", taskInstance.getAssignee());
+    assertEquals(new Date(1000), taskInstance.getStartTime());
+    assertNull(taskInstance.getDurationInMillis());
+
+    HistoricActivityInstance activityInstance = historyService.createHistoricActivityInstanceQuery().activityId("task").singleResult();
+    assertEquals("kermit", activityInstance.getAssignee());
+    assertEquals(new Date(1000), activityInstance.getStartTime());
+
+    // and the duration is calculated once it ends
+    ClockUtil.setCurrentTime(new Date(4000));
+    taskService.complete(task.getId());
+
+    taskInstance = historyService.createHistoricTaskInstanceQuery().singleResult();
+    assertEquals(Long.valueOf(3000), taskInstance.getDurationInMillis());
+  }
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobExecutorPushLocalJobsTest {
+
+  protected static final BpmnModelInstance ASYNC_PROCESS = Bpmn.createExecutableProcess("asyncProcess")
+    .startEvent()
+    .userTask("userTask")
+    .serviceTask("serviceTask")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .endEvent()
+    .done();
+
+  protected static final BpmnModelInstance PARALLEL_ASYNC_PROCESS = Bpmn.createExecutableProcess("parallelAsyncProcess")
+    .startEvent()
+    .parallelGateway("fork")
+      .serviceTask("serviceTask1")
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+    .moveToNode("fork")
+      .serviceTask("serviceTask2")
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+    .done();
+
+  protected static final BpmnModelInstance ASYNC_CHAIN_PROCESS = Bpmn.createExecutableProcess("asyncChainProcess")
+    .startEvent()
+      .camundaAsyncBefore()
+    .serviceTask()
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .serviceTask()
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .endEvent()
+    .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  protected JobExecutor defaultJobExecutor;
+  protected RecordingJobExecutor jobExecutor;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+
+    defaultJobExecutor = processEngineConfiguration.getJobExecutor();
+    jobExecutor = new RecordingJobExecutor();
+    jobExecutor.registerProcessEngine((ProcessEngineImpl) engineRule.getProcessEngine());
+    processEngineConfiguration.setJobExecutor(jobExecutor);
+
+    processEngineConfiguration.setJobExecutorPushLocalJobs(true);
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setJobExecutor(defaultJobExecutor);
+    processEngineConfiguration.setJobExecutorPushLocalJobs(false);
+  }
+
+  @Test
+  public void shouldPushLockedJobAfterCommit() {
+    // given
+    testRule.deploy(ASYNC_PROCESS);
+    runtimeService.startProcessInstanceByKey("asyncProcess");
+    String taskId = engineRule.getTaskService().createTaskQuery().singleResult().getId();
+
+    // when
+    engineRule.getTaskService().complete(taskId);
+
+    // then the job is locked and handed to the job executor
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertEquals(jobExecutor.getLockOwner(), job.getLockOwner());
+    assertNotNull(job.getLockExpirationTime());
+
+    assertEquals(1, jobExecutor.executedJobIds.size());
+    assertEquals(job.getId(), jobExecutor.executedJobIds.get(0));
+    assertEquals(0, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldNotifyAcquisitionIfDisabled() {
+    // given
+    processEngineConfiguration.setJobExecutorPushLocalJobs(false);
+    testRule.deploy(ASYNC_PROCESS);
+    runtimeService.startProcessInstanceByKey("asyncProcess");
+    String taskId = engineRule.getTaskService().createTaskQuery().singleResult().getId();
+
+    // when
+    engineRule.getTaskService().complete(taskId);
+
+    // then
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertNull(job.getLockOwner());
+
+    assertTrue(jobExecutor.executedJobIds.isEmpty());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldPushOneExclusiveJobPerProcessInstance() {
+    // given
+    testRule.deploy(PARALLEL_ASYNC_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("parallelAsyncProcess");
+
+    // then only one of the exclusive jobs is handed to the job executor
+    assertEquals(1, jobExecutor.executedJobIds.size());
+    assertEquals(1, jobExecutor.jobsAdded);
+    assertEquals(2, managementService.createJobQuery().count());
+    assertEquals(1, countUnlockedJobs());
+  }
+
+  @Test
+  public void shouldNotPushExclusiveJobIfProcessInstanceHasLockedExclusiveJob() {
+    // given a process instance with a locked exclusive job
+    testRule.deploy(PARALLEL_ASYNC_PROCESS);
+    processEngineConfiguration.setJobExecutorPushLocalJobs(false);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("parallelAsyncProcess");
+    processEngineConfiguration.setJobExecutorPushLocalJobs(true);
+
+    Job job = managementService.createJobQuery().activityId("serviceTask1").singleResult();
+    lockJob(job.getId());
+
+    // when another exclusive job is created in the process instance
+    runtimeService.createProcessInstanceModification(processInstance.getId())
+      .startBeforeActivity("serviceTask1")
+      .execute();
+
+    // then it is left to the acquisition
+    assertTrue(jobExecutor.executedJobIds.isEmpty());
+  }
+
+  @Test
+  public void shouldPushNonExclusiveJobs() {
+    // given
+    testRule.deploy(Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .serviceTask("serviceTask1")
+          .camundaAsyncBefore()
+          .camundaExclusive(false)
+          .camundaExpression("${true}")
+        .endEvent()
+      .moveToNode("fork")
+        .serviceTask("serviceTask2")
+          .camundaAsyncBefore()
+          .camundaExclusive(false)
+          .camundaExpression("${true}")
+        .endEvent()
+      .done());
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertEquals(2, jobExecutor.executedJobIds.size());
+    assertEquals(0, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldExecuteAsyncChainWithoutAcquisition() {
+    // given
+    processEngineConfiguration.setJobExecutor(defaultJobExecutor);
+    testRule.deploy(ASYNC_CHAIN_PROCESS);
+
+    defaultJobExecutor.start();
+    try {
+      // when
+      ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("asyncChainProcess");
+
+      // then
+      waitForProcessInstanceToEnd(processInstance.getId(), 10000);
+    }
+    finally {
+      defaultJobExecutor.shutdown();
+    }
+
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+
+  protected long countUnlockedJobs() {
+    long unlockedJobs = 0;
+    for (Job job : managementService.createJobQuery().list()) {
+      if (((JobEntity) job).getLockOwner() == null) {
+        unlockedJobs++;
+      }
+    }
+    return unlockedJobs;
+  }
+
+  protected void lockJob(final String jobId) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        JobEntity job = commandContext.getJobManager().findJobById(jobId);
+        job.setLockOwner("anotherJobExecutor");
+        job.setLockExpirationTime(new Date(ClockUtil.getCurrentTime().getTime() + 60000));
+        return null;
+      }
+    });
+  }
+
+  protected void waitForProcessInstanceToEnd(String processInstanceId, long maxMillisToWait) {
+    long deadline = System.currentTimeMillis() + maxMillisToWait;
+    while (runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).count() > 0) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("process instance did not end within " + maxMillisToWait + "ms");
+      }
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  public static class RecordingJobExecutor extends JobExecutor {
+
+    protected List<String> executedJobIds = new ArrayList<String>();
+    protected int jobsAdded = 0;
+
+    @Override
+    public boolean isActive() {
+      return true;
+    }
+
+    protected void startExecutingJobs() {
+      // do nothing
+    }
+
+    protected void stopExecutingJobs() {
+      // do nothing
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      executedJobIds.addAll(jobIds);
+    }
+
+    public void jobWasAdded() {
+      jobsAdded++;
+    }
+  }
+
+}
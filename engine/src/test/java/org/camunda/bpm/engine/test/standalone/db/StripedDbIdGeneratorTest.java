@@ -0,0 +1,341 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.impl.db.IdBlock;
+import org.camunda.bpm.engine.impl.db.StripedDbIdGenerator;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedDbIdGeneratorTest {
+
+  protected static final int ID_BLOCK_SIZE = 10;
+
+  protected IdBlockCommandExecutor commandExecutor;
+  protected DeferredExecutor prefetchExecutor;
+  protected StripedDbIdGenerator idGenerator;
+
+  @Before
+  public void setUp() {
+    commandExecutor = new IdBlockCommandExecutor();
+
+    idGenerator = new StripedDbIdGenerator();
+    idGenerator.setIdBlockSize(ID_BLOCK_SIZE);
+    idGenerator.setCommandExecutor(commandExecutor);
+
+    // prefetches run once the test triggers them
+    prefetchExecutor = new DeferredExecutor();
+    idGenerator.setPrefetchExecutor(prefetchExecutor);
+  }
+
+  @Test
+  public void shouldPrefetchNextBlock() {
+    // when drawing the id in the middle of the first block
+    for (int i = 0; i < ID_BLOCK_SIZE / 2; i++) {
+      idGenerator.getNextId();
+    }
+
+    // then the fetch of the next block is handed to the prefetch executor
+    assertEquals(1, commandExecutor.fetchedBlocks);
+    assertEquals(1, prefetchExecutor.runAll());
+
+    // and the next block has been fetched
+    assertEquals(2, commandExecutor.fetchedBlocks);
+
+    // and the prefetched block is used once the first block is exhausted
+    for (int i = ID_BLOCK_SIZE / 2; i < ID_BLOCK_SIZE + 1; i++) {
+      assertEquals(Integer.toString(i), idGenerator.getNextId());
+    }
+    assertEquals(2, commandExecutor.fetchedBlocks);
+  }
+
+  @Test
+  public void shouldNotPrefetchIfDisabled() {
+    // given
+    idGenerator.setPrefetch(false);
+
+    // when
+    for (int i = 0; i < ID_BLOCK_SIZE; i++) {
+      idGenerator.getNextId();
+    }
+
+    // then
+    assertEquals(1, commandExecutor.fetchedBlocks);
+    assertEquals(0, prefetchExecutor.runAll());
+  }
+
+  @Test
+  public void shouldFetchBlockIfPrefetchHasNotCompleted() {
+    // when the first block is exhausted before the prefetch runs
+    for (int i = 0; i < ID_BLOCK_SIZE; i++) {
+      idGenerator.getNextId();
+    }
+    assertEquals(Integer.toString(ID_BLOCK_SIZE), idGenerator.getNextId());
+
+    // then the block is fetched synchronously
+    assertEquals(2, commandExecutor.fetchedBlocks);
+
+    // and the block prefetched afterwards is used next
+    prefetchExecutor.runAll();
+    for (int i = ID_BLOCK_SIZE + 1; i < 2 * ID_BLOCK_SIZE; i++) {
+      idGenerator.getNextId();
+    }
+    assertEquals(Integer.toString(2 * ID_BLOCK_SIZE), idGenerator.getNextId());
+    assertEquals(3, commandExecutor.fetchedBlocks);
+  }
+
+  @Test
+  public void shouldDiscardBlockPrefetchedBeforeReset() {
+    // given a prefetch which has not run yet
+    for (int i = 0; i < ID_BLOCK_SIZE / 2; i++) {
+      idGenerator.getNextId();
+    }
+
+    // when
+    idGenerator.reset();
+    prefetchExecutor.runAll();
+
+    // then the prefetched block is not used
+    assertEquals(Integer.toString(2 * ID_BLOCK_SIZE), idGenerator.getNextId());
+    assertEquals(3, commandExecutor.fetchedBlocks);
+  }
+
+  @Test
+  public void shouldFetchBlockIfPrefetchFailed() {
+    // given
+    commandExecutor.failingBlock = 2;
+
+    // when the prefetch fails
+    for (int i = 0; i < ID_BLOCK_SIZE; i++) {
+      assertEquals(Integer.toString(i), idGenerator.getNextId());
+    }
+    prefetchExecutor.runAll();
+
+    // then the block is fetched once it is needed
+    assertEquals(Integer.toString(ID_BLOCK_SIZE), idGenerator.getNextId());
+    assertEquals(3, commandExecutor.fetchedBlocks);
+  }
+
+  @Test
+  public void shouldRetryFetchOnOptimisticLockingException() {
+    // given
+    commandExecutor.conflictingBlock = 1;
+
+    // when
+    String id = idGenerator.getNextId();
+
+    // then
+    assertEquals("0", id);
+    assertEquals(2, commandExecutor.fetchedBlocks);
+  }
+
+  @Test
+  public void shouldFetchNewBlockAfterReset() {
+    // given
+    idGenerator.getNextId();
+
+    // when
+    idGenerator.reset();
+
+    // then
+    assertEquals(Integer.toString(ID_BLOCK_SIZE), idGenerator.getNextId());
+  }
+
+  @Test
+  public void shouldDrawSeveralIdsFromStripe() {
+    // when
+    List<String> ids = idGenerator.getNextIds(3);
+
+    // then
+    assertEquals(Arrays.asList("0", "1", "2"), ids);
+    assertEquals(1, commandExecutor.fetchedBlocks);
+  }
+
+  @Test
+  public void shouldFetchDedicatedBlockForManyIds() {
+    // given
+    idGenerator.setPrefetch(false);
+    idGenerator.getNextId();
+
+    // when
+    List<String> ids = idGenerator.getNextIds(2 * ID_BLOCK_SIZE + 5);
+
+    // then the ids are taken from a single block
+    assertEquals(2 * ID_BLOCK_SIZE + 5, ids.size());
+    assertEquals(Integer.toString(ID_BLOCK_SIZE), ids.get(0));
+    assertEquals(Integer.toString(3 * ID_BLOCK_SIZE + 4), ids.get(ids.size() - 1));
+    assertEquals(2, commandExecutor.fetchedBlocks);
+
+    // and the block of the stripe is still used
+    assertEquals("1", idGenerator.getNextId());
+  }
+
+  @Test
+  public void shouldCompleteCurrentBlockWithSingleFetch() {
+    // given
+    DbIdGenerator dbIdGenerator = new DbIdGenerator();
+    dbIdGenerator.setIdBlockSize(ID_BLOCK_SIZE);
+    dbIdGenerator.setCommandExecutor(commandExecutor);
+    dbIdGenerator.getNextId();
+
+    // when
+    List<String> ids = dbIdGenerator.getNextIds(2 * ID_BLOCK_SIZE);
+
+    // then the remaining ids of the current block are used first
+    assertEquals(2 * ID_BLOCK_SIZE, ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      assertEquals(Integer.toString(i + 1), ids.get(i));
+    }
+    assertEquals(2, commandExecutor.fetchedBlocks);
+
+    // and the next id is taken from a new block
+    assertEquals(Integer.toString(2 * ID_BLOCK_SIZE + 1), dbIdGenerator.getNextId());
+  }
+
+  @Test
+  public void shouldGenerateUniqueIdsConcurrently() throws Exception {
+    // given
+    idGenerator.setStripes(4);
+    idGenerator.setPrefetchExecutor(null);
+    final int idsPerThread = 1000;
+    int numberOfThreads = 16;
+
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+      for (int i = 0; i < numberOfThreads; i++) {
+        futures.add(executorService.submit(new Callable<List<String>>() {
+          public List<String> call() {
+            List<String> ids = new ArrayList<String>();
+            for (int j = 0; j < idsPerThread; j++) {
+              ids.add(idGenerator.getNextId());
+            }
+            return ids;
+          }
+        }));
+      }
+
+      // when
+      Set<String> ids = new HashSet<String>();
+      for (Future<List<String>> future : futures) {
+        ids.addAll(future.get(30, TimeUnit.SECONDS));
+      }
+
+      // then
+      assertEquals(numberOfThreads * idsPerThread, ids.size());
+    }
+    finally {
+      executorService.shutdownNow();
+      idGenerator.close();
+    }
+  }
+
+  @Test
+  public void shouldShutDownDefaultPrefetchExecutorOnClose() {
+    // given a prefetch by the default prefetch executor
+    idGenerator.setPrefetchExecutor(null);
+    for (int i = 0; i < ID_BLOCK_SIZE / 2; i++) {
+      idGenerator.getNextId();
+    }
+    ExecutorService defaultPrefetchExecutor = (ExecutorService) idGenerator.getPrefetchExecutor();
+
+    // when
+    idGenerator.close();
+
+    // then
+    assertTrue(defaultPrefetchExecutor.isShutdown());
+    assertNull(idGenerator.getPrefetchExecutor());
+  }
+
+  @Test
+  public void shouldNotShutDownPrefetchExecutorSetFromOutside() {
+    // when
+    idGenerator.close();
+
+    // then
+    assertSame(prefetchExecutor, idGenerator.getPrefetchExecutor());
+  }
+
+  protected static class DeferredExecutor implements Executor {
+
+    protected List<Runnable> tasks = new ArrayList<Runnable>();
+
+    public synchronized void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    public synchronized int runAll() {
+      List<Runnable> pendingTasks = tasks;
+      tasks = new ArrayList<Runnable>();
+      for (Runnable task : pendingTasks) {
+        task.run();
+      }
+      return pendingTasks.size();
+    }
+  }
+
+  protected static class IdBlockCommandExecutor implements CommandExecutor {
+
+    protected long nextId = 0;
+    protected int fetchedBlocks = 0;
+    protected int failingBlock = -1;
+    protected int conflictingBlock = -1;
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T execute(Command<T> command) {
+      if (!(command instanceof GetNextIdBlockCmd)) {
+        throw new IllegalArgumentException("Unexpected command " + command);
+      }
+
+      fetchedBlocks++;
+      if (fetchedBlocks == failingBlock) {
+        throw new ProcessEngineException("cannot fetch id block");
+      }
+      if (fetchedBlocks == conflictingBlock) {
+        throw new OptimisticLockingException("next.dbid was updated by another transaction concurrently");
+      }
+
+      int idBlockSize = ((GetNextIdBlockCmd) command).getIdBlockSize();
+      IdBlock idBlock = new IdBlock(nextId, nextId + idBlockSize - 1);
+      nextId += idBlockSize;
+      return (T) idBlock;
+    }
+  }
+
+}
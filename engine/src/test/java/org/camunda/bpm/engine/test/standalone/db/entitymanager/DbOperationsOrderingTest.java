@@ -18,6 +18,7 @@ package org.camunda.bpm.engine.test.standalone.db.entitymanager;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
@@ -216,6 +217,61 @@ public class DbOperationsOrderingTest {
     assertHappensBefore(execution1, execution2, deleteOperations);
   }
 
+  @Test
+  public void testDeleteReferenceOrderingMultipleChildren() {
+    // given
+    execution1.setParentExecution(execution3);
+    execution2.setParentExecution(execution3);
+    execution4.setParentExecution(execution1);
+    entityManager.getDbEntityCache().putPersistent(execution1);
+    entityManager.getDbEntityCache().putPersistent(execution2);
+    entityManager.getDbEntityCache().putPersistent(execution3);
+    entityManager.getDbEntityCache().putPersistent(execution4);
+
+    // when deleting the entities
+    entityManager.delete(execution3);
+    entityManager.delete(execution2);
+    entityManager.delete(execution1);
+    entityManager.delete(execution4);
+
+    entityManager.flushEntityCache();
+
+    // then all children are deleted before their parents
+    List<DbOperation> deleteOperations = entityManager.getDbOperationManager().calculateFlush();
+    assertHappensBefore(execution1, execution3, deleteOperations);
+    assertHappensBefore(execution2, execution3, deleteOperations);
+    assertHappensBefore(execution4, execution1, deleteOperations);
+  }
+
+  @Test
+  public void testInsertReferenceOrderingLongChain() {
+    int numberOfExecutions = 10000;
+
+    // given a chain in which each execution is the parent of the execution with the next lower id
+    List<ExecutionEntity> executions = new ArrayList<ExecutionEntity>();
+    for (int i = 0; i < numberOfExecutions; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId(String.format("%05d", i));
+      executions.add(execution);
+    }
+    for (int i = 0; i < numberOfExecutions - 1; i++) {
+      executions.get(i).setParentExecution(executions.get(i + 1));
+    }
+
+    for (ExecutionEntity execution : executions) {
+      entityManager.insert(execution);
+    }
+    entityManager.flushEntityCache();
+
+    // then the parents are inserted first
+    List<DbOperation> insertOperations = entityManager.getDbOperationManager().calculateFlush();
+    assertEquals(numberOfExecutions, insertOperations.size());
+    for (int i = 0; i < numberOfExecutions; i++) {
+      ExecutionEntity execution = executions.get(numberOfExecutions - 1 - i);
+      assertEquals(execution, ((DbEntityOperation) insertOperations.get(i)).getEntity());
+    }
+  }
+
   protected void assertHappensAfter(DbEntity entity1, DbEntity entity2, List<DbOperation> operations) {
     int idx1 = indexOfEntity(entity1, operations);
     int idx2 = indexOfEntity(entity2, operations);
@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.deploy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheDeployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ProcessDefinitionCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Resolving a definition which is missing in the deployment cache
+ * must only block threads resolving the same definition.
+ */
+public class ResourceDefinitionCacheLoadingTest {
+
+  protected BlockingProcessDefinitionCache cache;
+  protected ExecutorService executorService;
+
+  @Before
+  public void setUp() {
+    cache = new BlockingProcessDefinitionCache();
+    executorService = Executors.newFixedThreadPool(3);
+  }
+
+  @After
+  public void tearDown() {
+    cache.deploymentLatch.countDown();
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void shouldDeployDefinitionOnceForConcurrentResolvers() throws Exception {
+    // given a thread deploying the definition
+    Future<ProcessDefinitionEntity> firstResolver = executorService.submit(resolve(definition("aKey:1:1")));
+    assertTrue(cache.deploymentStarted.await(10, TimeUnit.SECONDS));
+
+    // when another thread resolves the same definition
+    Future<ProcessDefinitionEntity> secondResolver = executorService.submit(resolve(definition("aKey:1:1")));
+    assertTrue(cache.waitingStarted.await(10, TimeUnit.SECONDS));
+    cache.deploymentLatch.countDown();
+
+    // then both get the definition deployed once
+    ProcessDefinitionEntity firstDefinition = firstResolver.get(10, TimeUnit.SECONDS);
+    ProcessDefinitionEntity secondDefinition = secondResolver.get(10, TimeUnit.SECONDS);
+    assertSame(firstDefinition, secondDefinition);
+    assertEquals(1, cache.deployments.get());
+  }
+
+  @Test
+  public void shouldNotBlockResolversOfOtherCachedDefinitions() throws Exception {
+    // given a thread blocked in deploying a definition
+    executorService.submit(resolve(definition("aKey:1:1")));
+    assertTrue(cache.deploymentStarted.await(10, TimeUnit.SECONDS));
+
+    // when another definition is already cached
+    ProcessDefinitionEntity otherDefinition = definition("otherKey:1:2");
+    cache.addDefinition(otherDefinition);
+
+    // then it can be resolved while the first one is still deploying
+    ProcessDefinitionEntity resolvedDefinition = executorService.submit(resolve(definition("otherKey:1:2"))).get(10, TimeUnit.SECONDS);
+    assertSame(otherDefinition, resolvedDefinition);
+  }
+
+  @Test
+  public void shouldNotBlockResolversOfOtherDefinitions() throws Exception {
+    // given a thread blocked in deploying a definition
+    Future<ProcessDefinitionEntity> firstResolver = executorService.submit(resolve(definition("aKey:1:1")));
+    assertTrue(cache.deploymentStarted.await(10, TimeUnit.SECONDS));
+
+    // when another thread resolves a different definition which is not cached either
+    ProcessDefinitionEntity otherDefinition = executorService.submit(resolve(definition("otherKey:1:2"))).get(10, TimeUnit.SECONDS);
+
+    // then it is deployed while the first one is still deploying
+    assertEquals("otherKey:1:2", otherDefinition.getId());
+    assertEquals(2, cache.deployments.get());
+    assertFalse(firstResolver.isDone());
+
+    // and the first one completes afterwards
+    cache.deploymentLatch.countDown();
+    assertEquals("aKey:1:1", firstResolver.get(10, TimeUnit.SECONDS).getId());
+  }
+
+  @Test
+  public void shouldResolveDefinitionWhileDeployingItInSameThread() throws Exception {
+    // given a definition whose deployment resolves the definition again,
+    // e.g. a process with a call activity calling itself
+    cache.deploymentLatch.countDown();
+    cache.reentrantDefinitionId = "aKey:1:1";
+
+    // when
+    ProcessDefinitionEntity definition = executorService.submit(resolve(definition("aKey:1:1"))).get(10, TimeUnit.SECONDS);
+
+    // then the nested resolution does not wait for the outer one
+    assertEquals("aKey:1:1", definition.getId());
+    assertEquals(2, cache.deployments.get());
+  }
+
+  @Test
+  public void shouldResolveDefinitionsLoadingEachOtherInDifferentThreads() throws Exception {
+    // given two definitions whose deployments resolve each other
+    cache.deploymentLatch.countDown();
+    cache.nestedDefinitionIds.put("aKey:1:1", "otherKey:1:2");
+    cache.nestedDefinitionIds.put("otherKey:1:2", "aKey:1:1");
+    cache.nestedLoadsStarted = new CountDownLatch(2);
+
+    // when both are resolved at the same time
+    Future<ProcessDefinitionEntity> firstResolver = executorService.submit(resolve(definition("aKey:1:1")));
+    Future<ProcessDefinitionEntity> secondResolver = executorService.submit(resolve(definition("otherKey:1:2")));
+
+    // then the nested resolutions do not wait for each other
+    assertEquals("aKey:1:1", firstResolver.get(10, TimeUnit.SECONDS).getId());
+    assertEquals("otherKey:1:2", secondResolver.get(10, TimeUnit.SECONDS).getId());
+  }
+
+  @Test
+  public void shouldPropagateDeploymentFailureToWaitingResolvers() throws Exception {
+    // given a thread deploying a definition which fails
+    cache.failDeployment = true;
+    Future<ProcessDefinitionEntity> firstResolver = executorService.submit(resolve(definition("aKey:1:1")));
+    assertTrue(cache.deploymentStarted.await(10, TimeUnit.SECONDS));
+
+    Future<ProcessDefinitionEntity> secondResolver = executorService.submit(resolve(definition("aKey:1:1")));
+    assertTrue(cache.waitingStarted.await(10, TimeUnit.SECONDS));
+    cache.deploymentLatch.countDown();
+
+    // then both resolvers fail
+    assertFailedWithProcessEngineException(firstResolver);
+    assertFailedWithProcessEngineException(secondResolver);
+    assertEquals(1, cache.deployments.get());
+  }
+
+  protected void assertFailedWithProcessEngineException(Future<ProcessDefinitionEntity> resolver) throws Exception {
+    try {
+      resolver.get(10, TimeUnit.SECONDS);
+      fail("exception expected");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ProcessEngineException);
+    }
+  }
+
+  protected Callable<ProcessDefinitionEntity> resolve(final ProcessDefinitionEntity definition) {
+    return new Callable<ProcessDefinitionEntity>() {
+      public ProcessDefinitionEntity call() throws Exception {
+        return cache.resolveDefinition(definition);
+      }
+    };
+  }
+
+  protected static ProcessDefinitionEntity definition(String id) {
+    ProcessDefinitionEntity definition = new ProcessDefinitionEntity();
+    definition.setId(id);
+    definition.setKey(id.substring(0, id.indexOf(':')));
+    definition.setDeploymentId("aDeploymentId");
+    return definition;
+  }
+
+  public static class BlockingProcessDefinitionCache extends ProcessDefinitionCache {
+
+    protected CountDownLatch deploymentStarted = new CountDownLatch(1);
+    protected CountDownLatch deploymentLatch = new CountDownLatch(1);
+    protected CountDownLatch waitingStarted = new CountDownLatch(1);
+    protected volatile CountDownLatch nestedLoadsStarted = new CountDownLatch(0);
+    protected Map<String, String> nestedDefinitionIds = new ConcurrentHashMap<String, String>();
+    protected AtomicInteger deployments = new AtomicInteger();
+    protected volatile boolean failDeployment = false;
+    protected volatile String blockingDefinitionId = "aKey:1:1";
+    protected volatile String reentrantDefinitionId;
+    protected AtomicBoolean reentered = new AtomicBoolean(false);
+
+    public BlockingProcessDefinitionCache() {
+      super(new DefaultCacheFactory(), 10, new CacheDeployer());
+    }
+
+    @Override
+    protected void deployDefinition(ProcessDefinitionEntity definition) {
+      deployments.incrementAndGet();
+
+      if (definition.getId().equals(blockingDefinitionId)) {
+        deploymentStarted.countDown();
+        try {
+          deploymentLatch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      if (definition.getId().equals(reentrantDefinitionId) && reentered.compareAndSet(false, true)) {
+        resolveDefinition(definition(definition.getId()));
+      }
+
+      String nestedDefinitionId = nestedDefinitionIds.remove(definition.getId());
+      if (nestedDefinitionId != null) {
+        // both threads are loading before they resolve the other definition
+        nestedLoadsStarted.countDown();
+        try {
+          nestedLoadsStarted.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        resolveDefinition(definition(nestedDefinitionId));
+      }
+
+      if (failDeployment) {
+        throw new ProcessEngineException("deployment failed");
+      }
+
+      addDefinition(definition(definition.getId()));
+    }
+
+    @Override
+    protected ProcessDefinitionEntity getLoadedDefinition(String definitionId, FutureTask<ProcessDefinitionEntity> loadingTask) {
+      if (!loadingTask.isDone()) {
+        waitingStarted.countDown();
+      }
+      return super.getLoadedDefinition(definitionId, loadingTask);
+    }
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepBehavior;
+
+/**
+ * Calculates the flush order of a chain of self-referencing executions. The
+ * references are chosen such that every operation has to be reordered against
+ * the pre-sorted id order, which is the worst case for the flush calculation.
+ *
+ * <p>The operations are created once, calculating the flush does not modify them.</p>
+ */
+public class CalculateFlushStep implements PerfTestStepBehavior {
+
+  protected DbOperationManager operationManager;
+
+  public CalculateFlushStep(int numberOfOperations, DbOperationType operationType) {
+    operationManager = new DbOperationManager();
+
+    for (int i = 0; i < numberOfOperations; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId(executionId(i));
+
+      if (operationType == DbOperationType.INSERT) {
+        // a referenced execution has to be inserted first
+        if (i + 1 < numberOfOperations) {
+          execution.setParentId(executionId(i + 1));
+        }
+      } else {
+        // a referencing execution has to be updated or deleted first
+        if (i > 0) {
+          execution.setParentId(executionId(i - 1));
+        }
+      }
+
+      DbEntityOperation operation = new DbEntityOperation();
+      operation.setEntity(execution);
+      operation.setOperationType(operationType);
+      operation.setFlushRelevantEntityReferences(execution.getReferencedEntityIds());
+      operationManager.addOperation(operation);
+    }
+  }
+
+  protected String executionId(int index) {
+    return String.format("%010d", index);
+  }
+
+  public void execute(PerfTestRunContext context) {
+    operationManager.calculateFlush();
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Fetches and locks a number of external tasks and completes them. The
+ * process instances waiting at the external tasks have to be started
+ * before the performance test, so that only fetching and completing is
+ * measured. Concurrent runs act as concurrent workers.
+ */
+public class FetchAndLockExternalTasksStep extends ProcessEngineAwareStep {
+
+  protected static final long LOCK_DURATION = 60000L;
+
+  protected ExternalTaskService externalTaskService;
+  protected String topicName;
+  protected int maxTasksPerFetch;
+
+  public FetchAndLockExternalTasksStep(ProcessEngine processEngine, String topicName, int maxTasksPerFetch) {
+    super(processEngine);
+    this.externalTaskService = processEngine.getExternalTaskService();
+    this.topicName = topicName;
+    this.maxTasksPerFetch = maxTasksPerFetch;
+  }
+
+  public void execute(PerfTestRunContext context) {
+    String workerId = Thread.currentThread().getName();
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(maxTasksPerFetch, workerId, true)
+      .topic(topicName, LOCK_DURATION)
+      .execute();
+
+    for (LockedExternalTask externalTask : externalTasks) {
+      externalTaskService.complete(externalTask.getId(), workerId);
+    }
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepBehavior;
+
+/**
+ * Draws ids from a shared id generator with a number of concurrent threads.
+ */
+public class GenerateIdsStep implements PerfTestStepBehavior {
+
+  protected IdGenerator idGenerator;
+  protected int numberOfThreads;
+  protected int idsPerThread;
+
+  public GenerateIdsStep(IdGenerator idGenerator, int numberOfThreads, int idsPerThread) {
+    this.idGenerator = idGenerator;
+    this.numberOfThreads = numberOfThreads;
+    this.idsPerThread = idsPerThread;
+  }
+
+  public void execute(PerfTestRunContext context) {
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < numberOfThreads; i++) {
+        futures.add(executorService.submit(new Callable<Void>() {
+          public Void call() {
+            for (int j = 0; j < idsPerThread; j++) {
+              idGenerator.getNextId();
+            }
+            return null;
+          }
+        }));
+      }
+
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException(e);
+    }
+    catch (ExecutionException e) {
+      throw new ProcessEngineException(e.getCause());
+    }
+    finally {
+      executorService.shutdownNow();
+    }
+  }
+
+}
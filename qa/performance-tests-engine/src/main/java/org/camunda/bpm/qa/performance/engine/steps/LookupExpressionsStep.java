@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.juel.Builder;
+import org.camunda.bpm.engine.impl.juel.TreeCache;
+import org.camunda.bpm.engine.impl.juel.TreeStore;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepBehavior;
+
+/**
+ * Looks up parsed expressions in a shared tree cache with a number of concurrent threads.
+ */
+public class LookupExpressionsStep implements PerfTestStepBehavior {
+
+  protected TreeStore treeStore;
+  protected List<String> expressions;
+  protected int numberOfThreads;
+  protected int lookupsPerThread;
+
+  public LookupExpressionsStep(TreeCache treeCache, int numberOfExpressions, int numberOfThreads, int lookupsPerThread) {
+    this.treeStore = new TreeStore(new Builder(), treeCache);
+    this.numberOfThreads = numberOfThreads;
+    this.lookupsPerThread = lookupsPerThread;
+
+    expressions = new ArrayList<String>(numberOfExpressions);
+    for (int i = 0; i < numberOfExpressions; i++) {
+      String expression = "${var" + i + " > " + i + " && not empty name" + i + "}";
+      expressions.add(expression);
+      // the expressions are parsed before the lookups are measured
+      treeStore.get(expression);
+    }
+  }
+
+  public void execute(PerfTestRunContext context) {
+    ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < numberOfThreads; i++) {
+        final int offset = i;
+        futures.add(executorService.submit(new Callable<Void>() {
+          public Void call() {
+            int numberOfExpressions = expressions.size();
+            for (int j = 0; j < lookupsPerThread; j++) {
+              treeStore.get(expressions.get((offset + j) % numberOfExpressions));
+            }
+            return null;
+          }
+        }));
+      }
+
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException(e);
+    }
+    catch (ExecutionException e) {
+      throw new ProcessEngineException(e.getCause());
+    }
+    finally {
+      executorService.shutdownNow();
+    }
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import java.util.Map;
+
+import org.camunda.bpm.application.ProcessApplicationReference;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.repository.ProcessApplicationDeploymentBuilder;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Deploys a set of resources as a process application deployment with
+ * duplicate filtering enabled, the way a process application does when
+ * a node of a cluster starts up.
+ */
+public class RedeployProcessesStep extends ProcessEngineAwareStep {
+
+  protected ProcessApplicationReference processApplication;
+  protected String deploymentName;
+  protected Map<String, String> resources;
+
+  public RedeployProcessesStep(ProcessEngine processEngine, ProcessApplicationReference processApplication,
+      String deploymentName, Map<String, String> resources) {
+    super(processEngine);
+    this.processApplication = processApplication;
+    this.deploymentName = deploymentName;
+    this.resources = resources;
+  }
+
+  public void execute(PerfTestRunContext context) {
+    ProcessApplicationDeploymentBuilder deploymentBuilder = repositoryService
+      .createDeployment(processApplication)
+      .name(deploymentName)
+      .enableDuplicateFiltering(false)
+      .resumePreviousVersions();
+
+    for (Map.Entry<String, String> resource : resources.entrySet()) {
+      deploymentBuilder.addString(resource.getKey(), resource.getValue());
+    }
+
+    deploymentBuilder.deploy();
+  }
+
+}
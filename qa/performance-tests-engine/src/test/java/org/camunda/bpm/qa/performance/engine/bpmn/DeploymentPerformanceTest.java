@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.bpmn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.application.ProcessApplicationReference;
+import org.camunda.bpm.application.impl.EmbeddedProcessApplication;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.RedeployProcessesStep;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the startup of a process application with 200 processes which
+ * have already been deployed by another node. The unchanged resources are
+ * filtered by their content hash and the keys to register the process
+ * application for are taken from the deployed process definitions.
+ */
+public class DeploymentPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final String DEPLOYMENT_NAME = "processApplication";
+  protected static final int NUMBER_OF_PROCESSES = 200;
+
+  protected ProcessApplicationReference processApplication;
+  protected Map<String, String> resources;
+
+  @Before
+  public void deployProcesses() {
+    processApplication = new EmbeddedProcessApplication().getReference();
+
+    resources = new HashMap<String, String>();
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      BpmnModelInstance process = Bpmn.createExecutableProcess("process" + i)
+        .startEvent()
+        .userTask()
+        .serviceTask()
+          .camundaExpression("${true}")
+        .exclusiveGateway()
+        .endEvent()
+        .done();
+
+      resources.put("process" + i + ".bpmn", Bpmn.convertToString(process));
+    }
+
+    // the initial deployment as performed by the first node
+    createRedeployStep().execute(null);
+  }
+
+  @After
+  public void deleteDeployments() {
+    for (Deployment deployment : repositoryService.createDeploymentQuery().deploymentName(DEPLOYMENT_NAME).list()) {
+      repositoryService.deleteDeployment(deployment.getId(), true);
+    }
+  }
+
+  @Test
+  public void redeployUnchangedProcesses() {
+    performanceTest()
+      .step(createRedeployStep())
+    .run();
+  }
+
+  protected RedeployProcessesStep createRedeployStep() {
+    return new RedeployProcessesStep(engine, processApplication, DEPLOYMENT_NAME, resources);
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.db;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.impl.db.StripedDbIdGenerator;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.GenerateIdsStep;
+import org.junit.Test;
+
+/**
+ * Draws ids with 64 concurrent threads, each id block is fetched
+ * from the database of the performance test engine.
+ */
+public class DbIdGeneratorPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final int NUMBER_OF_THREADS = 64;
+  protected static final int IDS_PER_THREAD = 1000;
+
+  @Test
+  public void dbIdGenerator64Threads() {
+    performanceTest()
+      .step(new GenerateIdsStep(createIdGenerator(new DbIdGenerator()), NUMBER_OF_THREADS, IDS_PER_THREAD))
+    .run();
+  }
+
+  @Test
+  public void prefetchingDbIdGenerator64Threads() {
+    StripedDbIdGenerator idGenerator = new StripedDbIdGenerator();
+    idGenerator.setPrefetch(true);
+
+    performanceTest()
+      .step(new GenerateIdsStep(createIdGenerator(idGenerator), NUMBER_OF_THREADS, IDS_PER_THREAD))
+    .run();
+  }
+
+  @Test
+  public void stripedPrefetchingDbIdGenerator64Threads() {
+    StripedDbIdGenerator idGenerator = new StripedDbIdGenerator();
+    idGenerator.setStripes(8);
+    idGenerator.setPrefetch(true);
+
+    performanceTest()
+      .step(new GenerateIdsStep(createIdGenerator(idGenerator), NUMBER_OF_THREADS, IDS_PER_THREAD))
+    .run();
+  }
+
+  protected DbIdGenerator createIdGenerator(DbIdGenerator idGenerator) {
+    ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) engine.getProcessEngineConfiguration();
+    idGenerator.setIdBlockSize(configuration.getIdBlockSize());
+    idGenerator.setCommandExecutor(configuration.getCommandExecutorTxRequiresNew());
+    return idGenerator;
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.db;
+
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.DELETE;
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
+
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.CalculateFlushStep;
+import org.junit.Test;
+
+/**
+ * Orders the flush of self-referencing executions, like it is done
+ * for large bulk commands (e.g. batch deletion or multi-instance).
+ */
+public class DbOperationOrderingPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  @Test
+  public void insert1000SelfReferencingExecutions() {
+    performanceTest()
+      .step(new CalculateFlushStep(1000, INSERT))
+    .run();
+  }
+
+  @Test
+  public void insert10000SelfReferencingExecutions() {
+    performanceTest()
+      .step(new CalculateFlushStep(10000, INSERT))
+    .run();
+  }
+
+  @Test
+  public void insert100000SelfReferencingExecutions() {
+    performanceTest()
+      .step(new CalculateFlushStep(100000, INSERT))
+    .run();
+  }
+
+  @Test
+  public void delete1000SelfReferencingExecutions() {
+    performanceTest()
+      .step(new CalculateFlushStep(1000, DELETE))
+    .run();
+  }
+
+  @Test
+  public void delete10000SelfReferencingExecutions() {
+    performanceTest()
+      .step(new CalculateFlushStep(10000, DELETE))
+    .run();
+  }
+
+  @Test
+  public void delete100000SelfReferencingExecutions() {
+    performanceTest()
+      .step(new CalculateFlushStep(100000, DELETE))
+    .run();
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.db;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestConfiguration;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.FetchAndLockExternalTasksStep;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Lets concurrent workers fetch, lock and complete external tasks. Each run
+ * fetches and completes one batch of external tasks. With the default fetch,
+ * workers which select the same external tasks fail to lock them. With
+ * <code>skip locked</code>, which is only used on PostgreSQL, Oracle and MySQL,
+ * they skip each other's external tasks.
+ */
+public class ExternalTaskFetchPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final String PROCESS_DEFINITION_KEY = "process";
+  protected static final String TOPIC_NAME = "topic";
+  protected static final int MAX_TASKS_PER_FETCH = 10;
+
+  protected ProcessEngineConfigurationImpl configuration;
+  protected String deploymentId;
+
+  @Before
+  public void deployProcess() {
+    configuration = (ProcessEngineConfigurationImpl) engine.getProcessEngineConfiguration();
+
+    BpmnModelInstance process = Bpmn.createExecutableProcess(PROCESS_DEFINITION_KEY)
+      .startEvent()
+      .serviceTask()
+        .camundaExternalTask(TOPIC_NAME)
+      .endEvent()
+      .done();
+
+    deploymentId = repositoryService.createDeployment()
+      .addModelInstance("process.bpmn", process)
+      .deploy()
+      .getId();
+  }
+
+  @After
+  public void cleanUp() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(false);
+    repositoryService.deleteDeployment(deploymentId, true);
+  }
+
+  @Test
+  public void defaultFetch() {
+    startProcessInstances();
+
+    performanceTest()
+      .step(new FetchAndLockExternalTasksStep(engine, TOPIC_NAME, MAX_TASKS_PER_FETCH))
+    .run();
+  }
+
+  @Test
+  public void skipLockedFetch() {
+    configuration.setSkipLockedExternalTaskFetchEnabled(true);
+    startProcessInstances();
+
+    performanceTest()
+      .step(new FetchAndLockExternalTasksStep(engine, TOPIC_NAME, MAX_TASKS_PER_FETCH))
+    .run();
+  }
+
+  /**
+   * Starts the process instances for all runs before the performance test,
+   * so that starting them is not measured. A pass is run for each number
+   * of threads up to the configured one.
+   */
+  protected void startProcessInstances() {
+    PerfTestConfiguration perfTestConfiguration = testConfigurationRule.getPerformanceTestConfiguration();
+    int numberOfTasks = perfTestConfiguration.getNumberOfThreads() * perfTestConfiguration.getNumberOfRuns() * MAX_TASKS_PER_FETCH;
+
+    for (int i = 0; i < numberOfTasks; i++) {
+      runtimeService.startProcessInstanceByKey(PROCESS_DEFINITION_KEY);
+    }
+  }
+
+}
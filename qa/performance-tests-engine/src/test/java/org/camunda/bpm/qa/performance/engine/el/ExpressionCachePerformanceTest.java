@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2012 - 2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.el;
+
+import org.camunda.bpm.engine.impl.juel.Cache;
+import org.camunda.bpm.engine.impl.juel.ConcurrentCache;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.LookupExpressionsStep;
+import org.junit.Test;
+
+/**
+ * Compares the synchronized {@link Cache} with the {@link ConcurrentCache} for parsed
+ * expressions, both holding all looked up expressions.
+ */
+public class ExpressionCachePerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final int CACHE_CAPACITY = 1000;
+  protected static final int NUMBER_OF_EXPRESSIONS = 500;
+  protected static final int NUMBER_OF_THREADS = 64;
+  protected static final int LOOKUPS_PER_THREAD = 200000;
+
+  @Test
+  public void cache64Threads() {
+    performanceTest()
+      .step(new LookupExpressionsStep(new Cache(CACHE_CAPACITY), NUMBER_OF_EXPRESSIONS, NUMBER_OF_THREADS, LOOKUPS_PER_THREAD))
+    .run();
+  }
+
+  @Test
+  public void concurrentCache64Threads() {
+    performanceTest()
+      .step(new LookupExpressionsStep(new ConcurrentCache(CACHE_CAPACITY), NUMBER_OF_EXPRESSIONS, NUMBER_OF_THREADS, LOOKUPS_PER_THREAD))
+    .run();
+  }
+
+}